@@ -161,6 +161,21 @@ public final class AdaptiveMediaAttribute<T, V> {
 		return _name;
 	}
 
+	/**
+	 * Returns the ordinal assigned to this attribute by the {@link
+	 * AdaptiveMediaAttributeRegistry}, or <code>-1</code> if this attribute
+	 * has not been registered.
+	 *
+	 * @return the attribute's ordinal
+	 */
+	public int getOrdinal() {
+		return _ordinal;
+	}
+
+	void setOrdinal(int ordinal) {
+		_ordinal = ordinal;
+	}
+
 	private static final AdaptiveMediaAttribute<?, String> _CONFIGURATION_UUID =
 		new AdaptiveMediaAttribute<>(
 			"configuration-uuid", (s) -> s, String::compareTo);
@@ -181,6 +196,16 @@ public final class AdaptiveMediaAttribute<T, V> {
 		_allowedAttributes = new HashMap<>();
 
 	static {
+		AdaptiveMediaAttributeRegistry.register(
+			_CONFIGURATION_UUID, AdaptiveMediaAttribute.class,
+			"_CONFIGURATION_UUID");
+		AdaptiveMediaAttributeRegistry.register(
+			_CONTENT_LENGTH, AdaptiveMediaAttribute.class, "_CONTENT_LENGTH");
+		AdaptiveMediaAttributeRegistry.register(
+			_CONTENT_TYPE, AdaptiveMediaAttribute.class, "_CONTENT_TYPE");
+		AdaptiveMediaAttributeRegistry.register(
+			_FILE_NAME, AdaptiveMediaAttribute.class, "_FILE_NAME");
+
 		_allowedAttributes.put(
 			AdaptiveMediaAttribute._CONFIGURATION_UUID.getName(),
 			AdaptiveMediaAttribute._CONFIGURATION_UUID);
@@ -198,5 +223,6 @@ public final class AdaptiveMediaAttribute<T, V> {
 	private final Comparator<V> _comparator;
 	private final Function<String, V> _converter;
 	private final String _name;
+	private volatile int _ordinal = -1;
 
 }
\ No newline at end of file
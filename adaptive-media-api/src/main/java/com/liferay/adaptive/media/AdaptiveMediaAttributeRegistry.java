@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns a small ordinal to the well-known {@link AdaptiveMediaAttribute}
+ * instances, so that they can be used as indexes of plain arrays instead of
+ * as hash map keys. Ordinals are assigned in registration order, starting at
+ * <code>0</code>, and belong to the registered instance, not to its name:
+ * attributes that have not been registered have no ordinal, even if they
+ * share the name of a registered one.
+ *
+ * <p>
+ * Attributes declared as constants should be registered with the class and
+ * name of the field that declares them. The ordinal is then kept for that
+ * field, so that the instances created again when the declaring bundle is
+ * restarted get the same ordinal instead of a new one.
+ * </p>
+ *
+ * <p>
+ * The registry does not keep a reference to the registered attributes nor
+ * to their declaring classes.
+ * </p>
+ *
+ * @author Sergio González
+ */
+public final class AdaptiveMediaAttributeRegistry {
+
+	/**
+	 * Returns the number of ordinals assigned so far. Every ordinal is lower
+	 * than this number, so it can be used as the length of an array indexed
+	 * by ordinal.
+	 *
+	 * @return the number of ordinals assigned so far
+	 */
+	public static synchronized int getOrdinalCount() {
+		return _ordinalCount;
+	}
+
+	/**
+	 * Assigns the next available ordinal to the attribute, unless the
+	 * attribute has already been registered.
+	 *
+	 * @param  attribute the attribute to register
+	 * @return the ordinal of the attribute
+	 */
+	public static synchronized int register(
+		AdaptiveMediaAttribute<?, ?> attribute) {
+
+		if (attribute == null) {
+			throw new IllegalArgumentException("Attribute cannot be null");
+		}
+
+		int ordinal = attribute.getOrdinal();
+
+		if (ordinal >= 0) {
+			return ordinal;
+		}
+
+		ordinal = _ordinalCount++;
+
+		attribute.setOrdinal(ordinal);
+
+		return ordinal;
+	}
+
+	/**
+	 * Assigns to the attribute the ordinal of the field that declares it,
+	 * unless the attribute has already been registered. The first attribute
+	 * registered for a field gets the next available ordinal.
+	 *
+	 * @param  attribute the attribute to register
+	 * @param  declaringClass the class that declares the attribute
+	 * @param  fieldName the name of the field that holds the attribute
+	 * @return the ordinal of the attribute
+	 */
+	public static synchronized int register(
+		AdaptiveMediaAttribute<?, ?> attribute, Class<?> declaringClass,
+		String fieldName) {
+
+		if (attribute == null) {
+			throw new IllegalArgumentException("Attribute cannot be null");
+		}
+
+		int ordinal = attribute.getOrdinal();
+
+		if (ordinal >= 0) {
+			return ordinal;
+		}
+
+		ordinal = _fieldOrdinals.computeIfAbsent(
+			declaringClass.getName() + "#" + fieldName,
+			key -> _ordinalCount++);
+
+		attribute.setOrdinal(ordinal);
+
+		return ordinal;
+	}
+
+	private AdaptiveMediaAttributeRegistry() {
+	}
+
+	private static final Map<String, Integer> _fieldOrdinals =
+		new HashMap<>();
+	private static int _ordinalCount;
+
+}
\ No newline at end of file
@@ -92,6 +92,32 @@ public class AdaptiveMediaImageConfigurationException extends Exception {
 
 	}
 
+	/**
+	 * This exception is raised when a condition on the source images is not
+	 * valid.
+	 *
+	 * @review
+	 */
+	public static final class InvalidConditionException
+		extends AdaptiveMediaImageConfigurationException {
+
+		public InvalidConditionException() {
+		}
+
+		public InvalidConditionException(String s) {
+			super(s);
+		}
+
+		public InvalidConditionException(String s, Throwable throwable) {
+			super(s, throwable);
+		}
+
+		public InvalidConditionException(Throwable throwable) {
+			super(throwable);
+		}
+
+	}
+
 	/**
 	 * This exception is raised when the height value is not valid.
 	 */
@@ -138,6 +164,32 @@ public class AdaptiveMediaImageConfigurationException extends Exception {
 
 	}
 
+	/**
+	 * This exception is raised when the scaling mode or the focal point of the
+	 * configuration is not valid.
+	 *
+	 * @review
+	 */
+	public static final class InvalidScalingException
+		extends AdaptiveMediaImageConfigurationException {
+
+		public InvalidScalingException() {
+		}
+
+		public InvalidScalingException(String s) {
+			super(s);
+		}
+
+		public InvalidScalingException(String s, Throwable throwable) {
+			super(s, throwable);
+		}
+
+		public InvalidScalingException(Throwable throwable) {
+			super(throwable);
+		}
+
+	}
+
 	public static final class
 		InvalidStateAdaptiveMediaImageConfigurationException
 			extends AdaptiveMediaImageConfigurationException {
@@ -263,4 +315,35 @@ public class AdaptiveMediaImageConfigurationException extends Exception {
 
 	}
 
+	/**
+	 * This exception is raised when the configuration has been modified since
+	 * the version a change was based on.
+	 *
+	 * @review
+	 */
+	public static final class
+		StaleVersionAdaptiveMediaImageConfigurationException
+			extends AdaptiveMediaImageConfigurationException {
+
+		public StaleVersionAdaptiveMediaImageConfigurationException() {
+		}
+
+		public StaleVersionAdaptiveMediaImageConfigurationException(String s) {
+			super(s);
+		}
+
+		public StaleVersionAdaptiveMediaImageConfigurationException(
+			String s, Throwable throwable) {
+
+			super(s, throwable);
+		}
+
+		public StaleVersionAdaptiveMediaImageConfigurationException(
+			Throwable throwable) {
+
+			super(throwable);
+		}
+
+	}
+
 }
\ No newline at end of file
@@ -18,7 +18,11 @@ import com.liferay.adaptive.media.AdaptiveMedia;
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.portal.kernel.exception.PortalException;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -57,4 +61,41 @@ public interface AdaptiveMediaFinder
 			Function<B, AdaptiveMediaQuery<M, T>> queryBuilderFunction)
 		throws AdaptiveMediaException, PortalException;
 
+	/**
+	 * Returns a stage that completes with all {@link AdaptiveMedia} instances
+	 * for the model that matches the query. This method works like {@link
+	 * #getAdaptiveMedia(Function)}, but implementations may resolve the query
+	 * in a different thread so that callers can resolve several queries
+	 * concurrently. The default implementation resolves the query in the
+	 * calling thread.
+	 *
+	 * @param  queryBuilderFunction a function to be invoked with an {@link
+	 *         AdaptiveMediaQueryBuilder} argument. The query builder provides
+	 *         operations to filter and sort the returned media.
+	 * @return a stage that completes with a non-<code>null</code>, possibly
+	 *         empty list of all media instances matching the query ordered by
+	 *         score, or completes exceptionally with the {@link
+	 *         AdaptiveMediaException} or {@link PortalException} that occurred
+	 *         while getting the {@link AdaptiveMedia}
+	 */
+	public default CompletionStage<List<AdaptiveMedia<T>>>
+		getAdaptiveMediaAsync(
+			Function<B, AdaptiveMediaQuery<M, T>> queryBuilderFunction) {
+
+		CompletableFuture<List<AdaptiveMedia<T>>> completableFuture =
+			new CompletableFuture<>();
+
+		try {
+			Stream<AdaptiveMedia<T>> stream = getAdaptiveMedia(
+				queryBuilderFunction);
+
+			completableFuture.complete(stream.collect(Collectors.toList()));
+		}
+		catch (AdaptiveMediaException | PortalException e) {
+			completableFuture.completeExceptionally(e);
+		}
+
+		return completableFuture;
+	}
+
 }
\ No newline at end of file
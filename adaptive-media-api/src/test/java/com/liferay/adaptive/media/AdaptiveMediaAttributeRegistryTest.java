@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media;
+
+import com.liferay.portal.kernel.util.StringUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Sergio González
+ */
+public class AdaptiveMediaAttributeRegistryTest {
+
+	@Test
+	public void testAttributesOfDifferentFieldsHaveDistinctOrdinals() {
+		int ordinal1 = AdaptiveMediaAttributeRegistry.register(
+			_createAttribute(), AdaptiveMediaAttributeRegistryTest.class,
+			StringUtil.randomString());
+		int ordinal2 = AdaptiveMediaAttributeRegistry.register(
+			_createAttribute(), AdaptiveMediaAttributeRegistryTest.class,
+			StringUtil.randomString());
+
+		Assert.assertNotEquals(ordinal1, ordinal2);
+	}
+
+	@Test
+	public void testAttributesOfTheSameFieldHaveTheSameOrdinal() {
+		String fieldName = StringUtil.randomString();
+
+		int ordinal = AdaptiveMediaAttributeRegistry.register(
+			_createAttribute(), AdaptiveMediaAttributeRegistryTest.class,
+			fieldName);
+
+		int ordinalCount = AdaptiveMediaAttributeRegistry.getOrdinalCount();
+
+		Assert.assertEquals(
+			ordinal,
+			AdaptiveMediaAttributeRegistry.register(
+				_createAttribute(), AdaptiveMediaAttributeRegistryTest.class,
+				fieldName));
+		Assert.assertEquals(
+			ordinalCount, AdaptiveMediaAttributeRegistry.getOrdinalCount());
+	}
+
+	@Test
+	public void testAttributeWithTheNameOfARegisteredOneHasNoOrdinal() {
+		AdaptiveMediaAttribute<?, String> attribute =
+			new AdaptiveMediaAttribute<>(
+				AdaptiveMediaAttribute.configurationUuid().getName(), (s) -> s,
+				String::compareTo);
+
+		Assert.assertEquals(-1, attribute.getOrdinal());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullAttributeFails() {
+		AdaptiveMediaAttributeRegistry.register(null);
+	}
+
+	@Test
+	public void testOrdinalIsLowerThanOrdinalCount() {
+		int ordinal = AdaptiveMediaAttributeRegistry.register(
+			_createAttribute());
+
+		Assert.assertTrue(ordinal >= 0);
+		Assert.assertTrue(
+			ordinal < AdaptiveMediaAttributeRegistry.getOrdinalCount());
+	}
+
+	@Test
+	public void testPublicAttributesHaveDistinctOrdinals() {
+		Assert.assertNotEquals(
+			AdaptiveMediaAttribute.configurationUuid().getOrdinal(),
+			AdaptiveMediaAttribute.contentLength().getOrdinal());
+		Assert.assertNotEquals(
+			AdaptiveMediaAttribute.contentType().getOrdinal(),
+			AdaptiveMediaAttribute.fileName().getOrdinal());
+	}
+
+	@Test
+	public void testRegisteredAttributesWithTheSameNameHaveDistinctOrdinals() {
+		String name = StringUtil.randomString();
+
+		int ordinal1 = AdaptiveMediaAttributeRegistry.register(
+			new AdaptiveMediaAttribute<>(name, (s) -> s, String::compareTo));
+		int ordinal2 = AdaptiveMediaAttributeRegistry.register(
+			new AdaptiveMediaAttribute<>(name, (s) -> s, String::compareTo));
+
+		Assert.assertNotEquals(ordinal1, ordinal2);
+	}
+
+	@Test
+	public void testRegisterIsIdempotent() {
+		AdaptiveMediaAttribute<?, String> attribute = _createAttribute();
+
+		int ordinal = AdaptiveMediaAttributeRegistry.register(attribute);
+
+		Assert.assertEquals(
+			ordinal, AdaptiveMediaAttributeRegistry.register(attribute));
+		Assert.assertEquals(ordinal, attribute.getOrdinal());
+	}
+
+	private AdaptiveMediaAttribute<?, String> _createAttribute() {
+		return new AdaptiveMediaAttribute<>(
+			StringUtil.randomString(), (s) -> s, String::compareTo);
+	}
+
+}
\ No newline at end of file
@@ -17,14 +17,17 @@ package com.liferay.adaptive.media.document.library.thumbnails.internal;
 import com.liferay.adaptive.media.AdaptiveMedia;
 import com.liferay.adaptive.media.AdaptiveMediaAttribute;
 import com.liferay.adaptive.media.AdaptiveMediaException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
-import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.document.library.kernel.model.DLProcessorConstants;
 import com.liferay.document.library.kernel.util.DLProcessor;
 import com.liferay.document.library.kernel.util.ImageProcessor;
 import com.liferay.exportimport.kernel.lar.PortletDataContext;
+import com.liferay.portal.kernel.cache.thread.local.Lifecycle;
+import com.liferay.portal.kernel.cache.thread.local.ThreadLocalCache;
+import com.liferay.portal.kernel.cache.thread.local.ThreadLocalCacheManager;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.repository.model.FileEntry;
 import com.liferay.portal.kernel.repository.model.FileVersion;
@@ -37,8 +40,8 @@ import java.io.InputStream;
 
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -107,21 +110,22 @@ public class AdaptiveMediaImageEntryProcessor
 	public InputStream getThumbnailAsStream(FileVersion fileVersion, int index)
 		throws Exception {
 
-		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
-			_getThumbnailAdaptiveMedia(fileVersion);
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _getThumbnailAdaptiveMedia(fileVersion);
 
-		return stream.findFirst().map(AdaptiveMedia::getInputStream).orElse(
-			new ByteArrayInputStream(new byte[0]));
+		return adaptiveMediaOptional.map(
+			AdaptiveMedia::getInputStream).orElse(
+				new ByteArrayInputStream(new byte[0]));
 	}
 
 	@Override
 	public long getThumbnailFileSize(FileVersion fileVersion, int index)
 		throws Exception {
 
-		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
-			_getThumbnailAdaptiveMedia(fileVersion);
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _getThumbnailAdaptiveMedia(fileVersion);
 
-		return stream.findFirst().flatMap(mediaMedia ->
+		return adaptiveMediaOptional.flatMap(mediaMedia ->
 			mediaMedia.getAttributeValue(
 				AdaptiveMediaAttribute.contentLength())).orElse(0);
 	}
@@ -139,11 +143,9 @@ public class AdaptiveMediaImageEntryProcessor
 	@Override
 	public boolean hasImages(FileVersion fileVersion) {
 		try {
-			Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
-				_getThumbnailAdaptiveMedia(fileVersion);
-
 			Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
-				adaptiveMediaOptional = stream.findFirst();
+				adaptiveMediaOptional = _getThumbnailAdaptiveMedia(
+					fileVersion);
 
 			if (adaptiveMediaOptional.isPresent()) {
 				return true;
@@ -196,16 +198,44 @@ public class AdaptiveMediaImageEntryProcessor
 		FileVersion sourceFileVersion, FileVersion destinationFileVersion) {
 	}
 
-	private Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+	@Activate
+	protected void activate() {
+		_thumbnailConfigurationSelector =
+			new AdaptiveMediaThumbnailConfigurationSelector(
+				_configurationHelper, _adaptiveMediaImageFinder,
+				PropsValues.DL_FILE_ENTRY_THUMBNAIL_MAX_WIDTH,
+				PropsValues.DL_FILE_ENTRY_THUMBNAIL_MAX_HEIGHT);
+	}
+
+	/**
+	 * Returns the thumbnail of the file version. The thumbnail is looked up
+	 * once per request, as the document library usually asks for the
+	 * thumbnail stream, size and existence of the same file version while
+	 * rendering it.
+	 */
+	private Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
 			_getThumbnailAdaptiveMedia(FileVersion fileVersion)
 		throws AdaptiveMediaException, PortalException {
 
-		return _adaptiveMediaImageFinder.getAdaptiveMedia(queryBuilder ->
-			queryBuilder.forVersion(fileVersion).with(
-				AdaptiveMediaImageAttribute.IMAGE_WIDTH,
-				PropsValues.DL_FILE_ENTRY_THUMBNAIL_MAX_WIDTH).with(
-				AdaptiveMediaImageAttribute.IMAGE_HEIGHT,
-				PropsValues.DL_FILE_ENTRY_THUMBNAIL_MAX_HEIGHT).done());
+		ThreadLocalCache<Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			threadLocalCache = ThreadLocalCacheManager.getThreadLocalCache(
+				Lifecycle.REQUEST,
+				AdaptiveMediaImageEntryProcessor.class.getName());
+
+		String key = String.valueOf(fileVersion.getFileVersionId());
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = threadLocalCache.get(key);
+
+		if (adaptiveMediaOptional == null) {
+			adaptiveMediaOptional =
+				_thumbnailConfigurationSelector.getThumbnailAdaptiveMedia(
+					fileVersion);
+
+			threadLocalCache.put(key, adaptiveMediaOptional);
+		}
+
+		return adaptiveMediaOptional;
 	}
 
 	private boolean _isMimeTypeSupported(String mimeType) {
@@ -218,6 +248,11 @@ public class AdaptiveMediaImageEntryProcessor
 	@Reference
 	private AdaptiveMediaImageFinder _adaptiveMediaImageFinder;
 
+	@Reference
+	private AdaptiveMediaImageConfigurationHelper _configurationHelper;
+
 	private final ImageProcessor _imageProcessor = new ImageProcessorImpl();
+	private AdaptiveMediaThumbnailConfigurationSelector
+		_thumbnailConfigurationSelector;
 
 }
\ No newline at end of file
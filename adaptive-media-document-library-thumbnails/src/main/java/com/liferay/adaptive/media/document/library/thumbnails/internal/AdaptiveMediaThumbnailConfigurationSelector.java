@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.document.library.thumbnails.internal;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.AdaptiveMediaException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImagePreparedQuery;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Selects the adaptive media used as the document library thumbnail of a
+ * file version. The enabled configuration entries of a group are ranked by
+ * the distance of their maximum width and height to the thumbnail size once
+ * per configuration version, and a prepared query is kept for each of them.
+ * The thumbnail of a file version is the image of the first configuration
+ * entry in that order that has one, so it usually takes a single image entry
+ * lookup.
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaThumbnailConfigurationSelector {
+
+	public AdaptiveMediaThumbnailConfigurationSelector(
+		AdaptiveMediaImageConfigurationHelper configurationHelper,
+		AdaptiveMediaImageFinder finder, int width, int height) {
+
+		_configurationHelper = configurationHelper;
+		_finder = finder;
+
+		Comparator<AdaptiveMediaImageConfigurationEntry> widthComparator =
+			Comparator.comparingInt(_distanceTo("max-width", width));
+
+		_comparator = widthComparator.thenComparingInt(
+			_distanceTo("max-height", height));
+	}
+
+	public Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			getThumbnailAdaptiveMedia(FileVersion fileVersion)
+		throws AdaptiveMediaException, PortalException {
+
+		for (AdaptiveMediaImagePreparedQuery preparedQuery :
+				_getPreparedQueries(fileVersion)) {
+
+			Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+				preparedQuery.getAdaptiveMedia(fileVersion);
+
+			Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+				adaptiveMediaOptional = stream.findFirst();
+
+			if (adaptiveMediaOptional.isPresent()) {
+				return adaptiveMediaOptional;
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the distance of a property of the configuration entries to the
+	 * value. Configuration entries without the property are given the
+	 * largest distance, so they are ranked after the ones that have it.
+	 */
+	private static ToIntFunction<AdaptiveMediaImageConfigurationEntry>
+		_distanceTo(String propertyName, int value) {
+
+		return configurationEntry -> {
+			Map<String, String> properties =
+				configurationEntry.getProperties();
+
+			String string = properties.get(propertyName);
+
+			if (Validator.isNull(string)) {
+				return Integer.MAX_VALUE;
+			}
+
+			return Math.abs(GetterUtil.getInteger(string) - value);
+		};
+	}
+
+	private List<AdaptiveMediaImagePreparedQuery> _getPreparedQueries(
+		FileVersion fileVersion) {
+
+		long configurationVersion =
+			_configurationHelper.getConfigurationVersion(
+				fileVersion.getCompanyId(), fileVersion.getGroupId());
+
+		Selection selection = _selections.get(fileVersion.getGroupId());
+
+		if ((selection == null) ||
+			(selection._configurationVersion != configurationVersion)) {
+
+			selection = new Selection(
+				configurationVersion,
+				_prepareQueries(
+					fileVersion.getCompanyId(), fileVersion.getGroupId()));
+
+			_selections.put(fileVersion.getGroupId(), selection);
+		}
+
+		return selection._preparedQueries;
+	}
+
+	private List<AdaptiveMediaImagePreparedQuery> _prepareQueries(
+		long companyId, long groupId) {
+
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				companyId, groupId);
+
+		Stream<AdaptiveMediaImageConfigurationEntry> stream =
+			configurationEntries.stream();
+
+		return stream.sorted(_comparator).map(this::_prepareQuery).collect(
+			Collectors.toList());
+	}
+
+	private AdaptiveMediaImagePreparedQuery _prepareQuery(
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		return _finder.prepareQuery(
+			initialStep -> initialStep.forConfiguration(
+				configurationEntry.getUUID()).done());
+	}
+
+	private final Comparator<AdaptiveMediaImageConfigurationEntry> _comparator;
+	private final AdaptiveMediaImageConfigurationHelper _configurationHelper;
+	private final AdaptiveMediaImageFinder _finder;
+	private final ConcurrentMap<Long, Selection> _selections =
+		new ConcurrentHashMap<>();
+
+	private static final class Selection {
+
+		private Selection(
+			long configurationVersion,
+			List<AdaptiveMediaImagePreparedQuery> preparedQueries) {
+
+			_configurationVersion = configurationVersion;
+			_preparedQueries = preparedQueries;
+		}
+
+		private final long _configurationVersion;
+		private final List<AdaptiveMediaImagePreparedQuery> _preparedQueries;
+
+	}
+
+}
\ No newline at end of file
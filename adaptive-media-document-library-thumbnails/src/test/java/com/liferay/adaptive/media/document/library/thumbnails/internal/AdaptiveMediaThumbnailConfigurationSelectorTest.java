@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.document.library.thumbnails.internal;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImagePreparedQuery;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.InitialStep;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.MapUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaThumbnailConfigurationSelectorTest {
+
+	@Before
+	public void setUp() {
+		Mockito.when(
+			_finder.prepareQuery(Mockito.any())
+		).thenAnswer(
+			invocation -> {
+				Function<InitialStep, ?> queryFunction =
+					(Function<InitialStep, ?>)invocation.getArguments()[0];
+
+				InitialStep initialStep = Mockito.mock(
+					InitialStep.class, Mockito.RETURNS_MOCKS);
+
+				queryFunction.apply(initialStep);
+
+				ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(
+					String.class);
+
+				Mockito.verify(
+					initialStep
+				).forConfiguration(
+					argumentCaptor.capture()
+				);
+
+				return _preparedQueries.get(argumentCaptor.getValue());
+			}
+		);
+
+		_selector = new AdaptiveMediaThumbnailConfigurationSelector(
+			_configurationHelper, _finder, 128, 128);
+	}
+
+	@Test
+	public void testFallsBackToNextConfigurationEntry() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			_mockConfigurationEntry("small", "100", "100");
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			_mockConfigurationEntry("large", "1000", "1000");
+
+		_mockConfigurationEntries(1, configurationEntry2, configurationEntry1);
+
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+			Mockito.mock(AdaptiveMedia.class);
+
+		AdaptiveMediaImagePreparedQuery preparedQuery1 = _mockPreparedQuery(
+			"small");
+		AdaptiveMediaImagePreparedQuery preparedQuery2 = _mockPreparedQuery(
+			"large", adaptiveMedia);
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _selector.getThumbnailAdaptiveMedia(
+				_fileVersion);
+
+		Assert.assertSame(adaptiveMedia, adaptiveMediaOptional.get());
+
+		Mockito.verify(
+			preparedQuery1
+		).getAdaptiveMedia(
+			_fileVersion
+		);
+
+		Mockito.verify(
+			preparedQuery2
+		).getAdaptiveMedia(
+			_fileVersion
+		);
+	}
+
+	@Test
+	public void testOnlyQueriesClosestConfigurationEntry() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			_mockConfigurationEntry("large", "1000", "1000");
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			_mockConfigurationEntry("medium", "300", "300");
+		AdaptiveMediaImageConfigurationEntry configurationEntry3 =
+			_mockConfigurationEntry("small", "100", "100");
+
+		_mockConfigurationEntries(
+			1, configurationEntry1, configurationEntry2, configurationEntry3);
+
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+			Mockito.mock(AdaptiveMedia.class);
+
+		AdaptiveMediaImagePreparedQuery preparedQuery1 = _mockPreparedQuery(
+			"large", Mockito.mock(AdaptiveMedia.class));
+		AdaptiveMediaImagePreparedQuery preparedQuery2 = _mockPreparedQuery(
+			"medium", Mockito.mock(AdaptiveMedia.class));
+		AdaptiveMediaImagePreparedQuery preparedQuery3 = _mockPreparedQuery(
+			"small", adaptiveMedia);
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _selector.getThumbnailAdaptiveMedia(
+				_fileVersion);
+
+		Assert.assertSame(adaptiveMedia, adaptiveMediaOptional.get());
+
+		Mockito.verify(
+			preparedQuery1, Mockito.never()
+		).getAdaptiveMedia(
+			Mockito.any(FileVersion.class)
+		);
+
+		Mockito.verify(
+			preparedQuery2, Mockito.never()
+		).getAdaptiveMedia(
+			Mockito.any(FileVersion.class)
+		);
+
+		Mockito.verify(
+			preparedQuery3
+		).getAdaptiveMedia(
+			_fileVersion
+		);
+	}
+
+	@Test
+	public void testPreparesQueriesOncePerConfigurationVersion()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_mockConfigurationEntry("small", "100", "100");
+
+		_mockConfigurationEntries(1, configurationEntry);
+
+		_mockPreparedQuery("small", Mockito.mock(AdaptiveMedia.class));
+
+		_selector.getThumbnailAdaptiveMedia(_fileVersion);
+		_selector.getThumbnailAdaptiveMedia(_fileVersion);
+
+		Mockito.verify(
+			_finder, Mockito.times(1)
+		).prepareQuery(
+			Mockito.any()
+		);
+
+		_mockConfigurationEntries(2, configurationEntry);
+
+		_selector.getThumbnailAdaptiveMedia(_fileVersion);
+
+		Mockito.verify(
+			_finder, Mockito.times(2)
+		).prepareQuery(
+			Mockito.any()
+		);
+	}
+
+	@Test
+	public void testRanksConfigurationEntriesWithMissingHeight()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			_mockConfigurationEntry("large", "1000", "");
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			_mockConfigurationEntry("small", "100", "");
+
+		_mockConfigurationEntries(1, configurationEntry1, configurationEntry2);
+
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+			Mockito.mock(AdaptiveMedia.class);
+
+		_mockPreparedQuery("large", Mockito.mock(AdaptiveMedia.class));
+		_mockPreparedQuery("small", adaptiveMedia);
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _selector.getThumbnailAdaptiveMedia(
+				_fileVersion);
+
+		Assert.assertSame(adaptiveMedia, adaptiveMediaOptional.get());
+	}
+
+	@Test
+	public void testRanksConfigurationEntriesWithMissingWidthLast()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			_mockConfigurationEntry("height", "", "128");
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			_mockConfigurationEntry("large", "1000", "1000");
+		AdaptiveMediaImageConfigurationEntry configurationEntry3 =
+			_mockConfigurationEntry("small", "100", "100");
+
+		_mockConfigurationEntries(
+			1, configurationEntry1, configurationEntry2, configurationEntry3);
+
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+			Mockito.mock(AdaptiveMedia.class);
+
+		AdaptiveMediaImagePreparedQuery preparedQuery1 = _mockPreparedQuery(
+			"height", Mockito.mock(AdaptiveMedia.class));
+
+		_mockPreparedQuery("large");
+		_mockPreparedQuery("small", adaptiveMedia);
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _selector.getThumbnailAdaptiveMedia(
+				_fileVersion);
+
+		Assert.assertSame(adaptiveMedia, adaptiveMediaOptional.get());
+
+		Mockito.verify(
+			preparedQuery1, Mockito.never()
+		).getAdaptiveMedia(
+			Mockito.any(FileVersion.class)
+		);
+	}
+
+	@Test
+	public void testWithNoConfigurationEntries() throws Exception {
+		_mockConfigurationEntries(1);
+
+		Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			adaptiveMediaOptional = _selector.getThumbnailAdaptiveMedia(
+				_fileVersion);
+
+		Assert.assertFalse(adaptiveMediaOptional.isPresent());
+	}
+
+	private void _mockConfigurationEntries(
+		long configurationVersion,
+		AdaptiveMediaImageConfigurationEntry... configurationEntries) {
+
+		Mockito.when(
+			_configurationHelper.getConfigurationVersion(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId())
+		).thenReturn(
+			configurationVersion
+		);
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId())
+		).thenReturn(
+			Arrays.asList(configurationEntries)
+		);
+	}
+
+	private AdaptiveMediaImageConfigurationEntry _mockConfigurationEntry(
+		String uuid, String maxWidth, String maxHeight) {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry = Mockito.mock(
+			AdaptiveMediaImageConfigurationEntry.class);
+
+		Map<String, String> properties = MapUtil.fromArray(
+			"max-height", maxHeight, "max-width", maxWidth);
+
+		Mockito.when(
+			configurationEntry.getProperties()
+		).thenReturn(
+			properties
+		);
+
+		Mockito.when(
+			configurationEntry.getUUID()
+		).thenReturn(
+			uuid
+		);
+
+		return configurationEntry;
+	}
+
+	private AdaptiveMediaImagePreparedQuery _mockPreparedQuery(
+			String uuid, AdaptiveMedia<?>... adaptiveMedias)
+		throws Exception {
+
+		AdaptiveMediaImagePreparedQuery preparedQuery = Mockito.mock(
+			AdaptiveMediaImagePreparedQuery.class);
+
+		Mockito.when(
+			preparedQuery.getAdaptiveMedia(_fileVersion)
+		).thenAnswer(
+			invocation -> Stream.of(adaptiveMedias)
+		);
+
+		_preparedQueries.put(uuid, preparedQuery);
+
+		return preparedQuery;
+	}
+
+	private final AdaptiveMediaImageConfigurationHelper _configurationHelper =
+		Mockito.mock(AdaptiveMediaImageConfigurationHelper.class);
+	private final FileVersion _fileVersion = Mockito.mock(FileVersion.class);
+	private final AdaptiveMediaImageFinder _finder = Mockito.mock(
+		AdaptiveMediaImageFinder.class);
+	private final Map<String, AdaptiveMediaImagePreparedQuery>
+		_preparedQueries = new HashMap<>();
+	private AdaptiveMediaThumbnailConfigurationSelector _selector;
+
+}
\ No newline at end of file
@@ -15,6 +15,8 @@
 package com.liferay.adaptive.media.document.library.repository.internal;
 
 import com.liferay.adaptive.media.AdaptiveMediaException;
+import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
 import com.liferay.adaptive.media.processor.AdaptiveMediaAsyncProcessor;
 import com.liferay.adaptive.media.processor.AdaptiveMediaAsyncProcessorLocator;
 import com.liferay.portal.kernel.exception.PortalException;
@@ -41,6 +43,7 @@ import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.osgi.service.component.annotations.Reference;
 
@@ -104,6 +107,13 @@ public abstract class BaseOverridingRepositoryDefiner
 		_asyncProcessorLocator = asyncProcessorLocator;
 	}
 
+	@Reference(unbind = "-")
+	public void setAdaptiveMediaImageEntryLocalService(
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService) {
+
+		_imageEntryLocalService = imageEntryLocalService;
+	}
+
 	@Reference(target = ModuleServiceLifecycle.PORTAL_INITIALIZED, unbind = "-")
 	public void setModuleServiceLifecycle(
 		ModuleServiceLifecycle moduleServiceLifecycle) {
@@ -173,6 +183,17 @@ public abstract class BaseOverridingRepositoryDefiner
 		}
 	}
 
+	private void _invalidateExpectedCount(FileEntry fileEntry) {
+		Set<String> supportedMimeTypes =
+			AdaptiveMediaImageConstants.getSupportedMimeTypes();
+
+		if (supportedMimeTypes.contains(fileEntry.getMimeType())) {
+			_imageEntryLocalService.
+				invalidateExpectedAdaptiveMediaImageEntriesCount(
+					fileEntry.getCompanyId());
+		}
+	}
+
 	private void _updateAdaptiveMedia(FileEntry fileEntry) {
 		try {
 			AdaptiveMediaAsyncProcessor<FileVersion, ?> asyncProcessor =
@@ -191,6 +212,7 @@ public abstract class BaseOverridingRepositoryDefiner
 	}
 
 	private AdaptiveMediaAsyncProcessorLocator _asyncProcessorLocator;
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
 	private RepositoryDefiner _overridenRepositoryDefiner;
 
 	private class AdaptiveMediaCapabiliy
@@ -210,6 +232,14 @@ public abstract class BaseOverridingRepositoryDefiner
 			repositoryEventRegistry.registerRepositoryEventListener(
 				RepositoryEventType.Delete.class, FileEntry.class,
 				BaseOverridingRepositoryDefiner.this::_deleteAdaptiveMedia);
+
+			repositoryEventRegistry.registerRepositoryEventListener(
+				RepositoryEventType.Add.class, FileEntry.class,
+				BaseOverridingRepositoryDefiner.this::_invalidateExpectedCount);
+
+			repositoryEventRegistry.registerRepositoryEventListener(
+				RepositoryEventType.Delete.class, FileEntry.class,
+				BaseOverridingRepositoryDefiner.this::_invalidateExpectedCount);
 		}
 
 	}
@@ -14,6 +14,8 @@
 
 package com.liferay.adaptive.media.document.library.repository.internal.counter;
 
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
 import com.liferay.adaptive.media.image.counter.AdaptiveMediaImageCounter;
 import com.liferay.document.library.kernel.service.DLFileEntryLocalService;
@@ -21,6 +23,8 @@ import com.liferay.portal.kernel.dao.orm.DynamicQuery;
 import com.liferay.portal.kernel.dao.orm.Property;
 import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 
+import java.util.Set;
+
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -35,6 +39,40 @@ public class DLAdaptiveMediaImageCounter implements AdaptiveMediaImageCounter {
 
 	@Override
 	public int countExpectedAdaptiveMediaImageEntries(long companyId) {
+		DynamicQuery dynamicQuery = _getDynamicQuery(
+			companyId, AdaptiveMediaImageConstants.getSupportedMimeTypes());
+
+		return (int)_dlFileEntryLocalService.dynamicQueryCount(dynamicQuery);
+	}
+
+	@Override
+	public int countExpectedAdaptiveMediaImageEntries(
+		long companyId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if (mimeTypes.isEmpty()) {
+			return 0;
+		}
+
+		DynamicQuery dynamicQuery = _getDynamicQuery(companyId, mimeTypes);
+
+		if (conditions.getMaxSourceSize() > 0) {
+			Property sizeProperty = PropertyFactoryUtil.forName("size");
+
+			dynamicQuery.add(sizeProperty.le(conditions.getMaxSourceSize()));
+		}
+
+		return (int)_dlFileEntryLocalService.dynamicQueryCount(dynamicQuery);
+	}
+
+	private DynamicQuery _getDynamicQuery(
+		long companyId, Set<String> mimeTypes) {
+
 		DynamicQuery dynamicQuery = _dlFileEntryLocalService.dynamicQuery();
 
 		Property companyIdProperty = PropertyFactoryUtil.forName("companyId");
@@ -49,11 +87,9 @@ public class DLAdaptiveMediaImageCounter implements AdaptiveMediaImageCounter {
 
 		Property mimeTypeProperty = PropertyFactoryUtil.forName("mimeType");
 
-		dynamicQuery.add(
-			mimeTypeProperty.in(
-				AdaptiveMediaImageConstants.getSupportedMimeTypes()));
+		dynamicQuery.add(mimeTypeProperty.in(mimeTypes));
 
-		return (int)_dlFileEntryLocalService.dynamicQueryCount(dynamicQuery);
+		return dynamicQuery;
 	}
 
 	@Reference
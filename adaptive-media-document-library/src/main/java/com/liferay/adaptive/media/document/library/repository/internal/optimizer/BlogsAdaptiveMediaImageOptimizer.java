@@ -16,8 +16,8 @@ package com.liferay.adaptive.media.document.library.repository.internal.optimize
 
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
-import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
 import com.liferay.adaptive.media.image.counter.AdaptiveMediaImageCounter;
 import com.liferay.adaptive.media.image.optimizer.AdaptiveMediaImageOptimizer;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
@@ -41,6 +41,8 @@ import com.liferay.portal.kernel.service.ClassNameLocalService;
 import com.liferay.portal.repository.liferayrepository.model.LiferayFileEntry;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.osgi.service.component.annotations.Component;
@@ -62,32 +64,102 @@ public class BlogsAdaptiveMediaImageOptimizer
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
 				companyId);
 
-		int total =
-			_counter.countExpectedAdaptiveMediaImageEntries(companyId) *
-				configurationEntries.size();
+		int total = 0;
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			total += _counter.countExpectedAdaptiveMediaImageEntries(
+				companyId, configurationEntry);
+		}
 
 		final AtomicInteger atomicCounter = new AtomicInteger(0);
 
 		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
 				configurationEntries) {
 
-			_optimize(
-				companyId, configurationEntry.getUUID(), total, atomicCounter);
+			_optimize(companyId, 0, configurationEntry, total, atomicCounter);
 		}
 	}
 
 	@Override
 	public void optimize(long companyId, String configurationEntryUuid) {
-		int total = _counter.countExpectedAdaptiveMediaImageEntries(companyId);
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					companyId, configurationEntryUuid);
+
+		if (!configurationEntryOptional.isPresent()) {
+			return;
+		}
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			configurationEntryOptional.get();
+
+		int total = _counter.countExpectedAdaptiveMediaImageEntries(
+			companyId, configurationEntry);
 
 		final AtomicInteger atomicCounter = new AtomicInteger(0);
 
-		_optimize(companyId, configurationEntryUuid, total, atomicCounter);
+		_optimize(companyId, 0, configurationEntry, total, atomicCounter);
 	}
 
-	private void _optimize(
-		long companyId, String configurationEntryUuid, int total,
-		AtomicInteger atomicCounter) {
+	@Override
+	public void optimize(long companyId, long groupId) {
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				companyId, groupId);
+
+		int total = 0;
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			total += _countExpectedAdaptiveMediaImageEntries(
+				companyId, groupId, configurationEntry);
+		}
+
+		final AtomicInteger atomicCounter = new AtomicInteger(0);
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			_optimize(
+				companyId, groupId, configurationEntry, total, atomicCounter);
+		}
+	}
+
+	private int _countExpectedAdaptiveMediaImageEntries(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if (mimeTypes.isEmpty()) {
+			return 0;
+		}
+
+		ActionableDynamicQuery actionableDynamicQuery =
+			_getActionableDynamicQuery(companyId, groupId, conditions);
+
+		try {
+			return (int)actionableDynamicQuery.performCount();
+		}
+		catch (PortalException pe) {
+			_log.error(pe, pe);
+
+			return 0;
+		}
+	}
+
+	private ActionableDynamicQuery _getActionableDynamicQuery(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntryConditions conditions) {
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
 
 		ActionableDynamicQuery actionableDynamicQuery =
 			_dlFileEntryLocalService.getActionableDynamicQuery();
@@ -105,6 +177,13 @@ public class BlogsAdaptiveMediaImageOptimizer
 
 					dynamicQuery.add(companyIdProperty.eq(companyId));
 
+					if (groupId > 0) {
+						Property groupIdProperty = PropertyFactoryUtil.forName(
+							"groupId");
+
+						dynamicQuery.add(groupIdProperty.eq(groupId));
+					}
+
 					Property classNameIdProperty = PropertyFactoryUtil.forName(
 						"classNameId");
 
@@ -113,14 +192,39 @@ public class BlogsAdaptiveMediaImageOptimizer
 					Property mimeTypeProperty = PropertyFactoryUtil.forName(
 						"mimeType");
 
-					dynamicQuery.add(
-						mimeTypeProperty.in(
-							AdaptiveMediaImageConstants.
-								getSupportedMimeTypes()));
+					dynamicQuery.add(mimeTypeProperty.in(mimeTypes));
+
+					if (conditions.getMaxSourceSize() > 0) {
+						Property sizeProperty = PropertyFactoryUtil.forName(
+							"size");
+
+						dynamicQuery.add(
+							sizeProperty.le(conditions.getMaxSourceSize()));
+					}
 				}
 
 			});
 
+		return actionableDynamicQuery;
+	}
+
+	private void _optimize(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry, int total,
+		AtomicInteger atomicCounter) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if (mimeTypes.isEmpty()) {
+			return;
+		}
+
+		ActionableDynamicQuery actionableDynamicQuery =
+			_getActionableDynamicQuery(companyId, groupId, conditions);
+
 		actionableDynamicQuery.setPerformActionMethod(
 			new ActionableDynamicQuery.PerformActionMethod<DLFileEntry>() {
 
@@ -132,7 +236,8 @@ public class BlogsAdaptiveMediaImageOptimizer
 
 					try {
 						_processor.process(
-							fileEntry.getFileVersion(), configurationEntryUuid);
+							fileEntry.getFileVersion(),
+							configurationEntry.getUUID());
 
 						_sendStatusMessage(
 							atomicCounter.incrementAndGet(), total);
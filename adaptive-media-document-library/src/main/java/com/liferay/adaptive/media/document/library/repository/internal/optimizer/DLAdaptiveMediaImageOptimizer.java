@@ -16,8 +16,8 @@ package com.liferay.adaptive.media.document.library.repository.internal.optimize
 
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
-import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
 import com.liferay.adaptive.media.image.counter.AdaptiveMediaImageCounter;
 import com.liferay.adaptive.media.image.optimizer.AdaptiveMediaImageOptimizer;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
@@ -40,6 +40,8 @@ import com.liferay.portal.kernel.service.ClassNameLocalService;
 import com.liferay.portal.repository.liferayrepository.model.LiferayFileEntry;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.osgi.service.component.annotations.Component;
@@ -61,32 +63,102 @@ public class DLAdaptiveMediaImageOptimizer
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
 				companyId);
 
-		int total =
-			_counter.countExpectedAdaptiveMediaImageEntries(companyId) *
-				configurationEntries.size();
+		int total = 0;
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			total += _counter.countExpectedAdaptiveMediaImageEntries(
+				companyId, configurationEntry);
+		}
 
 		final AtomicInteger atomicCounter = new AtomicInteger(0);
 
 		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
 				configurationEntries) {
 
-			_optimize(
-				companyId, configurationEntry.getUUID(), total, atomicCounter);
+			_optimize(companyId, 0, configurationEntry, total, atomicCounter);
 		}
 	}
 
 	@Override
 	public void optimize(long companyId, String configurationEntryUuid) {
-		int total = _counter.countExpectedAdaptiveMediaImageEntries(companyId);
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					companyId, configurationEntryUuid);
+
+		if (!configurationEntryOptional.isPresent()) {
+			return;
+		}
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			configurationEntryOptional.get();
+
+		int total = _counter.countExpectedAdaptiveMediaImageEntries(
+			companyId, configurationEntry);
 
 		final AtomicInteger atomiCounter = new AtomicInteger(0);
 
-		_optimize(companyId, configurationEntryUuid, total, atomiCounter);
+		_optimize(companyId, 0, configurationEntry, total, atomiCounter);
 	}
 
-	private void _optimize(
-		long companyId, String configurationEntryUuid, int total,
-		AtomicInteger atomicCounter) {
+	@Override
+	public void optimize(long companyId, long groupId) {
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				companyId, groupId);
+
+		int total = 0;
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			total += _countExpectedAdaptiveMediaImageEntries(
+				companyId, groupId, configurationEntry);
+		}
+
+		final AtomicInteger atomicCounter = new AtomicInteger(0);
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			_optimize(
+				companyId, groupId, configurationEntry, total, atomicCounter);
+		}
+	}
+
+	private int _countExpectedAdaptiveMediaImageEntries(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if (mimeTypes.isEmpty()) {
+			return 0;
+		}
+
+		ActionableDynamicQuery actionableDynamicQuery =
+			_getActionableDynamicQuery(companyId, groupId, conditions);
+
+		try {
+			return (int)actionableDynamicQuery.performCount();
+		}
+		catch (PortalException pe) {
+			_log.error(pe, pe);
+
+			return 0;
+		}
+	}
+
+	private ActionableDynamicQuery _getActionableDynamicQuery(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntryConditions conditions) {
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
 
 		ActionableDynamicQuery actionableDynamicQuery =
 			_dlFileEntryLocalService.getActionableDynamicQuery();
@@ -103,6 +175,11 @@ public class DLAdaptiveMediaImageOptimizer
 
 					Property groupIdProperty = PropertyFactoryUtil.forName(
 						"groupId");
+
+					if (groupId > 0) {
+						dynamicQuery.add(groupIdProperty.eq(groupId));
+					}
+
 					Property repositoryIdProperty = PropertyFactoryUtil.forName(
 						"repositoryId");
 
@@ -112,13 +189,39 @@ public class DLAdaptiveMediaImageOptimizer
 					Property mimeTypeProperty = PropertyFactoryUtil.forName(
 						"mimeType");
 
-					dynamicQuery.add(
-						mimeTypeProperty.in(
-							AdaptiveMediaImageConstants.
-								getSupportedMimeTypes()));
+					dynamicQuery.add(mimeTypeProperty.in(mimeTypes));
+
+					if (conditions.getMaxSourceSize() > 0) {
+						Property sizeProperty = PropertyFactoryUtil.forName(
+							"size");
+
+						dynamicQuery.add(
+							sizeProperty.le(conditions.getMaxSourceSize()));
+					}
 				}
 
 			});
+
+		return actionableDynamicQuery;
+	}
+
+	private void _optimize(
+		long companyId, long groupId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry, int total,
+		AtomicInteger atomicCounter) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if (mimeTypes.isEmpty()) {
+			return;
+		}
+
+		ActionableDynamicQuery actionableDynamicQuery =
+			_getActionableDynamicQuery(companyId, groupId, conditions);
+
 		actionableDynamicQuery.setPerformActionMethod(
 			new ActionableDynamicQuery.PerformActionMethod<DLFileEntry>() {
 
@@ -130,7 +233,8 @@ public class DLAdaptiveMediaImageOptimizer
 
 					try {
 						_processor.process(
-							fileEntry.getFileVersion(), configurationEntryUuid);
+							fileEntry.getFileVersion(),
+							configurationEntry.getUUID());
 
 						_sendStatusMessage(
 							atomicCounter.incrementAndGet(), total);
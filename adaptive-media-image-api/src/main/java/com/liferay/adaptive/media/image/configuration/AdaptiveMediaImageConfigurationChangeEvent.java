@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.configuration;
+
+import java.io.Serializable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Describes a change in the configuration entries of a company or a group.
+ *
+ * <p>
+ * Events are published on every node of the cluster each time a new
+ * configuration version is stored, and carry the properties of the changed
+ * configuration entries before and after the change. A configuration entry
+ * added by the change has no old properties, and a deleted one has no new
+ * properties. Listeners can compare the version of the event with the one they
+ * cached to discard events they have already seen.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ * @review
+ */
+public class AdaptiveMediaImageConfigurationChangeEvent
+	implements Serializable {
+
+	public AdaptiveMediaImageConfigurationChangeEvent(
+		long companyId, long groupId, long previousVersion, long version,
+		Map<String, Map<String, String>> oldProperties,
+		Map<String, Map<String, String>> newProperties) {
+
+		_companyId = companyId;
+		_groupId = groupId;
+		_previousVersion = previousVersion;
+		_version = version;
+		_oldProperties = new HashMap<>(oldProperties);
+		_newProperties = new HashMap<>(newProperties);
+	}
+
+	/**
+	 * Returns the UUIDs of the configuration entries added, updated or
+	 * deleted by the change.
+	 *
+	 * @return the UUIDs of the changed configuration entries
+	 * @review
+	 */
+	public Set<String> getChangedUuids() {
+		Set<String> changedUuids = new LinkedHashSet<>(_oldProperties.keySet());
+
+		changedUuids.addAll(_newProperties.keySet());
+
+		return Collections.unmodifiableSet(changedUuids);
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	/**
+	 * Returns the primary key of the group whose configuration entries
+	 * changed, or <code>0</code> if the company configuration changed.
+	 *
+	 * @return the primary key of the group
+	 * @review
+	 */
+	public long getGroupId() {
+		return _groupId;
+	}
+
+	/**
+	 * Returns the properties of the configuration entry after the change, if
+	 * it was not deleted.
+	 *
+	 * @param  uuid the UUID of the configuration entry
+	 * @return the new properties of the configuration entry
+	 * @review
+	 */
+	public Optional<Map<String, String>> getNewProperties(String uuid) {
+		return Optional.ofNullable(_newProperties.get(uuid));
+	}
+
+	/**
+	 * Returns the properties of the configuration entry before the change, if
+	 * it already existed.
+	 *
+	 * @param  uuid the UUID of the configuration entry
+	 * @return the old properties of the configuration entry
+	 * @review
+	 */
+	public Optional<Map<String, String>> getOldProperties(String uuid) {
+		return Optional.ofNullable(_oldProperties.get(uuid));
+	}
+
+	public long getPreviousVersion() {
+		return _previousVersion;
+	}
+
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns <code>true</code> if the change affects the configuration entry.
+	 *
+	 * @param  uuid the UUID of the configuration entry
+	 * @return <code>true</code> if the configuration entry changed;
+	 *         <code>false</code> otherwise
+	 * @review
+	 */
+	public boolean isChanged(String uuid) {
+		if (_oldProperties.containsKey(uuid) ||
+			_newProperties.containsKey(uuid)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final long _companyId;
+	private final long _groupId;
+	private final HashMap<String, Map<String, String>> _newProperties;
+	private final HashMap<String, Map<String, String>> _oldProperties;
+	private final long _previousVersion;
+	private final long _version;
+
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.configuration;
+
+/**
+ * Receives the configuration changes of every node of the cluster.
+ * Components registered with this interface are notified once per change,
+ * and should only invalidate what the change affects.
+ *
+ * @author Adolfo Pérez
+ * @review
+ */
+public interface AdaptiveMediaImageConfigurationChangeListener {
+
+	/**
+	 * Invoked after a new configuration version has been stored.
+	 *
+	 * @param configurationChangeEvent the configuration change
+	 * @review
+	 */
+	public void onConfigurationChange(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent);
+
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.configuration;
+
+import aQute.bnd.annotation.ProviderType;
+
+import java.util.Map;
+
+/**
+ * Collects several changes to the image configuration of a company so that
+ * {@link AdaptiveMediaImageConfigurationHelper} validates and stores them
+ * together.
+ *
+ * <p>
+ * Changes are applied in the order they were added, each one seeing the
+ * result of the previous ones. If any of them fails, none is stored.
+ * </p>
+ *
+ * @author Sergio González
+ * @review
+ */
+@ProviderType
+public interface AdaptiveMediaImageConfigurationChangeSet {
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		addAdaptiveMediaImageConfigurationEntry(
+			String name, String uuid, Map<String, String> properties);
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		deleteAdaptiveMediaImageConfigurationEntry(String uuid);
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		disableAdaptiveMediaImageConfigurationEntry(String uuid);
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		enableAdaptiveMediaImageConfigurationEntry(String uuid);
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		forceDeleteAdaptiveMediaImageConfigurationEntry(String uuid);
+
+	public AdaptiveMediaImageConfigurationChangeSet
+		updateAdaptiveMediaImageConfigurationEntry(
+			String oldUuid, String name, String newUuid,
+			Map<String, String> properties);
+
+}
\ No newline at end of file
@@ -14,6 +14,16 @@
 
 package com.liferay.adaptive.media.image.configuration;
 
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.StringBundler;
+import com.liferay.portal.kernel.util.StringPool;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import java.util.Map;
 
 /**
@@ -21,10 +31,89 @@ import java.util.Map;
  */
 public interface AdaptiveMediaImageConfigurationEntry {
 
+	/**
+	 * Returns the conditions that the source images must meet for this
+	 * configuration entry to be applied to them.
+	 *
+	 * @return the conditions of this configuration entry
+	 * @review
+	 */
+	public default AdaptiveMediaImageConfigurationEntryConditions
+		getConditions() {
+
+		return new AdaptiveMediaImageConfigurationEntryConditions(
+			getProperties());
+	}
+
+	/**
+	 * Returns a short token that changes whenever the properties that shape
+	 * the generated images change. Only <code>max-width</code>,
+	 * <code>max-height</code>, the scaling mode and, when the scaling mode is
+	 * <code>fill</code>, the focal point are taken into account, so editing
+	 * the conditions of the configuration entry does not invalidate the images
+	 * already generated for it. Images generated with a different content
+	 * version are stale and must be regenerated.
+	 *
+	 * @return the content version of this configuration entry
+	 * @review
+	 */
+	public default String getContentVersion() {
+		Map<String, String> properties = getProperties();
+
+		StringBundler sb = new StringBundler(11);
+
+		sb.append(GetterUtil.getInteger(properties.get("max-width")));
+		sb.append(StringPool.COMMA);
+		sb.append(GetterUtil.getInteger(properties.get("max-height")));
+		sb.append(StringPool.COMMA);
+
+		AdaptiveMediaImageConfigurationEntryScaling scaling = getScaling();
+
+		if (scaling.isFill()) {
+			sb.append(
+				AdaptiveMediaImageConfigurationEntryScaling.SCALING_MODE_FILL);
+			sb.append(StringPool.COMMA);
+			sb.append(scaling.getFocalPointX());
+			sb.append(StringPool.COMMA);
+			sb.append(scaling.getFocalPointY());
+		}
+		else {
+			sb.append(
+				AdaptiveMediaImageConfigurationEntryScaling.SCALING_MODE_FIT);
+		}
+
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+			String string = sb.toString();
+
+			byte[] bytes = messageDigest.digest(
+				string.getBytes(StandardCharsets.UTF_8));
+
+			ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+
+			return Long.toHexString(byteBuffer.getLong());
+		}
+		catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException(nsae);
+		}
+	}
+
 	public String getName();
 
 	public Map<String, String> getProperties();
 
+	/**
+	 * Returns how the source images are scaled to the dimensions of this
+	 * configuration entry.
+	 *
+	 * @return the scaling of this configuration entry
+	 * @review
+	 */
+	public default AdaptiveMediaImageConfigurationEntryScaling getScaling() {
+		return new AdaptiveMediaImageConfigurationEntryScaling(getProperties());
+	}
+
 	public String getUUID();
 
 	public boolean isEnabled();
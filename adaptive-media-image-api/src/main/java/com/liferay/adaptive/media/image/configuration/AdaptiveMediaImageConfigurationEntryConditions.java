@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.configuration;
+
+import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which source images a configuration entry applies to.
+ *
+ * <p>
+ * The conditions are optional properties of the configuration entry. A
+ * configuration entry without conditions applies to every image with a
+ * supported mime type.
+ * </p>
+ *
+ * <ul>
+ * <li>
+ * <code>min-source-width</code>: images narrower than this number of pixels are
+ * skipped
+ * </li>
+ * <li>
+ * <code>max-source-size</code>: images bigger than this number of bytes are
+ * skipped
+ * </li>
+ * <li>
+ * <code>mime-types</code>: a comma separated list of the mime types the
+ * configuration entry applies to
+ * </li>
+ * </ul>
+ *
+ * @author Sergio González
+ * @review
+ */
+public class AdaptiveMediaImageConfigurationEntryConditions {
+
+	public static final String MAX_SOURCE_SIZE = "max-source-size";
+
+	public static final String MIME_TYPES = "mime-types";
+
+	public static final String MIN_SOURCE_WIDTH = "min-source-width";
+
+	public AdaptiveMediaImageConfigurationEntryConditions(
+		Map<String, String> properties) {
+
+		_maxSourceSize = GetterUtil.getLong(properties.get(MAX_SOURCE_SIZE));
+		_minSourceWidth = GetterUtil.getInteger(
+			properties.get(MIN_SOURCE_WIDTH));
+
+		String mimeTypes = properties.get(MIME_TYPES);
+
+		if (Validator.isNull(mimeTypes)) {
+			_mimeTypes = null;
+		}
+		else {
+			Set<String> supportedMimeTypes =
+				AdaptiveMediaImageConstants.getSupportedMimeTypes();
+
+			Set<String> mimeTypesSet = new LinkedHashSet<>();
+
+			for (String mimeType : StringUtil.split(mimeTypes)) {
+				if (supportedMimeTypes.contains(mimeType)) {
+					mimeTypesSet.add(mimeType);
+				}
+			}
+
+			_mimeTypes = Collections.unmodifiableSet(mimeTypesSet);
+		}
+	}
+
+	/**
+	 * Returns the maximum size in bytes of the source images, or
+	 * <code>0</code> if there is no limit.
+	 *
+	 * @return the maximum size of the source images
+	 */
+	public long getMaxSourceSize() {
+		return _maxSourceSize;
+	}
+
+	/**
+	 * Returns the supported mime types the configuration entry applies to.
+	 *
+	 * @return the mime types of the source images
+	 */
+	public Set<String> getMimeTypes() {
+		if (_mimeTypes == null) {
+			return AdaptiveMediaImageConstants.getSupportedMimeTypes();
+		}
+
+		return _mimeTypes;
+	}
+
+	/**
+	 * Returns the minimum width in pixels of the source images, or
+	 * <code>0</code> if there is no limit.
+	 *
+	 * @return the minimum width of the source images
+	 */
+	public int getMinSourceWidth() {
+		return _minSourceWidth;
+	}
+
+	/**
+	 * Returns <code>true</code> if a source image with the mime type and size
+	 * may be processed. Whether the mime type is supported at all is not
+	 * checked unless the configuration entry restricts the mime types, and the
+	 * width of the image still has to be checked with {@link
+	 * #isSupportedWidth(int)}.
+	 *
+	 * @param  mimeType the mime type of the source image
+	 * @param  size the size in bytes of the source image
+	 * @return <code>true</code> if the source image may be processed;
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isSupported(String mimeType, long size) {
+		if ((_mimeTypes != null) && !_mimeTypes.contains(mimeType)) {
+			return false;
+		}
+
+		if ((_maxSourceSize > 0) && (size > _maxSourceSize)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if a source image with the width may be
+	 * processed. Unknown widths, represented by <code>0</code>, are always
+	 * supported.
+	 *
+	 * @param  width the width in pixels of the source image
+	 * @return <code>true</code> if the source image may be processed;
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isSupportedWidth(int width) {
+		if ((width > 0) && (width < _minSourceWidth)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	private final long _maxSourceSize;
+	private final Set<String> _mimeTypes;
+	private final int _minSourceWidth;
+
+}
\ No newline at end of file
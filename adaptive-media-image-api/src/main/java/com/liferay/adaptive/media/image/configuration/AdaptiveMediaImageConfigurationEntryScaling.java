@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.configuration;
+
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.util.Map;
+
+/**
+ * Describes how the source images are scaled to the dimensions of a
+ * configuration entry.
+ *
+ * <p>
+ * The scaling is set with optional properties of the configuration entry:
+ * </p>
+ *
+ * <ul>
+ * <li>
+ * <code>scaling-mode</code>: <code>fit</code>, the default, scales the images
+ * to fit within <code>max-width</code> and <code>max-height</code>.
+ * <code>fill</code> crops the images to the aspect ratio of
+ * <code>max-width</code> and <code>max-height</code>, which are both required,
+ * before scaling them, so that the generated images have exactly those
+ * dimensions unless the source image is smaller
+ * </li>
+ * <li>
+ * <code>focal-point-x</code> and <code>focal-point-y</code>: the percentage of
+ * the width and height of the source images, from <code>0</code> to
+ * <code>100</code>, that the crop is centered on when possible. The default is
+ * <code>50</code>, the center of the image
+ * </li>
+ * </ul>
+ *
+ * @author Sergio González
+ * @review
+ */
+public class AdaptiveMediaImageConfigurationEntryScaling {
+
+	public static final String FOCAL_POINT_X = "focal-point-x";
+
+	public static final String FOCAL_POINT_Y = "focal-point-y";
+
+	public static final String SCALING_MODE = "scaling-mode";
+
+	public static final String SCALING_MODE_FILL = "fill";
+
+	public static final String SCALING_MODE_FIT = "fit";
+
+	public AdaptiveMediaImageConfigurationEntryScaling(
+		Map<String, String> properties) {
+
+		_fill = SCALING_MODE_FILL.equals(properties.get(SCALING_MODE));
+		_focalPointX = _getFocalPoint(properties.get(FOCAL_POINT_X));
+		_focalPointY = _getFocalPoint(properties.get(FOCAL_POINT_Y));
+	}
+
+	/**
+	 * Returns the horizontal position the crop is centered on, as a fraction
+	 * of the width of the source images between <code>0</code> and
+	 * <code>1</code>.
+	 *
+	 * @return the horizontal position of the focal point
+	 */
+	public double getFocalPointX() {
+		return _focalPointX;
+	}
+
+	/**
+	 * Returns the vertical position the crop is centered on, as a fraction of
+	 * the height of the source images between <code>0</code> and
+	 * <code>1</code>.
+	 *
+	 * @return the vertical position of the focal point
+	 */
+	public double getFocalPointY() {
+		return _focalPointY;
+	}
+
+	/**
+	 * Returns <code>true</code> if the source images are cropped to fill the
+	 * exact dimensions of the configuration entry.
+	 *
+	 * @return <code>true</code> if the scaling mode is <code>fill</code>;
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isFill() {
+		return _fill;
+	}
+
+	private static double _getFocalPoint(String value) {
+		double focalPoint = GetterUtil.getDouble(value, _DEFAULT_FOCAL_POINT);
+
+		return Math.min(Math.max(focalPoint, 0), 100) / 100;
+	}
+
+	private static final double _DEFAULT_FOCAL_POINT = 50;
+
+	private final boolean _fill;
+	private final double _focalPointX;
+	private final double _focalPointY;
+
+}
\ No newline at end of file
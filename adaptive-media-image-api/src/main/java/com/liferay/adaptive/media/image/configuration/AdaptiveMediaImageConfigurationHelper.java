@@ -38,11 +38,78 @@ public interface AdaptiveMediaImageConfigurationHelper {
 				Map<String, String> properties)
 		throws AdaptiveMediaImageConfigurationException, IOException;
 
+	/**
+	 * Adds a configuration entry to the group. If the company has a
+	 * configuration entry with the same UUID, the group entry overrides it
+	 * in the group; otherwise, the group entry is only used for the images
+	 * of the group. If the group already has a configuration entry with the
+	 * same UUID, it is replaced.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @param  name the name of the configuration entry
+	 * @param  uuid the UUID of the configuration entry
+	 * @param  properties the properties of the configuration entry
+	 * @return the configuration entry of the group
+	 * @throws AdaptiveMediaImageConfigurationException if the configuration
+	 *         entry is not valid
+	 * @review
+	 */
+	public AdaptiveMediaImageConfigurationEntry
+			addGroupAdaptiveMediaImageConfigurationEntry(
+				long companyId, long groupId, String name, String uuid,
+				Map<String, String> properties)
+		throws AdaptiveMediaImageConfigurationException, IOException;
+
+	/**
+	 * Validates and stores all the changes of the change set at once. The
+	 * changes are only applied if the configuration version of the company
+	 * is still the given one.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  configurationVersion the configuration version the changes are
+	 *         based on
+	 * @param  changeSet the changes to apply
+	 * @return the new configuration version of the company
+	 * @throws AdaptiveMediaImageConfigurationException if any of the changes
+	 *         is not valid or if the configuration has been modified since
+	 *         the given version
+	 * @review
+	 */
+	public long applyAdaptiveMediaImageConfigurationChangeSet(
+			long companyId, long configurationVersion,
+			AdaptiveMediaImageConfigurationChangeSet changeSet)
+		throws AdaptiveMediaImageConfigurationException, IOException;
+
+	/**
+	 * Returns an empty change set to be applied with {@link
+	 * #applyAdaptiveMediaImageConfigurationChangeSet(long, long,
+	 * AdaptiveMediaImageConfigurationChangeSet)}.
+	 *
+	 * @review
+	 */
+	public AdaptiveMediaImageConfigurationChangeSet
+		createAdaptiveMediaImageConfigurationChangeSet();
+
 	public void deleteAdaptiveMediaImageConfigurationEntry(
 			long companyId, String uuid)
 		throws InvalidStateAdaptiveMediaImageConfigurationException,
 			IOException;
 
+	/**
+	 * Deletes the configuration entry of the group. If it was overriding a
+	 * configuration entry of the company, the company entry is used again
+	 * for the images of the group.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @param  uuid the UUID of the configuration entry
+	 * @review
+	 */
+	public void deleteGroupAdaptiveMediaImageConfigurationEntry(
+			long companyId, long groupId, String uuid)
+		throws IOException;
+
 	public void disableAdaptiveMediaImageConfigurationEntry(
 			long companyId, String uuid)
 		throws IOException;
@@ -58,15 +125,90 @@ public interface AdaptiveMediaImageConfigurationHelper {
 	public Collection<AdaptiveMediaImageConfigurationEntry>
 		getAdaptiveMediaImageConfigurationEntries(long companyId);
 
+	/**
+	 * Returns the enabled configuration entries that are effective in the
+	 * group, that is, the configuration entries of the company combined with
+	 * the configuration entries of the group.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @return the enabled configuration entries effective in the group
+	 * @review
+	 */
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntries(long companyId, long groupId);
+
 	public Collection<AdaptiveMediaImageConfigurationEntry>
 		getAdaptiveMediaImageConfigurationEntries(
 			long companyId,
 			Predicate<? super AdaptiveMediaImageConfigurationEntry> predicate);
 
+	/**
+	 * Returns the configuration entries effective in the group that match
+	 * the predicate.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @param  predicate the predicate the configuration entries must match
+	 * @return the matching configuration entries effective in the group
+	 * @review
+	 */
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntries(
+			long companyId, long groupId,
+			Predicate<? super AdaptiveMediaImageConfigurationEntry> predicate);
+
 	public Optional<AdaptiveMediaImageConfigurationEntry>
 		getAdaptiveMediaImageConfigurationEntry(
 			long companyId, String configurationEntryUUID);
 
+	/**
+	 * Returns the configuration entry with the UUID that is effective in the
+	 * group, whether it is defined by the group or by the company.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @param  configurationEntryUUID the UUID of the configuration entry
+	 * @return the configuration entry effective in the group
+	 * @review
+	 */
+	public Optional<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntry(
+			long companyId, long groupId, String configurationEntryUUID);
+
+	/**
+	 * Returns the version of the image configuration of the company. The
+	 * version changes every time the configuration is stored.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @return the configuration version of the company
+	 * @review
+	 */
+	public long getConfigurationVersion(long companyId);
+
+	/**
+	 * Returns the version of the effective image configuration of the group.
+	 * The version changes every time the configuration of the company or the
+	 * group is stored.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @return the effective configuration version of the group
+	 * @review
+	 */
+	public long getConfigurationVersion(long companyId, long groupId);
+
+	/**
+	 * Returns the configuration entries defined by the group, without the
+	 * configuration entries inherited from the company.
+	 *
+	 * @param  groupId the primary key of the group
+	 * @return the configuration entries defined by the group
+	 * @review
+	 */
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getGroupAdaptiveMediaImageConfigurationEntries(long groupId);
+
 	public boolean isDefaultConfiguration(long companyId);
 
 	public void resetDefaultConfiguration(long companyId);
@@ -14,6 +14,8 @@
 
 package com.liferay.adaptive.media.image.counter;
 
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+
 /**
  * @author Sergio González
  */
@@ -21,4 +23,22 @@ public interface AdaptiveMediaImageCounter {
 
 	public int countExpectedAdaptiveMediaImageEntries(long companyId);
 
+	/**
+	 * Returns the number of adaptive media images that are expected to be
+	 * generated for the configuration entry in the company, taking into
+	 * account the conditions of the configuration entry that can be checked
+	 * without reading the images.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  configurationEntry the configuration entry
+	 * @return the number of expected adaptive media images
+	 * @review
+	 */
+	public default int countExpectedAdaptiveMediaImageEntries(
+		long companyId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		return countExpectedAdaptiveMediaImageEntries(companyId);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.estimator;
+
+/**
+ * Holds the cost of generating the adaptive media images of a configuration
+ * that has not been saved yet, measured on a sample of the images and
+ * extrapolated to every image the configuration would apply to.
+ *
+ * <p>
+ * Sampled images are scaled and encoded exactly as the processor would do it,
+ * but nothing is stored. Images skipped by the conditions of the
+ * configuration reduce the estimated number of images in the same proportion
+ * they have in the sample.
+ * </p>
+ *
+ * @author Sergio González
+ * @review
+ */
+public class AdaptiveMediaImageCostEstimate {
+
+	public AdaptiveMediaImageCostEstimate(
+		int expectedCount, int processedCount, int skippedCount,
+		int failedCount, long cpuTime, long size) {
+
+		_expectedCount = expectedCount;
+		_processedCount = processedCount;
+		_skippedCount = skippedCount;
+		_failedCount = failedCount;
+		_cpuTime = cpuTime;
+		_size = size;
+	}
+
+	/**
+	 * Returns the average CPU time spent scaling and encoding a sampled image.
+	 *
+	 * @return the average CPU time in nanoseconds
+	 * @review
+	 */
+	public long getAverageCPUTime() {
+		if (_processedCount == 0) {
+			return 0;
+		}
+
+		return _cpuTime / _processedCount;
+	}
+
+	/**
+	 * Returns the average number of bytes of a sampled adaptive media image.
+	 *
+	 * @return the average size in bytes
+	 * @review
+	 */
+	public long getAverageSize() {
+		if (_processedCount == 0) {
+			return 0;
+		}
+
+		return _size / _processedCount;
+	}
+
+	/**
+	 * Returns the CPU time spent on the whole sample.
+	 *
+	 * @return the CPU time in nanoseconds
+	 * @review
+	 */
+	public long getCPUTime() {
+		return _cpuTime;
+	}
+
+	/**
+	 * Returns the number of adaptive media images the configuration would
+	 * generate, discounting the proportion of sampled images skipped by its
+	 * conditions.
+	 *
+	 * @return the estimated number of adaptive media images
+	 * @review
+	 */
+	public long getEstimatedCount() {
+		int sampleCount = _processedCount + _skippedCount;
+
+		if (sampleCount == 0) {
+			return _expectedCount;
+		}
+
+		return Math.round(
+			(double)_expectedCount * _processedCount / sampleCount);
+	}
+
+	/**
+	 * Returns the CPU time needed to generate every adaptive media image of the
+	 * configuration.
+	 *
+	 * @return the estimated CPU time in nanoseconds
+	 * @review
+	 */
+	public long getEstimatedCPUTime() {
+		return getAverageCPUTime() * getEstimatedCount();
+	}
+
+	/**
+	 * Returns the number of bytes every adaptive media image of the
+	 * configuration would take in the file store.
+	 *
+	 * @return the estimated size in bytes
+	 * @review
+	 */
+	public long getEstimatedSize() {
+		return getAverageSize() * getEstimatedCount();
+	}
+
+	/**
+	 * Returns the number of images the configuration applies to according to
+	 * the conditions that can be checked without reading the images.
+	 *
+	 * @return the number of expected adaptive media images
+	 * @review
+	 */
+	public int getExpectedCount() {
+		return _expectedCount;
+	}
+
+	public int getFailedCount() {
+		return _failedCount;
+	}
+
+	public int getProcessedCount() {
+		return _processedCount;
+	}
+
+	public long getSize() {
+		return _size;
+	}
+
+	public int getSkippedCount() {
+		return _skippedCount;
+	}
+
+	private final long _cpuTime;
+	private final int _expectedCount;
+	private final int _failedCount;
+	private final int _processedCount;
+	private final long _size;
+	private final int _skippedCount;
+
+}
\ No newline at end of file
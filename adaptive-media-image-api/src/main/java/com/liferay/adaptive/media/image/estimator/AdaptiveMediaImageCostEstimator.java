@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.estimator;
+
+import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
+
+import java.util.Map;
+
+/**
+ * Estimates the cost of enabling a new configuration before it is saved.
+ *
+ * @author Sergio González
+ * @review
+ */
+public interface AdaptiveMediaImageCostEstimator {
+
+	/**
+	 * Returns the cost of generating the adaptive media images of a
+	 * configuration with the properties in the company. Up to
+	 * <code>sampleSize</code> random images are scaled and encoded to measure
+	 * it, without storing the result.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  properties the properties of the proposed configuration
+	 * @param  sampleSize the maximum number of images to process
+	 * @return the estimated cost of the configuration
+	 * @throws AdaptiveMediaImageConfigurationException if the properties do
+	 *         not define a max width or a max height
+	 * @review
+	 */
+	public AdaptiveMediaImageCostEstimate estimate(
+			long companyId, Map<String, String> properties, int sampleSize)
+		throws AdaptiveMediaImageConfigurationException;
+
+}
\ No newline at end of file
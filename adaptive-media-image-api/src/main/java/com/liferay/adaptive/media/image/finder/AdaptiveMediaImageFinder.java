@@ -14,10 +14,15 @@
 
 package com.liferay.adaptive.media.image.finder;
 
+import com.liferay.adaptive.media.AdaptiveMedia;
 import com.liferay.adaptive.media.finder.AdaptiveMediaFinder;
+import com.liferay.adaptive.media.finder.AdaptiveMediaQuery;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 /**
  * Provides a specialized interface for locating {@link AdaptiveMedia} specific
  * {@link FileVersion} models generated by {@link AdaptiveMediaImageProcessor}s.
@@ -30,4 +35,46 @@ public interface AdaptiveMediaImageFinder
 	extends AdaptiveMediaFinder
 		<AdaptiveMediaImageQueryBuilder, FileVersion,
 			AdaptiveMediaImageProcessor> {
+
+	/**
+	 * Prepares a query that does not depend on the file version it is run
+	 * for. The function is invoked once, with the step of an {@link
+	 * AdaptiveMediaImageQueryBuilder} that follows the choice of the file
+	 * version, and the query it builds can then be run for any file entry or
+	 * file version without building it again.
+	 *
+	 * @param  queryFunction a function that builds the query from the initial
+	 *         step of an {@link AdaptiveMediaImageQueryBuilder}
+	 * @return the prepared query
+	 * @review
+	 */
+	public AdaptiveMediaImagePreparedQuery prepareQuery(
+		Function
+			<AdaptiveMediaImageQueryBuilder.InitialStep, AdaptiveMediaQuery
+				<FileVersion, AdaptiveMediaImageProcessor>> queryFunction);
+
+	/**
+	 * Returns the {@link AdaptiveMedia} of every image of the company, or of
+	 * the group if a group is given, in the order the images were stored.
+	 * The images are read in batches as the stream is consumed, and a batch
+	 * is only read once the previous one has been consumed, so the memory
+	 * used does not depend on the number of images. Nothing is read after
+	 * the stream is closed or a short-circuiting operation completes.
+	 *
+	 * <p>
+	 * Images whose file version or configuration no longer exists are
+	 * skipped.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group, or <code>0</code> to
+	 *         return the images of every group of the company
+	 * @param  prefetchSize the maximum number of images read ahead of the
+	 *         stream consumer
+	 * @return a lazily populated stream of the adaptive media
+	 * @review
+	 */
+	public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> scanAdaptiveMedia(
+		long companyId, long groupId, int prefetchSize);
+
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.finder;
+
+import aQute.bnd.annotation.ProviderType;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.AdaptiveMediaException;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import java.util.stream.Stream;
+
+/**
+ * Represents a query prepared with {@link
+ * AdaptiveMediaImageFinder#prepareQuery(java.util.function.Function)}. The
+ * query is built once and can be run any number of times, from any thread,
+ * for different file entries or file versions.
+ *
+ * @author Adolfo Pérez
+ * @review
+ */
+@ProviderType
+public interface AdaptiveMediaImagePreparedQuery {
+
+	/**
+	 * Returns the {@link AdaptiveMedia} of the latest file version of the
+	 * file entry that match the query, as {@link
+	 * AdaptiveMediaImageQueryBuilder#forFileEntry(FileEntry)} does.
+	 *
+	 * @param  fileEntry the file entry
+	 * @return a non-<code>null</code>, possibly empty stream of all media
+	 *         instances matching the query
+	 * @throws AdaptiveMediaException if an error occurred while getting the
+	 *         {@link AdaptiveMedia}
+	 * @throws PortalException if an error occurred while calling any Liferay
+	 *         service
+	 */
+	public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> getAdaptiveMedia(
+			FileEntry fileEntry)
+		throws AdaptiveMediaException, PortalException;
+
+	/**
+	 * Returns the {@link AdaptiveMedia} of the file version that match the
+	 * query, as {@link AdaptiveMediaImageQueryBuilder#forVersion(FileVersion)}
+	 * does.
+	 *
+	 * @param  fileVersion the file version
+	 * @return a non-<code>null</code>, possibly empty stream of all media
+	 *         instances matching the query
+	 * @throws AdaptiveMediaException if an error occurred while getting the
+	 *         {@link AdaptiveMedia}
+	 * @throws PortalException if an error occurred while calling any Liferay
+	 *         service
+	 */
+	public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> getAdaptiveMedia(
+			FileVersion fileVersion)
+		throws AdaptiveMediaException, PortalException;
+
+}
\ No newline at end of file
@@ -76,7 +76,7 @@ public interface AdaptiveMediaImageQueryBuilder
 
 	}
 
-	public interface FuzzySortStep extends FinalStep {
+	public interface FuzzySortStep extends LimitStep {
 
 		public <V> FuzzySortStep with(
 			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, V> attribute,
@@ -92,7 +92,25 @@ public interface AdaptiveMediaImageQueryBuilder
 		extends ConfigurationStep, FuzzySortStep, StrictSortStep {
 	}
 
-	public interface StrictSortStep extends FinalStep {
+	/**
+	 * @review
+	 */
+	public interface LimitStep extends FinalStep {
+
+		/**
+		 * Limits the query to the first results in the query's order. Only
+		 * the requested number of results is selected, instead of sorting
+		 * every result.
+		 *
+		 * @param  limit the maximum number of results, greater than
+		 *         <code>0</code>
+		 * @return the final step of the query
+		 */
+		public FinalStep limit(int limit);
+
+	}
+
+	public interface StrictSortStep extends LimitStep {
 
 		public <V> StrictSortStep orderBy(
 			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, V> attribute,
@@ -223,6 +223,35 @@ public interface AdaptiveMediaImageEntryModel extends BaseModel<AdaptiveMediaIma
 	 */
 	public void setSize(long size);
 
+	/**
+	 * Returns the last access date of this adaptive media image entry.
+	 *
+	 * @return the last access date of this adaptive media image entry
+	 */
+	public Date getLastAccessDate();
+
+	/**
+	 * Sets the last access date of this adaptive media image entry.
+	 *
+	 * @param lastAccessDate the last access date of this adaptive media image entry
+	 */
+	public void setLastAccessDate(Date lastAccessDate);
+
+	/**
+	 * Returns the configuration version of this adaptive media image entry.
+	 *
+	 * @return the configuration version of this adaptive media image entry
+	 */
+	@AutoEscape
+	public String getConfigurationVersion();
+
+	/**
+	 * Sets the configuration version of this adaptive media image entry.
+	 *
+	 * @param configurationVersion the configuration version of this adaptive media image entry
+	 */
+	public void setConfigurationVersion(String configurationVersion);
+
 	@Override
 	public boolean isNew();
 
@@ -45,6 +45,8 @@ public class AdaptiveMediaImageEntrySoap implements Serializable {
 		soapModel.setHeight(model.getHeight());
 		soapModel.setWidth(model.getWidth());
 		soapModel.setSize(model.getSize());
+		soapModel.setLastAccessDate(model.getLastAccessDate());
+		soapModel.setConfigurationVersion(model.getConfigurationVersion());
 
 		return soapModel;
 	}
@@ -188,6 +190,22 @@ public class AdaptiveMediaImageEntrySoap implements Serializable {
 		_size = size;
 	}
 
+	public Date getLastAccessDate() {
+		return _lastAccessDate;
+	}
+
+	public void setLastAccessDate(Date lastAccessDate) {
+		_lastAccessDate = lastAccessDate;
+	}
+
+	public String getConfigurationVersion() {
+		return _configurationVersion;
+	}
+
+	public void setConfigurationVersion(String configurationVersion) {
+		_configurationVersion = configurationVersion;
+	}
+
 	private String _uuid;
 	private long _adaptiveMediaImageEntryId;
 	private long _groupId;
@@ -199,4 +217,6 @@ public class AdaptiveMediaImageEntrySoap implements Serializable {
 	private int _height;
 	private int _width;
 	private long _size;
+	private Date _lastAccessDate;
+	private String _configurationVersion;
 }
\ No newline at end of file
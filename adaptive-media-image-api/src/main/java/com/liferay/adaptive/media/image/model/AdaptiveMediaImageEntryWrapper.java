@@ -71,6 +71,8 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		attributes.put("height", getHeight());
 		attributes.put("width", getWidth());
 		attributes.put("size", getSize());
+		attributes.put("lastAccessDate", getLastAccessDate());
+		attributes.put("configurationVersion", getConfigurationVersion());
 
 		return attributes;
 	}
@@ -143,6 +145,19 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		if (size != null) {
 			setSize(size);
 		}
+
+		Date lastAccessDate = (Date)attributes.get("lastAccessDate");
+
+		if (lastAccessDate != null) {
+			setLastAccessDate(lastAccessDate);
+		}
+
+		String configurationVersion = (String)attributes.get(
+				"configurationVersion");
+
+		if (configurationVersion != null) {
+			setConfigurationVersion(configurationVersion);
+		}
 	}
 
 	@Override
@@ -230,6 +245,16 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		return _adaptiveMediaImageEntry.getConfigurationUuid();
 	}
 
+	/**
+	* Returns the configuration version of this adaptive media image entry.
+	*
+	* @return the configuration version of this adaptive media image entry
+	*/
+	@Override
+	public java.lang.String getConfigurationVersion() {
+		return _adaptiveMediaImageEntry.getConfigurationVersion();
+	}
+
 	/**
 	* Returns the mime type of this adaptive media image entry.
 	*
@@ -270,6 +295,16 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		return _adaptiveMediaImageEntry.getCreateDate();
 	}
 
+	/**
+	* Returns the last access date of this adaptive media image entry.
+	*
+	* @return the last access date of this adaptive media image entry
+	*/
+	@Override
+	public Date getLastAccessDate() {
+		return _adaptiveMediaImageEntry.getLastAccessDate();
+	}
+
 	/**
 	* Returns the adaptive media image entry ID of this adaptive media image entry.
 	*
@@ -370,6 +405,16 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		_adaptiveMediaImageEntry.setConfigurationUuid(configurationUuid);
 	}
 
+	/**
+	* Sets the configuration version of this adaptive media image entry.
+	*
+	* @param configurationVersion the configuration version of this adaptive media image entry
+	*/
+	@Override
+	public void setConfigurationVersion(java.lang.String configurationVersion) {
+		_adaptiveMediaImageEntry.setConfigurationVersion(configurationVersion);
+	}
+
 	/**
 	* Sets the create date of this adaptive media image entry.
 	*
@@ -426,6 +471,16 @@ public class AdaptiveMediaImageEntryWrapper implements AdaptiveMediaImageEntry,
 		_adaptiveMediaImageEntry.setHeight(height);
 	}
 
+	/**
+	* Sets the last access date of this adaptive media image entry.
+	*
+	* @param lastAccessDate the last access date of this adaptive media image entry
+	*/
+	@Override
+	public void setLastAccessDate(Date lastAccessDate) {
+		_adaptiveMediaImageEntry.setLastAccessDate(lastAccessDate);
+	}
+
 	/**
 	* Sets the mime type of this adaptive media image entry.
 	*
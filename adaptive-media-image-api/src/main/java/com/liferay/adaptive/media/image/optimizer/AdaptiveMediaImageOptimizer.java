@@ -26,4 +26,15 @@ public interface AdaptiveMediaImageOptimizer {
 
 	public void optimize(long companyId, String configurationEntryUuid);
 
+	/**
+	 * Generates the missing adaptive media images of the group for every
+	 * configuration entry that is effective in the group, including the
+	 * configuration entries defined only for the group.
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @review
+	 */
+	public void optimize(long companyId, long groupId);
+
 }
\ No newline at end of file
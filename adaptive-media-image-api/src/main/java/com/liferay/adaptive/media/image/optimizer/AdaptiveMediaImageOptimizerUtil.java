@@ -53,6 +53,27 @@ public class AdaptiveMediaImageOptimizerUtil {
 		}
 	}
 
+	public static void optimize(long companyId, long groupId) {
+		if (_serviceTrackerMap == null) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					"Cannot optimize for group id " + groupId +
+						" because the component is not actived");
+			}
+
+			return;
+		}
+
+		Set<String> modelClassNames = _serviceTrackerMap.keySet();
+
+		for (String modelClassName : modelClassNames) {
+			AdaptiveMediaImageOptimizer optimizer =
+				_serviceTrackerMap.getService(modelClassName);
+
+			optimizer.optimize(companyId, groupId);
+		}
+	}
+
 	public static void optimize(long companyId, String configurationEntryUuid) {
 		if (_serviceTrackerMap == null) {
 			if (_log.isWarnEnabled()) {
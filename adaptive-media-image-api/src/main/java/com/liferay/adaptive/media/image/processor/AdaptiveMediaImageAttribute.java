@@ -15,6 +15,7 @@
 package com.liferay.adaptive.media.image.processor;
 
 import com.liferay.adaptive.media.AdaptiveMediaAttribute;
+import com.liferay.adaptive.media.AdaptiveMediaAttributeRegistry;
 import com.liferay.adaptive.media.util.AdaptiveMediaAttributeConverterUtil;
 
 import java.util.HashMap;
@@ -60,6 +61,11 @@ public final class AdaptiveMediaImageAttribute {
 		_allowedAttributes = new HashMap<>();
 
 	static {
+		AdaptiveMediaAttributeRegistry.register(
+			IMAGE_HEIGHT, AdaptiveMediaImageAttribute.class, "IMAGE_HEIGHT");
+		AdaptiveMediaAttributeRegistry.register(
+			IMAGE_WIDTH, AdaptiveMediaImageAttribute.class, "IMAGE_WIDTH");
+
 		_allowedAttributes.put(
 			AdaptiveMediaImageAttribute.IMAGE_HEIGHT.getName(),
 			AdaptiveMediaImageAttribute.IMAGE_HEIGHT);
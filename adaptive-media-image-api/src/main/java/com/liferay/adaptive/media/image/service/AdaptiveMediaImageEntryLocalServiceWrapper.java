@@ -192,6 +192,40 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 		return _adaptiveMediaImageEntryLocalService.updateAdaptiveMediaImageEntry(adaptiveMediaImageEntry);
 	}
 
+	/**
+	* Replaces the adaptive media image generated for the configuration and
+	* file version with a new one generated with the current configuration.
+	*
+	* <p>
+	* The new image bytes must be completely generated before calling this
+	* method, so that the previous image keeps being served until it is
+	* replaced.
+	* </p>
+	*
+	* @param configurationEntry the configuration used to create the adaptive
+	media image
+	* @param fileVersion the file version used to create the adaptive media
+	image
+	* @param width the width of the adaptive media image
+	* @param height the height of the adaptive media image
+	* @param inputStream the input stream of the adaptive media image that
+	will be stored in the file store
+	* @param size the size of the adaptive media image
+	* @return the adaptive media image
+	* @throws PortalException if an adaptive media image does not exist for the
+	file version and configuration
+	* @review
+	*/
+	@Override
+	public com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry updateAdaptiveMediaImageEntry(
+		com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry configurationEntry,
+		com.liferay.portal.kernel.repository.model.FileVersion fileVersion,
+		int width, int height, java.io.InputStream inputStream, int size)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return _adaptiveMediaImageEntryLocalService.updateAdaptiveMediaImageEntry(configurationEntry,
+			fileVersion, width, height, inputStream, size);
+	}
+
 	@Override
 	public com.liferay.portal.kernel.dao.orm.ActionableDynamicQuery getActionableDynamicQuery() {
 		return _adaptiveMediaImageEntryLocalService.getActionableDynamicQuery();
@@ -224,6 +258,96 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 		return _adaptiveMediaImageEntryLocalService.getPersistedModel(primaryKeyObj);
 	}
 
+	/**
+	* Deletes up to a given number of adaptive media images generated for the
+	* configuration in the company.
+	*
+	* <p>
+	* Unlike {@link #deleteAdaptiveMediaImageEntries(long,
+	* AdaptiveMediaImageConfigurationEntry)}, this method keeps the amount of
+	* work done in a single transaction bounded, so it can be invoked
+	* repeatedly until it returns <code>0</code>. The adaptive media images of
+	* the excluded groups are kept. Once there are no adaptive media images
+	* left and no group is excluded, the configuration is also removed from
+	* the file store.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @param configurationUuid the uuid of the configuration used to create
+	the adaptive media images
+	* @param excludedGroupIds the primary keys of the groups whose adaptive
+	media images must be kept
+	* @param count the maximum number of adaptive media images to delete
+	* @return the number of adaptive media images that were deleted
+	* @review
+	*/
+	@Override
+	public int deleteAdaptiveMediaImageEntries(long companyId,
+		java.lang.String configurationUuid, long[] excludedGroupIds, int count) {
+		return _adaptiveMediaImageEntryLocalService.deleteAdaptiveMediaImageEntries(companyId,
+			configurationUuid, excludedGroupIds, count);
+	}
+
+	/**
+	* Deletes up to a given number of adaptive media images generated for the
+	* configuration in the group.
+	*
+	* <p>
+	* This method is used to remove the adaptive media images of a
+	* configuration that was only defined for the group. It can be invoked
+	* repeatedly until it returns <code>0</code>. The adaptive media images
+	* of other groups are kept.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @param groupId the primary key of the group
+	* @param configurationUuid the uuid of the configuration used to create
+	the adaptive media images
+	* @param count the maximum number of adaptive media images to delete
+	* @return the number of adaptive media images that were deleted
+	* @review
+	*/
+	@Override
+	public int deleteAdaptiveMediaImageEntries(long companyId, long groupId,
+		java.lang.String configurationUuid, int count) {
+		return _adaptiveMediaImageEntryLocalService.deleteAdaptiveMediaImageEntries(companyId,
+			groupId, configurationUuid, count);
+	}
+
+	/**
+	* Deletes up to a given number of adaptive media images that have not been
+	* accessed since the date.
+	*
+	* <p>
+	* Adaptive media images that have never been accessed are deleted if they
+	* were created before the date. This method deletes the adaptive media
+	* image entry from the database and it also deletes the bytes from the
+	* file store.
+	* </p>
+	*
+	* <p>
+	* The entries are deleted ordered by primary key, starting after the given
+	* one, so that each batch resumes where the previous one stopped instead
+	* of scanning the entries again.
+	* </p>
+	*
+	* @param date the date before which the adaptive media images must have
+	been last accessed in order to be deleted
+	* @param previousImageEntryId the primary key of the last entry deleted
+	by the previous batch, or <code>0</code> to start from the
+	beginning
+	* @param count the maximum number of adaptive media images to delete
+	* @return the primary key of the last adaptive media image deleted, or
+	<code>0</code> if none were deleted
+	* @review
+	*/
+	@Override
+	public long deleteUnusedAdaptiveMediaImageEntries(java.util.Date date,
+		long previousImageEntryId, int count) {
+		return _adaptiveMediaImageEntryLocalService.deleteUnusedAdaptiveMediaImageEntries(date,
+			previousImageEntryId, count);
+	}
+
 	/**
 	* Returns the number of adaptive media image entries.
 	*
@@ -271,6 +395,31 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 		return _adaptiveMediaImageEntryLocalService.getExpectedAdaptiveMediaImageEntriesCount(companyId);
 	}
 
+	/**
+	* Returns the number of adaptive media images that are expected to be
+	* generated for the configuration in a company, taking into account the
+	* conditions of the configuration on the source images.
+	*
+	* <p>
+	* Conditions that can only be checked by reading the images, such as the
+	* minimum source width, are not taken into account, so the number of
+	* actual adaptive media images could be less.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @param configurationEntry the configuration used to create the adaptive
+	media images
+	* @return the number of expected adaptive media images for the
+	configuration in a company
+	* @review
+	*/
+	@Override
+	public int getExpectedAdaptiveMediaImageEntriesCount(long companyId,
+		com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry configurationEntry) {
+		return _adaptiveMediaImageEntryLocalService.getExpectedAdaptiveMediaImageEntriesCount(companyId,
+			configurationEntry);
+	}
+
 	/**
 	* Returns the percentage of images that have an adaptive media image
 	* generated based on the expected number of adaptive media images for a
@@ -391,6 +540,32 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 			end);
 	}
 
+	/**
+	* Returns up to a given number of adaptive media image entries of the
+	* company, or of the group if a group is given.
+	*
+	* <p>
+	* The entries are returned ordered by primary key, starting after the given
+	* one, so that all the entries can be iterated in batches without counting
+	* or skipping rows.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @param groupId the primary key of the group, or <code>0</code> to
+	return the entries of every group of the company
+	* @param previousImageEntryId the primary key of the last entry of the
+	previous batch, or <code>0</code> to start from the beginning
+	* @param count the maximum number of entries to return
+	* @return the adaptive media image entries
+	* @review
+	*/
+	@Override
+	public java.util.List<com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry> getAdaptiveMediaImageEntries(
+		long companyId, long groupId, long previousImageEntryId, int count) {
+		return _adaptiveMediaImageEntryLocalService.getAdaptiveMediaImageEntries(companyId,
+			groupId, previousImageEntryId, count);
+	}
+
 	/**
 	* Returns all the adaptive media image entries matching the UUID and company.
 	*
@@ -423,6 +598,56 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 			companyId, start, end, orderByComparator);
 	}
 
+	/**
+	* Returns the storage stats of the adaptive media images in the company,
+	* grouped by configuration, group and mime type.
+	*
+	* <p>
+	* The stats are maintained incrementally as adaptive media images are added
+	* and deleted, so calling this method does not aggregate the whole table.
+	* Use {@link com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats#add(
+	* AdaptiveMediaImageStorageStats)} to obtain coarser groupings.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @return the storage stats of the adaptive media images in the company
+	* @review
+	*/
+	@Override
+	public java.util.List<com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats> getAdaptiveMediaImageStorageStats(
+		long companyId) {
+		return _adaptiveMediaImageEntryLocalService.getAdaptiveMediaImageStorageStats(companyId);
+	}
+
+	/**
+	* Returns up to a given number of adaptive media image entries generated
+	* for the configuration in the company with a content version other than
+	* the configuration's current one.
+	*
+	* <p>
+	* The entries are returned ordered by primary key, starting after the given
+	* one, so that the stale entries can be iterated in batches while they are
+	* regenerated.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @param configurationEntry the configuration used to create the adaptive
+	media images
+	* @param previousImageEntryId the primary key of the last entry of the
+	previous batch, or <code>0</code> to start from the beginning
+	* @param count the maximum number of entries to return
+	* @return the stale adaptive media image entries
+	* @review
+	*/
+	@Override
+	public java.util.List<com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry> getStaleAdaptiveMediaImageEntries(
+		long companyId,
+		com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry configurationEntry,
+		long previousImageEntryId, int count) {
+		return _adaptiveMediaImageEntryLocalService.getStaleAdaptiveMediaImageEntries(companyId,
+			configurationEntry, previousImageEntryId, count);
+	}
+
 	/**
 	* Returns the number of rows matching the dynamic query.
 	*
@@ -489,6 +714,68 @@ public class AdaptiveMediaImageEntryLocalServiceWrapper
 		_adaptiveMediaImageEntryLocalService.deleteAdaptiveMediaImageEntryFileVersion(fileVersionId);
 	}
 
+	/**
+	* Deletes the adaptive media image generated for the configuration and
+	* file version.
+	*
+	* <p>
+	* This method deletes the adaptive media image entry from the database and
+	* it also deletes the bytes from the file store.
+	* </p>
+	*
+	* @param configurationUuid the uuid of the configuration used to create
+	the adaptive media image
+	* @param fileVersionId the primary key of the file version
+	* @review
+	*/
+	@Override
+	public void deleteAdaptiveMediaImageEntryFileVersion(
+		java.lang.String configurationUuid, long fileVersionId) {
+		_adaptiveMediaImageEntryLocalService.deleteAdaptiveMediaImageEntryFileVersion(configurationUuid,
+			fileVersionId);
+	}
+
+	/**
+	* Discards the number of adaptive media images that are expected to be in
+	* a company, so that it is counted again the next time it is requested.
+	*
+	* <p>
+	* This method should be called whenever an image that supports adaptive
+	* media is added to or removed from the company.
+	* </p>
+	*
+	* @param companyId the primary key of the company
+	* @review
+	*/
+	@Override
+	public void invalidateExpectedAdaptiveMediaImageEntriesCount(
+		long companyId) {
+		_adaptiveMediaImageEntryLocalService.invalidateExpectedAdaptiveMediaImageEntriesCount(companyId);
+	}
+
+	/**
+	* Updates the last access date of the adaptive media images generated for
+	* the configuration and file versions.
+	*
+	* <p>
+	* Adaptive media images that were already accessed after the date are left
+	* untouched.
+	* </p>
+	*
+	* @param configurationUuid the uuid of the configuration used to create
+	the adaptive media images
+	* @param fileVersionIds the primary keys of the file versions
+	* @param lastAccessDate the date the adaptive media images were accessed
+	* @review
+	*/
+	@Override
+	public void updateAdaptiveMediaImageEntriesLastAccessDate(
+		java.lang.String configurationUuid, long[] fileVersionIds,
+		java.util.Date lastAccessDate) {
+		_adaptiveMediaImageEntryLocalService.updateAdaptiveMediaImageEntriesLastAccessDate(configurationUuid,
+			fileVersionIds, lastAccessDate);
+	}
+
 	@Override
 	public AdaptiveMediaImageEntryLocalService getWrappedService() {
 		return _adaptiveMediaImageEntryLocalService;
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.stats;
+
+import com.liferay.portal.kernel.util.Validator;
+
+/**
+ * Aggregates the number of adaptive media images and the bytes they take in
+ * the file store for a configuration, group and mime type.
+ *
+ * <p>
+ * Instances can be combined with {@link #add(AdaptiveMediaImageStorageStats)}
+ * to obtain the totals of a coarser grouping, for example per configuration
+ * across all groups and mime types.
+ * </p>
+ *
+ * @author Sergio González
+ * @review
+ */
+public class AdaptiveMediaImageStorageStats {
+
+	public AdaptiveMediaImageStorageStats(
+		String configurationUuid, long groupId, String mimeType, long count,
+		long size, long pixels) {
+
+		_configurationUuid = configurationUuid;
+		_groupId = groupId;
+		_mimeType = mimeType;
+		_count = count;
+		_size = size;
+		_pixels = pixels;
+	}
+
+	/**
+	 * Returns the sum of these stats and the given ones. The configuration
+	 * uuid, group ID and mime type are only kept if both share them.
+	 *
+	 * @param  storageStats the stats to add
+	 * @return the sum of both stats
+	 * @review
+	 */
+	public AdaptiveMediaImageStorageStats add(
+		AdaptiveMediaImageStorageStats storageStats) {
+
+		String configurationUuid = null;
+
+		if (Validator.equals(
+				_configurationUuid, storageStats._configurationUuid)) {
+
+			configurationUuid = _configurationUuid;
+		}
+
+		long groupId = 0;
+
+		if (_groupId == storageStats._groupId) {
+			groupId = _groupId;
+		}
+
+		String mimeType = null;
+
+		if (Validator.equals(_mimeType, storageStats._mimeType)) {
+			mimeType = _mimeType;
+		}
+
+		return new AdaptiveMediaImageStorageStats(
+			configurationUuid, groupId, mimeType, _count + storageStats._count,
+			_size + storageStats._size, _pixels + storageStats._pixels);
+	}
+
+	/**
+	 * Returns the average number of bytes of the adaptive media images.
+	 *
+	 * @return the average size in bytes
+	 * @review
+	 */
+	public long getAverageSize() {
+		if (_count == 0) {
+			return 0;
+		}
+
+		return _size / _count;
+	}
+
+	/**
+	 * Returns the ratio between the size the adaptive media images would take
+	 * as uncompressed 24-bit bitmaps and the size they actually take.
+	 *
+	 * @return the compression ratio, or <code>0</code> if there are no bytes
+	 * @review
+	 */
+	public double getCompressionRatio() {
+		if (_size == 0) {
+			return 0;
+		}
+
+		return (double)(_pixels * _BYTES_PER_PIXEL) / _size;
+	}
+
+	public String getConfigurationUuid() {
+		return _configurationUuid;
+	}
+
+	public long getCount() {
+		return _count;
+	}
+
+	public long getGroupId() {
+		return _groupId;
+	}
+
+	public String getMimeType() {
+		return _mimeType;
+	}
+
+	public long getPixels() {
+		return _pixels;
+	}
+
+	public long getSize() {
+		return _size;
+	}
+
+	private static final int _BYTES_PER_PIXEL = 3;
+
+	private final String _configurationUuid;
+	private final long _count;
+	private final long _groupId;
+	private final String _mimeType;
+	private final long _pixels;
+	private final long _size;
+
+}
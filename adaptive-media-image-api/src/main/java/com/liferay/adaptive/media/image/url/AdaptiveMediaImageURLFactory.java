@@ -15,6 +15,7 @@
 package com.liferay.adaptive.media.image.url;
 
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 
 import java.net.URI;
@@ -28,8 +29,18 @@ public interface AdaptiveMediaImageURLFactory {
 		FileVersion fileVersion,
 		AdaptiveMediaImageConfigurationEntry configurationEntry);
 
+	public URI createFileEntryURL(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry,
+		AdaptiveMediaImageEntry imageEntry);
+
 	public URI createFileVersionURL(
 		FileVersion fileVersion,
 		AdaptiveMediaImageConfigurationEntry configurationEntry);
 
+	public URI createFileVersionURL(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry,
+		AdaptiveMediaImageEntry imageEntry);
+
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.test;
+
+import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeSet;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.arquillian.extension.junit.bridge.junit.Arquillian;
+import com.liferay.portal.kernel.test.rule.AggregateTestRule;
+import com.liferay.portal.kernel.test.rule.Sync;
+import com.liferay.portal.kernel.test.rule.SynchronousDestinationTestRule;
+import com.liferay.portal.kernel.test.util.TestPropsValues;
+import com.liferay.portal.test.rule.LiferayIntegrationTestRule;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author Sergio González
+ */
+@RunWith(Arquillian.class)
+@Sync
+public class AdaptiveMediaImageConfigurationChangeSetTest
+	extends BaseAdaptiveMediaImageConfigurationTestCase {
+
+	@ClassRule
+	@Rule
+	public static final AggregateTestRule aggregateTestRule =
+		new AggregateTestRule(
+			new LiferayIntegrationTestRule(),
+			SynchronousDestinationTestRule.INSTANCE);
+
+	@Test
+	public void testApplyChangeSet() throws Exception {
+		AdaptiveMediaImageConfigurationHelper configurationHelper =
+			serviceTracker.getService();
+
+		configurationHelper.addAdaptiveMediaImageConfigurationEntry(
+			TestPropsValues.getCompanyId(), "one", "1", _getProperties(100));
+
+		long configurationVersion =
+			configurationHelper.getConfigurationVersion(
+				TestPropsValues.getCompanyId());
+
+		AdaptiveMediaImageConfigurationChangeSet changeSet =
+			configurationHelper.
+				createAdaptiveMediaImageConfigurationChangeSet();
+
+		changeSet.addAdaptiveMediaImageConfigurationEntry(
+			"two", "2", _getProperties(200));
+		changeSet.disableAdaptiveMediaImageConfigurationEntry("1");
+		changeSet.deleteAdaptiveMediaImageConfigurationEntry("1");
+		changeSet.addAdaptiveMediaImageConfigurationEntry(
+			"three", "3", _getProperties(300));
+
+		long newConfigurationVersion =
+			configurationHelper.applyAdaptiveMediaImageConfigurationChangeSet(
+				TestPropsValues.getCompanyId(), configurationVersion,
+				changeSet);
+
+		Assert.assertEquals(configurationVersion + 1, newConfigurationVersion);
+		Assert.assertEquals(
+			newConfigurationVersion,
+			configurationHelper.getConfigurationVersion(
+				TestPropsValues.getCompanyId()));
+
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				TestPropsValues.getCompanyId(), configurationEntry -> true);
+
+		Assert.assertEquals(
+			configurationEntries.toString(), 2, configurationEntries.size());
+
+		Assert.assertFalse(
+			configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				TestPropsValues.getCompanyId(), "1").isPresent());
+
+		assertEnabled(
+			configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				TestPropsValues.getCompanyId(), "2"));
+		assertEnabled(
+			configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				TestPropsValues.getCompanyId(), "3"));
+	}
+
+	@Test
+	public void testApplyChangeSetWithInvalidChange() throws Exception {
+		AdaptiveMediaImageConfigurationHelper configurationHelper =
+			serviceTracker.getService();
+
+		configurationHelper.addAdaptiveMediaImageConfigurationEntry(
+			TestPropsValues.getCompanyId(), "one", "1", _getProperties(100));
+
+		long configurationVersion =
+			configurationHelper.getConfigurationVersion(
+				TestPropsValues.getCompanyId());
+
+		AdaptiveMediaImageConfigurationChangeSet changeSet =
+			configurationHelper.
+				createAdaptiveMediaImageConfigurationChangeSet();
+
+		changeSet.disableAdaptiveMediaImageConfigurationEntry("1");
+		changeSet.addAdaptiveMediaImageConfigurationEntry(
+			"one", "2", _getProperties(200));
+
+		try {
+			configurationHelper.applyAdaptiveMediaImageConfigurationChangeSet(
+				TestPropsValues.getCompanyId(), configurationVersion,
+				changeSet);
+
+			Assert.fail();
+		}
+		catch (AdaptiveMediaImageConfigurationException.
+					DuplicateAdaptiveMediaImageConfigurationNameException
+						dami) {
+		}
+
+		Assert.assertEquals(
+			configurationVersion,
+			configurationHelper.getConfigurationVersion(
+				TestPropsValues.getCompanyId()));
+
+		assertEnabled(
+			configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				TestPropsValues.getCompanyId(), "1"));
+	}
+
+	@Test
+	public void testApplyChangeSetWithStaleVersion() throws Exception {
+		AdaptiveMediaImageConfigurationHelper configurationHelper =
+			serviceTracker.getService();
+
+		long configurationVersion =
+			configurationHelper.getConfigurationVersion(
+				TestPropsValues.getCompanyId());
+
+		configurationHelper.addAdaptiveMediaImageConfigurationEntry(
+			TestPropsValues.getCompanyId(), "one", "1", _getProperties(100));
+
+		AdaptiveMediaImageConfigurationChangeSet changeSet =
+			configurationHelper.
+				createAdaptiveMediaImageConfigurationChangeSet();
+
+		changeSet.addAdaptiveMediaImageConfigurationEntry(
+			"two", "2", _getProperties(200));
+
+		try {
+			configurationHelper.applyAdaptiveMediaImageConfigurationChangeSet(
+				TestPropsValues.getCompanyId(), configurationVersion,
+				changeSet);
+
+			Assert.fail();
+		}
+		catch (AdaptiveMediaImageConfigurationException.
+					StaleVersionAdaptiveMediaImageConfigurationException
+						svami) {
+		}
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					TestPropsValues.getCompanyId(), "2");
+
+		Assert.assertFalse(configurationEntryOptional.isPresent());
+	}
+
+	private Map<String, String> _getProperties(int size) {
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-height", String.valueOf(size));
+		properties.put("max-width", String.valueOf(size));
+
+		return properties;
+	}
+
+}
\ No newline at end of file
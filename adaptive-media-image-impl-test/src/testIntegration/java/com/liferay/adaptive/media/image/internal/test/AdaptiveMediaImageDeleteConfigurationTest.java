@@ -337,6 +337,49 @@ public class AdaptiveMediaImageDeleteConfigurationTest
 		assertEnabled(secondConfigurationEntryOptional);
 	}
 
+	@Test
+	public void testDeleteGroupConfigurationEntryWithImages()
+		throws Exception {
+
+		try (DestinationReplacer destinationReplacer = new DestinationReplacer(
+				"liferay/adaptive_media_processor")) {
+
+			AdaptiveMediaImageConfigurationHelper configurationHelper =
+				serviceTracker.getService();
+
+			Map<String, String> properties = new HashMap<>();
+
+			properties.put("max-height", "100");
+			properties.put("max-width", "100");
+
+			AdaptiveMediaImageConfigurationEntry configurationEntry =
+				configurationHelper.
+					addGroupAdaptiveMediaImageConfigurationEntry(
+						TestPropsValues.getCompanyId(), _group.getGroupId(),
+						"one", "1", properties);
+
+			FileEntry fileEntry = _addFileEntry();
+
+			FileVersion fileVersion = fileEntry.getFileVersion();
+
+			Assert.assertNotNull(
+				AdaptiveMediaImageEntryLocalServiceUtil.
+					fetchAdaptiveMediaImageEntry(
+						configurationEntry.getUUID(),
+						fileVersion.getFileVersionId()));
+
+			configurationHelper.deleteGroupAdaptiveMediaImageConfigurationEntry(
+				TestPropsValues.getCompanyId(), _group.getGroupId(),
+				configurationEntry.getUUID());
+
+			Assert.assertNull(
+				AdaptiveMediaImageEntryLocalServiceUtil.
+					fetchAdaptiveMediaImageEntry(
+						configurationEntry.getUUID(),
+						fileVersion.getFileVersionId()));
+		}
+	}
+
 	@Test
 	public void testDeleteSecondConfigurationEntry() throws Exception {
 		AdaptiveMediaImageConfigurationHelper configurationHelper =
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.access;
+
+import com.liferay.adaptive.media.image.internal.messaging.AdaptiveMediaImageDestinationNames;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBus;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.kernel.util.Time;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Collects the accesses to adaptive media images and stores them in batches.
+ *
+ * <p>
+ * Accesses are sampled, so that an adaptive media image is recorded at most
+ * once per sampling interval no matter how many times it is served. Sampled
+ * accesses are flushed to the {@link
+ * AdaptiveMediaImageDestinationNames#ADAPTIVE_MEDIA_IMAGE_ACCESS} destination,
+ * one message per configuration, once enough of them have been collected or
+ * the flush interval has elapsed. {@link FlushImageAccessesMessageListener}
+ * also flushes them periodically, so that they are stored even if no more
+ * adaptive media images are served.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+@Component(immediate = true, service = AdaptiveMediaImageAccessRecorder.class)
+public class AdaptiveMediaImageAccessRecorder {
+
+	public void flush() {
+		long currentTime = getCurrentTime();
+
+		Map<String, Set<Long>> pendingAccesses = null;
+
+		synchronized (this) {
+			if (_pendingAccessesCount == 0) {
+				return;
+			}
+
+			pendingAccesses = _drainPendingAccesses(currentTime);
+		}
+
+		_flush(pendingAccesses, currentTime);
+	}
+
+	public void recordAccess(String configurationUuid, long fileVersionId) {
+		long currentTime = getCurrentTime();
+
+		String key = configurationUuid + StringPool.POUND + fileVersionId;
+
+		Long sampleTime = _sampleTimes.get(key);
+
+		if ((sampleTime != null) &&
+			((currentTime - sampleTime) < _SAMPLING_INTERVAL)) {
+
+			return;
+		}
+
+		if (_sampleTimes.size() >= _MAX_SAMPLES) {
+			_sampleTimes.clear();
+		}
+
+		_sampleTimes.put(key, currentTime);
+
+		Map<String, Set<Long>> pendingAccesses = null;
+
+		synchronized (this) {
+			Set<Long> fileVersionIds = _pendingAccesses.computeIfAbsent(
+				configurationUuid, uuid -> new HashSet<>());
+
+			if (fileVersionIds.add(fileVersionId)) {
+				_pendingAccessesCount++;
+			}
+
+			if ((_pendingAccessesCount < _FLUSH_SIZE) &&
+				((currentTime - _flushTime) < _FLUSH_INTERVAL)) {
+
+				return;
+			}
+
+			pendingAccesses = _drainPendingAccesses(currentTime);
+		}
+
+		_flush(pendingAccesses, currentTime);
+	}
+
+	@Reference(unbind = "-")
+	public void setMessageBus(MessageBus messageBus) {
+		_messageBus = messageBus;
+	}
+
+	@Activate
+	protected void activate() {
+		_flushTime = getCurrentTime();
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		flush();
+	}
+
+	protected long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	private Map<String, Set<Long>> _drainPendingAccesses(long currentTime) {
+		Map<String, Set<Long>> pendingAccesses = _pendingAccesses;
+
+		_flushTime = currentTime;
+		_pendingAccesses = new HashMap<>();
+		_pendingAccessesCount = 0;
+
+		return pendingAccesses;
+	}
+
+	private void _flush(
+		Map<String, Set<Long>> pendingAccesses, long currentTime) {
+
+		Date lastAccessDate = new Date(currentTime);
+
+		for (Map.Entry<String, Set<Long>> entry : pendingAccesses.entrySet()) {
+			Message message = new Message();
+
+			message.put("configurationUuid", entry.getKey());
+			message.put(
+				"fileVersionIds", ArrayUtil.toLongArray(entry.getValue()));
+			message.put("lastAccessDate", lastAccessDate);
+
+			_messageBus.sendMessage(
+				AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_ACCESS,
+				message);
+		}
+	}
+
+	private static final long _FLUSH_INTERVAL = Time.MINUTE;
+
+	private static final int _FLUSH_SIZE = 100;
+
+	private static final int _MAX_SAMPLES = 10000;
+
+	private static final long _SAMPLING_INTERVAL = Time.HOUR;
+
+	private long _flushTime;
+	private MessageBus _messageBus;
+	private Map<String, Set<Long>> _pendingAccesses = new HashMap<>();
+	private int _pendingAccessesCount;
+	private final Map<String, Long> _sampleTimes = new ConcurrentHashMap<>();
+
+}
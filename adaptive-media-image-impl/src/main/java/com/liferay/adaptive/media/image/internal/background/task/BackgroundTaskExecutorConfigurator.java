@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.background.task;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageRegenerationConfiguration;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageSender;
+import com.liferay.portal.kernel.util.HashMapDictionary;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Sergio González
+ */
+@Component(
+	configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageRegenerationConfiguration",
+	immediate = true, service = BackgroundTaskExecutorConfigurator.class
+)
+public class BackgroundTaskExecutorConfigurator {
+
+	@Activate
+	protected void activate(
+		BundleContext bundleContext, Map<String, Object> properties) {
+
+		AdaptiveMediaImageRegenerationConfiguration regenerationConfiguration =
+			ConfigurableUtil.createConfigurable(
+				AdaptiveMediaImageRegenerationConfiguration.class, properties);
+
+		_registerBackgroundTaskExecutor(
+			bundleContext,
+			new DeleteImageEntriesBackgroundTaskExecutor(
+				_imageEntryLocalService, _backgroundTaskStatusMessageSender));
+		_registerBackgroundTaskExecutor(
+			bundleContext,
+			new RegenerateImageEntriesBackgroundTaskExecutor(
+				_configurationHelper, _imageEntryLocalService, _imageProcessor,
+				_dlAppLocalService, _backgroundTaskStatusMessageSender,
+				regenerationConfiguration.imagesPerSecond()));
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		for (ServiceRegistration<BackgroundTaskExecutor> serviceRegistration :
+				_serviceRegistrations) {
+
+			serviceRegistration.unregister();
+		}
+
+		_serviceRegistrations.clear();
+	}
+
+	private void _registerBackgroundTaskExecutor(
+		BundleContext bundleContext,
+		BackgroundTaskExecutor backgroundTaskExecutor) {
+
+		Dictionary<String, Object> properties = new HashMapDictionary<>();
+
+		Class<?> clazz = backgroundTaskExecutor.getClass();
+
+		properties.put("background.task.executor.class.name", clazz.getName());
+
+		_serviceRegistrations.add(
+			bundleContext.registerService(
+				BackgroundTaskExecutor.class, backgroundTaskExecutor,
+				properties));
+	}
+
+	@Reference
+	private BackgroundTaskStatusMessageSender
+		_backgroundTaskStatusMessageSender;
+
+	@Reference
+	private AdaptiveMediaImageConfigurationHelper _configurationHelper;
+
+	@Reference
+	private DLAppLocalService _dlAppLocalService;
+
+	@Reference
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
+	@Reference
+	private AdaptiveMediaImageProcessor _imageProcessor;
+
+	private final List<ServiceRegistration<BackgroundTaskExecutor>>
+		_serviceRegistrations = new ArrayList<>();
+
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.background.task;
+
+/**
+ * @author Sergio González
+ */
+public class DeleteImageEntriesBackgroundTaskConstants {
+
+	public static final String COMPANY_ID = "companyId";
+
+	public static final String CONFIGURATION_ENTRY_UUID =
+		"configurationEntryUuid";
+
+	public static final String COUNT = "count";
+
+	public static final String EXCLUDED_GROUP_IDS = "excludedGroupIds";
+
+	public static final String GROUP_ID = "groupId";
+
+	public static final String TOTAL = "total";
+
+	public static String getJobName(
+		long companyId, String configurationEntryUuid) {
+
+		return "deleteAdaptiveMediaImageEntries-" + companyId + "-" +
+			configurationEntryUuid;
+	}
+
+	public static String getJobName(
+		long companyId, long groupId, String configurationEntryUuid) {
+
+		return "deleteAdaptiveMediaImageEntries-" + companyId + "-" + groupId +
+			"-" + configurationEntryUuid;
+	}
+
+}
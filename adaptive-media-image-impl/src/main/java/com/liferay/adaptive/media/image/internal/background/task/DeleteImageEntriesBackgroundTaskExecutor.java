@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.background.task;
+
+import com.liferay.adaptive.media.image.internal.background.task.display.DeleteImageEntriesBackgroundTaskDisplay;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTask;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskConstants;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskResult;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageSender;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskThreadLocal;
+import com.liferay.portal.kernel.backgroundtask.BaseBackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.display.BackgroundTaskDisplay;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+
+import java.io.Serializable;
+
+import java.util.Map;
+
+/**
+ * Removes the adaptive media images of a deleted configuration in bounded
+ * batches, so that no single transaction has to remove all of them at once.
+ * The images of the groups that override the configuration with their own
+ * configuration entry are kept. If a group is given, only the images of that
+ * group are removed, which is used for configurations that were only defined
+ * for the group.
+ *
+ * <p>
+ * Every batch works on the adaptive media images that are still left, so a
+ * task that was interrupted can be resumed and it will continue where it
+ * stopped.
+ * </p>
+ *
+ * @author Sergio González
+ */
+public class DeleteImageEntriesBackgroundTaskExecutor
+	extends BaseBackgroundTaskExecutor {
+
+	public DeleteImageEntriesBackgroundTaskExecutor(
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService,
+		BackgroundTaskStatusMessageSender backgroundTaskStatusMessageSender) {
+
+		_imageEntryLocalService = imageEntryLocalService;
+		_backgroundTaskStatusMessageSender = backgroundTaskStatusMessageSender;
+
+		setBackgroundTaskStatusMessageTranslator(
+			new DeleteImageEntriesBackgroundTaskStatusMessageTranslator());
+		setIsolationLevel(BackgroundTaskConstants.ISOLATION_LEVEL_COMPANY);
+	}
+
+	@Override
+	public BackgroundTaskExecutor clone() {
+		return new DeleteImageEntriesBackgroundTaskExecutor(
+			_imageEntryLocalService, _backgroundTaskStatusMessageSender);
+	}
+
+	@Override
+	public BackgroundTaskResult execute(BackgroundTask backgroundTask)
+		throws Exception {
+
+		Map<String, Serializable> taskContextMap =
+			backgroundTask.getTaskContextMap();
+
+		long companyId = GetterUtil.getLong(
+			taskContextMap.get(
+				DeleteImageEntriesBackgroundTaskConstants.COMPANY_ID));
+		String configurationEntryUuid = (String)taskContextMap.get(
+			DeleteImageEntriesBackgroundTaskConstants.CONFIGURATION_ENTRY_UUID);
+		long[] excludedGroupIds = StringUtil.split(
+			GetterUtil.getString(
+				taskContextMap.get(
+					DeleteImageEntriesBackgroundTaskConstants.
+						EXCLUDED_GROUP_IDS)),
+			0L);
+		long groupId = GetterUtil.getLong(
+			taskContextMap.get(
+				DeleteImageEntriesBackgroundTaskConstants.GROUP_ID));
+
+		int total = _getTotal(companyId, groupId, configurationEntryUuid);
+
+		int count = 0;
+
+		while (true) {
+			int deletedCount;
+
+			if (groupId > 0) {
+				deletedCount =
+					_imageEntryLocalService.deleteAdaptiveMediaImageEntries(
+						companyId, groupId, configurationEntryUuid,
+						_BATCH_SIZE);
+			}
+			else {
+				deletedCount =
+					_imageEntryLocalService.deleteAdaptiveMediaImageEntries(
+						companyId, configurationEntryUuid, excludedGroupIds,
+						_BATCH_SIZE);
+			}
+
+			if (deletedCount == 0) {
+				break;
+			}
+
+			count += deletedCount;
+
+			_sendStatusMessage(companyId, configurationEntryUuid, count, total);
+		}
+
+		return BackgroundTaskResult.SUCCESS;
+	}
+
+	@Override
+	public BackgroundTaskDisplay getBackgroundTaskDisplay(
+		BackgroundTask backgroundTask) {
+
+		return new DeleteImageEntriesBackgroundTaskDisplay(
+			backgroundTask);
+	}
+
+	private int _getTotal(
+		long companyId, long groupId, String configurationEntryUuid) {
+
+		if (groupId <= 0) {
+			return _imageEntryLocalService.getAdaptiveMediaImageEntriesCount(
+				companyId, configurationEntryUuid);
+		}
+
+		DynamicQuery dynamicQuery = _imageEntryLocalService.dynamicQuery();
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("groupId", groupId));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.eq(
+				"configurationUuid", configurationEntryUuid));
+
+		return (int)_imageEntryLocalService.dynamicQueryCount(dynamicQuery);
+	}
+
+	private void _sendStatusMessage(
+		long companyId, String configurationEntryUuid, int count, int total) {
+
+		Message message = new Message();
+
+		message.put(
+			BackgroundTaskConstants.BACKGROUND_TASK_ID,
+			BackgroundTaskThreadLocal.getBackgroundTaskId());
+		message.put(
+			DeleteImageEntriesBackgroundTaskConstants.COMPANY_ID, companyId);
+		message.put(
+			DeleteImageEntriesBackgroundTaskConstants.CONFIGURATION_ENTRY_UUID,
+			configurationEntryUuid);
+		message.put(DeleteImageEntriesBackgroundTaskConstants.COUNT, count);
+		message.put(DeleteImageEntriesBackgroundTaskConstants.TOTAL, total);
+		message.put("status", BackgroundTaskConstants.STATUS_IN_PROGRESS);
+
+		_backgroundTaskStatusMessageSender.sendBackgroundTaskStatusMessage(
+			message);
+	}
+
+	private static final int _BATCH_SIZE = 500;
+
+	private final BackgroundTaskStatusMessageSender
+		_backgroundTaskStatusMessageSender;
+	private final AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
+}
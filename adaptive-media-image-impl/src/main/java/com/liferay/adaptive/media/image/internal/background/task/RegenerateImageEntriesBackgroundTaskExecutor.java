@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.background.task;
+
+import com.liferay.adaptive.media.AdaptiveMediaException;
+import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.internal.background.task.display.RegenerateImageEntriesBackgroundTaskDisplay;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTask;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskConstants;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskResult;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageSender;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskThreadLocal;
+import com.liferay.portal.kernel.backgroundtask.BaseBackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.display.BackgroundTaskDisplay;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.io.Serializable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Regenerates the adaptive media images of a configuration whose properties
+ * have changed, at a bounded number of images per second.
+ *
+ * <p>
+ * Each stale adaptive media image keeps being served until its replacement
+ * has been generated. The task stops as soon as the configuration is deleted
+ * or changed again, because a new task is scheduled for the new version.
+ * </p>
+ *
+ * @author Sergio González
+ */
+public class RegenerateImageEntriesBackgroundTaskExecutor
+	extends BaseBackgroundTaskExecutor {
+
+	public RegenerateImageEntriesBackgroundTaskExecutor(
+		AdaptiveMediaImageConfigurationHelper configurationHelper,
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService,
+		AdaptiveMediaImageProcessor imageProcessor,
+		DLAppLocalService dlAppLocalService,
+		BackgroundTaskStatusMessageSender backgroundTaskStatusMessageSender,
+		int imagesPerSecond) {
+
+		_configurationHelper = configurationHelper;
+		_imageEntryLocalService = imageEntryLocalService;
+		_imageProcessor = imageProcessor;
+		_dlAppLocalService = dlAppLocalService;
+		_backgroundTaskStatusMessageSender = backgroundTaskStatusMessageSender;
+		_imagesPerSecond = Math.max(imagesPerSecond, 1);
+
+		setBackgroundTaskStatusMessageTranslator(
+			new RegenerateImageEntriesBackgroundTaskStatusMessageTranslator());
+		setIsolationLevel(BackgroundTaskConstants.ISOLATION_LEVEL_COMPANY);
+	}
+
+	@Override
+	public BackgroundTaskExecutor clone() {
+		return new RegenerateImageEntriesBackgroundTaskExecutor(
+			_configurationHelper, _imageEntryLocalService, _imageProcessor,
+			_dlAppLocalService, _backgroundTaskStatusMessageSender,
+			_imagesPerSecond);
+	}
+
+	@Override
+	public BackgroundTaskResult execute(BackgroundTask backgroundTask)
+		throws Exception {
+
+		Map<String, Serializable> taskContextMap =
+			backgroundTask.getTaskContextMap();
+
+		long companyId = GetterUtil.getLong(
+			taskContextMap.get(
+				RegenerateImageEntriesBackgroundTaskConstants.COMPANY_ID));
+		String configurationEntryUuid = (String)taskContextMap.get(
+			RegenerateImageEntriesBackgroundTaskConstants.
+				CONFIGURATION_ENTRY_UUID);
+		String contentVersion = (String)taskContextMap.get(
+			RegenerateImageEntriesBackgroundTaskConstants.CONTENT_VERSION);
+
+		int total = _imageEntryLocalService.getAdaptiveMediaImageEntriesCount(
+			companyId, configurationEntryUuid);
+
+		int count = 0;
+		long previousImageEntryId = 0;
+		long startTime = System.currentTimeMillis();
+
+		while (true) {
+			Optional<AdaptiveMediaImageConfigurationEntry>
+				configurationEntryOptional = _getConfigurationEntry(
+					companyId, configurationEntryUuid, contentVersion);
+
+			if (!configurationEntryOptional.isPresent()) {
+				break;
+			}
+
+			List<AdaptiveMediaImageEntry> imageEntries =
+				_imageEntryLocalService.getStaleAdaptiveMediaImageEntries(
+					companyId, configurationEntryOptional.get(),
+					previousImageEntryId, _BATCH_SIZE);
+
+			if (imageEntries.isEmpty()) {
+				break;
+			}
+
+			for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+				_regenerate(imageEntry);
+
+				count++;
+
+				_throttle(startTime, count);
+			}
+
+			AdaptiveMediaImageEntry lastImageEntry = imageEntries.get(
+				imageEntries.size() - 1);
+
+			previousImageEntryId =
+				lastImageEntry.getAdaptiveMediaImageEntryId();
+
+			_sendStatusMessage(companyId, configurationEntryUuid, count, total);
+		}
+
+		return BackgroundTaskResult.SUCCESS;
+	}
+
+	@Override
+	public BackgroundTaskDisplay getBackgroundTaskDisplay(
+		BackgroundTask backgroundTask) {
+
+		return new RegenerateImageEntriesBackgroundTaskDisplay(backgroundTask);
+	}
+
+	private Optional<AdaptiveMediaImageConfigurationEntry>
+		_getConfigurationEntry(
+			long companyId, String configurationEntryUuid,
+			String contentVersion) {
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					companyId, configurationEntryUuid);
+
+		return configurationEntryOptional.filter(
+			configurationEntry -> contentVersion.equals(
+				configurationEntry.getContentVersion()));
+	}
+
+	private void _regenerate(AdaptiveMediaImageEntry imageEntry) {
+		try {
+			FileVersion fileVersion = _dlAppLocalService.getFileVersion(
+				imageEntry.getFileVersionId());
+
+			_imageProcessor.process(
+				fileVersion, imageEntry.getConfigurationUuid());
+		}
+		catch (AdaptiveMediaException | AdaptiveMediaRuntimeException e) {
+			_log.error(
+				"Unable to regenerate adaptive media image " +
+					imageEntry.getAdaptiveMediaImageEntryId(),
+				e);
+		}
+		catch (PortalException pe) {
+
+			// The file version is gone, its adaptive media images will be
+			// removed along with it
+
+			if (_log.isDebugEnabled()) {
+				_log.debug(pe, pe);
+			}
+		}
+	}
+
+	private void _sendStatusMessage(
+		long companyId, String configurationEntryUuid, int count, int total) {
+
+		Message message = new Message();
+
+		message.put(
+			BackgroundTaskConstants.BACKGROUND_TASK_ID,
+			BackgroundTaskThreadLocal.getBackgroundTaskId());
+		message.put(
+			RegenerateImageEntriesBackgroundTaskConstants.COMPANY_ID,
+			companyId);
+		message.put(
+			RegenerateImageEntriesBackgroundTaskConstants.
+				CONFIGURATION_ENTRY_UUID,
+			configurationEntryUuid);
+		message.put(RegenerateImageEntriesBackgroundTaskConstants.COUNT, count);
+		message.put(RegenerateImageEntriesBackgroundTaskConstants.TOTAL, total);
+		message.put("status", BackgroundTaskConstants.STATUS_IN_PROGRESS);
+
+		_backgroundTaskStatusMessageSender.sendBackgroundTaskStatusMessage(
+			message);
+	}
+
+	private void _throttle(long startTime, int count)
+		throws InterruptedException {
+
+		long delay =
+			startTime + (count * 1000L / _imagesPerSecond) -
+				System.currentTimeMillis();
+
+		if (delay > 0) {
+			Thread.sleep(delay);
+		}
+	}
+
+	private static final int _BATCH_SIZE = 100;
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		RegenerateImageEntriesBackgroundTaskExecutor.class);
+
+	private final BackgroundTaskStatusMessageSender
+		_backgroundTaskStatusMessageSender;
+	private final AdaptiveMediaImageConfigurationHelper _configurationHelper;
+	private final DLAppLocalService _dlAppLocalService;
+	private final AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+	private final AdaptiveMediaImageProcessor _imageProcessor;
+	private final int _imagesPerSecond;
+
+}
\ No newline at end of file
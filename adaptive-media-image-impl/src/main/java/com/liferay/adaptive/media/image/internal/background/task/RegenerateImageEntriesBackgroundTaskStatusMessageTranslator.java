@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.background.task;
+
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatus;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageTranslator;
+import com.liferay.portal.kernel.messaging.Message;
+
+/**
+ * @author Sergio González
+ */
+public class RegenerateImageEntriesBackgroundTaskStatusMessageTranslator
+	implements BackgroundTaskStatusMessageTranslator {
+
+	@Override
+	public void translate(
+		BackgroundTaskStatus backgroundTaskStatus, Message message) {
+
+		long count = message.getLong(
+			RegenerateImageEntriesBackgroundTaskConstants.COUNT);
+
+		backgroundTaskStatus.setAttribute(
+			RegenerateImageEntriesBackgroundTaskConstants.COUNT, count);
+
+		long total = message.getLong(
+			RegenerateImageEntriesBackgroundTaskConstants.TOTAL);
+
+		backgroundTaskStatus.setAttribute(
+			RegenerateImageEntriesBackgroundTaskConstants.TOTAL, total);
+
+		int percentage = 100;
+
+		if (total != 0) {
+			percentage = (int)Math.min(count * 100 / total, 100);
+		}
+
+		backgroundTaskStatus.setAttribute("percentage", percentage);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * @author Adolfo Pérez
+ */
+@ExtendedObjectClassDefinition(category = "other")
+@Meta.OCD(
+	id = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAsyncFinderConfiguration",
+	localization = "content/Language",
+	name = "adaptive.media.image.async.finder.configuration.name"
+)
+public interface AdaptiveMediaImageAsyncFinderConfiguration {
+
+	/**
+	 * Returns the maximum number of queries waiting to be resolved. Once it
+	 * is reached, new queries are resolved in the calling thread.
+	 */
+	@Meta.AD(deflt = "1000", required = false)
+	public int queueSize();
+
+	/**
+	 * Returns the number of threads used to resolve queries.
+	 */
+	@Meta.AD(deflt = "4", required = false)
+	public int threadPoolSize();
+
+}
\ No newline at end of file
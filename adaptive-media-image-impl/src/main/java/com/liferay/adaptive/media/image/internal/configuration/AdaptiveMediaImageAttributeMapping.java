@@ -15,12 +15,14 @@
 package com.liferay.adaptive.media.image.internal.configuration;
 
 import com.liferay.adaptive.media.AdaptiveMediaAttribute;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Gives convenient access to a set of media attributes. It offers a type-safe
@@ -28,17 +30,50 @@ import java.util.Optional;
  * correct type (those for adaptive images), and returning values of the correct
  * type.
  *
+ * <p>
+ * The values are kept in plain fields, with the numeric attributes stored as
+ * primitives, so that a mapping is a single small object. Attribute values
+ * are looked up by the attribute's ordinal.
+ * </p>
+ *
  * @author Adolfo Pérez
  */
 public class AdaptiveMediaImageAttributeMapping {
 
 	/**
-	 * Returns an {@link AdaptiveMediaImageAttributeMapping} that uses the map
-	 * as the underlying attribute storage.
+	 * Returns an {@link AdaptiveMediaImageAttributeMapping} with the
+	 * attributes of the adaptive media image entry, without converting them to
+	 * and from strings.
+	 *
+	 * @param  imageEntry the adaptive media image entry
+	 * @param  configurationUuid the UUID of the configuration entry the image
+	 *         was generated for
+	 * @param  fileName the file name of the image's file version
+	 * @return a non-<code>null</code> mapping with the image entry's
+	 *         attributes
+	 */
+	public static AdaptiveMediaImageAttributeMapping fromImageEntry(
+		AdaptiveMediaImageEntry imageEntry, String configurationUuid,
+		String fileName) {
+
+		if (imageEntry == null) {
+			throw new IllegalArgumentException("image entry cannot be null");
+		}
+
+		return new AdaptiveMediaImageAttributeMapping(
+			configurationUuid,
+			(int)Math.min(imageEntry.getSize(), Integer.MAX_VALUE),
+			imageEntry.getMimeType(), fileName, imageEntry.getHeight(),
+			imageEntry.getWidth());
+	}
+
+	/**
+	 * Returns an {@link AdaptiveMediaImageAttributeMapping} with the
+	 * attributes read from the map.
 	 *
 	 * @param  properties the map to get the properties from
 	 * @return a non-<code>null</code> mapping that provides type-safe access to
-	 *         an underlying map
+	 *         the map's attributes
 	 */
 	public static AdaptiveMediaImageAttributeMapping fromProperties(
 		Map<String, String> properties) {
@@ -47,34 +82,18 @@ public class AdaptiveMediaImageAttributeMapping {
 			throw new IllegalArgumentException("properties map cannot be null");
 		}
 
-		Map<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Optional<?>>
-			attributes = new HashMap<>();
-
-		attributes.put(
-			AdaptiveMediaAttribute.configurationUuid(),
-			_getAttributeValue(
-				properties, AdaptiveMediaAttribute.configurationUuid()));
-		attributes.put(
-			AdaptiveMediaAttribute.contentLength(),
-			_getAttributeValue(
-				properties, AdaptiveMediaAttribute.contentLength()));
-		attributes.put(
-			AdaptiveMediaAttribute.contentType(),
-			_getAttributeValue(
-				properties, AdaptiveMediaAttribute.contentType()));
-		attributes.put(
-			AdaptiveMediaAttribute.fileName(),
-			_getAttributeValue(properties, AdaptiveMediaAttribute.fileName()));
-		attributes.put(
-			AdaptiveMediaImageAttribute.IMAGE_HEIGHT,
+		return new AdaptiveMediaImageAttributeMapping(
 			_getAttributeValue(
-				properties, AdaptiveMediaImageAttribute.IMAGE_HEIGHT));
-		attributes.put(
-			AdaptiveMediaImageAttribute.IMAGE_WIDTH,
+				properties, AdaptiveMediaAttribute.configurationUuid()),
+			_getIntAttributeValue(
+				properties, AdaptiveMediaAttribute.contentLength()),
 			_getAttributeValue(
+				properties, AdaptiveMediaAttribute.contentType()),
+			_getAttributeValue(properties, AdaptiveMediaAttribute.fileName()),
+			_getIntAttributeValue(
+				properties, AdaptiveMediaImageAttribute.IMAGE_HEIGHT),
+			_getIntAttributeValue(
 				properties, AdaptiveMediaImageAttribute.IMAGE_WIDTH));
-
-		return new AdaptiveMediaImageAttributeMapping(attributes);
 	}
 
 	/**
@@ -92,31 +111,134 @@ public class AdaptiveMediaImageAttributeMapping {
 			throw new IllegalArgumentException("attribute cannot be null");
 		}
 
-		return (Optional<V>)_attributes.get(attribute);
-	}
+		int ordinal = attribute.getOrdinal();
 
-	protected AdaptiveMediaImageAttributeMapping(
-		Map<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Optional<?>>
-			attributes) {
+		if ((ordinal < 0) || (ordinal >= _attributeValueFunctions.length)) {
+			return Optional.empty();
+		}
+
+		Function<AdaptiveMediaImageAttributeMapping, Object>
+			attributeValueFunction = _attributeValueFunctions[ordinal];
 
-		_attributes = attributes;
+		if (attributeValueFunction == null) {
+			return Optional.empty();
+		}
+
+		Object value = attributeValueFunction.apply(this);
+
+		return Optional.ofNullable((V)value);
 	}
 
-	private static <V> Optional<V> _getAttributeValue(
+	private static <V> V _getAttributeValue(
 		Map<String, String> properties,
 		AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, V> attribute) {
 
 		String value = properties.get(attribute.getName());
 
 		if (value == null) {
-			return Optional.empty();
+			return null;
+		}
+
+		return attribute.convert(value);
+	}
+
+	private static int _getIntAttributeValue(
+		Map<String, String> properties,
+		AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Integer>
+			attribute) {
+
+		Integer value = _getAttributeValue(properties, attribute);
+
+		if (value == null) {
+			return _NO_VALUE;
+		}
+
+		return value;
+	}
+
+	private static Integer _getIntValue(int value) {
+		if (value == _NO_VALUE) {
+			return null;
+		}
+
+		return value;
+	}
+
+	private AdaptiveMediaImageAttributeMapping(
+		String configurationUuid, int contentLength, String contentType,
+		String fileName, int imageHeight, int imageWidth) {
+
+		_configurationUuid = configurationUuid;
+		_contentLength = contentLength;
+		_contentType = contentType;
+		_fileName = fileName;
+		_imageHeight = imageHeight;
+		_imageWidth = imageWidth;
+	}
+
+	/**
+	 * Marks a numeric attribute without a value.
+	 */
+	private static final int _NO_VALUE = Integer.MIN_VALUE;
+
+	/**
+	 * Holds the function that reads the value of every supported attribute
+	 * from a mapping, indexed by the attribute's ordinal.
+	 */
+	private static final Function<AdaptiveMediaImageAttributeMapping, Object>[]
+		_attributeValueFunctions;
+
+	static {
+		Map
+			<AdaptiveMediaAttribute<?, ?>,
+				Function<AdaptiveMediaImageAttributeMapping, Object>>
+					attributeValueFunctions = new HashMap<>();
+
+		attributeValueFunctions.put(
+			AdaptiveMediaAttribute.configurationUuid(),
+			attributeMapping -> attributeMapping._configurationUuid);
+		attributeValueFunctions.put(
+			AdaptiveMediaAttribute.contentLength(),
+			attributeMapping -> _getIntValue(attributeMapping._contentLength));
+		attributeValueFunctions.put(
+			AdaptiveMediaAttribute.contentType(),
+			attributeMapping -> attributeMapping._contentType);
+		attributeValueFunctions.put(
+			AdaptiveMediaAttribute.fileName(),
+			attributeMapping -> attributeMapping._fileName);
+		attributeValueFunctions.put(
+			AdaptiveMediaImageAttribute.IMAGE_HEIGHT,
+			attributeMapping -> _getIntValue(attributeMapping._imageHeight));
+		attributeValueFunctions.put(
+			AdaptiveMediaImageAttribute.IMAGE_WIDTH,
+			attributeMapping -> _getIntValue(attributeMapping._imageWidth));
+
+		int length = 0;
+
+		for (AdaptiveMediaAttribute<?, ?> attribute :
+				attributeValueFunctions.keySet()) {
+
+			length = Math.max(length, attribute.getOrdinal() + 1);
 		}
 
-		return Optional.of(attribute.convert(value));
+		_attributeValueFunctions = new Function[length];
+
+		for (Map.Entry
+				<AdaptiveMediaAttribute<?, ?>,
+					Function<AdaptiveMediaImageAttributeMapping, Object>>
+						entry : attributeValueFunctions.entrySet()) {
+
+			AdaptiveMediaAttribute<?, ?> attribute = entry.getKey();
+
+			_attributeValueFunctions[attribute.getOrdinal()] = entry.getValue();
+		}
 	}
 
-	private final Map
-		<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Optional<?>>
-			_attributes;
+	private final String _configurationUuid;
+	private final int _contentLength;
+	private final String _contentType;
+	private final String _fileName;
+	private final int _imageHeight;
+	private final int _imageWidth;
 
 }
\ No newline at end of file
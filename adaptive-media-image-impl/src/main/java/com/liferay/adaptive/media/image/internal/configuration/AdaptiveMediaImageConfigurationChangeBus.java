@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+
+/**
+ * Delivers the configuration changes stored by {@link
+ * AdaptiveMediaImageConfigurationHelperImpl} to the configuration change
+ * listeners of every node.
+ *
+ * @author Adolfo Pérez
+ */
+public interface AdaptiveMediaImageConfigurationChangeBus {
+
+	public void publish(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent);
+
+}
\ No newline at end of file
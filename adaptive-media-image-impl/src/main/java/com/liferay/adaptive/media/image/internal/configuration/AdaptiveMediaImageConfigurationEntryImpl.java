@@ -15,6 +15,7 @@
 package com.liferay.adaptive.media.image.internal.configuration;
 
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -39,6 +40,21 @@ public class AdaptiveMediaImageConfigurationEntryImpl
 		_uuid = uuid;
 		_properties = properties;
 		_enabled = enabled;
+
+		_conditions = new AdaptiveMediaImageConfigurationEntryConditions(
+			properties);
+		_contentVersion =
+			AdaptiveMediaImageConfigurationEntry.super.getContentVersion();
+	}
+
+	@Override
+	public AdaptiveMediaImageConfigurationEntryConditions getConditions() {
+		return _conditions;
+	}
+
+	@Override
+	public String getContentVersion() {
+		return _contentVersion;
 	}
 
 	@Override
@@ -61,6 +77,8 @@ public class AdaptiveMediaImageConfigurationEntryImpl
 		return _enabled;
 	}
 
+	private final AdaptiveMediaImageConfigurationEntryConditions _conditions;
+	private final String _contentVersion;
 	private final boolean _enabled;
 	private final String _name;
 	private final Map<String, String> _properties;
@@ -15,15 +15,20 @@
 package com.liferay.adaptive.media.image.internal.configuration;
 
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryScaling;
+import com.liferay.portal.kernel.io.unsync.UnsyncByteArrayOutputStream;
+import com.liferay.portal.kernel.util.CharPool;
 import com.liferay.portal.kernel.util.GetterUtil;
-import com.liferay.portal.kernel.util.StringBundler;
-import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.Validator;
 
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.osgi.service.component.annotations.Component;
 
@@ -54,7 +59,10 @@ import org.osgi.service.component.annotations.Component;
  * <li>
  * The key and value pairs can be anything, but consumers of
  * the resulting {@link AdaptiveMediaImageConfigurationEntry} might
- * require a particular set of attributes.
+ * require a particular set of attributes. Besides <code>max-height</code> and
+ * <code>max-width</code>, the conditions described in {@link
+ * AdaptiveMediaImageConfigurationEntryConditions} and the scaling described
+ * in {@link AdaptiveMediaImageConfigurationEntryScaling} are kept.
  * </li>
  * <li>
  * <code>enabled</code> is a boolean value (<code>true</code> or
@@ -64,6 +72,21 @@ import org.osgi.service.component.annotations.Component;
  * </li>
  * </ul>
  *
+ * <p>
+ * Whitespace around the <code>:</code>, <code>;</code> and <code>=</code>
+ * separators is ignored, as are trailing empty fields and attributes. The
+ * strings are scanned in a single pass, without regular expressions or
+ * intermediate arrays.
+ * </p>
+ *
+ * <p>
+ * A whole list of configuration entries can also be stored as a single
+ * compact string: the <code>am.</code> prefix followed by the Base64 encoding
+ * of a versioned binary form in which the known property keys and numeric
+ * values take one or two bytes each. Compact strings never contain a colon,
+ * so they cannot be mistaken for a configuration entry.
+ * </p>
+ *
  * @author Adolfo Pérez
  * @review
  */
@@ -72,44 +95,129 @@ import org.osgi.service.component.annotations.Component;
 )
 public class AdaptiveMediaImageConfigurationEntryParser {
 
+	/**
+	 * Returns the configuration entries encoded as a single compact string.
+	 *
+	 * @param  configurationEntries the configuration entries to encode
+	 * @return the compact string
+	 */
+	public String getCompactConfigurationString(
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries) {
+
+		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream =
+			new UnsyncByteArrayOutputStream();
+
+		unsyncByteArrayOutputStream.write(_COMPACT_VERSION);
+
+		_writeVarLong(
+			unsyncByteArrayOutputStream, configurationEntries.size());
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			_writeString(
+				unsyncByteArrayOutputStream, configurationEntry.getName());
+			_writeString(
+				unsyncByteArrayOutputStream, configurationEntry.getUUID());
+
+			if (configurationEntry.isEnabled()) {
+				unsyncByteArrayOutputStream.write(1);
+			}
+			else {
+				unsyncByteArrayOutputStream.write(0);
+			}
+
+			Map<String, String> properties = configurationEntry.getProperties();
+
+			_writeVarLong(unsyncByteArrayOutputStream, properties.size());
+
+			for (Map.Entry<String, String> entry : properties.entrySet()) {
+				_writeProperty(
+					unsyncByteArrayOutputStream, entry.getKey(),
+					entry.getValue());
+			}
+		}
+
+		Base64.Encoder encoder = Base64.getEncoder();
+
+		return _COMPACT_PREFIX + encoder.encodeToString(
+			unsyncByteArrayOutputStream.toByteArray());
+	}
+
 	public String getConfigurationString(
 		AdaptiveMediaImageConfigurationEntry configurationEntry) {
 
-		StringBundler sb = new StringBundler();
+		String name = configurationEntry.getName();
+		String uuid = configurationEntry.getUUID();
 
-		sb.append(configurationEntry.getName());
-		sb.append(StringPool.COLON);
-		sb.append(configurationEntry.getUUID());
-		sb.append(StringPool.COLON);
+		StringBuilder sb = new StringBuilder(
+			name.length() + uuid.length() + _CONFIGURATION_STRING_CAPACITY);
+
+		sb.append(name);
+		sb.append(CharPool.COLON);
+		sb.append(uuid);
+		sb.append(CharPool.COLON);
 
 		Map<String, String> properties = configurationEntry.getProperties();
 
-		if (properties.get("max-height") != null) {
-			int height = GetterUtil.getInteger(properties.get("max-height"));
+		String maxHeight = properties.get("max-height");
+		String maxWidth = properties.get("max-width");
 
+		if (maxHeight != null) {
 			sb.append("max-height=");
-			sb.append(height);
+			sb.append(GetterUtil.getInteger(maxHeight));
 
-			if (properties.get("max-width") != null) {
-				sb.append(StringPool.SEMICOLON);
+			if (maxWidth != null) {
+				sb.append(CharPool.SEMICOLON);
 			}
 		}
 
-		if (properties.get("max-width") != null) {
-			int width = GetterUtil.getInteger(properties.get("max-width"));
-
+		if (maxWidth != null) {
 			sb.append("max-width=");
-			sb.append(width);
+			sb.append(GetterUtil.getInteger(maxWidth));
 		}
 
-		sb.append(StringPool.COLON);
+		for (String optionalKey : _OPTIONAL_KEYS) {
+			String value = properties.get(optionalKey);
+
+			if (Validator.isNull(value)) {
+				continue;
+			}
 
-		sb.append("enabled=");
-		sb.append(String.valueOf(configurationEntry.isEnabled()));
+			sb.append(CharPool.SEMICOLON);
+			sb.append(optionalKey);
+			sb.append(CharPool.EQUAL);
+			sb.append(value);
+		}
+
+		if (configurationEntry.isEnabled()) {
+			sb.append(":enabled=true");
+		}
+		else {
+			sb.append(":enabled=false");
+		}
 
 		return sb.toString();
 	}
 
+	/**
+	 * Returns <code>true</code> if the string was returned by {@link
+	 * #getCompactConfigurationString(List)}.
+	 *
+	 * @param  s the string to check
+	 * @return <code>true</code> if the string is a compact string;
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isCompactConfigurationString(String s) {
+		if ((s != null) && s.startsWith(_COMPACT_PREFIX) &&
+			(s.indexOf(CharPool.COLON) == -1)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
 	/**
 	 * Returns a configuration entry parsed from the configuration line's data.
 	 *
@@ -118,66 +226,428 @@ public class AdaptiveMediaImageConfigurationEntryParser {
 	 */
 	public AdaptiveMediaImageConfigurationEntry parse(String s) {
 		if (Validator.isNull(s)) {
-			throw new IllegalArgumentException(
-				"Invalid image adaptive media configuration: " + s);
+			throw _createIllegalArgumentException(s);
 		}
 
-		String[] fields = _FIELD_SEPARATOR_PATTERN.split(s);
+		int end = _getContentEnd(s, 0, s.length(), CharPool.COLON);
 
-		if ((fields.length != 3) && (fields.length != 4)) {
-			throw new IllegalArgumentException(
-				"Invalid image adaptive media configuration: " + s);
+		int nameEnd = _indexOf(s, CharPool.COLON, 0, end);
+
+		if (nameEnd == end) {
+			throw _createIllegalArgumentException(s);
 		}
 
-		String name = fields[0];
-		String uuid = fields[1];
+		int uuidStart = _skipWhitespace(s, nameEnd + 1, end);
 
-		if (Validator.isNull(name) || Validator.isNull(uuid)) {
-			throw new IllegalArgumentException(
-				"Invalid image adaptive media configuration: " + s);
+		int uuidEnd = _indexOf(s, CharPool.COLON, uuidStart, end);
+
+		if (uuidEnd == end) {
+			throw _createIllegalArgumentException(s);
 		}
 
-		String[] attributes = _ATTRIBUTE_SEPARATOR_PATTERN.split(fields[2]);
+		int propertiesStart = _skipWhitespace(s, uuidEnd + 1, end);
 
-		Map<String, String> properties = new HashMap<>();
+		int propertiesEnd = _indexOf(s, CharPool.COLON, propertiesStart, end);
 
-		for (String attribute : attributes) {
-			String[] keyValuePair = _KEY_VALUE_SEPARATOR_PATTERN.split(
-				attribute);
+		String name = s.substring(0, _trimWhitespace(s, 0, nameEnd));
+		String uuid = s.substring(
+			uuidStart, _trimWhitespace(s, uuidStart, uuidEnd));
 
-			properties.put(keyValuePair[0], keyValuePair[1]);
+		if (Validator.isNull(name) || Validator.isNull(uuid)) {
+			throw _createIllegalArgumentException(s);
 		}
 
 		boolean enabled = true;
 
-		if (fields.length == 4) {
-			String disabledAttribute = fields[3];
+		if (propertiesEnd < end) {
+			int enabledStart = _skipWhitespace(s, propertiesEnd + 1, end);
 
-			Matcher matcher = _DISABLED_SEPARATOR_PATTERN.matcher(
-				disabledAttribute);
+			if (_indexOf(s, CharPool.COLON, enabledStart, end) < end) {
+				throw _createIllegalArgumentException(s);
+			}
 
-			if (!matcher.matches()) {
-				throw new IllegalArgumentException(
-					"Invalid image adaptive media configuration: " + s);
+			if (_regionEquals(s, enabledStart, end, "enabled=false")) {
+				enabled = false;
+			}
+			else if (!_regionEquals(s, enabledStart, end, "enabled=true")) {
+				throw _createIllegalArgumentException(s);
 			}
 
-			enabled = GetterUtil.getBoolean(matcher.group(1));
+			propertiesEnd = _trimWhitespace(s, propertiesStart, propertiesEnd);
 		}
 
+		Map<String, String> properties = _parseProperties(
+			s, propertiesStart, propertiesEnd);
+
 		return new AdaptiveMediaImageConfigurationEntryImpl(
 			name, uuid, properties, enabled);
 	}
 
-	private static final Pattern _ATTRIBUTE_SEPARATOR_PATTERN = Pattern.compile(
-		"\\s*;\\s*");
+	/**
+	 * Returns the configuration entries decoded from a string returned by
+	 * {@link #getCompactConfigurationString(List)}.
+	 *
+	 * @param  s the compact string to decode
+	 * @return the configuration entries
+	 */
+	public List<AdaptiveMediaImageConfigurationEntry>
+		parseCompactConfigurationString(String s) {
+
+		if (!isCompactConfigurationString(s)) {
+			throw _createIllegalArgumentException(s);
+		}
+
+		try {
+			Base64.Decoder decoder = Base64.getDecoder();
+
+			CompactReader compactReader = new CompactReader(
+				decoder.decode(s.substring(_COMPACT_PREFIX.length())));
+
+			if (compactReader.readByte() != _COMPACT_VERSION) {
+				throw _createIllegalArgumentException(s);
+			}
+
+			int count = (int)compactReader.readVarLong();
+
+			List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+				new ArrayList<>(count);
+
+			for (int i = 0; i < count; i++) {
+				String name = compactReader.readString();
+				String uuid = compactReader.readString();
+				boolean enabled = compactReader.readByte() != 0;
+
+				int propertiesCount = (int)compactReader.readVarLong();
+
+				Map<String, String> properties = new HashMap<>();
+
+				for (int j = 0; j < propertiesCount; j++) {
+					_readProperty(compactReader, properties);
+				}
+
+				configurationEntries.add(
+					new AdaptiveMediaImageConfigurationEntryImpl(
+						name, uuid, properties, enabled));
+			}
+
+			return configurationEntries;
+		}
+		catch (IndexOutOfBoundsException ioobe) {
+			throw new IllegalArgumentException(
+				"Invalid compact image adaptive media configuration: " + s,
+				ioobe);
+		}
+	}
+
+	private static boolean _isNumber(String value) {
+		int length = value.length();
+
+		if ((length == 0) || (length > 18) ||
+			((length > 1) && (value.charAt(0) == '0'))) {
+
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+
+			if ((c < '0') || (c > '9')) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean _isWhitespace(char c) {
+		if ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') ||
+			(c == '\f') || (c == '\r')) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private IllegalArgumentException _createIllegalArgumentException(
+		String s) {
+
+		return new IllegalArgumentException(
+			"Invalid image adaptive media configuration: " + s);
+	}
+
+	/**
+	 * Returns the end of the region once its trailing empty fields have been
+	 * dropped, the same way {@link String#split(String)} does.
+	 */
+	private int _getContentEnd(String s, int start, int end, char separator) {
+		int contentEnd = end;
+
+		boolean separatorFound = false;
+
+		while (contentEnd > start) {
+			char c = s.charAt(contentEnd - 1);
+
+			if (c == separator) {
+				separatorFound = true;
+			}
+			else if (!_isWhitespace(c)) {
+				break;
+			}
+
+			contentEnd--;
+		}
+
+		if (separatorFound) {
+			return contentEnd;
+		}
+
+		return end;
+	}
+
+	private int _indexOf(String s, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (s.charAt(i) == c) {
+				return i;
+			}
+		}
+
+		return end;
+	}
+
+	private Map<String, String> _parseProperties(
+		String s, int start, int end) {
+
+		Map<String, String> properties = new HashMap<>();
+
+		end = _getContentEnd(s, start, end, CharPool.SEMICOLON);
+
+		if (start == end) {
+			return properties;
+		}
+
+		int attributeStart = start;
+
+		while (true) {
+			int separatorIndex = _indexOf(
+				s, CharPool.SEMICOLON, attributeStart, end);
+
+			int attributeEnd = end;
+
+			if (separatorIndex < end) {
+				attributeEnd = _trimWhitespace(
+					s, attributeStart, separatorIndex);
+			}
+
+			_putProperty(s, attributeStart, attributeEnd, properties);
+
+			if (separatorIndex == end) {
+				return properties;
+			}
+
+			attributeStart = _skipWhitespace(s, separatorIndex + 1, end);
+		}
+	}
+
+	private void _putProperty(
+		String s, int start, int end, Map<String, String> properties) {
+
+		int equalIndex = _indexOf(s, CharPool.EQUAL, start, end);
+
+		if (equalIndex == end) {
+			throw _createIllegalArgumentException(s);
+		}
+
+		int valueStart = _skipWhitespace(s, equalIndex + 1, end);
+
+		int valueEnd = _indexOf(s, CharPool.EQUAL, valueStart, end);
+
+		if (valueEnd < end) {
+			valueEnd = _trimWhitespace(s, valueStart, valueEnd);
+		}
+
+		if (valueStart == valueEnd) {
+			throw _createIllegalArgumentException(s);
+		}
+
+		properties.put(
+			s.substring(start, _trimWhitespace(s, start, equalIndex)),
+			s.substring(valueStart, valueEnd));
+	}
+
+	private void _readProperty(
+		CompactReader compactReader, Map<String, String> properties) {
+
+		long header = compactReader.readVarLong();
+
+		int keyIndex = (int)(header >>> 1);
+
+		String key;
+
+		if (keyIndex == 0) {
+			key = compactReader.readString();
+		}
+		else {
+			key = _COMPACT_KEYS[keyIndex - 1];
+		}
+
+		String value;
+
+		if ((header & 1) == 1) {
+			value = String.valueOf(compactReader.readVarLong());
+		}
+		else {
+			value = compactReader.readString();
+		}
+
+		properties.put(key, value);
+	}
+
+	private boolean _regionEquals(String s, int start, int end, String value) {
+		if ((end - start) != value.length()) {
+			return false;
+		}
+
+		return s.regionMatches(start, value, 0, value.length());
+	}
+
+	private int _skipWhitespace(String s, int start, int end) {
+		while ((start < end) && _isWhitespace(s.charAt(start))) {
+			start++;
+		}
+
+		return start;
+	}
+
+	private int _trimWhitespace(String s, int start, int end) {
+		while ((end > start) && _isWhitespace(s.charAt(end - 1))) {
+			end--;
+		}
+
+		return end;
+	}
+
+	private void _writeProperty(
+		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream, String key,
+		String value) {
+
+		int keyIndex = 0;
+
+		for (int i = 0; i < _COMPACT_KEYS.length; i++) {
+			if (_COMPACT_KEYS[i].equals(key)) {
+				keyIndex = i + 1;
+
+				break;
+			}
+		}
+
+		boolean number = _isNumber(value);
+
+		long header = keyIndex << 1;
+
+		if (number) {
+			header |= 1;
+		}
+
+		_writeVarLong(unsyncByteArrayOutputStream, header);
+
+		if (keyIndex == 0) {
+			_writeString(unsyncByteArrayOutputStream, key);
+		}
+
+		if (number) {
+			_writeVarLong(unsyncByteArrayOutputStream, Long.parseLong(value));
+		}
+		else {
+			_writeString(unsyncByteArrayOutputStream, value);
+		}
+	}
+
+	private void _writeString(
+		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream, String s) {
+
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+		_writeVarLong(unsyncByteArrayOutputStream, bytes.length);
+
+		unsyncByteArrayOutputStream.write(bytes, 0, bytes.length);
+	}
+
+	private void _writeVarLong(
+		UnsyncByteArrayOutputStream unsyncByteArrayOutputStream, long value) {
+
+		while ((value & ~0x7FL) != 0) {
+			unsyncByteArrayOutputStream.write((int)((value & 0x7F) | 0x80));
+
+			value >>>= 7;
+		}
+
+		unsyncByteArrayOutputStream.write((int)value);
+	}
+
+	private static final String[] _COMPACT_KEYS = {
+		"max-height", "max-width",
+		AdaptiveMediaImageConfigurationEntryConditions.MIN_SOURCE_WIDTH,
+		AdaptiveMediaImageConfigurationEntryConditions.MAX_SOURCE_SIZE,
+		AdaptiveMediaImageConfigurationEntryConditions.MIME_TYPES,
+		AdaptiveMediaImageConfigurationEntryScaling.SCALING_MODE,
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_X,
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_Y
+	};
+
+	private static final String _COMPACT_PREFIX = "am.";
+
+	private static final byte _COMPACT_VERSION = 1;
+
+	private static final int _CONFIGURATION_STRING_CAPACITY = 64;
+
+	private static final String[] _OPTIONAL_KEYS = {
+		AdaptiveMediaImageConfigurationEntryConditions.MIN_SOURCE_WIDTH,
+		AdaptiveMediaImageConfigurationEntryConditions.MAX_SOURCE_SIZE,
+		AdaptiveMediaImageConfigurationEntryConditions.MIME_TYPES,
+		AdaptiveMediaImageConfigurationEntryScaling.SCALING_MODE,
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_X,
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_Y
+	};
+
+	private static class CompactReader {
+
+		public byte readByte() {
+			return _bytes[_index++];
+		}
 
-	private static final Pattern _DISABLED_SEPARATOR_PATTERN = Pattern.compile(
-		"enabled=(true|false)");
+		public String readString() {
+			int length = (int)readVarLong();
 
-	private static final Pattern _FIELD_SEPARATOR_PATTERN = Pattern.compile(
-		"\\s*:\\s*");
+			String s = new String(
+				_bytes, _index, length, StandardCharsets.UTF_8);
 
-	private static final Pattern _KEY_VALUE_SEPARATOR_PATTERN = Pattern.compile(
-		"\\s*=\\s*");
+			_index += length;
+
+			return s;
+		}
+
+		public long readVarLong() {
+			long value = 0;
+
+			for (int shift = 0;; shift += 7) {
+				byte b = readByte();
+
+				value |= (long)(b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+		}
+
+		private CompactReader(byte[] bytes) {
+			_bytes = bytes;
+		}
+
+		private final byte[] _bytes;
+		private int _index;
+
+	}
 
 }
\ No newline at end of file
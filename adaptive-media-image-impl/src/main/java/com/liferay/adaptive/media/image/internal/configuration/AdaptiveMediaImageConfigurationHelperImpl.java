@@ -17,41 +17,76 @@ package com.liferay.adaptive.media.image.internal.configuration;
 import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
 import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException.InvalidStateAdaptiveMediaImageConfigurationException;
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeSet;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryScaling;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
-import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
+import com.liferay.adaptive.media.image.internal.background.task.DeleteImageEntriesBackgroundTaskConstants;
+import com.liferay.adaptive.media.image.internal.background.task.DeleteImageEntriesBackgroundTaskExecutor;
+import com.liferay.adaptive.media.image.internal.background.task.RegenerateImageEntriesBackgroundTaskConstants;
+import com.liferay.adaptive.media.image.internal.background.task.RegenerateImageEntriesBackgroundTaskExecutor;
+import com.liferay.portal.background.task.constants.BackgroundTaskContextMapConstants;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskManager;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.lock.Lock;
+import com.liferay.portal.kernel.lock.LockManager;
+import com.liferay.portal.kernel.model.CompanyConstants;
+import com.liferay.portal.kernel.model.PortletPreferences;
+import com.liferay.portal.kernel.security.auth.PrincipalThreadLocal;
+import com.liferay.portal.kernel.service.PortletPreferencesLocalService;
+import com.liferay.portal.kernel.service.ServiceContext;
+import com.liferay.portal.kernel.service.UserLocalService;
 import com.liferay.portal.kernel.settings.CompanyServiceSettingsLocator;
+import com.liferay.portal.kernel.settings.GroupServiceSettingsLocator;
 import com.liferay.portal.kernel.settings.ModifiableSettings;
-import com.liferay.portal.kernel.settings.PortletPreferencesSettings;
 import com.liferay.portal.kernel.settings.Settings;
 import com.liferay.portal.kernel.settings.SettingsException;
 import com.liferay.portal.kernel.settings.SettingsFactoryUtil;
+import com.liferay.portal.kernel.settings.SettingsLocator;
 import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.FriendlyURLNormalizerUtil;
 import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.PortletKeys;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Time;
 import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
 
 import java.io.IOException;
+import java.io.Serializable;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import javax.portlet.PortletPreferences;
 import javax.portlet.ValidatorException;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Adolfo Pérez
  */
 @Component(
+	configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageStorageConfiguration",
 	immediate = true, service = AdaptiveMediaImageConfigurationHelper.class
 )
 public class AdaptiveMediaImageConfigurationHelperImpl
@@ -64,6 +99,19 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 				Map<String, String> properties)
 		throws AdaptiveMediaImageConfigurationException, IOException {
 
+		return _updateConfiguration(
+			companyId,
+			configurationUpdate -> _addConfigurationEntry(
+				configurationUpdate, name, uuid, properties));
+	}
+
+	@Override
+	public AdaptiveMediaImageConfigurationEntry
+			addGroupAdaptiveMediaImageConfigurationEntry(
+				long companyId, long groupId, String name, String uuid,
+				Map<String, String> properties)
+		throws AdaptiveMediaImageConfigurationException, IOException {
+
 		_checkName(name);
 		_checkProperties(properties);
 
@@ -71,133 +119,184 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 
 		_checkUuid(normalizedUuid);
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			getAdaptiveMediaImageConfigurationEntries(
-				companyId, configurationEntry -> true);
-
-		_checkDuplicatesName(configurationEntries, name);
+		if (_isDeletingAdaptiveMediaImageEntries(
+				DeleteImageEntriesBackgroundTaskConstants.getJobName(
+					companyId, normalizedUuid)) ||
+			_isDeletingAdaptiveMediaImageEntries(
+				DeleteImageEntriesBackgroundTaskConstants.getJobName(
+					companyId, groupId, normalizedUuid))) {
 
-		_checkDuplicatesUuid(configurationEntries, normalizedUuid);
+			throw new AdaptiveMediaImageConfigurationException.
+				DuplicateAdaptiveMediaImageConfigurationUuidException();
+		}
 
-		List<AdaptiveMediaImageConfigurationEntry> updatedConfigurationEntries =
-			configurationEntries.stream().filter(
-				configurationEntry ->
-					!configurationEntry.getUUID().equals(normalizedUuid)).
-				collect(Collectors.toList());
+		return _updateGroupConfiguration(
+			companyId, groupId,
+			configurationEntries -> {
+				configurationEntries.removeIf(
+					configurationEntry -> normalizedUuid.equals(
+						configurationEntry.getUUID()));
 
-		AdaptiveMediaImageConfigurationEntry configurationEntry =
-			new AdaptiveMediaImageConfigurationEntryImpl(
-				name, normalizedUuid, properties, true);
+				_checkDuplicatesName(configurationEntries, name);
 
-		updatedConfigurationEntries.add(configurationEntry);
+				AdaptiveMediaImageConfigurationEntry configurationEntry =
+					new AdaptiveMediaImageConfigurationEntryImpl(
+						name, normalizedUuid, properties, true);
 
-		_updateConfiguration(companyId, updatedConfigurationEntries);
+				configurationEntries.add(configurationEntry);
 
-		return configurationEntry;
+				return configurationEntry;
+			});
 	}
 
 	@Override
-	public void deleteAdaptiveMediaImageConfigurationEntry(
-			long companyId, String uuid)
-		throws InvalidStateAdaptiveMediaImageConfigurationException,
-			IOException {
-
-		Optional<AdaptiveMediaImageConfigurationEntry>
-			configurationEntryOptional =
-				getAdaptiveMediaImageConfigurationEntry(companyId, uuid);
+	public long applyAdaptiveMediaImageConfigurationChangeSet(
+			long companyId, long configurationVersion,
+			AdaptiveMediaImageConfigurationChangeSet changeSet)
+		throws AdaptiveMediaImageConfigurationException, IOException {
 
-		if (!configurationEntryOptional.isPresent()) {
-			return;
+		if (!(changeSet instanceof ConfigurationChangeSet)) {
+			throw new IllegalArgumentException(
+				"Change set was not created by this helper");
 		}
 
-		AdaptiveMediaImageConfigurationEntry configurationEntry =
-			configurationEntryOptional.get();
+		ConfigurationChangeSet configurationChangeSet =
+			(ConfigurationChangeSet)changeSet;
 
-		if (configurationEntry.isEnabled()) {
-			throw new InvalidStateAdaptiveMediaImageConfigurationException();
-		}
+		return _updateConfiguration(
+			companyId,
+			configurationUpdate -> {
+				if (configurationUpdate._configurationVersion !=
+						configurationVersion) {
 
-		forceDeleteAdaptiveMediaImageConfigurationEntry(companyId, uuid);
-	}
+					throw new AdaptiveMediaImageConfigurationException.
+						StaleVersionAdaptiveMediaImageConfigurationException(
+							"{companyId=" + companyId + ", currentVersion=" +
+								configurationUpdate._configurationVersion +
+									", version=" + configurationVersion + "}");
+				}
 
-	@Override
-	public void disableAdaptiveMediaImageConfigurationEntry(
-			long companyId, String uuid)
-		throws IOException {
+				List<AdaptiveMediaImageConfigurationEntry>
+					configurationEntries = new ArrayList<>(
+						configurationUpdate._configurationEntries);
 
-		Optional<AdaptiveMediaImageConfigurationEntry>
-			configurationEntryOptional =
-				getAdaptiveMediaImageConfigurationEntry(companyId, uuid);
+				for (ConfigurationOperation
+						<?, AdaptiveMediaImageConfigurationException>
+							configurationOperation :
+								configurationChangeSet.
+									_configurationOperations) {
 
-		if (!configurationEntryOptional.isPresent()) {
-			return;
-		}
+					configurationOperation.apply(configurationUpdate);
+				}
 
-		AdaptiveMediaImageConfigurationEntry configurationEntry =
-			configurationEntryOptional.get();
+				if (configurationEntries.equals(
+						configurationUpdate._configurationEntries)) {
 
-		if (!configurationEntry.isEnabled()) {
-			return;
-		}
+					return configurationVersion;
+				}
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			getAdaptiveMediaImageConfigurationEntries(
-				companyId, curConfigurationEntry -> true);
+				return configurationVersion + 1;
+			});
+	}
 
-		List<AdaptiveMediaImageConfigurationEntry> updatedConfigurationEntries =
-			configurationEntries.stream().filter(
-				curConfigurationEntry ->
-					!uuid.equals(curConfigurationEntry.getUUID())).collect(
-				Collectors.toList());
+	@Override
+	public AdaptiveMediaImageConfigurationChangeSet
+		createAdaptiveMediaImageConfigurationChangeSet() {
 
-		AdaptiveMediaImageConfigurationEntry newConfigurationEntry =
-			new AdaptiveMediaImageConfigurationEntryImpl(
-				configurationEntry.getName(), configurationEntry.getUUID(),
-				configurationEntry.getProperties(), false);
+		return new ConfigurationChangeSet();
+	}
+
+	@Override
+	public void deleteAdaptiveMediaImageConfigurationEntry(
+			long companyId, String uuid)
+		throws InvalidStateAdaptiveMediaImageConfigurationException,
+			IOException {
 
-		updatedConfigurationEntries.add(newConfigurationEntry);
+		_updateConfiguration(
+			companyId,
+			configurationUpdate -> {
+				_deleteConfigurationEntry(configurationUpdate, uuid);
 
-		_updateConfiguration(companyId, updatedConfigurationEntries);
+				return null;
+			});
 	}
 
 	@Override
-	public void enableAdaptiveMediaImageConfigurationEntry(
-			long companyId, String uuid)
+	public void deleteGroupAdaptiveMediaImageConfigurationEntry(
+			long companyId, long groupId, String uuid)
 		throws IOException {
 
+		AdaptiveMediaImageConfigurationEntry groupConfigurationEntry =
+			_updateGroupConfiguration(
+				companyId, groupId,
+				configurationEntries -> {
+					for (AdaptiveMediaImageConfigurationEntry
+							configurationEntry : configurationEntries) {
+
+						if (uuid.equals(configurationEntry.getUUID())) {
+							configurationEntries.remove(configurationEntry);
+
+							return configurationEntry;
+						}
+					}
+
+					return null;
+				});
+
+		if (groupConfigurationEntry == null) {
+			return;
+		}
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
+
 		Optional<AdaptiveMediaImageConfigurationEntry>
-			configurationEntryOptional =
-				getAdaptiveMediaImageConfigurationEntry(companyId, uuid);
+			configurationEntryOptional = snapshot.getConfigurationEntry(uuid);
 
 		if (!configurationEntryOptional.isPresent()) {
+			_deleteGroupAdaptiveMediaImageEntries(companyId, groupId, uuid);
+
 			return;
 		}
 
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
 			configurationEntryOptional.get();
 
-		if (configurationEntry.isEnabled()) {
-			return;
+		String contentVersion = configurationEntry.getContentVersion();
+
+		if (!contentVersion.equals(
+				groupConfigurationEntry.getContentVersion())) {
+
+			_regenerateAdaptiveMediaImageEntries(companyId, configurationEntry);
 		}
+	}
+
+	@Override
+	public void disableAdaptiveMediaImageConfigurationEntry(
+			long companyId, String uuid)
+		throws IOException {
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			getAdaptiveMediaImageConfigurationEntries(
-				companyId, curConfigurationEntry -> true);
+		_updateConfiguration(
+			companyId,
+			configurationUpdate -> {
+				_setConfigurationEntryEnabled(configurationUpdate, uuid, false);
 
-		List<AdaptiveMediaImageConfigurationEntry> updatedConfigurationEntries =
-			configurationEntries.stream().filter(
-				curConfigurationEntry ->
-					!uuid.equals(curConfigurationEntry.getUUID())).collect(
-				Collectors.toList());
+				return null;
+			});
+	}
 
-		AdaptiveMediaImageConfigurationEntry newConfigurationEntry =
-			new AdaptiveMediaImageConfigurationEntryImpl(
-				configurationEntry.getName(), configurationEntry.getUUID(),
-				configurationEntry.getProperties(), true);
+	@Override
+	public void enableAdaptiveMediaImageConfigurationEntry(
+			long companyId, String uuid)
+		throws IOException {
 
-		updatedConfigurationEntries.add(newConfigurationEntry);
+		_updateConfiguration(
+			companyId,
+			configurationUpdate -> {
+				_setConfigurationEntryEnabled(configurationUpdate, uuid, true);
 
-		_updateConfiguration(companyId, updatedConfigurationEntries);
+				return null;
+			});
 	}
 
 	@Override
@@ -205,42 +304,50 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 			long companyId, String uuid)
 		throws IOException {
 
-		Optional<AdaptiveMediaImageConfigurationEntry>
-			configurationEntryOptional =
-				getAdaptiveMediaImageConfigurationEntry(companyId, uuid);
+		_updateConfiguration(
+			companyId,
+			configurationUpdate -> {
+				_forceDeleteConfigurationEntry(configurationUpdate, uuid);
 
-		if (!configurationEntryOptional.isPresent()) {
-			return;
-		}
+				return null;
+			});
+	}
 
-		_imageEntryLocalService.deleteAdaptiveMediaImageEntries(
-			companyId, configurationEntryOptional.get());
+	@Override
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntries(long companyId) {
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			getAdaptiveMediaImageConfigurationEntries(
-				companyId, curConfigurationEntry -> true);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
 
-		List<AdaptiveMediaImageConfigurationEntry> updatedConfigurationEntries =
-			configurationEntries.stream().filter(
-				curConfigurationEntry ->
-					!uuid.equals(curConfigurationEntry.getUUID())).collect(
-				Collectors.toList());
+		return new ArrayList<>(snapshot.getEnabledConfigurationEntries());
+	}
 
-		_updateConfiguration(companyId, updatedConfigurationEntries);
+	@Override
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntries(
+			long companyId, long groupId) {
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId, groupId);
+
+		return new ArrayList<>(snapshot.getEnabledConfigurationEntries());
 	}
 
 	@Override
 	public Collection<AdaptiveMediaImageConfigurationEntry>
-		getAdaptiveMediaImageConfigurationEntries(long companyId) {
+		getAdaptiveMediaImageConfigurationEntries(
+			long companyId, long groupId,
+			Predicate<? super AdaptiveMediaImageConfigurationEntry> predicate) {
 
-		Stream<AdaptiveMediaImageConfigurationEntry> configurationEntryStream =
-			_getConfigurationEntries(companyId);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId, groupId);
 
-		return configurationEntryStream.filter(
-			configurationEntry -> configurationEntry.isEnabled()).sorted(
-				Comparator.comparing(
-					AdaptiveMediaImageConfigurationEntry::getName)).collect(
-				Collectors.toList());
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			snapshot.getConfigurationEntries();
+
+		return configurationEntries.stream().filter(predicate).collect(
+			Collectors.toList());
 	}
 
 	@Override
@@ -249,18 +356,14 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 			long companyId,
 			Predicate<? super AdaptiveMediaImageConfigurationEntry> predicate) {
 
-		Stream<AdaptiveMediaImageConfigurationEntry> configurationEntryStream =
-			_getConfigurationEntries(companyId);
-
-		Comparator<AdaptiveMediaImageConfigurationEntry> comparator =
-			Comparator.comparing(AdaptiveMediaImageConfigurationEntry::getName);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
 
-		Stream<AdaptiveMediaImageConfigurationEntry>
-			adaptiveMediaImageConfigurationEntryStream =
-				configurationEntryStream.filter(predicate);
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			snapshot.getConfigurationEntries();
 
-		return adaptiveMediaImageConfigurationEntryStream.sorted(comparator).
-			collect(Collectors.toList());
+		return configurationEntries.stream().filter(predicate).collect(
+			Collectors.toList());
 	}
 
 	@Override
@@ -268,54 +371,103 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 		getAdaptiveMediaImageConfigurationEntry(
 			long companyId, String configurationEntryUUID) {
 
-		Stream<AdaptiveMediaImageConfigurationEntry> configurationEntryStream =
-			_getConfigurationEntries(companyId);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
 
-		return configurationEntryStream.filter(
-			configurationEntry -> configurationEntryUUID.equals(
-				configurationEntry.getUUID())).findFirst();
+		return snapshot.getConfigurationEntry(configurationEntryUUID);
 	}
 
 	@Override
-	public boolean isDefaultConfiguration(long companyId) {
-		try {
-			Settings settings = SettingsFactoryUtil.getSettings(
-				new CompanyServiceSettingsLocator(
-					companyId,
-					AdaptiveMediaImageCompanyConfiguration.class.getName()));
+	public Optional<AdaptiveMediaImageConfigurationEntry>
+		getAdaptiveMediaImageConfigurationEntry(
+			long companyId, long groupId, String configurationEntryUUID) {
 
-			String[] nullableImageVariants = _getNullableImageVariants(
-				settings);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId, groupId);
 
-			if (nullableImageVariants != null) {
-				return false;
-			}
+		return snapshot.getConfigurationEntry(configurationEntryUUID);
+	}
 
-			return true;
-		}
-		catch (SettingsException se) {
-			throw new AdaptiveMediaRuntimeException.InvalidConfiguration(se);
-		}
+	@Override
+	public long getConfigurationVersion(long companyId) {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
+
+		return snapshot.getVersion();
+	}
+
+	@Override
+	public long getConfigurationVersion(long companyId, long groupId) {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId, groupId);
+
+		return snapshot.getVersion();
+	}
+
+	@Override
+	public Collection<AdaptiveMediaImageConfigurationEntry>
+		getGroupAdaptiveMediaImageConfigurationEntries(long groupId) {
+
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			_configurationSnapshotCache.getGroupSnapshot(groupId);
+
+		return new ArrayList<>(groupSnapshot.getConfigurationEntries());
+	}
+
+	@Override
+	public boolean isDefaultConfiguration(long companyId) {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(companyId);
+
+		return snapshot.isDefaultConfiguration();
 	}
 
 	@Override
 	public void resetDefaultConfiguration(long companyId) {
-		try {
-			Settings settings = SettingsFactoryUtil.getSettings(
-				new CompanyServiceSettingsLocator(
-					companyId,
-					AdaptiveMediaImageCompanyConfiguration.class.getName()));
+		AdaptiveMediaImageConfigurationSnapshot snapshot;
+		AdaptiveMediaImageConfigurationSnapshot newSnapshot;
 
-			ModifiableSettings modifiableSettings =
-				settings.getModifiableSettings();
+		synchronized (_getCompanyLock(companyId)) {
+			String lockKey = "company#" + companyId;
 
-			modifiableSettings.reset("imageVariants");
+			String lockOwner = _lock(lockKey);
 
-			modifiableSettings.store();
-		}
-		catch (IOException | SettingsException | ValidatorException e) {
-			throw new AdaptiveMediaRuntimeException.InvalidConfiguration(e);
+			try {
+				snapshot = _configurationSnapshotCache.refreshSnapshot(
+					companyId);
+
+				Settings settings = SettingsFactoryUtil.getSettings(
+					new CompanyServiceSettingsLocator(
+						companyId,
+						AdaptiveMediaImageCompanyConfiguration.class.
+							getName()));
+
+				ModifiableSettings modifiableSettings =
+					settings.getModifiableSettings();
+
+				modifiableSettings.reset("imageVariants");
+				modifiableSettings.setValue(
+					"configurationVersion",
+					String.valueOf(snapshot.getVersion() + 1));
+
+				modifiableSettings.store();
+
+				newSnapshot = _configurationSnapshotCache.refreshSnapshot(
+					companyId);
+			}
+			catch (IOException | SettingsException | ValidatorException e) {
+				throw new AdaptiveMediaRuntimeException.InvalidConfiguration(
+					e);
+			}
+			finally {
+				_lockManager.unlock(_LOCK_CLASS_NAME, lockKey, lockOwner);
+			}
 		}
+
+		_publishConfigurationChange(
+			companyId, 0, snapshot.getVersion(),
+			snapshot.getConfigurationEntries(), newSnapshot.getVersion(),
+			newSnapshot.getConfigurationEntries());
 	}
 
 	@Override
@@ -325,68 +477,102 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 				Map<String, String> properties)
 		throws AdaptiveMediaImageConfigurationException, IOException {
 
-		_checkName(name);
-		_checkProperties(properties);
+		return _updateConfiguration(
+			companyId,
+			configurationUpdate -> _updateConfigurationEntry(
+				configurationUpdate, oldUuid, name, newUuid, properties));
+	}
 
-		String normalizedUuid = FriendlyURLNormalizerUtil.normalize(newUuid);
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		AdaptiveMediaImageStorageConfiguration storageConfiguration =
+			ConfigurableUtil.createConfigurable(
+				AdaptiveMediaImageStorageConfiguration.class, properties);
 
-		_checkUuid(normalizedUuid);
+		_compactEncodingEnabled = storageConfiguration.compactEncodingEnabled();
+	}
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			getAdaptiveMediaImageConfigurationEntries(
-				companyId, configurationEntry -> true);
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageConfigurationChangeBus(
+		AdaptiveMediaImageConfigurationChangeBus configurationChangeBus) {
 
-		Optional<AdaptiveMediaImageConfigurationEntry>
-			oldConfigurationEntryOptional =
-				configurationEntries.stream().filter(
-					configurationEntry -> configurationEntry.getUUID().equals(
-						oldUuid)).findFirst();
+		_configurationChangeBus = configurationChangeBus;
+	}
 
-		if (!oldConfigurationEntryOptional.isPresent()) {
-			throw new AdaptiveMediaImageConfigurationException.
-				NoSuchAdaptiveMediaImageConfigurationException(
-					"{uuid=" + oldUuid + "}");
-		}
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageConfigurationEntryParser(
+		AdaptiveMediaImageConfigurationEntryParser configurationEntryParser) {
 
-		AdaptiveMediaImageConfigurationEntry oldConfigurationEntry =
-			oldConfigurationEntryOptional.get();
+		_configurationEntryParser = configurationEntryParser;
+	}
 
-		if (!name.equals(oldConfigurationEntry.getName())) {
-			_checkDuplicatesName(configurationEntries, name);
-		}
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageConfigurationSnapshotCache(
+		AdaptiveMediaImageConfigurationSnapshotCache
+			configurationSnapshotCache) {
 
-		if (!oldUuid.equals(normalizedUuid)) {
-			_checkDuplicatesUuid(configurationEntries, normalizedUuid);
-		}
+		_configurationSnapshotCache = configurationSnapshotCache;
+	}
 
-		List<AdaptiveMediaImageConfigurationEntry> updatedConfigurationEntries =
-			configurationEntries.stream().filter(
-				configurationEntry ->
-					!configurationEntry.getUUID().equals(oldUuid)).collect(
-				Collectors.toList());
+	private AdaptiveMediaImageConfigurationEntry _addConfigurationEntry(
+			ConfigurationUpdate configurationUpdate, String name, String uuid,
+			Map<String, String> properties)
+		throws AdaptiveMediaImageConfigurationException {
+
+		_checkName(name);
+		_checkProperties(properties);
+
+		String normalizedUuid = FriendlyURLNormalizerUtil.normalize(uuid);
+
+		_checkUuid(normalizedUuid);
+
+		_checkDuplicatesName(configurationUpdate._configurationEntries, name);
+
+		_checkDuplicatesUuid(configurationUpdate, normalizedUuid);
 
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
 			new AdaptiveMediaImageConfigurationEntryImpl(
-				name, normalizedUuid, properties,
-				oldConfigurationEntry.isEnabled());
-
-		updatedConfigurationEntries.add(configurationEntry);
+				name, normalizedUuid, properties, true);
 
-		_updateConfiguration(companyId, updatedConfigurationEntries);
+		configurationUpdate._configurationEntries.add(configurationEntry);
 
 		return configurationEntry;
 	}
 
-	@Reference(unbind = "-")
-	protected void setAdaptiveMediaImageConfigurationEntryParser(
-		AdaptiveMediaImageConfigurationEntryParser configurationEntryParser) {
+	private void _checkConditions(Map<String, String> properties)
+		throws AdaptiveMediaImageConfigurationException {
 
-		_configurationEntryParser = configurationEntryParser;
+		for (String conditionKey : _NUMERIC_CONDITION_KEYS) {
+			String value = properties.get(conditionKey);
+
+			if (Validator.isNotNull(value) && !Validator.isNumber(value)) {
+				throw new AdaptiveMediaImageConfigurationException.
+					InvalidConditionException(conditionKey + "=" + value);
+			}
+		}
+
+		String mimeTypes = properties.get(
+			AdaptiveMediaImageConfigurationEntryConditions.MIME_TYPES);
+
+		if (Validator.isNull(mimeTypes)) {
+			return;
+		}
+
+		Set<String> supportedMimeTypes =
+			AdaptiveMediaImageConstants.getSupportedMimeTypes();
+
+		for (String mimeType : StringUtil.split(mimeTypes)) {
+			if (!supportedMimeTypes.contains(mimeType)) {
+				throw new AdaptiveMediaImageConfigurationException.
+					InvalidConditionException(
+						"Unsupported mime type " + mimeType);
+			}
+		}
 	}
 
 	private void _checkDuplicatesName(
-			Collection<AdaptiveMediaImageConfigurationEntry>
-				configurationEntries,
+			List<AdaptiveMediaImageConfigurationEntry> configurationEntries,
 			String name)
 		throws AdaptiveMediaImageConfigurationException {
 
@@ -403,18 +589,26 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 	}
 
 	private void _checkDuplicatesUuid(
-			Collection<AdaptiveMediaImageConfigurationEntry>
-				configurationEntries,
-			String uuid)
+			ConfigurationUpdate configurationUpdate, String uuid)
 		throws AdaptiveMediaImageConfigurationException {
 
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			configurationUpdate._configurationEntries;
+
 		Optional<AdaptiveMediaImageConfigurationEntry>
 			duplicateUuidConfigurationEntryOptional =
 				configurationEntries.stream().filter(
 					configurationEntry -> configurationEntry.getUUID().equals(
 						uuid)).findFirst();
 
-		if (duplicateUuidConfigurationEntryOptional.isPresent()) {
+		Set<String> deletedUuids = configurationUpdate._deletedUuids;
+
+		if (duplicateUuidConfigurationEntryOptional.isPresent() ||
+			deletedUuids.contains(uuid) ||
+			_isDeletingAdaptiveMediaImageEntries(
+				DeleteImageEntriesBackgroundTaskConstants.getJobName(
+					configurationUpdate._companyId, uuid))) {
+
 			throw new AdaptiveMediaImageConfigurationException.
 				DuplicateAdaptiveMediaImageConfigurationUuidException();
 		}
@@ -474,6 +668,52 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 				AdaptiveMediaImageConfigurationException.
 					RequiredWidthOrHeightException();
 		}
+
+		_checkConditions(properties);
+		_checkScaling(properties, maxHeight, maxWidth);
+	}
+
+	private void _checkScaling(
+			Map<String, String> properties, long maxHeight, long maxWidth)
+		throws AdaptiveMediaImageConfigurationException {
+
+		AdaptiveMediaImageConfigurationEntryScaling scaling =
+			new AdaptiveMediaImageConfigurationEntryScaling(properties);
+
+		String scalingMode = properties.get(
+			AdaptiveMediaImageConfigurationEntryScaling.SCALING_MODE);
+
+		if (scaling.isFill()) {
+			if ((maxHeight <= 0) || (maxWidth <= 0)) {
+				throw new AdaptiveMediaImageConfigurationException.
+					InvalidScalingException(
+						"Fill scaling requires max-height and max-width");
+			}
+		}
+		else if (Validator.isNotNull(scalingMode) &&
+				 !scalingMode.equals(
+					 AdaptiveMediaImageConfigurationEntryScaling.
+						 SCALING_MODE_FIT)) {
+
+			throw new AdaptiveMediaImageConfigurationException.
+				InvalidScalingException(
+					"Unsupported scaling mode " + scalingMode);
+		}
+
+		for (String focalPointKey : _FOCAL_POINT_KEYS) {
+			String value = properties.get(focalPointKey);
+
+			if (Validator.isNull(value)) {
+				continue;
+			}
+
+			if (!Validator.isNumber(value) ||
+				(GetterUtil.getInteger(value) > 100)) {
+
+				throw new AdaptiveMediaImageConfigurationException.
+					InvalidScalingException(focalPointKey + "=" + value);
+			}
+		}
 	}
 
 	private void _checkUuid(String uuid)
@@ -485,70 +725,391 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 		}
 	}
 
-	private Stream<AdaptiveMediaImageConfigurationEntry>
-		_getConfigurationEntries(long companyId) {
+	private void _deleteAdaptiveMediaImageEntries(long companyId, String uuid)
+		throws IOException {
+
+		Map<String, Serializable> taskContextMap = new HashMap<>();
+
+		taskContextMap.put(
+			BackgroundTaskContextMapConstants.DELETE_ON_SUCCESS, true);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.COMPANY_ID, companyId);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.CONFIGURATION_ENTRY_UUID,
+			uuid);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.EXCLUDED_GROUP_IDS,
+			StringUtil.merge(_getOverridingGroupIds(companyId, uuid)));
 
 		try {
-			Settings settings = SettingsFactoryUtil.getSettings(
-				new CompanyServiceSettingsLocator(
-					companyId,
-					AdaptiveMediaImageCompanyConfiguration.class.getName()));
+			_backgroundTaskManager.addBackgroundTask(
+				_getUserId(companyId), CompanyConstants.SYSTEM,
+				DeleteImageEntriesBackgroundTaskConstants.getJobName(
+					companyId, uuid),
+				DeleteImageEntriesBackgroundTaskExecutor.class.getName(),
+				taskContextMap, new ServiceContext());
+		}
+		catch (PortalException pe) {
+			throw new IOException(
+				"Unable to schedule the deletion of adaptive media images", pe);
+		}
+	}
+
+	private void _deleteConfigurationEntry(
+			ConfigurationUpdate configurationUpdate, String uuid)
+		throws InvalidStateAdaptiveMediaImageConfigurationException {
 
-			String[] nullableImageVariants = _getNullableImageVariants(
-				settings);
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationUpdate._configurationEntries) {
 
-			if (nullableImageVariants != null) {
-				return Stream.of(nullableImageVariants).map(
-					_configurationEntryParser::parse);
+			if (uuid.equals(configurationEntry.getUUID()) &&
+				configurationEntry.isEnabled()) {
+
+				throw new
+					InvalidStateAdaptiveMediaImageConfigurationException();
 			}
+		}
+
+		_forceDeleteConfigurationEntry(configurationUpdate, uuid);
+	}
 
-			String[] imageVariants = settings.getValues("imageVariants", null);
+	/**
+	 * Schedules the deletion of the adaptive media images of a configuration
+	 * entry that was only defined for the group. No other configuration
+	 * entry resolves to them anymore, so nothing else would remove them.
+	 */
+	private void _deleteGroupAdaptiveMediaImageEntries(
+			long companyId, long groupId, String uuid)
+		throws IOException {
+
+		Map<String, Serializable> taskContextMap = new HashMap<>();
+
+		taskContextMap.put(
+			BackgroundTaskContextMapConstants.DELETE_ON_SUCCESS, true);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.COMPANY_ID, companyId);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.CONFIGURATION_ENTRY_UUID,
+			uuid);
+		taskContextMap.put(
+			DeleteImageEntriesBackgroundTaskConstants.GROUP_ID, groupId);
+
+		try {
+			_backgroundTaskManager.addBackgroundTask(
+				_getUserId(companyId), CompanyConstants.SYSTEM,
+				DeleteImageEntriesBackgroundTaskConstants.getJobName(
+					companyId, groupId, uuid),
+				DeleteImageEntriesBackgroundTaskExecutor.class.getName(),
+				taskContextMap, new ServiceContext());
+		}
+		catch (PortalException pe) {
+			throw new IOException(
+				"Unable to schedule the deletion of adaptive media images", pe);
+		}
+	}
 
-			if (ArrayUtil.isEmpty(imageVariants)) {
-				return Stream.empty();
+	private void _forceDeleteConfigurationEntry(
+		ConfigurationUpdate configurationUpdate, String uuid) {
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			configurationUpdate._configurationEntries;
+
+		if (configurationEntries.removeIf(
+				configurationEntry ->
+					uuid.equals(configurationEntry.getUUID()))) {
+
+			Set<String> deletedUuids = configurationUpdate._deletedUuids;
+
+			deletedUuids.add(uuid);
+
+			Set<String> regeneratedUuids =
+				configurationUpdate._regeneratedUuids;
+
+			regeneratedUuids.remove(uuid);
+		}
+	}
+
+	private Object _getCompanyLock(long companyId) {
+		return _companyLocks.computeIfAbsent(companyId, key -> new Object());
+	}
+
+	private Object _getGroupLock(long groupId) {
+		return _groupLocks.computeIfAbsent(groupId, key -> new Object());
+	}
+
+	/**
+	 * Returns the groups of the company that define a configuration entry
+	 * with the UUID, which overrides the company entry in those groups.
+	 */
+	private long[] _getOverridingGroupIds(long companyId, String uuid) {
+		List<PortletPreferences> portletPreferencesList =
+			_portletPreferencesLocalService.getPortletPreferences(
+				PortletKeys.PREFS_OWNER_TYPE_GROUP,
+				PortletKeys.PREFS_PLID_SHARED,
+				AdaptiveMediaImageGroupConfiguration.class.getName());
+
+		List<Long> groupIds = new ArrayList<>();
+
+		for (PortletPreferences portletPreferences : portletPreferencesList) {
+			if (portletPreferences.getCompanyId() != companyId) {
+				continue;
 			}
 
-			return
-				Stream.of(imageVariants).map(_configurationEntryParser::parse);
+			long groupId = portletPreferences.getOwnerId();
+
+			AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+				_configurationSnapshotCache.getGroupSnapshot(groupId);
+
+			for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+					groupSnapshot.getConfigurationEntries()) {
+
+				if (uuid.equals(configurationEntry.getUUID())) {
+					groupIds.add(groupId);
+
+					break;
+				}
+			}
 		}
-		catch (SettingsException se) {
-			throw new AdaptiveMediaRuntimeException.InvalidConfiguration(se);
+
+		return ArrayUtil.toLongArray(groupIds);
+	}
+
+	private long _getUserId(long companyId) throws PortalException {
+		long userId = PrincipalThreadLocal.getUserId();
+
+		if (userId != 0) {
+			return userId;
 		}
+
+		return _userLocalService.getDefaultUserId(companyId);
 	}
 
-	private String[] _getNullableImageVariants(Settings settings) {
-		PortletPreferencesSettings portletPreferencesSettings =
-			(PortletPreferencesSettings)settings;
+	private boolean _isChanged(
+		AdaptiveMediaImageConfigurationEntry oldConfigurationEntry,
+		AdaptiveMediaImageConfigurationEntry newConfigurationEntry) {
+
+		if (!Validator.equals(
+				oldConfigurationEntry.getName(),
+				newConfigurationEntry.getName()) ||
+			(oldConfigurationEntry.isEnabled() !=
+				newConfigurationEntry.isEnabled())) {
+
+			return true;
+		}
+
+		Map<String, String> oldProperties =
+			oldConfigurationEntry.getProperties();
+
+		return !oldProperties.equals(newConfigurationEntry.getProperties());
+	}
+
+	private boolean _isDeletingAdaptiveMediaImageEntries(String jobName) {
+		int count = _backgroundTaskManager.getBackgroundTasksCount(
+			CompanyConstants.SYSTEM, jobName,
+			DeleteImageEntriesBackgroundTaskExecutor.class.getName(), false);
+
+		if (count > 0) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Acquires the cluster wide lock with the key and returns its owner. The
+	 * settings are read and stored while holding it, so that two nodes never
+	 * store a new configuration version starting from the same one. A lock
+	 * held for longer than {@link #_LOCK_TIMEOUT} is considered abandoned by
+	 * a node that went down and is taken over.
+	 */
+	private String _lock(String lockKey) {
+		String lockOwner = PortalUUIDUtil.generate();
+
+		while (true) {
+			Lock lock = _lockManager.lock(
+				_LOCK_CLASS_NAME, lockKey, lockOwner);
+
+			if (lockOwner.equals(lock.getOwner())) {
+				return lockOwner;
+			}
+
+			Date createDate = lock.getCreateDate();
+
+			if ((System.currentTimeMillis() - createDate.getTime()) >
+					_LOCK_TIMEOUT) {
+
+				lock = _lockManager.lock(
+					_LOCK_CLASS_NAME, lockKey, lock.getOwner(), lockOwner);
+
+				if (lockOwner.equals(lock.getOwner())) {
+					return lockOwner;
+				}
+			}
+
+			try {
+				Thread.sleep(_LOCK_RETRY_DELAY);
+			}
+			catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+
+				throw new AdaptiveMediaRuntimeException.InvalidConfiguration(
+					"Interrupted while waiting for lock " + lockKey, ie);
+			}
+		}
+	}
+
+	/**
+	 * Publishes the configuration entries added, updated or deleted between
+	 * both configuration versions so that every node can invalidate what
+	 * depends on them.
+	 */
+	private void _publishConfigurationChange(
+		long companyId, long groupId, long previousVersion,
+		List<AdaptiveMediaImageConfigurationEntry> oldConfigurationEntries,
+		long version,
+		List<AdaptiveMediaImageConfigurationEntry> newConfigurationEntries) {
+
+		Map<String, AdaptiveMediaImageConfigurationEntry>
+			oldConfigurationEntriesMap = _toMap(oldConfigurationEntries);
+		Map<String, AdaptiveMediaImageConfigurationEntry>
+			newConfigurationEntriesMap = _toMap(newConfigurationEntries);
+
+		Map<String, Map<String, String>> oldProperties = new HashMap<>();
+
+		for (AdaptiveMediaImageConfigurationEntry oldConfigurationEntry :
+				oldConfigurationEntries) {
+
+			AdaptiveMediaImageConfigurationEntry newConfigurationEntry =
+				newConfigurationEntriesMap.get(oldConfigurationEntry.getUUID());
+
+			if ((newConfigurationEntry == null) ||
+				_isChanged(oldConfigurationEntry, newConfigurationEntry)) {
+
+				oldProperties.put(
+					oldConfigurationEntry.getUUID(),
+					oldConfigurationEntry.getProperties());
+			}
+		}
+
+		Map<String, Map<String, String>> newProperties = new HashMap<>();
+
+		for (AdaptiveMediaImageConfigurationEntry newConfigurationEntry :
+				newConfigurationEntries) {
 
-		PortletPreferences portletPreferences =
-			portletPreferencesSettings.getPortletPreferences();
+			AdaptiveMediaImageConfigurationEntry oldConfigurationEntry =
+				oldConfigurationEntriesMap.get(newConfigurationEntry.getUUID());
 
-		Map<String, String[]> map = portletPreferences.getMap();
+			if ((oldConfigurationEntry == null) ||
+				_isChanged(oldConfigurationEntry, newConfigurationEntry)) {
 
-		return map.get("imageVariants");
+				newProperties.put(
+					newConfigurationEntry.getUUID(),
+					newConfigurationEntry.getProperties());
+			}
+		}
+
+		_configurationChangeBus.publish(
+			new AdaptiveMediaImageConfigurationChangeEvent(
+				companyId, groupId, previousVersion, version, oldProperties,
+				newProperties));
 	}
 
-	private void _updateConfiguration(
+	private void _regenerateAdaptiveMediaImageEntries(
 			long companyId,
-			List<AdaptiveMediaImageConfigurationEntry> configurationEntries)
+			AdaptiveMediaImageConfigurationEntry configurationEntry)
+		throws IOException {
+
+		Map<String, Serializable> taskContextMap = new HashMap<>();
+
+		taskContextMap.put(
+			BackgroundTaskContextMapConstants.DELETE_ON_SUCCESS, true);
+		taskContextMap.put(
+			RegenerateImageEntriesBackgroundTaskConstants.COMPANY_ID,
+			companyId);
+		taskContextMap.put(
+			RegenerateImageEntriesBackgroundTaskConstants.
+				CONFIGURATION_ENTRY_UUID,
+			configurationEntry.getUUID());
+		taskContextMap.put(
+			RegenerateImageEntriesBackgroundTaskConstants.CONTENT_VERSION,
+			configurationEntry.getContentVersion());
+
+		try {
+			_backgroundTaskManager.addBackgroundTask(
+				_getUserId(companyId), CompanyConstants.SYSTEM,
+				RegenerateImageEntriesBackgroundTaskConstants.getJobName(
+					companyId, configurationEntry.getUUID()),
+				RegenerateImageEntriesBackgroundTaskExecutor.class.getName(),
+				taskContextMap, new ServiceContext());
+		}
+		catch (PortalException pe) {
+			throw new IOException(
+				"Unable to schedule the regeneration of adaptive media images",
+				pe);
+		}
+	}
+
+	private void _setConfigurationEntryEnabled(
+		ConfigurationUpdate configurationUpdate, String uuid,
+		boolean enabled) {
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			configurationUpdate._configurationEntries;
+
+		ListIterator<AdaptiveMediaImageConfigurationEntry> listIterator =
+			configurationEntries.listIterator();
+
+		while (listIterator.hasNext()) {
+			AdaptiveMediaImageConfigurationEntry configurationEntry =
+				listIterator.next();
+
+			if (!uuid.equals(configurationEntry.getUUID())) {
+				continue;
+			}
+
+			if (configurationEntry.isEnabled() != enabled) {
+				listIterator.set(
+					new AdaptiveMediaImageConfigurationEntryImpl(
+						configurationEntry.getName(),
+						configurationEntry.getUUID(),
+						configurationEntry.getProperties(), enabled));
+			}
+
+			return;
+		}
+	}
+
+	private void _storeConfiguration(
+			SettingsLocator settingsLocator,
+			List<AdaptiveMediaImageConfigurationEntry> configurationEntries,
+			long configurationVersion)
 		throws IOException {
 
 		try {
 			Settings settings = SettingsFactoryUtil.getSettings(
-				new CompanyServiceSettingsLocator(
-					companyId,
-					AdaptiveMediaImageCompanyConfiguration.class.getName()));
+				settingsLocator);
 
 			ModifiableSettings modifiableSettings =
 				settings.getModifiableSettings();
 
-			List<String> imageVariants = configurationEntries.stream().map(
-				_configurationEntryParser::getConfigurationString).collect(
-					Collectors.toList());
+			List<String> imageVariants;
+
+			if (_compactEncodingEnabled && !configurationEntries.isEmpty()) {
+				imageVariants = Collections.singletonList(
+					_configurationEntryParser.getCompactConfigurationString(
+						configurationEntries));
+			}
+			else {
+				imageVariants = configurationEntries.stream().map(
+					_configurationEntryParser::getConfigurationString).collect(
+						Collectors.toList());
+			}
 
 			modifiableSettings.setValues(
 				"imageVariants",
 				imageVariants.toArray(new String[imageVariants.size()]));
+			modifiableSettings.setValue(
+				"configurationVersion", String.valueOf(configurationVersion));
 
 			modifiableSettings.store();
 		}
@@ -557,10 +1118,389 @@ public class AdaptiveMediaImageConfigurationHelperImpl
 		}
 	}
 
+	private Map<String, AdaptiveMediaImageConfigurationEntry> _toMap(
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries) {
+
+		Map<String, AdaptiveMediaImageConfigurationEntry>
+			configurationEntriesMap = new HashMap<>();
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			configurationEntriesMap.put(
+				configurationEntry.getUUID(), configurationEntry);
+		}
+
+		return configurationEntriesMap;
+	}
+
+	/**
+	 * Applies the operation to the configuration entries of the company and,
+	 * if anything changed, stores them as a new configuration version.
+	 * Operations on the same company are serialized across the cluster and
+	 * always start from the stored settings instead of the cached snapshot,
+	 * so that concurrent changes are not lost.
+	 */
+	private <T, E extends Exception> T _updateConfiguration(
+			long companyId, ConfigurationOperation<T, E> configurationOperation)
+		throws E, IOException {
+
+		ConfigurationUpdate configurationUpdate;
+		AdaptiveMediaImageConfigurationSnapshot newSnapshot;
+		T result;
+		AdaptiveMediaImageConfigurationSnapshot snapshot;
+
+		synchronized (_getCompanyLock(companyId)) {
+			String lockKey = "company#" + companyId;
+
+			String lockOwner = _lock(lockKey);
+
+			try {
+				snapshot = _configurationSnapshotCache.refreshSnapshot(
+					companyId);
+
+				configurationUpdate = new ConfigurationUpdate(
+					companyId, snapshot.getConfigurationEntries(),
+					snapshot.getVersion());
+
+				result = configurationOperation.apply(configurationUpdate);
+
+				List<AdaptiveMediaImageConfigurationEntry>
+					configurationEntries =
+						configurationUpdate._configurationEntries;
+
+				if (configurationEntries.equals(
+						snapshot.getConfigurationEntries())) {
+
+					return result;
+				}
+
+				_storeConfiguration(
+					new CompanyServiceSettingsLocator(
+						companyId,
+						AdaptiveMediaImageCompanyConfiguration.class.
+							getName()),
+					configurationEntries, snapshot.getVersion() + 1);
+
+				newSnapshot = _configurationSnapshotCache.refreshSnapshot(
+					companyId);
+			}
+			finally {
+				_lockManager.unlock(_LOCK_CLASS_NAME, lockKey, lockOwner);
+			}
+		}
+
+		_publishConfigurationChange(
+			companyId, 0, snapshot.getVersion(),
+			snapshot.getConfigurationEntries(), newSnapshot.getVersion(),
+			newSnapshot.getConfigurationEntries());
+
+		for (String uuid : configurationUpdate._deletedUuids) {
+			_deleteAdaptiveMediaImageEntries(companyId, uuid);
+		}
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationUpdate._configurationEntries) {
+
+			Set<String> regeneratedUuids =
+				configurationUpdate._regeneratedUuids;
+
+			if (regeneratedUuids.contains(configurationEntry.getUUID())) {
+				_regenerateAdaptiveMediaImageEntries(
+					companyId, configurationEntry);
+			}
+		}
+
+		return result;
+	}
+
+	private AdaptiveMediaImageConfigurationEntry _updateConfigurationEntry(
+			ConfigurationUpdate configurationUpdate, String oldUuid,
+			String name, String newUuid, Map<String, String> properties)
+		throws AdaptiveMediaImageConfigurationException {
+
+		_checkName(name);
+		_checkProperties(properties);
+
+		String normalizedUuid = FriendlyURLNormalizerUtil.normalize(newUuid);
+
+		_checkUuid(normalizedUuid);
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			configurationUpdate._configurationEntries;
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			oldConfigurationEntryOptional =
+				configurationEntries.stream().filter(
+					configurationEntry -> configurationEntry.getUUID().equals(
+						oldUuid)).findFirst();
+
+		if (!oldConfigurationEntryOptional.isPresent()) {
+			throw new AdaptiveMediaImageConfigurationException.
+				NoSuchAdaptiveMediaImageConfigurationException(
+					"{uuid=" + oldUuid + "}");
+		}
+
+		AdaptiveMediaImageConfigurationEntry oldConfigurationEntry =
+			oldConfigurationEntryOptional.get();
+
+		if (!name.equals(oldConfigurationEntry.getName())) {
+			_checkDuplicatesName(
+				configurationUpdate._configurationEntries, name);
+		}
+
+		if (!oldUuid.equals(normalizedUuid)) {
+			_checkDuplicatesUuid(configurationUpdate, normalizedUuid);
+		}
+
+		configurationEntries.remove(oldConfigurationEntry);
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				name, normalizedUuid, properties,
+				oldConfigurationEntry.isEnabled());
+
+		configurationEntries.add(configurationEntry);
+
+		String contentVersion = configurationEntry.getContentVersion();
+
+		if (oldUuid.equals(normalizedUuid) &&
+			!contentVersion.equals(oldConfigurationEntry.getContentVersion())) {
+
+			Set<String> regeneratedUuids =
+				configurationUpdate._regeneratedUuids;
+
+			regeneratedUuids.add(normalizedUuid);
+		}
+
+		return configurationEntry;
+	}
+
+	/**
+	 * Applies the operation to the configuration entries defined for the
+	 * group and, if anything changed, stores them as a new group
+	 * configuration version.
+	 */
+	private <T, E extends Exception> T _updateGroupConfiguration(
+			long companyId, long groupId,
+			GroupConfigurationOperation<T, E> groupConfigurationOperation)
+		throws E, IOException {
+
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot;
+		AdaptiveMediaImageGroupConfigurationSnapshot newGroupSnapshot;
+		T result;
+
+		synchronized (_getGroupLock(groupId)) {
+			String lockKey = "group#" + groupId;
+
+			String lockOwner = _lock(lockKey);
+
+			try {
+				groupSnapshot =
+					_configurationSnapshotCache.refreshGroupSnapshot(groupId);
+
+				List<AdaptiveMediaImageConfigurationEntry>
+					configurationEntries = new ArrayList<>(
+						groupSnapshot.getConfigurationEntries());
+
+				result = groupConfigurationOperation.apply(
+					configurationEntries);
+
+				if (configurationEntries.equals(
+						groupSnapshot.getConfigurationEntries())) {
+
+					return result;
+				}
+
+				_storeConfiguration(
+					new GroupServiceSettingsLocator(
+						groupId,
+						AdaptiveMediaImageGroupConfiguration.class.getName()),
+					configurationEntries, groupSnapshot.getVersion() + 1);
+
+				newGroupSnapshot =
+					_configurationSnapshotCache.refreshGroupSnapshot(groupId);
+			}
+			finally {
+				_lockManager.unlock(_LOCK_CLASS_NAME, lockKey, lockOwner);
+			}
+		}
+
+		_publishConfigurationChange(
+			companyId, groupId, groupSnapshot.getVersion(),
+			groupSnapshot.getConfigurationEntries(),
+			newGroupSnapshot.getVersion(),
+			newGroupSnapshot.getConfigurationEntries());
+
+		return result;
+	}
+
+	private static final String[] _FOCAL_POINT_KEYS = {
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_X,
+		AdaptiveMediaImageConfigurationEntryScaling.FOCAL_POINT_Y
+	};
+
+	private static final String _LOCK_CLASS_NAME =
+		AdaptiveMediaImageConfigurationHelper.class.getName();
+
+	private static final long _LOCK_RETRY_DELAY = 100;
+
+	private static final long _LOCK_TIMEOUT = Time.MINUTE;
+
+	private static final String[] _NUMERIC_CONDITION_KEYS = {
+		AdaptiveMediaImageConfigurationEntryConditions.MAX_SOURCE_SIZE,
+		AdaptiveMediaImageConfigurationEntryConditions.MIN_SOURCE_WIDTH
+	};
+
+	@Reference
+	private BackgroundTaskManager _backgroundTaskManager;
+
+	private final ConcurrentMap<Long, Object> _companyLocks =
+		new ConcurrentHashMap<>();
+	private volatile boolean _compactEncodingEnabled;
+	private AdaptiveMediaImageConfigurationChangeBus _configurationChangeBus;
 	private AdaptiveMediaImageConfigurationEntryParser
 		_configurationEntryParser;
+	private AdaptiveMediaImageConfigurationSnapshotCache
+		_configurationSnapshotCache;
+	private final ConcurrentMap<Long, Object> _groupLocks =
+		new ConcurrentHashMap<>();
+
+	@Reference
+	private LockManager _lockManager;
 
 	@Reference
-	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+	private PortletPreferencesLocalService _portletPreferencesLocalService;
+
+	@Reference
+	private UserLocalService _userLocalService;
+
+	private interface ConfigurationOperation<T, E extends Exception> {
+
+		public T apply(ConfigurationUpdate configurationUpdate) throws E;
+
+	}
+
+	private interface GroupConfigurationOperation<T, E extends Exception> {
+
+		public T apply(
+				List<AdaptiveMediaImageConfigurationEntry> configurationEntries)
+			throws E;
+
+	}
+
+	private static class ConfigurationUpdate {
+
+		private ConfigurationUpdate(
+			long companyId,
+			List<AdaptiveMediaImageConfigurationEntry> configurationEntries,
+			long configurationVersion) {
+
+			_companyId = companyId;
+			_configurationEntries = new ArrayList<>(configurationEntries);
+			_configurationVersion = configurationVersion;
+		}
+
+		private final long _companyId;
+		private final List<AdaptiveMediaImageConfigurationEntry>
+			_configurationEntries;
+		private final long _configurationVersion;
+		private final Set<String> _deletedUuids = new LinkedHashSet<>();
+		private final Set<String> _regeneratedUuids = new LinkedHashSet<>();
+
+	}
+
+	private class ConfigurationChangeSet
+		implements AdaptiveMediaImageConfigurationChangeSet {
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			addAdaptiveMediaImageConfigurationEntry(
+				String name, String uuid, Map<String, String> properties) {
+
+			_configurationOperations.add(
+				configurationUpdate -> _addConfigurationEntry(
+					configurationUpdate, name, uuid, properties));
+
+			return this;
+		}
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			deleteAdaptiveMediaImageConfigurationEntry(String uuid) {
+
+			_configurationOperations.add(
+				configurationUpdate -> {
+					_deleteConfigurationEntry(configurationUpdate, uuid);
+
+					return null;
+				});
+
+			return this;
+		}
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			disableAdaptiveMediaImageConfigurationEntry(String uuid) {
+
+			_configurationOperations.add(
+				configurationUpdate -> {
+					_setConfigurationEntryEnabled(
+						configurationUpdate, uuid, false);
+
+					return null;
+				});
+
+			return this;
+		}
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			enableAdaptiveMediaImageConfigurationEntry(String uuid) {
+
+			_configurationOperations.add(
+				configurationUpdate -> {
+					_setConfigurationEntryEnabled(
+						configurationUpdate, uuid, true);
+
+					return null;
+				});
+
+			return this;
+		}
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			forceDeleteAdaptiveMediaImageConfigurationEntry(String uuid) {
+
+			_configurationOperations.add(
+				configurationUpdate -> {
+					_forceDeleteConfigurationEntry(configurationUpdate, uuid);
+
+					return null;
+				});
+
+			return this;
+		}
+
+		@Override
+		public AdaptiveMediaImageConfigurationChangeSet
+			updateAdaptiveMediaImageConfigurationEntry(
+				String oldUuid, String name, String newUuid,
+				Map<String, String> properties) {
+
+			_configurationOperations.add(
+				configurationUpdate -> _updateConfigurationEntry(
+					configurationUpdate, oldUuid, name, newUuid, properties));
+
+			return this;
+		}
+
+		private final List
+			<ConfigurationOperation
+				<?, AdaptiveMediaImageConfigurationException>>
+					_configurationOperations = new ArrayList<>();
+
+	}
 
 }
\ No newline at end of file
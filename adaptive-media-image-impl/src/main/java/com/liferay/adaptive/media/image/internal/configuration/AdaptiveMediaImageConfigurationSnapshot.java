@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds an immutable, already parsed view of the adaptive media image
+ * configuration of a company, along with its configuration version.
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageConfigurationSnapshot {
+
+	public AdaptiveMediaImageConfigurationSnapshot(
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries,
+		boolean defaultConfiguration, long version) {
+
+		List<AdaptiveMediaImageConfigurationEntry> sortedConfigurationEntries =
+			new ArrayList<>(configurationEntries);
+
+		sortedConfigurationEntries.sort(
+			Comparator.comparing(
+				AdaptiveMediaImageConfigurationEntry::getName));
+
+		List<AdaptiveMediaImageConfigurationEntry>
+			enabledConfigurationEntries = new ArrayList<>();
+		Map<String, AdaptiveMediaImageConfigurationEntry>
+			configurationEntriesMap = new HashMap<>();
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			configurationEntriesMap.putIfAbsent(
+				configurationEntry.getUUID(), configurationEntry);
+		}
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				sortedConfigurationEntries) {
+
+			if (configurationEntry.isEnabled()) {
+				enabledConfigurationEntries.add(configurationEntry);
+			}
+		}
+
+		_configurationEntries = Collections.unmodifiableList(
+			sortedConfigurationEntries);
+		_configurationEntriesMap = Collections.unmodifiableMap(
+			configurationEntriesMap);
+		_defaultConfiguration = defaultConfiguration;
+		_enabledConfigurationEntries = Collections.unmodifiableList(
+			enabledConfigurationEntries);
+		_responsiveLayout = new AdaptiveMediaImageResponsiveLayout(
+			_enabledConfigurationEntries);
+		_version = version;
+	}
+
+	/**
+	 * Returns all the configuration entries of the company, sorted by name.
+	 */
+	public List<AdaptiveMediaImageConfigurationEntry>
+		getConfigurationEntries() {
+
+		return _configurationEntries;
+	}
+
+	public Optional<AdaptiveMediaImageConfigurationEntry>
+		getConfigurationEntry(String uuid) {
+
+		return Optional.ofNullable(_configurationEntriesMap.get(uuid));
+	}
+
+	/**
+	 * Returns the enabled configuration entries of the company, sorted by
+	 * name.
+	 */
+	public List<AdaptiveMediaImageConfigurationEntry>
+		getEnabledConfigurationEntries() {
+
+		return _enabledConfigurationEntries;
+	}
+
+	public AdaptiveMediaImageResponsiveLayout getResponsiveLayout() {
+		return _responsiveLayout;
+	}
+
+	public long getVersion() {
+		return _version;
+	}
+
+	public boolean isDefaultConfiguration() {
+		return _defaultConfiguration;
+	}
+
+	private final List<AdaptiveMediaImageConfigurationEntry>
+		_configurationEntries;
+	private final Map<String, AdaptiveMediaImageConfigurationEntry>
+		_configurationEntriesMap;
+	private final boolean _defaultConfiguration;
+	private final List<AdaptiveMediaImageConfigurationEntry>
+		_enabledConfigurationEntries;
+	private final AdaptiveMediaImageResponsiveLayout _responsiveLayout;
+	private final long _version;
+
+}
\ No newline at end of file
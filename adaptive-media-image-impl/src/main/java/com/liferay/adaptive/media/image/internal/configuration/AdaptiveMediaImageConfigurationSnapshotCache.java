@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeListener;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.portal.kernel.settings.CompanyServiceSettingsLocator;
+import com.liferay.portal.kernel.settings.GroupServiceSettingsLocator;
+import com.liferay.portal.kernel.settings.PortletPreferencesSettings;
+import com.liferay.portal.kernel.settings.Settings;
+import com.liferay.portal.kernel.settings.SettingsException;
+import com.liferay.portal.kernel.settings.SettingsFactoryUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import javax.portlet.PortletPreferences;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps the parsed configuration snapshot of every company so that reading
+ * the configuration does not require loading and parsing the company
+ * settings each time. Snapshots are only rebuilt when the configuration is
+ * stored through {@link AdaptiveMediaImageConfigurationHelperImpl} or changed
+ * on another cluster node, and carry the configuration version stored along
+ * with the image variants.
+ *
+ * <p>
+ * The configuration entries defined for a group are kept the same way, and
+ * the effective configuration of a group is resolved from them and the
+ * company snapshot without reading the settings again.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	immediate = true,
+	service = {
+		AdaptiveMediaImageConfigurationChangeListener.class,
+		AdaptiveMediaImageConfigurationSnapshotCache.class
+	}
+)
+public class AdaptiveMediaImageConfigurationSnapshotCache
+	implements AdaptiveMediaImageConfigurationChangeListener {
+
+	public AdaptiveMediaImageGroupConfigurationSnapshot getGroupSnapshot(
+		long groupId) {
+
+		return _getSnapshot(
+			_groupSnapshots, _groupVersions, groupId,
+			this::_createGroupSnapshot,
+			AdaptiveMediaImageGroupConfigurationSnapshot::getVersion);
+	}
+
+	public AdaptiveMediaImageConfigurationSnapshot getSnapshot(
+		long companyId) {
+
+		return _getSnapshot(
+			_snapshots, _versions, companyId, this::_createSnapshot,
+			AdaptiveMediaImageConfigurationSnapshot::getVersion);
+	}
+
+	/**
+	 * Returns the effective configuration snapshot of the group. If the
+	 * group does not define configuration entries, the company snapshot is
+	 * returned.
+	 */
+	public AdaptiveMediaImageConfigurationSnapshot getSnapshot(
+		long companyId, long groupId) {
+
+		AdaptiveMediaImageConfigurationSnapshot companySnapshot = getSnapshot(
+			companyId);
+
+		if (groupId <= 0) {
+			return companySnapshot;
+		}
+
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			getGroupSnapshot(groupId);
+
+		return groupSnapshot.getEffectiveSnapshot(companySnapshot);
+	}
+
+	/**
+	 * Records the version announced by the event as the minimum version that
+	 * may be cached for the company or group, and reloads its snapshot right
+	 * away if it is older. Settings read before the change reached this node
+	 * may still hold an older version; such snapshots are returned but not
+	 * cached, so that they are loaded again on the next access.
+	 */
+	@Override
+	public void onConfigurationChange(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent) {
+
+		long version = configurationChangeEvent.getVersion();
+
+		if (configurationChangeEvent.getGroupId() > 0) {
+			_reload(
+				_groupSnapshots, _groupVersions,
+				configurationChangeEvent.getGroupId(), version,
+				this::_createGroupSnapshot,
+				AdaptiveMediaImageGroupConfigurationSnapshot::getVersion);
+		}
+		else {
+			_reload(
+				_snapshots, _versions, configurationChangeEvent.getCompanyId(),
+				version, this::_createSnapshot,
+				AdaptiveMediaImageConfigurationSnapshot::getVersion);
+		}
+	}
+
+	public AdaptiveMediaImageGroupConfigurationSnapshot refreshGroupSnapshot(
+		long groupId) {
+
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			_createGroupSnapshot(groupId);
+
+		_groupSnapshots.put(groupId, groupSnapshot);
+
+		return groupSnapshot;
+	}
+
+	public AdaptiveMediaImageConfigurationSnapshot refreshSnapshot(
+		long companyId) {
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot = _createSnapshot(
+			companyId);
+
+		_snapshots.put(companyId, snapshot);
+
+		return snapshot;
+	}
+
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageConfigurationEntryParser(
+		AdaptiveMediaImageConfigurationEntryParser configurationEntryParser) {
+
+		_configurationEntryParser = configurationEntryParser;
+	}
+
+	private AdaptiveMediaImageGroupConfigurationSnapshot _createGroupSnapshot(
+		long groupId) {
+
+		try {
+			Settings settings = SettingsFactoryUtil.getSettings(
+				new GroupServiceSettingsLocator(
+					groupId,
+					AdaptiveMediaImageGroupConfiguration.class.getName()));
+
+			long configurationVersion = GetterUtil.getLong(
+				settings.getValue("configurationVersion", null));
+
+			String[] imageVariants = settings.getValues("imageVariants", null);
+
+			return new AdaptiveMediaImageGroupConfigurationSnapshot(
+				_parse(imageVariants), configurationVersion);
+		}
+		catch (SettingsException se) {
+			throw new AdaptiveMediaRuntimeException.InvalidConfiguration(se);
+		}
+	}
+
+	private AdaptiveMediaImageConfigurationSnapshot _createSnapshot(
+		long companyId) {
+
+		try {
+			Settings settings = SettingsFactoryUtil.getSettings(
+				new CompanyServiceSettingsLocator(
+					companyId,
+					AdaptiveMediaImageCompanyConfiguration.class.getName()));
+
+			long configurationVersion = GetterUtil.getLong(
+				settings.getValue("configurationVersion", null));
+
+			String[] nullableImageVariants = _getNullableImageVariants(
+				settings);
+
+			if (nullableImageVariants != null) {
+				return new AdaptiveMediaImageConfigurationSnapshot(
+					_parse(nullableImageVariants), false,
+					configurationVersion);
+			}
+
+			String[] imageVariants = settings.getValues("imageVariants", null);
+
+			return new AdaptiveMediaImageConfigurationSnapshot(
+				_parse(imageVariants), true, configurationVersion);
+		}
+		catch (SettingsException se) {
+			throw new AdaptiveMediaRuntimeException.InvalidConfiguration(se);
+		}
+	}
+
+	private <T> T _getSnapshot(
+		ConcurrentMap<Long, T> snapshots, ConcurrentMap<Long, Long> versions,
+		long key, Function<Long, T> createFunction,
+		ToLongFunction<T> versionFunction) {
+
+		T snapshot = snapshots.get(key);
+
+		if (snapshot != null) {
+			return snapshot;
+		}
+
+		snapshot = createFunction.apply(key);
+
+		long version = versionFunction.applyAsLong(snapshot);
+
+		if (version < versions.getOrDefault(key, 0L)) {
+			return snapshot;
+		}
+
+		T cachedSnapshot = snapshots.putIfAbsent(key, snapshot);
+
+		if (cachedSnapshot != null) {
+			return cachedSnapshot;
+		}
+
+		if (version < versions.getOrDefault(key, 0L)) {
+			snapshots.remove(key, snapshot);
+		}
+
+		return snapshot;
+	}
+
+	private String[] _getNullableImageVariants(Settings settings) {
+		PortletPreferencesSettings portletPreferencesSettings =
+			(PortletPreferencesSettings)settings;
+
+		PortletPreferences portletPreferences =
+			portletPreferencesSettings.getPortletPreferences();
+
+		Map<String, String[]> map = portletPreferences.getMap();
+
+		return map.get("imageVariants");
+	}
+
+	private <T> void _reload(
+		ConcurrentMap<Long, T> snapshots, ConcurrentMap<Long, Long> versions,
+		long key, long version, Function<Long, T> createFunction,
+		ToLongFunction<T> versionFunction) {
+
+		versions.merge(key, version, Math::max);
+
+		T snapshot = snapshots.get(key);
+
+		if ((snapshot == null) ||
+			(versionFunction.applyAsLong(snapshot) >= version)) {
+
+			return;
+		}
+
+		snapshots.remove(key, snapshot);
+
+		_getSnapshot(snapshots, versions, key, createFunction, versionFunction);
+	}
+
+	private List<AdaptiveMediaImageConfigurationEntry> _parse(
+		String[] imageVariants) {
+
+		if (ArrayUtil.isEmpty(imageVariants)) {
+			return Collections.emptyList();
+		}
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			new ArrayList<>(imageVariants.length);
+
+		for (String imageVariant : imageVariants) {
+			if (_configurationEntryParser.isCompactConfigurationString(
+					imageVariant)) {
+
+				configurationEntries.addAll(
+					_configurationEntryParser.parseCompactConfigurationString(
+						imageVariant));
+			}
+			else {
+				configurationEntries.add(
+					_configurationEntryParser.parse(imageVariant));
+			}
+		}
+
+		return configurationEntries;
+	}
+
+	private AdaptiveMediaImageConfigurationEntryParser
+		_configurationEntryParser;
+	private final ConcurrentMap
+		<Long, AdaptiveMediaImageGroupConfigurationSnapshot> _groupSnapshots =
+			new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, Long> _groupVersions =
+		new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, AdaptiveMediaImageConfigurationSnapshot>
+		_snapshots = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, Long> _versions =
+		new ConcurrentHashMap<>();
+
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the configuration entries defined for a group, along with the
+ * effective configuration of the group: the configuration entries of the
+ * company, where the group entries replace the company entries with the same
+ * UUID and the rest of the group entries are added.
+ *
+ * <p>
+ * The effective configuration is built once for every company snapshot, so
+ * resolving the configuration of a group does not require walking the
+ * settings of the group and the company each time.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageGroupConfigurationSnapshot {
+
+	public AdaptiveMediaImageGroupConfigurationSnapshot(
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries,
+		long version) {
+
+		_configurationEntries = Collections.unmodifiableList(
+			new ArrayList<>(configurationEntries));
+		_version = version;
+	}
+
+	/**
+	 * Returns the configuration entries defined for the group, in the order
+	 * they were stored.
+	 */
+	public List<AdaptiveMediaImageConfigurationEntry>
+		getConfigurationEntries() {
+
+		return _configurationEntries;
+	}
+
+	/**
+	 * Returns the effective configuration of the group on top of the given
+	 * company snapshot. The version of the effective configuration changes
+	 * whenever the configuration of the company or the group changes.
+	 */
+	public AdaptiveMediaImageConfigurationSnapshot getEffectiveSnapshot(
+		AdaptiveMediaImageConfigurationSnapshot companySnapshot) {
+
+		if (_configurationEntries.isEmpty()) {
+			return companySnapshot;
+		}
+
+		EffectiveSnapshot effectiveSnapshot = _effectiveSnapshot;
+
+		if ((effectiveSnapshot != null) &&
+			(effectiveSnapshot._companySnapshot == companySnapshot)) {
+
+			return effectiveSnapshot._snapshot;
+		}
+
+		Map<String, AdaptiveMediaImageConfigurationEntry>
+			configurationEntriesMap = new LinkedHashMap<>();
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				companySnapshot.getConfigurationEntries()) {
+
+			configurationEntriesMap.put(
+				configurationEntry.getUUID(), configurationEntry);
+		}
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				_configurationEntries) {
+
+			configurationEntriesMap.put(
+				configurationEntry.getUUID(), configurationEntry);
+		}
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				configurationEntriesMap.values(),
+				companySnapshot.isDefaultConfiguration(),
+				companySnapshot.getVersion() + _version);
+
+		_effectiveSnapshot = new EffectiveSnapshot(companySnapshot, snapshot);
+
+		return snapshot;
+	}
+
+	public long getVersion() {
+		return _version;
+	}
+
+	private final List<AdaptiveMediaImageConfigurationEntry>
+		_configurationEntries;
+	private volatile EffectiveSnapshot _effectiveSnapshot;
+	private final long _version;
+
+	private static class EffectiveSnapshot {
+
+		private EffectiveSnapshot(
+			AdaptiveMediaImageConfigurationSnapshot companySnapshot,
+			AdaptiveMediaImageConfigurationSnapshot snapshot) {
+
+			_companySnapshot = companySnapshot;
+			_snapshot = snapshot;
+		}
+
+		private final AdaptiveMediaImageConfigurationSnapshot _companySnapshot;
+		private final AdaptiveMediaImageConfigurationSnapshot _snapshot;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryScaling;
+import com.liferay.adaptive.media.image.mediaquery.Condition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Describes how the enabled configuration entries of a company are laid out
+ * as responsive image sources: the entries sorted by width, the media
+ * conditions each one applies to and the entry, if any, that can be used as
+ * its 2x version. Only the URLs depend on the file entry, so the layout is
+ * computed once per configuration change.
+ *
+ * <p>
+ * Entries that fill exact dimensions crop the images to a different aspect
+ * ratio, so they are not interchangeable with the other entries and are left
+ * out of the layout.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageResponsiveLayout {
+
+	public AdaptiveMediaImageResponsiveLayout(
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries) {
+
+		List<Dimensions> dimensionsList = new ArrayList<>(
+			configurationEntries.size());
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			AdaptiveMediaImageConfigurationEntryScaling scaling =
+				configurationEntry.getScaling();
+
+			if (!scaling.isFill()) {
+				dimensionsList.add(new Dimensions(configurationEntry));
+			}
+		}
+
+		dimensionsList.sort(
+			(dimensions1, dimensions2) -> {
+				if (dimensions1._width == null) {
+					return (dimensions2._width == null) ? 0 : -1;
+				}
+
+				if (dimensions2._width == null) {
+					return 1;
+				}
+
+				return Integer.compare(dimensions1._width, dimensions2._width);
+			});
+
+		List<Breakpoint> breakpoints = new ArrayList<>(dimensionsList.size());
+
+		Dimensions previousDimensions = null;
+
+		for (Dimensions dimensions : dimensionsList) {
+			breakpoints.add(
+				new Breakpoint(
+					dimensions._configurationEntry,
+					_getConditions(dimensions, previousDimensions),
+					_getHDConfigurationEntry(dimensions, dimensionsList)));
+
+			previousDimensions = dimensions;
+		}
+
+		_breakpoints = Collections.unmodifiableList(breakpoints);
+	}
+
+	/**
+	 * Returns the breakpoints of the layout, sorted by width. Entries without
+	 * a width come first and have no conditions.
+	 */
+	public List<Breakpoint> getBreakpoints() {
+		return _breakpoints;
+	}
+
+	private static Integer _getAttribute(
+		Map<String, String> properties, String name) {
+
+		try {
+			return Integer.valueOf(properties.get(name));
+		}
+		catch (NumberFormatException nfe) {
+			return null;
+		}
+	}
+
+	private List<Condition> _getConditions(
+		Dimensions dimensions, Dimensions previousDimensions) {
+
+		if (dimensions._width == null) {
+			return Collections.emptyList();
+		}
+
+		List<Condition> conditions = new ArrayList<>(2);
+
+		conditions.add(new Condition("max-width", dimensions._width + "px"));
+
+		if ((previousDimensions != null) &&
+			(previousDimensions._width != null)) {
+
+			conditions.add(
+				new Condition("min-width", previousDimensions._width + "px"));
+		}
+
+		return Collections.unmodifiableList(conditions);
+	}
+
+	private AdaptiveMediaImageConfigurationEntry _getHDConfigurationEntry(
+		Dimensions dimensions, List<Dimensions> dimensionsList) {
+
+		if ((dimensions._width == null) || (dimensions._height == null)) {
+			return null;
+		}
+
+		int hdWidth = dimensions._width * 2;
+		int hdHeight = dimensions._height * 2;
+
+		for (Dimensions curDimensions : dimensionsList) {
+			if ((curDimensions._width == null) ||
+				(curDimensions._height == null)) {
+
+				continue;
+			}
+
+			if ((Math.abs(curDimensions._width - hdWidth) <= 1) &&
+				(Math.abs(curDimensions._height - hdHeight) <= 1)) {
+
+				return curDimensions._configurationEntry;
+			}
+		}
+
+		return null;
+	}
+
+	private final List<Breakpoint> _breakpoints;
+
+	public static class Breakpoint {
+
+		private Breakpoint(
+			AdaptiveMediaImageConfigurationEntry configurationEntry,
+			List<Condition> conditions,
+			AdaptiveMediaImageConfigurationEntry hdConfigurationEntry) {
+
+			_configurationEntry = configurationEntry;
+			_conditions = conditions;
+			_hdConfigurationEntry = hdConfigurationEntry;
+		}
+
+		public List<Condition> getConditions() {
+			return _conditions;
+		}
+
+		public AdaptiveMediaImageConfigurationEntry getConfigurationEntry() {
+			return _configurationEntry;
+		}
+
+		public Optional<AdaptiveMediaImageConfigurationEntry>
+			getHDConfigurationEntryOptional() {
+
+			return Optional.ofNullable(_hdConfigurationEntry);
+		}
+
+		private final List<Condition> _conditions;
+		private final AdaptiveMediaImageConfigurationEntry _configurationEntry;
+		private final AdaptiveMediaImageConfigurationEntry
+			_hdConfigurationEntry;
+
+	}
+
+	private static class Dimensions {
+
+		private Dimensions(
+			AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+			Map<String, String> properties =
+				configurationEntry.getProperties();
+
+			_configurationEntry = configurationEntry;
+			_height = _getAttribute(properties, "max-height");
+			_width = _getAttribute(properties, "max-width");
+		}
+
+		private final AdaptiveMediaImageConfigurationEntry _configurationEntry;
+		private final Integer _height;
+		private final Integer _width;
+
+	}
+
+}
\ No newline at end of file
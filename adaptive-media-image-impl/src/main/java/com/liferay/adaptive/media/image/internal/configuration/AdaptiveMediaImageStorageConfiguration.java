@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * @author Adolfo Pérez
+ */
+@ExtendedObjectClassDefinition(category = "other")
+@Meta.OCD(
+	id = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageStorageConfiguration",
+	localization = "content/Language",
+	name = "adaptive.media.image.storage.configuration.name"
+)
+public interface AdaptiveMediaImageStorageConfiguration {
+
+	/**
+	 * Returns <code>true</code> if configuration entries should be stored as a
+	 * single compact string instead of one string per entry. Both forms are
+	 * always read, so this can be switched off again at any time.
+	 */
+	@Meta.AD(deflt = "false", required = false)
+	public boolean compactEncodingEnabled();
+
+}
\ No newline at end of file
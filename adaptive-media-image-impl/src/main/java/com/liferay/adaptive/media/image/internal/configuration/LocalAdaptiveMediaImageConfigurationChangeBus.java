@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeListener;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers the configuration changes to the listeners of the current JVM, in
+ * the calling thread and in the order the listeners were added. A failing
+ * listener does not prevent the rest from being notified.
+ *
+ * <p>
+ * This is what the cluster bus uses once a change reaches a node, and it can
+ * be used on its own where there is no cluster.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+public class LocalAdaptiveMediaImageConfigurationChangeBus
+	implements AdaptiveMediaImageConfigurationChangeBus {
+
+	public void addConfigurationChangeListener(
+		AdaptiveMediaImageConfigurationChangeListener
+			configurationChangeListener) {
+
+		_configurationChangeListeners.add(configurationChangeListener);
+	}
+
+	@Override
+	public void publish(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent) {
+
+		for (AdaptiveMediaImageConfigurationChangeListener
+				configurationChangeListener : _configurationChangeListeners) {
+
+			try {
+				configurationChangeListener.onConfigurationChange(
+					configurationChangeEvent);
+			}
+			catch (RuntimeException re) {
+				_log.error(
+					"Unable to notify configuration version " +
+						configurationChangeEvent.getVersion() + " to " +
+							configurationChangeListener,
+					re);
+			}
+		}
+	}
+
+	public void removeConfigurationChangeListener(
+		AdaptiveMediaImageConfigurationChangeListener
+			configurationChangeListener) {
+
+		_configurationChangeListeners.remove(configurationChangeListener);
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		LocalAdaptiveMediaImageConfigurationChangeBus.class);
+
+	private final List<AdaptiveMediaImageConfigurationChangeListener>
+		_configurationChangeListeners = new CopyOnWriteArrayList<>();
+
+}
\ No newline at end of file
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.estimator;
+
+import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
+import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
+import com.liferay.adaptive.media.image.estimator.AdaptiveMediaImageCostEstimate;
+import com.liferay.adaptive.media.image.estimator.AdaptiveMediaImageCostEstimator;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationEntryImpl;
+import com.liferay.adaptive.media.image.internal.util.ImageProcessor;
+import com.liferay.adaptive.media.image.internal.util.RenderedImageUtil;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.document.library.kernel.model.DLFileEntry;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.document.library.kernel.service.DLFileEntryLocalService;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.awt.image.RenderedImage;
+
+import java.io.IOException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Estimates the cost of a proposed configuration by running a random sample
+ * of the company's images through the same decode, scale and encode steps
+ * used by the image processor, without storing the result. The sample is
+ * taken in the calling thread, so its CPU time is measured with the thread's
+ * CPU clock when the JVM supports it.
+ *
+ * @author Sergio González
+ */
+@Component(immediate = true, service = AdaptiveMediaImageCostEstimator.class)
+public class AdaptiveMediaImageCostEstimatorImpl
+	implements AdaptiveMediaImageCostEstimator {
+
+	@Override
+	public AdaptiveMediaImageCostEstimate estimate(
+			long companyId, Map<String, String> properties, int sampleSize)
+		throws AdaptiveMediaImageConfigurationException {
+
+		int maxHeight = GetterUtil.getInteger(properties.get("max-height"));
+		int maxWidth = GetterUtil.getInteger(properties.get("max-width"));
+
+		if ((maxHeight <= 0) && (maxWidth <= 0)) {
+			throw new AdaptiveMediaImageConfigurationException.
+				RequiredWidthOrHeightException();
+		}
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				_ESTIMATE_NAME, _ESTIMATE_UUID, properties);
+
+		int expectedCount =
+			_imageEntryLocalService.getExpectedAdaptiveMediaImageEntriesCount(
+				companyId, configurationEntry);
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		int failedCount = 0;
+		int processedCount = 0;
+		int skippedCount = 0;
+
+		long cpuTime = 0;
+		long size = 0;
+
+		for (FileVersion fileVersion :
+				_getSampleFileVersions(companyId, conditions, sampleSize)) {
+
+			if ((conditions.getMinSourceWidth() > 0) &&
+				!conditions.isSupportedWidth(
+					_imageProcessor.getWidth(fileVersion))) {
+
+				skippedCount++;
+
+				continue;
+			}
+
+			long startCPUTime = _getCurrentThreadCPUTime();
+
+			try {
+				RenderedImage renderedImage = _imageProcessor.scaleImage(
+					fileVersion, configurationEntry);
+
+				byte[] bytes = RenderedImageUtil.getRenderedImageContentStream(
+					renderedImage, fileVersion.getMimeType());
+
+				cpuTime += _getCurrentThreadCPUTime() - startCPUTime;
+				size += bytes.length;
+
+				processedCount++;
+			}
+			catch (AdaptiveMediaRuntimeException | IOException e) {
+				if (_log.isWarnEnabled()) {
+					_log.warn(
+						"Unable to process file version " +
+							fileVersion.getFileVersionId(),
+						e);
+				}
+
+				failedCount++;
+			}
+		}
+
+		return new AdaptiveMediaImageCostEstimate(
+			expectedCount, processedCount, skippedCount, failedCount, cpuTime,
+			size);
+	}
+
+	@Reference(unbind = "-")
+	public void setDLAppLocalService(DLAppLocalService dlAppLocalService) {
+		_dlAppLocalService = dlAppLocalService;
+	}
+
+	@Reference(unbind = "-")
+	public void setDLFileEntryLocalService(
+		DLFileEntryLocalService dlFileEntryLocalService) {
+
+		_dlFileEntryLocalService = dlFileEntryLocalService;
+	}
+
+	@Reference(unbind = "-")
+	public void setImageEntryLocalService(
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService) {
+
+		_imageEntryLocalService = imageEntryLocalService;
+	}
+
+	@Reference(unbind = "-")
+	public void setImageProcessor(ImageProcessor imageProcessor) {
+		_imageProcessor = imageProcessor;
+	}
+
+	private long _getCurrentThreadCPUTime() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+		if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+			return threadMXBean.getCurrentThreadCpuTime();
+		}
+
+		return System.nanoTime();
+	}
+
+	private DynamicQuery _getDynamicQuery(
+		long companyId,
+		AdaptiveMediaImageConfigurationEntryConditions conditions) {
+
+		DynamicQuery dynamicQuery = _dlFileEntryLocalService.dynamicQuery();
+
+		Property companyIdProperty = PropertyFactoryUtil.forName("companyId");
+
+		dynamicQuery.add(companyIdProperty.eq(companyId));
+
+		Property mimeTypeProperty = PropertyFactoryUtil.forName("mimeType");
+
+		dynamicQuery.add(mimeTypeProperty.in(conditions.getMimeTypes()));
+
+		if (conditions.getMaxSourceSize() > 0) {
+			Property sizeProperty = PropertyFactoryUtil.forName("size");
+
+			dynamicQuery.add(sizeProperty.le(conditions.getMaxSourceSize()));
+		}
+
+		return dynamicQuery;
+	}
+
+	private List<FileVersion> _getSampleFileVersions(
+		long companyId,
+		AdaptiveMediaImageConfigurationEntryConditions conditions,
+		int sampleSize) {
+
+		Set<String> mimeTypes = conditions.getMimeTypes();
+
+		if ((sampleSize <= 0) || mimeTypes.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		int total = (int)_dlFileEntryLocalService.dynamicQueryCount(
+			_getDynamicQuery(companyId, conditions));
+
+		Set<Integer> positions = new TreeSet<>();
+
+		Random random = ThreadLocalRandom.current();
+
+		while (positions.size() < Math.min(sampleSize, total)) {
+			positions.add(random.nextInt(total));
+		}
+
+		List<FileVersion> fileVersions = new ArrayList<>(positions.size());
+
+		for (int position : positions) {
+			DynamicQuery dynamicQuery = _getDynamicQuery(companyId, conditions);
+
+			dynamicQuery.addOrder(OrderFactoryUtil.asc("fileEntryId"));
+
+			List<DLFileEntry> dlFileEntries =
+				_dlFileEntryLocalService.dynamicQuery(
+					dynamicQuery, position, position + 1);
+
+			for (DLFileEntry dlFileEntry : dlFileEntries) {
+				try {
+					FileEntry fileEntry = _dlAppLocalService.getFileEntry(
+						dlFileEntry.getFileEntryId());
+
+					fileVersions.add(fileEntry.getFileVersion());
+				}
+				catch (PortalException pe) {
+					if (_log.isDebugEnabled()) {
+						_log.debug(
+							"Unable to sample file entry " +
+								dlFileEntry.getFileEntryId(),
+							pe);
+					}
+				}
+			}
+		}
+
+		return fileVersions;
+	}
+
+	private static final String _ESTIMATE_NAME = "estimate";
+
+	private static final String _ESTIMATE_UUID = "estimate";
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		AdaptiveMediaImageCostEstimatorImpl.class);
+
+	private DLAppLocalService _dlAppLocalService;
+	private DLFileEntryLocalService _dlFileEntryLocalService;
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+	private ImageProcessor _imageProcessor;
+
+}
\ No newline at end of file
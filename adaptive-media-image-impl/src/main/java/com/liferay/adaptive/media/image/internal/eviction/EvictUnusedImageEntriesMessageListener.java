@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.eviction;
+
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageEvictionConfiguration;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.dao.orm.ActionableDynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.DestinationNames;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.module.framework.ModuleServiceLifecycle;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.SchedulerEntryImpl;
+import com.liferay.portal.kernel.scheduler.TimeUnit;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerFactory;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Deletes, once a day, the adaptive media images that have not been accessed
+ * for the number of days set in {@link
+ * AdaptiveMediaImageEvictionConfiguration}.
+ *
+ * <p>
+ * Adaptive media images generated for file versions that are neither the
+ * current nor the latest version of their file entry are deleted after a
+ * shorter grace period, as they can only be requested through versioned URLs.
+ * The grace period starts when the file version is superseded, that is, when
+ * the next version of the file entry is added.
+ * Deleted adaptive media images are generated again the next time they are
+ * requested.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageEvictionConfiguration",
+	immediate = true, service = EvictUnusedImageEntriesMessageListener.class
+)
+public class EvictUnusedImageEntriesMessageListener
+	extends BaseMessageListener {
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		_evictionConfiguration = ConfigurableUtil.createConfigurable(
+			AdaptiveMediaImageEvictionConfiguration.class, properties);
+
+		String className = getClass().getName();
+
+		Trigger trigger = _triggerFactory.createTrigger(
+			className, className, null, null, 1, TimeUnit.DAY);
+
+		SchedulerEntryImpl schedulerEntry = new SchedulerEntryImpl();
+
+		schedulerEntry.setEventListenerClass(className);
+		schedulerEntry.setTrigger(trigger);
+
+		_schedulerEngineHelper.register(
+			this, schedulerEntry, DestinationNames.SCHEDULER_DISPATCH);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_schedulerEngineHelper.unregister(this);
+	}
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		if (_evictionConfiguration.supersededFileVersionsEnabled()) {
+			_evictSupersededImageEntries(
+				_getDate(
+					_evictionConfiguration.supersededFileVersionsGraceDays()));
+		}
+
+		if (_evictionConfiguration.enabled()) {
+			_evictUnusedImageEntries(
+				_getDate(_evictionConfiguration.unusedDays()));
+		}
+	}
+
+	@Reference(target = ModuleServiceLifecycle.PORTAL_INITIALIZED, unbind = "-")
+	protected void setModuleServiceLifecycle(
+		ModuleServiceLifecycle moduleServiceLifecycle) {
+	}
+
+	private void _evictSupersededImageEntries(Date date)
+		throws PortalException {
+
+		Map<Long, Boolean> supersededFileVersionIds =
+			new LinkedHashMap<Long, Boolean>(16, 0.75F, true) {
+
+				@Override
+				protected boolean removeEldestEntry(
+					Map.Entry<Long, Boolean> entry) {
+
+					if (size() > _BATCH_SIZE) {
+						return true;
+					}
+
+					return false;
+				}
+
+			};
+
+		ActionableDynamicQuery actionableDynamicQuery =
+			_imageEntryLocalService.getActionableDynamicQuery();
+
+		actionableDynamicQuery.setAddCriteriaMethod(
+			dynamicQuery -> {
+				Property createDateProperty = PropertyFactoryUtil.forName(
+					"createDate");
+				Property lastAccessDateProperty = PropertyFactoryUtil.forName(
+					"lastAccessDate");
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.or(
+						lastAccessDateProperty.lt(date),
+						RestrictionsFactoryUtil.and(
+							lastAccessDateProperty.isNull(),
+							createDateProperty.lt(date))));
+			});
+		actionableDynamicQuery.setPerformActionMethod(
+			(AdaptiveMediaImageEntry imageEntry) -> {
+
+				// Image entries of the same file version are usually created
+				// together, so remembering the most recently checked file
+				// versions is enough to avoid checking most of them more than
+				// once
+
+				boolean superseded = supersededFileVersionIds.computeIfAbsent(
+					imageEntry.getFileVersionId(),
+					fileVersionId -> _isSuperseded(fileVersionId, date));
+
+				if (superseded) {
+					_imageEntryLocalService.
+						deleteAdaptiveMediaImageEntryFileVersion(
+							imageEntry.getConfigurationUuid(),
+							imageEntry.getFileVersionId());
+				}
+			});
+
+		actionableDynamicQuery.performActions();
+	}
+
+	private void _evictUnusedImageEntries(Date date) {
+		long previousImageEntryId = 0;
+
+		do {
+			previousImageEntryId =
+				_imageEntryLocalService.deleteUnusedAdaptiveMediaImageEntries(
+					date, previousImageEntryId, _BATCH_SIZE);
+		}
+		while (previousImageEntryId > 0);
+	}
+
+	private Date _getDate(int days) {
+		return new Date(System.currentTimeMillis() - days * Time.DAY);
+	}
+
+	private boolean _isSuperseded(long fileVersionId, Date date) {
+		try {
+			FileVersion fileVersion = _dlAppLocalService.getFileVersion(
+				fileVersionId);
+
+			FileEntry fileEntry = fileVersion.getFileEntry();
+
+			FileVersion currentFileVersion = fileEntry.getFileVersion();
+			FileVersion latestFileVersion = fileEntry.getLatestFileVersion(
+				true);
+
+			if ((fileVersionId == currentFileVersion.getFileVersionId()) ||
+				(fileVersionId == latestFileVersion.getFileVersionId())) {
+
+				return false;
+			}
+
+			Date supersededDate = null;
+
+			for (FileVersion nextFileVersion :
+					fileEntry.getFileVersions(WorkflowConstants.STATUS_ANY)) {
+
+				if (nextFileVersion.getFileVersionId() <= fileVersionId) {
+					continue;
+				}
+
+				Date createDate = nextFileVersion.getCreateDate();
+
+				if ((supersededDate == null) ||
+					createDate.before(supersededDate)) {
+
+					supersededDate = createDate;
+				}
+			}
+
+			if ((supersededDate != null) && supersededDate.before(date)) {
+				return true;
+			}
+
+			return false;
+		}
+		catch (PortalException pe) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(pe, pe);
+			}
+
+			return false;
+		}
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		EvictUnusedImageEntriesMessageListener.class);
+
+	private static final int _BATCH_SIZE = 500;
+
+	@Reference(unbind = "-")
+	private DLAppLocalService _dlAppLocalService;
+
+	private volatile AdaptiveMediaImageEvictionConfiguration
+		_evictionConfiguration;
+
+	@Reference(unbind = "-")
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
+	@Reference(unbind = "-")
+	private SchedulerEngineHelper _schedulerEngineHelper;
+
+	@Reference(unbind = "-")
+	private TriggerFactory _triggerFactory;
+
+}
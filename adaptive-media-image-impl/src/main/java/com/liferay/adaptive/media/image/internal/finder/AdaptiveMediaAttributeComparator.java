@@ -46,7 +46,22 @@ public class AdaptiveMediaAttributeComparator
 		Map<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Boolean>
 			sortCriteria) {
 
-		_sortCriteria = (Map)sortCriteria;
+		_attributes = new AdaptiveMediaAttribute[sortCriteria.size()];
+		_ascending = new boolean[sortCriteria.size()];
+
+		int i = 0;
+
+		for (Map.Entry
+				<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>,
+					Boolean> sortCriterion : sortCriteria.entrySet()) {
+
+			_attributes[i] =
+				(AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>)
+					sortCriterion.getKey();
+			_ascending[i] = sortCriterion.getValue();
+
+			i++;
+		}
 	}
 
 	@Override
@@ -54,36 +69,36 @@ public class AdaptiveMediaAttributeComparator
 		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia1,
 		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia2) {
 
-		for (Map.Entry
-				<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>,
-					Boolean> sortCriterion : _sortCriteria.entrySet()) {
-
+		for (int i = 0; i < _attributes.length; i++) {
 			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>
-				attribute = sortCriterion.getKey();
+				attribute = _attributes[i];
 
 			Optional<?> value1Optional = adaptiveMedia1.getAttributeValue(
 				attribute);
 			Optional<?> value2Optional = adaptiveMedia2.getAttributeValue(
 				attribute);
 
-			Optional<Integer> valueOptional = value1Optional.flatMap(
-				value1 ->
-					value2Optional.map(
-						value2 -> attribute.compare(value1, value2)));
+			if (!value1Optional.isPresent() || !value2Optional.isPresent()) {
+				continue;
+			}
 
-			int result = valueOptional.map(
-				value -> sortCriterion.getValue() ? value : -value).orElse(0);
+			int result = attribute.compare(
+				value1Optional.get(), value2Optional.get());
 
 			if (result != 0) {
-				return result;
+				if (_ascending[i]) {
+					return result;
+				}
+
+				return -result;
 			}
 		}
 
 		return 0;
 	}
 
-	private final Map
-		<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>, Boolean>
-			_sortCriteria;
+	private final boolean[] _ascending;
+	private final AdaptiveMediaAttribute
+		<AdaptiveMediaImageProcessor, Object>[] _attributes;
 
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeListener;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshot;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshotCache;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageFinderCacheConfiguration;
+import com.liferay.adaptive.media.image.internal.util.Tuple;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps the results of finder queries so that repeated queries for the same
+ * file version do not fetch its image entries again. Results are kept as the
+ * image entry of every adaptive media, in the order returned by the query,
+ * and are keyed by file version, configuration version and query.
+ *
+ * <p>
+ * Results are stored in a multi VM portal cache, which bounds and evicts
+ * them, propagates invalidations to the other cluster nodes and publishes
+ * the cache statistics. The results of a file version are discarded when
+ * any of its image entries is added, updated or removed, and all results
+ * are discarded when the configuration changes.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageFinderCacheConfiguration",
+	immediate = true,
+	service = {
+		AdaptiveMediaImageConfigurationChangeListener.class,
+		AdaptiveMediaImageFinderCache.class
+	}
+)
+public class AdaptiveMediaImageFinderCache
+	implements AdaptiveMediaImageConfigurationChangeListener {
+
+	public static final String CACHE_NAME =
+		AdaptiveMediaImageFinderCache.class.getName();
+
+	/**
+	 * Returns the cached results of the query for the file version, loading
+	 * them with the supplier if they are not cached. If the cache is not
+	 * enabled, the supplier is always called.
+	 */
+	public List
+		<Tuple<AdaptiveMediaImageConfigurationEntry, AdaptiveMediaImageEntry>>
+			getResults(
+				FileVersion fileVersion, String queryKey,
+				Supplier
+					<List
+						<Tuple
+							<AdaptiveMediaImageConfigurationEntry,
+								AdaptiveMediaImageEntry>>> supplier) {
+
+		if (!_enabled) {
+			return supplier.get();
+		}
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_snapshotCache.getSnapshot(
+				fileVersion.getCompanyId(), fileVersion.getGroupId());
+
+		String key = snapshot.getVersion() + "#" + queryKey;
+
+		FileVersionResults fileVersionResults = _portalCache.get(
+			fileVersion.getFileVersionId());
+
+		if (fileVersionResults != null) {
+			List
+				<Tuple
+					<AdaptiveMediaImageConfigurationEntry,
+						AdaptiveMediaImageEntry>> results =
+							fileVersionResults.getResults(key, snapshot);
+
+			if (results != null) {
+				return results;
+			}
+		}
+
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results = supplier.get();
+
+		if (fileVersionResults == null) {
+			fileVersionResults = new FileVersionResults();
+		}
+
+		_portalCache.put(
+			fileVersion.getFileVersionId(),
+			fileVersionResults.withResults(key, results));
+
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Discards the cached results of the file version.
+	 */
+	public void invalidate(long fileVersionId) {
+		_portalCache.remove(fileVersionId);
+	}
+
+	public boolean isEnabled() {
+		return _enabled;
+	}
+
+	@Override
+	public void onConfigurationChange(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent) {
+
+		_portalCache.removeAll();
+	}
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		AdaptiveMediaImageFinderCacheConfiguration finderCacheConfiguration =
+			ConfigurableUtil.createConfigurable(
+				AdaptiveMediaImageFinderCacheConfiguration.class, properties);
+
+		_portalCache =
+			(PortalCache<Long, FileVersionResults>)_multiVMPool.getPortalCache(
+				CACHE_NAME);
+
+		_enabled = finderCacheConfiguration.enabled();
+
+		_portalCache.removeAll();
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_multiVMPool.removePortalCache(CACHE_NAME);
+	}
+
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageConfigurationSnapshotCache(
+		AdaptiveMediaImageConfigurationSnapshotCache snapshotCache) {
+
+		_snapshotCache = snapshotCache;
+	}
+
+	@Reference(unbind = "-")
+	protected void setMultiVMPool(MultiVMPool multiVMPool) {
+		_multiVMPool = multiVMPool;
+	}
+
+	private volatile boolean _enabled;
+	private MultiVMPool _multiVMPool;
+	private volatile PortalCache<Long, FileVersionResults> _portalCache;
+	private AdaptiveMediaImageConfigurationSnapshotCache _snapshotCache;
+
+	/**
+	 * Holds the results of every query of a file version. Only the image
+	 * entries are kept, so that the results can be serialized; their
+	 * configuration entries are resolved again from the snapshot of the
+	 * configuration version the results were loaded with. Instances are
+	 * never modified once they are in the cache.
+	 */
+	private static final class FileVersionResults implements Serializable {
+
+		public List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> getResults(
+						String key,
+						AdaptiveMediaImageConfigurationSnapshot snapshot) {
+
+			List<AdaptiveMediaImageEntry> imageEntries = _imageEntries.get(
+				key);
+
+			if (imageEntries == null) {
+				return null;
+			}
+
+			List
+				<Tuple
+					<AdaptiveMediaImageConfigurationEntry,
+						AdaptiveMediaImageEntry>> results = new ArrayList<>(
+							imageEntries.size());
+
+			for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+				Optional<AdaptiveMediaImageConfigurationEntry>
+					configurationEntryOptional =
+						snapshot.getConfigurationEntry(
+							imageEntry.getConfigurationUuid());
+
+				if (!configurationEntryOptional.isPresent()) {
+					return null;
+				}
+
+				results.add(
+					Tuple.of(configurationEntryOptional.get(), imageEntry));
+			}
+
+			return Collections.unmodifiableList(results);
+		}
+
+		public FileVersionResults withResults(
+			String key,
+			List
+				<Tuple
+					<AdaptiveMediaImageConfigurationEntry,
+						AdaptiveMediaImageEntry>> results) {
+
+			List<AdaptiveMediaImageEntry> imageEntries = new ArrayList<>(
+				results.size());
+
+			for (Tuple
+					<AdaptiveMediaImageConfigurationEntry,
+						AdaptiveMediaImageEntry> result : results) {
+
+				imageEntries.add(result.second);
+			}
+
+			FileVersionResults fileVersionResults = new FileVersionResults();
+
+			fileVersionResults._imageEntries.putAll(_imageEntries);
+
+			fileVersionResults._imageEntries.put(key, imageEntries);
+
+			return fileVersionResults;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final HashMap<String, List<AdaptiveMediaImageEntry>>
+			_imageEntries = new HashMap<>();
+
+	}
+
+}
\ No newline at end of file
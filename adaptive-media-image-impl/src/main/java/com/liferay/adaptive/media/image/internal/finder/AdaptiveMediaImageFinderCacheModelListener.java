@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.portal.kernel.exception.ModelListenerException;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Discards the cached finder results of a file version when any of its image
+ * entries changes. The results are discarded again once the transaction is
+ * committed, so that results loaded by other threads before the change was
+ * visible are not kept.
+ *
+ * <p>
+ * Last access date updates do not go through the model listeners, so serving
+ * an image does not discard the cached results of its file version.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class AdaptiveMediaImageFinderCacheModelListener
+	extends BaseModelListener<AdaptiveMediaImageEntry> {
+
+	@Override
+	public void onAfterCreate(AdaptiveMediaImageEntry imageEntry)
+		throws ModelListenerException {
+
+		_invalidate(imageEntry.getFileVersionId());
+	}
+
+	@Override
+	public void onAfterRemove(AdaptiveMediaImageEntry imageEntry)
+		throws ModelListenerException {
+
+		_invalidate(imageEntry.getFileVersionId());
+	}
+
+	@Override
+	public void onAfterUpdate(AdaptiveMediaImageEntry imageEntry)
+		throws ModelListenerException {
+
+		_invalidate(imageEntry.getFileVersionId());
+	}
+
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageFinderCache(
+		AdaptiveMediaImageFinderCache finderCache) {
+
+		_finderCache = finderCache;
+	}
+
+	private void _invalidate(long fileVersionId) {
+		if (!_finderCache.isEnabled()) {
+			return;
+		}
+
+		_finderCache.invalidate(fileVersionId);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_finderCache.invalidate(fileVersionId);
+
+				return null;
+			});
+	}
+
+	private AdaptiveMediaImageFinderCache _finderCache;
+
+}
\ No newline at end of file
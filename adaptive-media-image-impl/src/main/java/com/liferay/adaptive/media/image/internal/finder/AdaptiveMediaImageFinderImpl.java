@@ -15,40 +15,70 @@
 package com.liferay.adaptive.media.image.internal.finder;
 
 import com.liferay.adaptive.media.AdaptiveMedia;
-import com.liferay.adaptive.media.AdaptiveMediaAttribute;
 import com.liferay.adaptive.media.finder.AdaptiveMediaFinder;
 import com.liferay.adaptive.media.finder.AdaptiveMediaQuery;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImagePreparedQuery;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAsyncFinderConfiguration;
 import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAttributeMapping;
 import com.liferay.adaptive.media.image.internal.processor.AdaptiveMediaImage;
 import com.liferay.adaptive.media.image.internal.util.ImageProcessor;
+import com.liferay.adaptive.media.image.internal.util.Tuple;
 import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
-import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
 import com.liferay.adaptive.media.image.url.AdaptiveMediaImageURLFactory;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
 import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.executor.CopyThreadLocalCallable;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.repository.model.FileEntry;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.StringPool;
 
 import java.net.URI;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Adolfo Pérez
  */
 @Component(
+	configurationPid = "com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAsyncFinderConfiguration",
 	immediate = true,
 	property = "model.class.name=com.liferay.portal.kernel.repository.model.FileVersion",
 	service = {AdaptiveMediaFinder.class, AdaptiveMediaImageFinder.class}
@@ -63,46 +93,136 @@ public class AdaptiveMediaImageFinderImpl implements AdaptiveMediaImageFinder {
 						queryBuilderFunction)
 		throws PortalException {
 
-		if (queryBuilderFunction == null) {
-			throw new IllegalArgumentException("queryBuilder must be non null");
+		AdaptiveMediaImageQueryBuilderImpl queryBuilder = _getQueryBuilder(
+			queryBuilderFunction);
+
+		return _getAdaptiveMedia(
+			queryBuilder.getFileVersion(),
+			_getURIFactory(queryBuilder.hasFileVersion()), queryBuilder);
+	}
+
+	/**
+	 * Resolves the query in a bounded thread pool. Queries made while an
+	 * identical query for the same file entry or file version is still being
+	 * resolved share its results instead of being resolved again. If every
+	 * thread is busy and the queue is full, the query is resolved in the
+	 * calling thread.
+	 */
+	@Override
+	public CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+		getAdaptiveMediaAsync(
+			Function
+				<AdaptiveMediaImageQueryBuilder, AdaptiveMediaQuery
+					<FileVersion, AdaptiveMediaImageProcessor>>
+						queryBuilderFunction) {
+
+		AdaptiveMediaImageQueryBuilderImpl queryBuilder = _getQueryBuilder(
+			queryBuilderFunction);
+
+		String key =
+			queryBuilder.getModelKey() + "#" + queryBuilder.getQueryKey();
+
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completableFuture = new CompletableFuture<>();
+
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			pendingCompletableFuture = _pendingResults.putIfAbsent(
+				key, completableFuture);
+
+		if (pendingCompletableFuture != null) {
+			return pendingCompletableFuture.thenApply(Function.identity());
 		}
 
-		AdaptiveMediaImageQueryBuilderImpl queryBuilder =
-			new AdaptiveMediaImageQueryBuilderImpl();
+		completableFuture.whenComplete(
+			(adaptiveMedias, throwable) -> _pendingResults.remove(
+				key, completableFuture));
 
-		AdaptiveMediaQuery<FileVersion, AdaptiveMediaImageProcessor> query =
-			queryBuilderFunction.apply(queryBuilder);
+		Callable<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>> callable =
+			() -> {
+				Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+					_getAdaptiveMedia(
+						queryBuilder.getFileVersion(),
+						_getURIFactory(queryBuilder.hasFileVersion()),
+						queryBuilder);
 
-		if (query != AdaptiveMediaImageQueryBuilderImpl.QUERY) {
-			throw new IllegalArgumentException(
-				"Only queries built by the provided query builder are valid.");
+				return Collections.unmodifiableList(
+					stream.collect(Collectors.toList()));
+			};
+
+		Callable<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			copyThreadLocalCallable =
+				new CopyThreadLocalCallable
+					<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>(
+						true, true) {
+
+					@Override
+					public List<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+							doCall()
+						throws Exception {
+
+						return callable.call();
+					}
+
+				};
+
+		ExecutorService executorService = _executorService;
+
+		try {
+			executorService.execute(
+				() -> _complete(completableFuture, copyThreadLocalCallable));
 		}
+		catch (RejectedExecutionException ree) {
 
-		FileVersion fileVersion = queryBuilder.getFileVersion();
+			// Copying the thread locals would clear those of the calling
+			// thread once the query is resolved
 
-		if (!_imageProcessor.isMimeTypeSupported(fileVersion.getMimeType())) {
-			return Stream.empty();
+			_complete(completableFuture, callable);
 		}
 
-		BiFunction<FileVersion, AdaptiveMediaImageConfigurationEntry, URI>
-			uriFactory = _getURIFactory(queryBuilder);
+		return completableFuture.thenApply(Function.identity());
+	}
 
-		AdaptiveMediaImageQueryBuilder.ConfigurationStatus configurationStatus =
-			queryBuilder.getConfigurationStatus();
+	/**
+	 * Builds the query once and returns a prepared query that reuses it, with
+	 * its comparator and query key, every time it is run.
+	 */
+	@Override
+	public AdaptiveMediaImagePreparedQuery prepareQuery(
+		Function
+			<AdaptiveMediaImageQueryBuilder.InitialStep, AdaptiveMediaQuery
+				<FileVersion, AdaptiveMediaImageProcessor>> queryFunction) {
 
-		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
-			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				fileVersion.getCompanyId(), configurationStatus.getPredicate());
+		return new PreparedQuery(_getQueryBuilder(queryFunction));
+	}
+
+	/**
+	 * Reads the image entries in batches of the prefetch size, using the
+	 * primary key of the last image entry of each batch to read the next
+	 * one. The file version and configuration entry of every image entry
+	 * are fetched once per batch.
+	 */
+	@Override
+	public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> scanAdaptiveMedia(
+		long companyId, long groupId, int prefetchSize) {
 
-		Predicate<AdaptiveMediaImageConfigurationEntry> filter =
-			queryBuilder.getConfigurationEntryFilter();
+		if (prefetchSize <= 0) {
+			throw new IllegalArgumentException(
+				"Prefetch size must be greater than 0: " + prefetchSize);
+		}
+
+		AdaptiveMediaImageScanSpliterator scanSpliterator =
+			new AdaptiveMediaImageScanSpliterator(
+				prefetchSize,
+				previousImageEntryId ->
+					_imageEntryLocalService.getAdaptiveMediaImageEntries(
+						companyId, groupId, previousImageEntryId,
+						prefetchSize),
+				this::_getAdaptiveMedia);
 
-		return configurationEntries.stream().filter(configurationEntry ->
-			filter.test(configurationEntry) &&
-			_hasAdaptiveMedia(fileVersion, configurationEntry)).map(
-				configurationEntry ->
-					_createMedia(fileVersion, uriFactory, configurationEntry)).
-				sorted(queryBuilder.getComparator());
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			StreamSupport.stream(scanSpliterator, false);
+
+		return stream.onClose(scanSpliterator::cancel);
 	}
 
 	@Reference(unbind = "-")
@@ -119,6 +239,13 @@ public class AdaptiveMediaImageFinderImpl implements AdaptiveMediaImageFinder {
 		_imageEntryLocalService = imageEntryLocalService;
 	}
 
+	@Reference(unbind = "-")
+	public void setAdaptiveMediaImageFinderCache(
+		AdaptiveMediaImageFinderCache finderCache) {
+
+		_finderCache = finderCache;
+	}
+
 	@Reference(unbind = "-")
 	public void setAdaptiveMediaImageURLFactory(
 		AdaptiveMediaImageURLFactory adaptiveMediaImageURLFactory) {
@@ -126,102 +253,447 @@ public class AdaptiveMediaImageFinderImpl implements AdaptiveMediaImageFinder {
 		_adaptiveMediaImageURLFactory = adaptiveMediaImageURLFactory;
 	}
 
+	@Reference(unbind = "-")
+	public void setDLAppLocalService(DLAppLocalService dlAppLocalService) {
+		_dlAppLocalService = dlAppLocalService;
+	}
+
 	@Reference(unbind = "-")
 	public void setImageProcessor(ImageProcessor imageProcessor) {
 		_imageProcessor = imageProcessor;
 	}
 
-	private AdaptiveMedia<AdaptiveMediaImageProcessor> _createMedia(
-		FileVersion fileVersion,
-		BiFunction<FileVersion, AdaptiveMediaImageConfigurationEntry, URI>
-			uriFactory,
-		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		AdaptiveMediaImageAsyncFinderConfiguration asyncFinderConfiguration =
+			ConfigurableUtil.createConfigurable(
+				AdaptiveMediaImageAsyncFinderConfiguration.class, properties);
 
-		Map<String, String> properties = configurationEntry.getProperties();
+		int threadPoolSize = Math.max(
+			asyncFinderConfiguration.threadPoolSize(), 1);
 
-		AdaptiveMediaAttribute<Object, String> configurationUuidAttribute =
-			AdaptiveMediaAttribute.configurationUuid();
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+			threadPoolSize, threadPoolSize, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(
+				Math.max(asyncFinderConfiguration.queueSize(), 1)),
+			new NamedThreadFactory(
+				AdaptiveMediaImageFinderImpl.class.getName(),
+				Thread.NORM_PRIORITY,
+				AdaptiveMediaImageFinderImpl.class.getClassLoader()));
 
-		properties.put(
-			configurationUuidAttribute.getName(), configurationEntry.getUUID());
+		threadPoolExecutor.allowCoreThreadTimeOut(true);
 
-		AdaptiveMediaAttribute<Object, String> fileNameAttribute =
-			AdaptiveMediaAttribute.fileName();
+		ExecutorService executorService = _executorService;
 
-		properties.put(fileNameAttribute.getName(), fileVersion.getFileName());
+		_executorService = threadPoolExecutor;
 
-		AdaptiveMediaImageEntry imageEntry =
-			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
-				configurationEntry.getUUID(), fileVersion.getFileVersionId());
+		if (executorService != null) {
+			executorService.shutdown();
+		}
+	}
 
-		if (imageEntry != null) {
-			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Integer>
-				imageHeightAttribute = AdaptiveMediaImageAttribute.IMAGE_HEIGHT;
+	@Deactivate
+	protected void deactivate() {
+		_executorService.shutdown();
+	}
 
-			properties.put(
-				imageHeightAttribute.getName(),
-				String.valueOf(imageEntry.getHeight()));
+	private <T> void _complete(
+		CompletableFuture<T> completableFuture, Callable<T> callable) {
 
-			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Integer>
-				imageWidthAttribute = AdaptiveMediaImageAttribute.IMAGE_WIDTH;
+		try {
+			completableFuture.complete(callable.call());
+		}
+		catch (Throwable t) {
+			completableFuture.completeExceptionally(t);
+		}
+	}
 
-			properties.put(
-				imageWidthAttribute.getName(),
-				String.valueOf(imageEntry.getWidth()));
+	private AdaptiveMedia<AdaptiveMediaImageProcessor> _createMedia(
+		FileVersion fileVersion, URIFactory uriFactory,
+		AdaptiveMediaImageConfigurationEntry configurationEntry,
+		AdaptiveMediaImageEntry imageEntry) {
 
-			AdaptiveMediaAttribute<Object, String> contentTypeAttribute =
-				AdaptiveMediaAttribute.contentType();
+		return new AdaptiveMediaImage(
+			() ->
+				_imageEntryLocalService.getAdaptiveMediaImageEntryContentStream(
+					configurationEntry, fileVersion),
+			() -> AdaptiveMediaImageAttributeMapping.fromImageEntry(
+				imageEntry, configurationEntry.getUUID(),
+				fileVersion.getFileName()),
+			() -> uriFactory.create(
+				fileVersion, configurationEntry, imageEntry));
+	}
 
-			properties.put(
-				contentTypeAttribute.getName(), imageEntry.getMimeType());
+	private Optional<FileVersion> _fetchFileVersion(long fileVersionId) {
+		try {
+			FileVersion fileVersion = _dlAppLocalService.getFileVersion(
+				fileVersionId);
 
-			AdaptiveMediaAttribute<Object, Integer> contentLengthAttribute =
-				AdaptiveMediaAttribute.contentLength();
+			return Optional.of(fileVersion);
+		}
+		catch (PortalException pe) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(pe, pe);
+			}
 
-			properties.put(
-				contentLengthAttribute.getName(),
-				String.valueOf(imageEntry.getSize()));
+			return Optional.empty();
 		}
+	}
 
-		AdaptiveMediaImageAttributeMapping attributeMapping =
-			AdaptiveMediaImageAttributeMapping.fromProperties(properties);
+	/**
+	 * Returns the adaptive media of a batch of image entries. The file
+	 * versions and configuration entries are kept while the batch is
+	 * processed, so the image entries of the same file version or
+	 * configuration entry share them.
+	 */
+	private List<AdaptiveMedia<AdaptiveMediaImageProcessor>> _getAdaptiveMedia(
+		List<AdaptiveMediaImageEntry> imageEntries) {
+
+		URIFactory uriFactory = _getURIFactory(true);
+
+		Map<String, Optional<AdaptiveMediaImageConfigurationEntry>>
+			configurationEntryOptionals = new HashMap<>();
+		Map<Long, Optional<FileVersion>> fileVersionOptionals = new HashMap<>();
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			new ArrayList<>(imageEntries.size());
+
+		for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+			Optional<FileVersion> fileVersionOptional =
+				fileVersionOptionals.computeIfAbsent(
+					imageEntry.getFileVersionId(), this::_fetchFileVersion);
+
+			if (!fileVersionOptional.isPresent()) {
+				continue;
+			}
+
+			Optional<AdaptiveMediaImageConfigurationEntry>
+				configurationEntryOptional =
+					configurationEntryOptionals.computeIfAbsent(
+						imageEntry.getGroupId() + StringPool.POUND +
+							imageEntry.getConfigurationUuid(),
+						key ->
+							_configurationHelper.
+								getAdaptiveMediaImageConfigurationEntry(
+									imageEntry.getCompanyId(),
+									imageEntry.getGroupId(),
+									imageEntry.getConfigurationUuid()));
+
+			if (!configurationEntryOptional.isPresent()) {
+				continue;
+			}
+
+			adaptiveMedias.add(
+				_createMedia(
+					fileVersionOptional.get(), uriFactory,
+					configurationEntryOptional.get(), imageEntry));
+		}
 
-		return new AdaptiveMediaImage(
-			() ->
-				_imageEntryLocalService.getAdaptiveMediaImageEntryContentStream(
-					configurationEntry, fileVersion),
-			attributeMapping,
-			uriFactory.apply(fileVersion, configurationEntry));
+		return adaptiveMedias;
 	}
 
-	private BiFunction<FileVersion, AdaptiveMediaImageConfigurationEntry, URI>
-		_getURIFactory(AdaptiveMediaImageQueryBuilderImpl queryBuilder) {
+	private Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+		_getAdaptiveMedia(
+			FileVersion fileVersion, URIFactory uriFactory,
+			AdaptiveMediaImageQueryBuilderImpl queryBuilder) {
 
-		if (queryBuilder.hasFileVersion()) {
-			return _adaptiveMediaImageURLFactory::createFileVersionURL;
+		if (!_imageProcessor.isMimeTypeSupported(fileVersion.getMimeType())) {
+			return Stream.empty();
 		}
 
-		return _adaptiveMediaImageURLFactory::createFileEntryURL;
+		if (!_finderCache.isEnabled()) {
+			List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+				_getAdaptiveMedia(fileVersion, uriFactory, queryBuilder, null);
+
+			return adaptiveMedias.stream();
+		}
+
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results = _finderCache.getResults(
+						fileVersion, queryBuilder.getQueryKey(),
+						() -> _getResults(
+							fileVersion, uriFactory, queryBuilder));
+
+		Stream
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> stream = results.stream();
+
+		return stream.map(
+			result -> _createMedia(
+				fileVersion, uriFactory, result.first, result.second));
+	}
+
+	/**
+	 * Returns the adaptive media of the query. If a list of results is
+	 * provided, the configuration entry and image entry of every adaptive
+	 * media are added to it in the same order.
+	 */
+	private List<AdaptiveMedia<AdaptiveMediaImageProcessor>> _getAdaptiveMedia(
+		FileVersion fileVersion, URIFactory uriFactory,
+		AdaptiveMediaImageQueryBuilderImpl queryBuilder,
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results) {
+
+		AdaptiveMediaImageQueryBuilder.ConfigurationStatus configurationStatus =
+			queryBuilder.getConfigurationStatus();
+
+		String configurationUuid = queryBuilder.getConfigurationUuid();
+
+		if (configurationUuid != null) {
+			return _getAdaptiveMedia(
+				fileVersion, uriFactory, configurationStatus, configurationUuid,
+				results);
+		}
+
+		Collection<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				fileVersion.getCompanyId(), fileVersion.getGroupId(),
+				configurationStatus.getPredicate());
+
+		int limit = queryBuilder.getLimit();
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			new ArrayList<>(configurationEntries.size());
+
+		Map
+			<AdaptiveMedia<AdaptiveMediaImageProcessor>,
+				Tuple
+					<AdaptiveMediaImageConfigurationEntry,
+						AdaptiveMediaImageEntry>> adaptiveMediaResults = null;
+
+		if (results != null) {
+			adaptiveMediaResults = new IdentityHashMap<>();
+		}
+
+		for (AdaptiveMediaImageConfigurationEntry configurationEntry :
+				configurationEntries) {
+
+			if (!queryBuilder.isSorted() && (limit > 0) &&
+				(adaptiveMedias.size() == limit)) {
+
+				break;
+			}
+
+			AdaptiveMediaImageEntry imageEntry =
+				_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+					configurationEntry.getUUID(),
+					fileVersion.getFileVersionId());
+
+			if (imageEntry == null) {
+				continue;
+			}
+
+			AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+				_createMedia(
+					fileVersion, uriFactory, configurationEntry, imageEntry);
+
+			adaptiveMedias.add(adaptiveMedia);
+
+			if (adaptiveMediaResults != null) {
+				adaptiveMediaResults.put(
+					adaptiveMedia, Tuple.of(configurationEntry, imageEntry));
+			}
+		}
+
+		if (queryBuilder.isFuzzySort()) {
+			AdaptiveMediaPropertyDistanceSelector selector =
+				queryBuilder.getDistanceSelector();
+
+			adaptiveMedias = selector.select(adaptiveMedias, limit);
+		}
+		else if (queryBuilder.isSorted()) {
+			adaptiveMedias.sort(queryBuilder.getComparator());
+
+			if ((limit > 0) && (limit < adaptiveMedias.size())) {
+				adaptiveMedias = adaptiveMedias.subList(0, limit);
+			}
+		}
+
+		if (adaptiveMediaResults != null) {
+			for (AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia :
+					adaptiveMedias) {
+
+				results.add(adaptiveMediaResults.get(adaptiveMedia));
+			}
+		}
+
+		return adaptiveMedias;
 	}
 
-	private boolean _hasAdaptiveMedia(
-		FileVersion fileVersion,
-		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+	/**
+	 * Resolves a query for a single configuration entry with a keyed lookup
+	 * of the configuration entry and a single fetch of its image entry,
+	 * instead of filtering and sorting every configuration entry.
+	 */
+	private List<AdaptiveMedia<AdaptiveMediaImageProcessor>> _getAdaptiveMedia(
+		FileVersion fileVersion, URIFactory uriFactory,
+		AdaptiveMediaImageQueryBuilder.ConfigurationStatus configurationStatus,
+		String configurationUuid,
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results) {
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					fileVersion.getCompanyId(), fileVersion.getGroupId(),
+					configurationUuid);
+
+		if (!configurationEntryOptional.isPresent()) {
+			return Collections.emptyList();
+		}
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			configurationEntryOptional.get();
+
+		Predicate<AdaptiveMediaImageConfigurationEntry> predicate =
+			configurationStatus.getPredicate();
+
+		if (!predicate.test(configurationEntry)) {
+			return Collections.emptyList();
+		}
 
 		AdaptiveMediaImageEntry imageEntry =
 			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
-				configurationEntry.getUUID(), fileVersion.getFileVersionId());
+				configurationUuid, fileVersion.getFileVersionId());
 
 		if (imageEntry == null) {
-			return false;
+			return Collections.emptyList();
 		}
 
-		return true;
+		if (results != null) {
+			results.add(Tuple.of(configurationEntry, imageEntry));
+		}
+
+		return Collections.singletonList(
+			_createMedia(
+				fileVersion, uriFactory, configurationEntry, imageEntry));
 	}
 
+	private AdaptiveMediaImageQueryBuilderImpl _getQueryBuilder(
+		Function
+			<? super AdaptiveMediaImageQueryBuilderImpl, AdaptiveMediaQuery
+				<FileVersion, AdaptiveMediaImageProcessor>>
+					queryBuilderFunction) {
+
+		if (queryBuilderFunction == null) {
+			throw new IllegalArgumentException("queryBuilder must be non null");
+		}
+
+		AdaptiveMediaImageQueryBuilderImpl queryBuilder =
+			new AdaptiveMediaImageQueryBuilderImpl();
+
+		AdaptiveMediaQuery<FileVersion, AdaptiveMediaImageProcessor> query =
+			queryBuilderFunction.apply(queryBuilder);
+
+		if (query != AdaptiveMediaImageQueryBuilderImpl.QUERY) {
+			throw new IllegalArgumentException(
+				"Only queries built by the provided query builder are valid.");
+		}
+
+		return queryBuilder;
+	}
+
+	private List
+		<Tuple<AdaptiveMediaImageConfigurationEntry, AdaptiveMediaImageEntry>>
+			_getResults(
+				FileVersion fileVersion, URIFactory uriFactory,
+				AdaptiveMediaImageQueryBuilderImpl queryBuilder) {
+
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results = new ArrayList<>();
+
+		_getAdaptiveMedia(fileVersion, uriFactory, queryBuilder, results);
+
+		return results;
+	}
+
+	private URIFactory _getURIFactory(boolean fileVersionURL) {
+
+		if (fileVersionURL) {
+			return _adaptiveMediaImageURLFactory::createFileVersionURL;
+		}
+
+		return _adaptiveMediaImageURLFactory::createFileEntryURL;
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		AdaptiveMediaImageFinderImpl.class);
+
 	private AdaptiveMediaImageURLFactory _adaptiveMediaImageURLFactory;
 	private AdaptiveMediaImageConfigurationHelper _configurationHelper;
+	private DLAppLocalService _dlAppLocalService;
+	private volatile ExecutorService _executorService;
+	private AdaptiveMediaImageFinderCache _finderCache;
 	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
 	private ImageProcessor _imageProcessor;
+	private final ConcurrentMap
+		<String,
+			CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>>
+				_pendingResults = new ConcurrentHashMap<>();
+
+	private interface URIFactory {
+
+		public URI create(
+			FileVersion fileVersion,
+			AdaptiveMediaImageConfigurationEntry configurationEntry,
+			AdaptiveMediaImageEntry imageEntry);
+
+	}
+
+	private final class PreparedQuery
+		implements AdaptiveMediaImagePreparedQuery {
+
+		public PreparedQuery(AdaptiveMediaImageQueryBuilderImpl queryBuilder) {
+			// Create everything the query needs before sharing it with other
+			// threads
+
+			queryBuilder.getComparator();
+			queryBuilder.getDistanceSelector();
+			queryBuilder.getQueryKey();
+
+			_queryBuilder = queryBuilder;
+		}
+
+		@Override
+		public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+				getAdaptiveMedia(FileEntry fileEntry)
+			throws PortalException {
+
+			if (fileEntry == null) {
+				throw new IllegalArgumentException(
+					"File entry cannot be null");
+			}
+
+			return _getAdaptiveMedia(
+				fileEntry.getFileVersion(), _getURIFactory(false),
+				_queryBuilder);
+		}
+
+		@Override
+		public Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			getAdaptiveMedia(FileVersion fileVersion) {
+
+			if (fileVersion == null) {
+				throw new IllegalArgumentException(
+					"File version cannot be null");
+			}
+
+			return _getAdaptiveMedia(
+				fileVersion, _getURIFactory(true), _queryBuilder);
+		}
+
+		private final AdaptiveMediaImageQueryBuilderImpl _queryBuilder;
+
+	}
 
 }
\ No newline at end of file
@@ -22,11 +22,14 @@ import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.ConfigurationStep;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.FuzzySortStep;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.InitialStep;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.LimitStep;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder.StrictSortStep;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.repository.model.FileEntry;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.StringBundler;
+import com.liferay.portal.kernel.util.StringPool;
 import com.liferay.portal.kernel.util.Validator;
 
 import java.util.Comparator;
@@ -40,7 +43,7 @@ import java.util.function.Predicate;
  */
 public class AdaptiveMediaImageQueryBuilderImpl
 	implements AdaptiveMediaImageQueryBuilder, ConfigurationStep, FuzzySortStep,
-			   InitialStep, StrictSortStep {
+			   InitialStep, LimitStep, StrictSortStep {
 
 	public static final
 		AdaptiveMediaQuery<FileVersion, AdaptiveMediaImageProcessor> QUERY =
@@ -114,18 +117,29 @@ public class AdaptiveMediaImageQueryBuilderImpl
 		return _attributes;
 	}
 
+	/**
+	 * Returns the comparator of the query. The comparator is created the
+	 * first time it is requested and reused afterwards.
+	 */
 	public Comparator<AdaptiveMedia<AdaptiveMediaImageProcessor>>
 		getComparator() {
 
-		if (!_sortCriteria.isEmpty()) {
-			return new AdaptiveMediaAttributeComparator(_sortCriteria);
+		if (_comparator != null) {
+			return _comparator;
 		}
 
-		if (!_attributes.isEmpty()) {
-			return new AdaptiveMediaPropertyDistanceComparator(_attributes);
+		if (!_sortCriteria.isEmpty()) {
+			_comparator = new AdaptiveMediaAttributeComparator(_sortCriteria);
+		}
+		else if (!_attributes.isEmpty()) {
+			_comparator = new AdaptiveMediaPropertyDistanceComparator(
+				_attributes);
+		}
+		else {
+			_comparator = (v1, v2) -> 0;
 		}
 
-		return (v1, v2) -> 0;
+		return _comparator;
 	}
 
 	public Predicate<AdaptiveMediaImageConfigurationEntry>
@@ -151,6 +165,29 @@ public class AdaptiveMediaImageQueryBuilderImpl
 		return AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ENABLED;
 	}
 
+	/**
+	 * Returns the UUID of the only configuration entry the query applies to,
+	 * or <code>null</code> if the query applies to several configuration
+	 * entries.
+	 */
+	public String getConfigurationUuid() {
+		return _configurationUuid;
+	}
+
+	/**
+	 * Returns the selector of the results closest to the requested attribute
+	 * values. The selector is created the first time it is requested and
+	 * reused afterwards.
+	 */
+	public AdaptiveMediaPropertyDistanceSelector getDistanceSelector() {
+		if (_distanceSelector == null) {
+			_distanceSelector = new AdaptiveMediaPropertyDistanceSelector(
+				_attributes);
+		}
+
+		return _distanceSelector;
+	}
+
 	public FileVersion getFileVersion() throws PortalException {
 		if (_fileVersion != null) {
 			return _fileVersion;
@@ -161,6 +198,80 @@ public class AdaptiveMediaImageQueryBuilderImpl
 		return _fileVersion;
 	}
 
+	/**
+	 * Returns the maximum number of results of the query, or <code>0</code>
+	 * if the number of results is not limited.
+	 */
+	public int getLimit() {
+		return _limit;
+	}
+
+	/**
+	 * Returns a key that identifies the file entry or file version the query
+	 * applies to, without getting the file version of a file entry.
+	 */
+	public String getModelKey() {
+		if (_fileEntry != null) {
+			return "fileEntry#" + _fileEntry.getFileEntryId();
+		}
+
+		return "fileVersion#" + _fileVersion.getFileVersionId();
+	}
+
+	/**
+	 * Returns a key that identifies the results of the query for any file
+	 * version. Queries that only differ in the file version or file entry
+	 * they apply to, or in the kind of URL of their results, have the same
+	 * key. The key is built the first time it is requested.
+	 */
+	public String getQueryKey() {
+		if (_queryKey != null) {
+			return _queryKey;
+		}
+
+		StringBundler sb = new StringBundler(
+			4 + (_attributes.size() * 4) + (_sortCriteria.size() * 4));
+
+		ConfigurationStatus configurationStatus = getConfigurationStatus();
+
+		sb.append(configurationStatus.name());
+
+		sb.append(StringPool.POUND);
+		sb.append(_configurationUuid);
+		sb.append(StringPool.POUND);
+		sb.append(_limit);
+
+		for (Map.Entry
+				<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Object>
+					entry : _attributes.entrySet()) {
+
+			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?> attribute =
+				entry.getKey();
+
+			sb.append(StringPool.POUND);
+			sb.append(attribute.getName());
+			sb.append(StringPool.EQUAL);
+			sb.append(entry.getValue());
+		}
+
+		for (Map.Entry
+				<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>,
+					Boolean> entry : _sortCriteria.entrySet()) {
+
+			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?> attribute =
+				entry.getKey();
+
+			sb.append(StringPool.POUND);
+			sb.append(attribute.getName());
+			sb.append(StringPool.COLON);
+			sb.append(entry.getValue());
+		}
+
+		_queryKey = sb.toString();
+
+		return _queryKey;
+	}
+
 	public boolean hasFileVersion() {
 		if (_fileEntry == null) {
 			return true;
@@ -169,6 +280,41 @@ public class AdaptiveMediaImageQueryBuilderImpl
 		return false;
 	}
 
+	/**
+	 * Returns <code>true</code> if the results are sorted by their distance
+	 * to the requested attribute values.
+	 */
+	public boolean isFuzzySort() {
+		if (_sortCriteria.isEmpty() && !_attributes.isEmpty()) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if the results are sorted in any way.
+	 */
+	public boolean isSorted() {
+		if (!_sortCriteria.isEmpty() || !_attributes.isEmpty()) {
+			return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public FinalStep limit(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException(
+				"Limit must be greater than 0: " + limit);
+		}
+
+		_limit = limit;
+
+		return this;
+	}
+
 	@Override
 	public <V> StrictSortStep orderBy(
 		AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, V> attribute,
@@ -239,10 +385,15 @@ public class AdaptiveMediaImageQueryBuilderImpl
 	private final Map
 		<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Object>
 			_attributes = new LinkedHashMap<>();
+	private Comparator<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+		_comparator;
 	private ConfigurationStatus _configurationStatus;
 	private String _configurationUuid;
+	private AdaptiveMediaPropertyDistanceSelector _distanceSelector;
 	private FileEntry _fileEntry;
 	private FileVersion _fileVersion;
+	private int _limit;
+	private String _queryKey;
 	private final Map
 		<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Boolean>
 			_sortCriteria = new LinkedHashMap<>();
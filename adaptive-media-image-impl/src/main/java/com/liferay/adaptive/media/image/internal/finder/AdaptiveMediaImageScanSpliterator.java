@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Iterates over the adaptive media of a sequence of image entries read in
+ * batches. Each batch starts after the primary key of the last image entry
+ * of the previous batch, and is only read when the adaptive media of the
+ * previous batch have been consumed, so at most one batch is held at any
+ * time.
+ *
+ * <p>
+ * Iteration stops once a batch is shorter than the batch size or the
+ * spliterator is cancelled. Cancelling can be done from any thread and takes
+ * effect before the next adaptive media is returned.
+ * </p>
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageScanSpliterator
+	extends Spliterators.AbstractSpliterator
+		<AdaptiveMedia<AdaptiveMediaImageProcessor>> {
+
+	public AdaptiveMediaImageScanSpliterator(
+		int batchSize,
+		LongFunction<List<AdaptiveMediaImageEntry>> imageEntriesFunction,
+		Function
+			<List<AdaptiveMediaImageEntry>,
+				List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+					adaptiveMediasFunction) {
+
+		super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.ORDERED);
+
+		_batchSize = batchSize;
+		_imageEntriesFunction = imageEntriesFunction;
+		_adaptiveMediasFunction = adaptiveMediasFunction;
+	}
+
+	public void cancel() {
+		_cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return _cancelled;
+	}
+
+	@Override
+	public boolean tryAdvance(
+		Consumer<? super AdaptiveMedia<AdaptiveMediaImageProcessor>> action) {
+
+		while (!_cancelled && !_adaptiveMediaIterator.hasNext()) {
+			if (_exhausted) {
+				return false;
+			}
+
+			List<AdaptiveMediaImageEntry> imageEntries =
+				_imageEntriesFunction.apply(_previousImageEntryId);
+
+			if (imageEntries.size() < _batchSize) {
+				_exhausted = true;
+			}
+
+			if (imageEntries.isEmpty()) {
+				return false;
+			}
+
+			AdaptiveMediaImageEntry imageEntry = imageEntries.get(
+				imageEntries.size() - 1);
+
+			_previousImageEntryId = imageEntry.getAdaptiveMediaImageEntryId();
+
+			List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+				_adaptiveMediasFunction.apply(imageEntries);
+
+			_adaptiveMediaIterator = adaptiveMedias.iterator();
+		}
+
+		if (_cancelled) {
+			return false;
+		}
+
+		action.accept(_adaptiveMediaIterator.next());
+
+		return true;
+	}
+
+	private Iterator<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+		_adaptiveMediaIterator = Collections.emptyIterator();
+	private final Function
+		<List<AdaptiveMediaImageEntry>,
+			List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				_adaptiveMediasFunction;
+	private final int _batchSize;
+	private volatile boolean _cancelled;
+	private boolean _exhausted;
+	private final LongFunction<List<AdaptiveMediaImageEntry>>
+		_imageEntriesFunction;
+	private long _previousImageEntryId;
+
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.AdaptiveMediaAttribute;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the adaptive media closest to the requested attribute values, in
+ * the same order as {@link AdaptiveMediaPropertyDistanceComparator}. The
+ * distances of each adaptive media are computed only once. A single result is
+ * found with a linear scan, and a limited number of results with a bounded
+ * heap, so the candidates are never fully sorted unless all of them are
+ * requested.
+ *
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaPropertyDistanceSelector {
+
+	public AdaptiveMediaPropertyDistanceSelector(
+		Map<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, ?>
+			attributes) {
+
+		_attributes = new AdaptiveMediaAttribute[attributes.size()];
+		_requestedValues = new Object[attributes.size()];
+
+		int i = 0;
+
+		for (Map.Entry
+				<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, ?>
+					entry : attributes.entrySet()) {
+
+			_attributes[i] =
+				(AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>)
+					entry.getKey();
+			_requestedValues[i] = entry.getValue();
+
+			i++;
+		}
+	}
+
+	/**
+	 * Returns the adaptive media closest to the requested attribute values,
+	 * sorted by distance. Adaptive media at the same distance keep their
+	 * relative order.
+	 *
+	 * @param  adaptiveMedias the adaptive media to select from
+	 * @param  limit the maximum number of adaptive media to return, or
+	 *         <code>0</code> to return all of them
+	 * @return the selected adaptive media
+	 */
+	public List<AdaptiveMedia<AdaptiveMediaImageProcessor>> select(
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias,
+		int limit) {
+
+		int size = adaptiveMedias.size();
+
+		if (size == 0) {
+			return Collections.emptyList();
+		}
+
+		int[][] distances = new int[size][];
+
+		for (int i = 0; i < size; i++) {
+			distances[i] = _getDistances(adaptiveMedias.get(i));
+		}
+
+		if (limit == 1) {
+			int index = 0;
+
+			for (int i = 1; i < size; i++) {
+				if (_compare(distances[i], distances[index]) < 0) {
+					index = i;
+				}
+			}
+
+			return Collections.singletonList(adaptiveMedias.get(index));
+		}
+
+		Comparator<Integer> comparator = (index1, index2) -> {
+			int result = _compare(distances[index1], distances[index2]);
+
+			if (result != 0) {
+				return result;
+			}
+
+			return Integer.compare(index1, index2);
+		};
+
+		List<Integer> indexes = new ArrayList<>(size);
+
+		if ((limit > 0) && (limit < size)) {
+			PriorityQueue<Integer> priorityQueue = new PriorityQueue<>(
+				limit + 1, comparator.reversed());
+
+			for (int i = 0; i < size; i++) {
+				priorityQueue.add(i);
+
+				if (priorityQueue.size() > limit) {
+					priorityQueue.poll();
+				}
+			}
+
+			indexes.addAll(priorityQueue);
+		}
+		else {
+			for (int i = 0; i < size; i++) {
+				indexes.add(i);
+			}
+		}
+
+		indexes.sort(comparator);
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+			selectedAdaptiveMedias = new ArrayList<>(indexes.size());
+
+		for (int index : indexes) {
+			selectedAdaptiveMedias.add(adaptiveMedias.get(index));
+		}
+
+		return selectedAdaptiveMedias;
+	}
+
+	/**
+	 * Compares the distances attribute by attribute. As in {@link
+	 * AdaptiveMediaPropertyDistanceComparator}, an attribute is ignored when
+	 * either adaptive media has no value for it.
+	 */
+	private int _compare(int[] distances1, int[] distances2) {
+		for (int i = 0; i < distances1.length; i++) {
+			if ((distances1[i] == _NO_DISTANCE) ||
+				(distances2[i] == _NO_DISTANCE)) {
+
+				continue;
+			}
+
+			int result = Integer.compare(distances1[i], distances2[i]);
+
+			if (result != 0) {
+				return result;
+			}
+		}
+
+		return 0;
+	}
+
+	private int[] _getDistances(
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia) {
+
+		int[] distances = new int[_attributes.length];
+
+		for (int i = 0; i < _attributes.length; i++) {
+			AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Object>
+				attribute = _attributes[i];
+
+			Optional<Object> valueOptional = adaptiveMedia.getAttributeValue(
+				attribute);
+
+			if (valueOptional.isPresent()) {
+				distances[i] = attribute.distance(
+					valueOptional.get(), _requestedValues[i]);
+			}
+			else {
+				distances[i] = _NO_DISTANCE;
+			}
+		}
+
+		return distances;
+	}
+
+	private static final int _NO_DISTANCE = -1;
+
+	private final AdaptiveMediaAttribute
+		<AdaptiveMediaImageProcessor, Object>[] _attributes;
+	private final Object[] _requestedValues;
+
+}
\ No newline at end of file
@@ -20,8 +20,10 @@ import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.handler.AdaptiveMediaRequestHandler;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
+import com.liferay.adaptive.media.image.internal.access.AdaptiveMediaImageAccessRecorder;
 import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAttributeMapping;
 import com.liferay.adaptive.media.image.internal.util.Tuple;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
@@ -31,9 +33,12 @@ import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.kernel.util.Time;
 
 import java.io.IOException;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -68,14 +73,31 @@ public class AdaptiveMediaImageRequestHandler
 						tuple.first, tuple.second);
 
 				adaptiveMediaOptional.ifPresent(
-					adaptiveMedia ->
+					adaptiveMedia -> {
+						_recordAccess(adaptiveMedia, tuple.first);
+
 						_processAdaptiveMediaImage(
-							adaptiveMedia, tuple.first, tuple.second));
+							adaptiveMedia, tuple.first, tuple.second);
+					});
 
 				return adaptiveMediaOptional;
 			});
 	}
 
+	@Reference(unbind = "-")
+	public void setAdaptiveMediaAsyncProcessorLocator(
+		AdaptiveMediaAsyncProcessorLocator asyncProcessorLocator) {
+
+		_asyncProcessorLocator = asyncProcessorLocator;
+	}
+
+	@Reference(unbind = "-")
+	public void setAdaptiveMediaImageAccessRecorder(
+		AdaptiveMediaImageAccessRecorder accessRecorder) {
+
+		_accessRecorder = accessRecorder;
+	}
+
 	@Reference(unbind = "-")
 	public void setAdaptiveMediaImageConfigurationHelper(
 		AdaptiveMediaImageConfigurationHelper configurationHelper) {
@@ -106,6 +128,7 @@ public class AdaptiveMediaImageRequestHandler
 							_configurationHelper.
 								getAdaptiveMediaImageConfigurationEntry(
 									fileVersion.getCompanyId(),
+									fileVersion.getGroupId(),
 									configurationUuid));
 
 			if (!configurationEntryOptional.isPresent()) {
@@ -115,10 +138,22 @@ public class AdaptiveMediaImageRequestHandler
 			AdaptiveMediaImageConfigurationEntry configurationEntry =
 				configurationEntryOptional.get();
 
-			return _finder.getAdaptiveMedia(
-				queryBuilder -> queryBuilder.forVersion(fileVersion).
-					forConfiguration(configurationEntry.getUUID()).done()).
-					findFirst();
+			Optional<AdaptiveMedia<AdaptiveMediaImageProcessor>>
+				adaptiveMediaOptional = _finder.getAdaptiveMedia(
+					queryBuilder -> queryBuilder.forVersion(fileVersion).
+						forConfiguration(configurationEntry.getUUID()).done()).
+						findFirst();
+
+			if (!adaptiveMediaOptional.isPresent() &&
+				_isGenerationPending(fileVersion, configurationEntry)) {
+
+				// The adaptive media image may have been evicted, so generate
+				// it again to have it available for the next request
+
+				_triggerProcess(fileVersion);
+			}
+
+			return adaptiveMediaOptional;
 		}
 		catch (AdaptiveMediaException | PortalException e) {
 			throw new AdaptiveMediaRuntimeException(e);
@@ -175,6 +210,47 @@ public class AdaptiveMediaImageRequestHandler
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if the configuration entry applies to the file
+	 * version and no generation of its adaptive media image was requested
+	 * recently. The width of the source image is not checked because that
+	 * would mean reading it, so images skipped for being too narrow are only
+	 * requested again once the previous request has expired.
+	 */
+	private boolean _isGenerationPending(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		if (!conditions.isSupported(
+				fileVersion.getMimeType(), fileVersion.getSize())) {
+
+			return false;
+		}
+
+		String key =
+			fileVersion.getFileVersionId() + StringPool.POUND +
+				configurationEntry.getUUID();
+
+		long now = System.currentTimeMillis();
+
+		synchronized (_generationRequestTimes) {
+			Long generationRequestTime = _generationRequestTimes.get(key);
+
+			if ((generationRequestTime != null) &&
+				((now - generationRequestTime) < _GENERATION_REQUEST_TTL)) {
+
+				return false;
+			}
+
+			_generationRequestTimes.put(key, now);
+		}
+
+		return true;
+	}
+
 	private void _processAdaptiveMediaImage(
 		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia,
 		FileVersion fileVersion,
@@ -194,6 +270,24 @@ public class AdaptiveMediaImageRequestHandler
 			return;
 		}
 
+		_triggerProcess(fileVersion);
+	}
+
+	private void _recordAccess(
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia,
+		FileVersion fileVersion) {
+
+		Optional<String> configurationUuidOptional =
+			adaptiveMedia.getAttributeValue(
+				AdaptiveMediaAttribute.configurationUuid());
+
+		configurationUuidOptional.ifPresent(
+			configurationUuid ->
+				_accessRecorder.recordAccess(
+					configurationUuid, fileVersion.getFileVersionId()));
+	}
+
+	private void _triggerProcess(FileVersion fileVersion) {
 		try {
 			AdaptiveMediaAsyncProcessor<FileVersion, ?> asyncProcessor =
 				_asyncProcessorLocator.locateForClass(FileVersion.class);
@@ -211,11 +305,29 @@ public class AdaptiveMediaImageRequestHandler
 	private static final Log _log = LogFactoryUtil.getLog(
 		AdaptiveMediaImageRequestHandler.class);
 
-	@Reference(unbind = "-")
-	private AdaptiveMediaAsyncProcessorLocator _asyncProcessorLocator;
+	private static final long _GENERATION_REQUEST_TTL = Time.MINUTE;
+
+	private static final int _MAX_GENERATION_REQUESTS = 1000;
 
+	private AdaptiveMediaImageAccessRecorder _accessRecorder;
+	private AdaptiveMediaAsyncProcessorLocator _asyncProcessorLocator;
 	private AdaptiveMediaImageConfigurationHelper _configurationHelper;
 	private AdaptiveMediaImageFinder _finder;
+	private final Map<String, Long> _generationRequestTimes =
+		new LinkedHashMap<String, Long>(16, 0.75F, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<String, Long> entry) {
+
+				if (size() > _MAX_GENERATION_REQUESTS) {
+					return true;
+				}
+
+				return false;
+			}
+
+		};
 	private PathInterpreter _pathInterpreter;
 
 }
\ No newline at end of file
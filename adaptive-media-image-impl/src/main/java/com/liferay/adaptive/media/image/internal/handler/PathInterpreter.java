@@ -67,7 +67,8 @@ public class PathInterpreter {
 				configurationEntryOptional =
 					_configurationHelper.
 						getAdaptiveMediaImageConfigurationEntry(
-							fileVersion.getCompanyId(), configurationEntryUUID);
+							fileVersion.getCompanyId(),
+							fileVersion.getGroupId(), configurationEntryUUID);
 
 			Map<String, String> properties = configurationEntryOptional.map(
 				configurationEntry -> {
@@ -16,24 +16,20 @@ package com.liferay.adaptive.media.image.internal.mediaquery;
 
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
-import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
-import com.liferay.adaptive.media.image.mediaquery.Condition;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshot;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshotCache;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageResponsiveLayout;
 import com.liferay.adaptive.media.image.mediaquery.MediaQuery;
 import com.liferay.adaptive.media.image.mediaquery.MediaQueryProvider;
 import com.liferay.adaptive.media.image.url.AdaptiveMediaImageURLFactory;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.repository.model.FileVersion;
 import com.liferay.portal.kernel.util.StringBundler;
 
-import java.net.URI;
-
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -48,38 +44,39 @@ public class MediaQueryProviderImpl implements MediaQueryProvider {
 	public List<MediaQuery> getMediaQueries(FileEntry fileEntry)
 		throws AdaptiveMediaException, PortalException {
 
-		Collection<AdaptiveMediaImageConfigurationEntry> adaptiveMedias =
-			_getAdaptiveMedias(fileEntry);
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			_configurationSnapshotCache.getSnapshot(
+				fileEntry.getCompanyId(), fileEntry.getGroupId());
+
+		AdaptiveMediaImageResponsiveLayout responsiveLayout =
+			snapshot.getResponsiveLayout();
 
-		List<MediaQuery> mediaQueries = new ArrayList<>();
+		List<AdaptiveMediaImageResponsiveLayout.Breakpoint> breakpoints =
+			responsiveLayout.getBreakpoints();
 
-		AdaptiveMediaImageConfigurationEntry previousAdaptiveMedia = null;
+		List<MediaQuery> mediaQueries = new ArrayList<>(breakpoints.size());
 
-		for (AdaptiveMediaImageConfigurationEntry adaptiveMedia :
-				adaptiveMedias) {
+		if (breakpoints.isEmpty()) {
+			return mediaQueries;
+		}
 
-			Optional<AdaptiveMediaImageConfigurationEntry>
-				hdAdaptiveMediaOptional = _getHDAdaptiveMedia(
-					adaptiveMedia, adaptiveMedias);
+		FileVersion fileVersion = fileEntry.getFileVersion();
 
-			mediaQueries.add(
-				_getMediaQuery(
-					fileEntry, adaptiveMedia, previousAdaptiveMedia,
-					hdAdaptiveMediaOptional));
+		for (AdaptiveMediaImageResponsiveLayout.Breakpoint breakpoint :
+				breakpoints) {
 
-			previousAdaptiveMedia = adaptiveMedia;
+			mediaQueries.add(_getMediaQuery(fileVersion, breakpoint));
 		}
 
 		return mediaQueries;
 	}
 
 	@Reference(unbind = "-")
-	protected void setAdaptiveMediaImageConfigurationHelper(
-		AdaptiveMediaImageConfigurationHelper
-			adaptiveMediaImageConfigurationHelper) {
+	protected void setAdaptiveMediaImageConfigurationSnapshotCache(
+		AdaptiveMediaImageConfigurationSnapshotCache
+			configurationSnapshotCache) {
 
-		_adaptiveMediaImageConfigurationHelper =
-			adaptiveMediaImageConfigurationHelper;
+		_configurationSnapshotCache = configurationSnapshotCache;
 	}
 
 	@Reference(unbind = "-")
@@ -89,171 +86,34 @@ public class MediaQueryProviderImpl implements MediaQueryProvider {
 		_adaptiveMediaImageURLFactory = adaptiveMediaImageURLFactory;
 	}
 
-	private int _compareEntries(
-		AdaptiveMediaImageConfigurationEntry entry1,
-		AdaptiveMediaImageConfigurationEntry entry2) {
-
-		Optional<Integer> widthOptional1 = _getWidth(entry1);
-		Optional<Integer> widthOptional2 = _getWidth(entry2);
-
-		return widthOptional1.map(
-			width1 -> widthOptional2.map(
-				width2 -> width1 - width2).orElse(1)).orElse(-1);
-	}
-
-	private Collection<AdaptiveMediaImageConfigurationEntry>
-			_getAdaptiveMedias(FileEntry fileEntry)
-		throws AdaptiveMediaException, PortalException {
-
-		Stream<AdaptiveMediaImageConfigurationEntry> entries =
-			_adaptiveMediaImageConfigurationHelper.
-				getAdaptiveMediaImageConfigurationEntries(
-					fileEntry.getCompanyId()).stream();
-
-		return entries.sorted(this::_compareEntries).collect(
-			Collectors.toList());
-	}
-
-	private Optional<Integer> _getAttribute(
-		AdaptiveMediaImageConfigurationEntry adaptiveMedia, String name) {
-
-		try {
-			Integer height = Integer.valueOf(
-				adaptiveMedia.getProperties().get(name));
-
-			return Optional.of(height);
-		}
-		catch (NumberFormatException nfe) {
-			return Optional.empty();
-		}
-	}
-
-	private List<Condition> _getConditions(
-		AdaptiveMediaImageConfigurationEntry adaptiveMedia,
-		AdaptiveMediaImageConfigurationEntry previousAdaptiveMedia) {
-
-		List<Condition> conditions = new ArrayList<>();
-
-		_getWidth(adaptiveMedia).map(width -> {
-			conditions.add(new Condition("max-width", width + "px"));
-
-			if (previousAdaptiveMedia != null) {
-				Optional<Integer> widthOptional = _getWidth(
-					previousAdaptiveMedia);
-
-				widthOptional.map(
-					previousWidth ->
-						conditions.add(
-							new Condition("min-width", previousWidth + "px")));
-			}
-
-			return conditions;
-		});
-
-		return conditions;
-	}
-
-	private URI _getFileEntryURL(
-		FileEntry fileEntry,
-		AdaptiveMediaImageConfigurationEntry adaptiveMedia) {
-
-		try {
-			return _adaptiveMediaImageURLFactory.createFileEntryURL(
-				fileEntry.getFileVersion(), adaptiveMedia);
-		}
-		catch (PortalException pe) {
-			throw new RuntimeException(pe);
-		}
-	}
-
-	private Optional<AdaptiveMediaImageConfigurationEntry> _getHDAdaptiveMedia(
-		AdaptiveMediaImageConfigurationEntry originalAdaptiveMedia,
-		Collection<AdaptiveMediaImageConfigurationEntry> adaptiveMedias) {
-
-		Optional<Integer> originalWidthOptional = _getWidth(
-			originalAdaptiveMedia);
-
-		Optional<Integer> originalHeightOptional = _getHeight(
-			originalAdaptiveMedia);
-
-		if (!originalWidthOptional.isPresent() ||
-			!originalHeightOptional.isPresent()) {
-
-			return Optional.empty();
-		}
-
-		for (AdaptiveMediaImageConfigurationEntry adaptiveMedia :
-				adaptiveMedias) {
-
-			Optional<Integer> widthOptional = _getWidth(adaptiveMedia);
-			Optional<Integer> heightOptional = _getHeight(adaptiveMedia);
-
-			if (!widthOptional.isPresent() || !heightOptional.isPresent()) {
-				continue;
-			}
-
-			int originalWidth = originalWidthOptional.get() * 2;
-			int originalHeight = originalHeightOptional.get() * 2;
-
-			IntStream widthIntStream = IntStream.range(
-				originalWidth - 1, originalWidth + 2);
-
-			boolean widthMatch = widthIntStream.anyMatch(
-				value -> value == widthOptional.get());
-
-			IntStream heightIntStream = IntStream.range(
-				originalHeight - 1, originalHeight + 2);
-
-			boolean heightMatch = heightIntStream.anyMatch(
-				value -> value == heightOptional.get());
-
-			if (widthMatch && heightMatch) {
-				return Optional.of(adaptiveMedia);
-			}
-		}
-
-		return Optional.empty();
-	}
-
-	private Optional<Integer> _getHeight(
-		AdaptiveMediaImageConfigurationEntry adaptiveMedia) {
-
-		return _getAttribute(adaptiveMedia, "max-height");
-	}
-
 	private MediaQuery _getMediaQuery(
-			FileEntry fileEntry,
-			AdaptiveMediaImageConfigurationEntry adaptiveMedia,
-			AdaptiveMediaImageConfigurationEntry previousAdaptiveMedia,
-			Optional<AdaptiveMediaImageConfigurationEntry>
-				hdAdaptiveMediaOptional)
+			FileVersion fileVersion,
+			AdaptiveMediaImageResponsiveLayout.Breakpoint breakpoint)
 		throws PortalException {
 
-		StringBundler src = new StringBundler(3);
-
-		List<Condition> conditions = _getConditions(
-			adaptiveMedia, previousAdaptiveMedia);
+		StringBundler src = new StringBundler(4);
 
-		src.append(_getFileEntryURL(fileEntry, adaptiveMedia));
+		src.append(
+			_adaptiveMediaImageURLFactory.createFileEntryURL(
+				fileVersion, breakpoint.getConfigurationEntry()));
 
-		hdAdaptiveMediaOptional.ifPresent(
-			hdAdaptiveMedia -> {
-				src.append(", ");
-				src.append(_getFileEntryURL(fileEntry, hdAdaptiveMedia));
-				src.append(" 2x");
-			});
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			hdConfigurationEntryOptional =
+				breakpoint.getHDConfigurationEntryOptional();
 
-		return new MediaQuery(conditions, src.toString());
-	}
-
-	private Optional<Integer> _getWidth(
-		AdaptiveMediaImageConfigurationEntry adaptiveMedia) {
+		if (hdConfigurationEntryOptional.isPresent()) {
+			src.append(", ");
+			src.append(
+				_adaptiveMediaImageURLFactory.createFileEntryURL(
+					fileVersion, hdConfigurationEntryOptional.get()));
+			src.append(" 2x");
+		}
 
-		return _getAttribute(adaptiveMedia, "max-width");
+		return new MediaQuery(breakpoint.getConditions(), src.toString());
 	}
 
-	private AdaptiveMediaImageConfigurationHelper
-		_adaptiveMediaImageConfigurationHelper;
 	private AdaptiveMediaImageURLFactory _adaptiveMediaImageURLFactory;
+	private AdaptiveMediaImageConfigurationSnapshotCache
+		_configurationSnapshotCache;
 
 }
\ No newline at end of file
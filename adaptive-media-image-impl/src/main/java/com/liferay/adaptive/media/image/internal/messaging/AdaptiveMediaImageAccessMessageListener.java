@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.messaging;
+
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageListener;
+
+import java.util.Date;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Stores the last access dates of the adaptive media images served by the
+ * image request handler.
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	immediate = true,
+	property = {
+		"destination.name=" + AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_ACCESS
+	},
+	service = MessageListener.class
+)
+public class AdaptiveMediaImageAccessMessageListener
+	extends BaseMessageListener {
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		String configurationUuid = message.getString("configurationUuid");
+		long[] fileVersionIds = (long[])message.get("fileVersionIds");
+		Date lastAccessDate = (Date)message.get("lastAccessDate");
+
+		_imageEntryLocalService.updateAdaptiveMediaImageEntriesLastAccessDate(
+			configurationUuid, fileVersionIds, lastAccessDate);
+	}
+
+	@Reference(unbind = "-")
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.messaging;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeListener;
+import com.liferay.adaptive.media.image.internal.configuration.LocalAdaptiveMediaImageConfigurationChangeBus;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+
+/**
+ * Delivers the configuration changes received by the current node, whichever
+ * node stored them, to the configuration change listeners registered in it.
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	immediate = true,
+	property = {
+		"destination.name=" + AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_CONFIGURATION_CHANGE
+	},
+	service = MessageListener.class
+)
+public class AdaptiveMediaImageConfigurationChangeMessageListener
+	extends BaseMessageListener {
+
+	@Reference(
+		cardinality = ReferenceCardinality.MULTIPLE,
+		policy = ReferencePolicy.DYNAMIC,
+		policyOption = ReferencePolicyOption.GREEDY,
+		unbind = "removeConfigurationChangeListener"
+	)
+	public void addConfigurationChangeListener(
+		AdaptiveMediaImageConfigurationChangeListener
+			configurationChangeListener) {
+
+		_localConfigurationChangeBus.addConfigurationChangeListener(
+			configurationChangeListener);
+	}
+
+	public void removeConfigurationChangeListener(
+		AdaptiveMediaImageConfigurationChangeListener
+			configurationChangeListener) {
+
+		_localConfigurationChangeBus.removeConfigurationChangeListener(
+			configurationChangeListener);
+	}
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		_localConfigurationChangeBus.publish(
+			(AdaptiveMediaImageConfigurationChangeEvent)message.getPayload());
+	}
+
+	private final LocalAdaptiveMediaImageConfigurationChangeBus
+		_localConfigurationChangeBus =
+			new LocalAdaptiveMediaImageConfigurationChangeBus();
+
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.messaging;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageDestinationNames {
+
+	public static final String ADAPTIVE_MEDIA_IMAGE_ACCESS =
+		"liferay/adaptive_media_image_access";
+
+	public static final String ADAPTIVE_MEDIA_IMAGE_CONFIGURATION_CHANGE =
+		"liferay/adaptive_media_image_configuration_change";
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.messaging;
+
+import com.liferay.portal.kernel.messaging.Destination;
+import com.liferay.portal.kernel.messaging.DestinationConfiguration;
+import com.liferay.portal.kernel.messaging.DestinationFactory;
+import com.liferay.portal.kernel.util.HashMapDictionary;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.List;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Adolfo Pérez
+ */
+@Component(immediate = true)
+public class AdaptiveMediaImageMessagingConfigurator {
+
+	@Activate
+	public void activate(BundleContext bundleContext) {
+		_registerDestination(
+			bundleContext,
+			AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_ACCESS);
+		_registerDestination(
+			bundleContext,
+			AdaptiveMediaImageDestinationNames.
+				ADAPTIVE_MEDIA_IMAGE_CONFIGURATION_CHANGE);
+	}
+
+	@Deactivate
+	public void deactivate() {
+		for (ServiceRegistration<Destination> serviceRegistration :
+				_serviceRegistrations) {
+
+			serviceRegistration.unregister();
+		}
+
+		_serviceRegistrations.clear();
+	}
+
+	@Reference(unbind = "-")
+	public void setDestinationFactory(DestinationFactory destinationFactory) {
+		_destinationFactory = destinationFactory;
+	}
+
+	private void _registerDestination(
+		BundleContext bundleContext, String destinationName) {
+
+		DestinationConfiguration destinationConfiguration =
+			new DestinationConfiguration(
+				DestinationConfiguration.DESTINATION_TYPE_SERIAL,
+				destinationName);
+
+		Destination destination = _destinationFactory.createDestination(
+			destinationConfiguration);
+
+		Dictionary<String, Object> dictionary = new HashMapDictionary<>();
+
+		dictionary.put("destination.name", destination.getName());
+
+		_serviceRegistrations.add(
+			bundleContext.registerService(
+				Destination.class, destination, dictionary));
+	}
+
+	private DestinationFactory _destinationFactory;
+	private final List<ServiceRegistration<Destination>>
+		_serviceRegistrations = new ArrayList<>();
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.messaging;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationChangeBus;
+import com.liferay.portal.kernel.cluster.ClusterLink;
+import com.liferay.portal.kernel.cluster.ClusterLinkUtil;
+import com.liferay.portal.kernel.cluster.Priority;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBus;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Publishes the configuration changes on the message bus of the current node
+ * and, when cluster link is enabled, multicasts them so that every other node
+ * delivers them on its own message bus.
+ *
+ * @author Adolfo Pérez
+ */
+@Component(
+	immediate = true, service = AdaptiveMediaImageConfigurationChangeBus.class
+)
+public class ClusterAdaptiveMediaImageConfigurationChangeBus
+	implements AdaptiveMediaImageConfigurationChangeBus {
+
+	@Override
+	public void publish(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent) {
+
+		ClusterLink clusterLink = ClusterLinkUtil.getClusterLink();
+
+		if ((clusterLink != null) && clusterLink.isEnabled()) {
+			clusterLink.sendMulticastMessage(
+				_createMessage(configurationChangeEvent), Priority.LEVEL5);
+		}
+
+		_messageBus.sendMessage(
+			AdaptiveMediaImageDestinationNames.
+				ADAPTIVE_MEDIA_IMAGE_CONFIGURATION_CHANGE,
+			_createMessage(configurationChangeEvent));
+	}
+
+	@Reference(unbind = "-")
+	public void setMessageBus(MessageBus messageBus) {
+		_messageBus = messageBus;
+	}
+
+	private Message _createMessage(
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent) {
+
+		Message message = new Message();
+
+		message.setDestinationName(
+			AdaptiveMediaImageDestinationNames.
+				ADAPTIVE_MEDIA_IMAGE_CONFIGURATION_CHANGE);
+		message.setPayload(configurationChangeEvent);
+
+		return message;
+	}
+
+	private MessageBus _messageBus;
+
+}
\ No newline at end of file
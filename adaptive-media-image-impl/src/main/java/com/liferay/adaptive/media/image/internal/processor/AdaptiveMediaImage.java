@@ -27,6 +27,11 @@ import java.util.Optional;
 import java.util.function.Supplier;
 
 /**
+ * An adaptive media image whose URI and attributes can be computed on first
+ * access. Finder results are often discarded after looking at the first one
+ * or at a single attribute, so building the URI and the attribute mapping of
+ * every candidate up front is wasted work.
+ *
  * @author Adolfo Pérez
  */
 public final class AdaptiveMediaImage
@@ -39,13 +44,40 @@ public final class AdaptiveMediaImage
 		_supplier = supplier;
 		_attributeMapping = attributeMapping;
 		_uri = uri;
+
+		_attributeMappingSupplier = null;
+		_uriSupplier = null;
+	}
+
+	/**
+	 * Creates an adaptive media image that computes its attribute mapping and
+	 * URI the first time they are needed. Each supplier is called at most once
+	 * unless several threads access the image concurrently, in which case
+	 * they may both compute the same value.
+	 */
+	public AdaptiveMediaImage(
+		Supplier<InputStream> supplier,
+		Supplier<AdaptiveMediaImageAttributeMapping> attributeMappingSupplier,
+		Supplier<URI> uriSupplier) {
+
+		_supplier = supplier;
+		_attributeMappingSupplier = attributeMappingSupplier;
+		_uriSupplier = uriSupplier;
 	}
 
 	@Override
 	public <V> Optional<V> getAttributeValue(
 		AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, V> attribute) {
 
-		return _attributeMapping.getAttributeValue(attribute);
+		AdaptiveMediaImageAttributeMapping attributeMapping = _attributeMapping;
+
+		if (attributeMapping == null) {
+			attributeMapping = _attributeMappingSupplier.get();
+
+			_attributeMapping = attributeMapping;
+		}
+
+		return attributeMapping.getAttributeValue(attribute);
 	}
 
 	@Override
@@ -55,11 +87,22 @@ public final class AdaptiveMediaImage
 
 	@Override
 	public URI getURI() {
-		return _uri;
+		URI uri = _uri;
+
+		if ((uri == null) && (_uriSupplier != null)) {
+			uri = _uriSupplier.get();
+
+			_uri = uri;
+		}
+
+		return uri;
 	}
 
-	private final AdaptiveMediaImageAttributeMapping _attributeMapping;
+	private volatile AdaptiveMediaImageAttributeMapping _attributeMapping;
+	private final Supplier<AdaptiveMediaImageAttributeMapping>
+		_attributeMappingSupplier;
 	private final Supplier<InputStream> _supplier;
-	private final URI _uri;
+	private volatile URI _uri;
+	private final Supplier<URI> _uriSupplier;
 
 }
\ No newline at end of file
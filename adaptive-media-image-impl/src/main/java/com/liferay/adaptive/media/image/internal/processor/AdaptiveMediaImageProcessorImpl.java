@@ -16,6 +16,7 @@ package com.liferay.adaptive.media.image.internal.processor;
 
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.internal.util.ImageProcessor;
 import com.liferay.adaptive.media.image.internal.util.RenderedImageUtil;
@@ -72,7 +73,7 @@ public final class AdaptiveMediaImageProcessorImpl
 
 		Iterable<AdaptiveMediaImageConfigurationEntry> configurationEntries =
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				fileVersion.getCompanyId());
+				fileVersion.getCompanyId(), fileVersion.getGroupId());
 
 		configurationEntries.forEach(configurationEntry ->
 			process(fileVersion, configurationEntry.getUUID()));
@@ -89,7 +90,8 @@ public final class AdaptiveMediaImageProcessorImpl
 		Optional<AdaptiveMediaImageConfigurationEntry>
 			configurationEntryOptional =
 				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-					fileVersion.getCompanyId(), configurationEntryUuid);
+					fileVersion.getCompanyId(), fileVersion.getGroupId(),
+					configurationEntryUuid);
 
 		if (!configurationEntryOptional.isPresent()) {
 			return;
@@ -98,11 +100,31 @@ public final class AdaptiveMediaImageProcessorImpl
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
 			configurationEntryOptional.get();
 
+		AdaptiveMediaImageConfigurationEntryConditions conditions =
+			configurationEntry.getConditions();
+
+		if (!conditions.isSupported(
+				fileVersion.getMimeType(), fileVersion.getSize())) {
+
+			return;
+		}
+
 		AdaptiveMediaImageEntry imageEntry =
 			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
 				configurationEntry.getUUID(), fileVersion.getFileVersionId());
 
-		if (imageEntry != null) {
+		String contentVersion = configurationEntry.getContentVersion();
+
+		if ((imageEntry != null) &&
+			contentVersion.equals(imageEntry.getConfigurationVersion())) {
+
+			return;
+		}
+
+		if ((conditions.getMinSourceWidth() > 0) &&
+			!conditions.isSupportedWidth(
+				_imageProcessor.getWidth(fileVersion))) {
+
 			return;
 		}
 
@@ -113,10 +135,22 @@ public final class AdaptiveMediaImageProcessorImpl
 			byte[] bytes = RenderedImageUtil.getRenderedImageContentStream(
 				renderedImage, fileVersion.getMimeType());
 
-			_imageEntryLocalService.addAdaptiveMediaImageEntry(
-				configurationEntry, fileVersion, renderedImage.getWidth(),
-				renderedImage.getHeight(),
-				new UnsyncByteArrayInputStream(bytes), bytes.length);
+			if (imageEntry == null) {
+				_imageEntryLocalService.addAdaptiveMediaImageEntry(
+					configurationEntry, fileVersion, renderedImage.getWidth(),
+					renderedImage.getHeight(),
+					new UnsyncByteArrayInputStream(bytes), bytes.length);
+			}
+			else {
+
+				// The image was generated with a previous version of the
+				// configuration, replace it now that the new one is ready
+
+				_imageEntryLocalService.updateAdaptiveMediaImageEntry(
+					configurationEntry, fileVersion, renderedImage.getWidth(),
+					renderedImage.getHeight(),
+					new UnsyncByteArrayInputStream(bytes), bytes.length);
+			}
 		}
 		catch (IOException | PortalException e) {
 			throw new AdaptiveMediaRuntimeException.IOException(e);
@@ -17,8 +17,11 @@ package com.liferay.adaptive.media.image.internal.url;
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.AdaptiveMediaURIResolver;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
 import com.liferay.adaptive.media.image.url.AdaptiveMediaImageURLFactory;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.Validator;
 
 import java.io.UnsupportedEncodingException;
 
@@ -42,11 +45,22 @@ public class AdaptiveMediaImageURLFactoryImpl
 		FileVersion fileVersion,
 		AdaptiveMediaImageConfigurationEntry configurationEntry) {
 
+		return createFileEntryURL(
+			fileVersion, configurationEntry,
+			_fetchImageEntry(fileVersion, configurationEntry));
+	}
+
+	@Override
+	public URI createFileEntryURL(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry,
+		AdaptiveMediaImageEntry imageEntry) {
+
 		String relativeURI = String.format(
 			"image/%d/%s/%s", fileVersion.getFileEntryId(),
 			configurationEntry.getUUID(), _encode(fileVersion.getFileName()));
 
-		return _uriResolver.resolveURI(URI.create(relativeURI));
+		return _createURL(relativeURI, imageEntry);
 	}
 
 	@Override
@@ -54,12 +68,30 @@ public class AdaptiveMediaImageURLFactoryImpl
 		FileVersion fileVersion,
 		AdaptiveMediaImageConfigurationEntry configurationEntry) {
 
+		return createFileVersionURL(
+			fileVersion, configurationEntry,
+			_fetchImageEntry(fileVersion, configurationEntry));
+	}
+
+	@Override
+	public URI createFileVersionURL(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry,
+		AdaptiveMediaImageEntry imageEntry) {
+
 		String relativeURI = String.format(
 			"image/%d/%d/%s/%s", fileVersion.getFileEntryId(),
 			fileVersion.getFileVersionId(), configurationEntry.getUUID(),
 			_encode(fileVersion.getFileName()));
 
-		return _uriResolver.resolveURI(URI.create(relativeURI));
+		return _createURL(relativeURI, imageEntry);
+	}
+
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageEntryLocalService(
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService) {
+
+		_imageEntryLocalService = imageEntryLocalService;
 	}
 
 	@Reference(unbind = "-")
@@ -69,6 +101,24 @@ public class AdaptiveMediaImageURLFactoryImpl
 		_uriResolver = adaptiveMediaURIResolver;
 	}
 
+	/**
+	 * Versions the URL with the configuration version the stored image was
+	 * generated with, not with the current content version of the
+	 * configuration. While an image is waiting to be regenerated, its URL
+	 * does not change, so the old bytes are never cached under a new URL.
+	 */
+	private URI _createURL(
+		String relativeURI, AdaptiveMediaImageEntry imageEntry) {
+
+		if ((imageEntry != null) &&
+			Validator.isNotNull(imageEntry.getConfigurationVersion())) {
+
+			relativeURI += "?t=" + imageEntry.getConfigurationVersion();
+		}
+
+		return _uriResolver.resolveURI(URI.create(relativeURI));
+	}
+
 	private String _encode(String s) {
 		try {
 			return URLEncoder.encode(s, StandardCharsets.UTF_8.name());
@@ -79,6 +129,15 @@ public class AdaptiveMediaImageURLFactoryImpl
 		}
 	}
 
+	private AdaptiveMediaImageEntry _fetchImageEntry(
+		FileVersion fileVersion,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		return _imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+			configurationEntry.getUUID(), fileVersion.getFileVersionId());
+	}
+
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
 	private AdaptiveMediaURIResolver _uriResolver;
 
 }
\ No newline at end of file
@@ -16,20 +16,29 @@ package com.liferay.adaptive.media.image.internal.util;
 
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryScaling;
 import com.liferay.adaptive.media.image.constants.AdaptiveMediaImageConstants;
 import com.liferay.adaptive.media.image.internal.processor.util.TiffOrientationTransformer;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.image.ImageToolUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 import com.liferay.portal.kernel.util.GetterUtil;
 
 import java.awt.image.RenderedImage;
 
+import java.io.IOException;
 import java.io.InputStream;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -39,6 +48,49 @@ import org.osgi.service.component.annotations.Reference;
 @Component(immediate = true, service = ImageProcessor.class)
 public class ImageProcessor {
 
+	/**
+	 * Returns the width of the file version's image, reading only the image
+	 * header, or <code>0</code> if it cannot be determined.
+	 */
+	public int getWidth(FileVersion fileVersion) {
+		try (InputStream inputStream = fileVersion.getContentStream(false);
+			ImageInputStream imageInputStream =
+				ImageIO.createImageInputStream(inputStream)) {
+
+			if (imageInputStream == null) {
+				return 0;
+			}
+
+			Iterator<ImageReader> iterator = ImageIO.getImageReaders(
+				imageInputStream);
+
+			if (!iterator.hasNext()) {
+				return 0;
+			}
+
+			ImageReader imageReader = iterator.next();
+
+			try {
+				imageReader.setInput(imageInputStream, true, true);
+
+				return imageReader.getWidth(0);
+			}
+			finally {
+				imageReader.dispose();
+			}
+		}
+		catch (IOException | PortalException e) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(
+					"Unable to read the width of file version " +
+						fileVersion.getFileVersionId(),
+					e);
+			}
+
+			return 0;
+		}
+	}
+
 	public boolean isMimeTypeSupported(String mimeType) {
 		Set<String> supportedMimeTypes =
 			AdaptiveMediaImageConstants.getSupportedMimeTypes();
@@ -59,6 +111,14 @@ public class ImageProcessor {
 			int maxHeight = GetterUtil.getInteger(properties.get("max-height"));
 			int maxWidth = GetterUtil.getInteger(properties.get("max-width"));
 
+			AdaptiveMediaImageConfigurationEntryScaling scaling =
+				configurationEntry.getScaling();
+
+			if (scaling.isFill() && (maxHeight > 0) && (maxWidth > 0)) {
+				renderedImage = _crop(
+					renderedImage, maxHeight, maxWidth, scaling);
+			}
+
 			return ImageToolUtil.scale(renderedImage, maxHeight, maxWidth);
 		}
 		catch (PortalException pe) {
@@ -66,6 +126,48 @@ public class ImageProcessor {
 		}
 	}
 
+	/**
+	 * Crops the image to the aspect ratio of the dimensions, keeping as much
+	 * of the image as possible and centering the crop on the focal point
+	 * unless that would leave the image. Cropping before scaling keeps the
+	 * scaling from processing pixels that are thrown away.
+	 */
+	private RenderedImage _crop(
+		RenderedImage renderedImage, int height, int width,
+		AdaptiveMediaImageConfigurationEntryScaling scaling) {
+
+		int imageHeight = renderedImage.getHeight();
+		int imageWidth = renderedImage.getWidth();
+
+		int cropHeight = imageHeight;
+		int cropWidth = imageWidth;
+
+		if (((long)imageWidth * height) > ((long)imageHeight * width)) {
+			cropWidth = Math.max(
+				(int)Math.round((double)imageHeight * width / height), 1);
+		}
+		else {
+			cropHeight = Math.max(
+				(int)Math.round((double)imageWidth * height / width), 1);
+		}
+
+		if ((cropHeight == imageHeight) && (cropWidth == imageWidth)) {
+			return renderedImage;
+		}
+
+		int x = _getCropOffset(imageWidth, cropWidth, scaling.getFocalPointX());
+		int y = _getCropOffset(
+			imageHeight, cropHeight, scaling.getFocalPointY());
+
+		return ImageToolUtil.crop(renderedImage, cropHeight, cropWidth, x, y);
+	}
+
+	private int _getCropOffset(int size, int cropSize, double focalPoint) {
+		int offset = (int)Math.round((size * focalPoint) - (cropSize / 2.0));
+
+		return Math.min(Math.max(offset, 0), size - cropSize);
+	}
+
 	private InputStream _getInputStream(FileVersion fileVersion) {
 		try {
 			return fileVersion.getContentStream(false);
@@ -75,6 +177,9 @@ public class ImageProcessor {
 		}
 	}
 
+	private static final Log _log = LogFactoryUtil.getLog(
+		ImageProcessor.class);
+
 	@Reference
 	private TiffOrientationTransformer _tiffOrientationTransformer;
 
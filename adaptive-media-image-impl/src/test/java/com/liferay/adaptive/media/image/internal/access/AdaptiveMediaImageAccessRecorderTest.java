@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.access;
+
+import com.liferay.adaptive.media.image.internal.messaging.AdaptiveMediaImageDestinationNames;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBus;
+import com.liferay.portal.kernel.util.Time;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageAccessRecorderTest {
+
+	@Before
+	public void setUp() {
+		_accessRecorder.setMessageBus(_messageBus);
+
+		_accessRecorder.activate();
+	}
+
+	@Test
+	public void testDeactivateFlushesPendingAccesses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_accessRecorder.deactivate();
+
+		Message message = _getSentMessage();
+
+		Assert.assertEquals("uuid", message.getString("configurationUuid"));
+		Assert.assertArrayEquals(
+			new long[] {1}, (long[])message.get("fileVersionIds"));
+		Assert.assertEquals(
+			new Date(_currentTime), message.get("lastAccessDate"));
+	}
+
+	@Test
+	public void testDoesNotFlushBeforeFlushIntervalElapses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_currentTime += Time.MINUTE - 1;
+
+		_accessRecorder.recordAccess("uuid", 2);
+
+		Mockito.verifyZeroInteractions(_messageBus);
+	}
+
+	@Test
+	public void testFlushesAfterFlushIntervalElapses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_currentTime += Time.MINUTE;
+
+		_accessRecorder.recordAccess("uuid", 2);
+
+		Message message = _getSentMessage();
+
+		long[] fileVersionIds = (long[])message.get("fileVersionIds");
+
+		Assert.assertEquals(2, fileVersionIds.length);
+	}
+
+	@Test
+	public void testFlushesOneMessagePerConfiguration() {
+		_accessRecorder.recordAccess("uuid1", 1);
+		_accessRecorder.recordAccess("uuid2", 1);
+
+		_accessRecorder.deactivate();
+
+		ArgumentCaptor<Message> argumentCaptor = ArgumentCaptor.forClass(
+			Message.class);
+
+		Mockito.verify(
+			_messageBus, Mockito.times(2)
+		).sendMessage(
+			Mockito.eq(
+				AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_ACCESS),
+			argumentCaptor.capture()
+		);
+
+		List<Message> messages = argumentCaptor.getAllValues();
+
+		Assert.assertEquals(2, messages.size());
+	}
+
+	@Test
+	public void testFlushesWhenFlushSizeIsReached() {
+		for (int i = 0; i < 100; i++) {
+			_accessRecorder.recordAccess("uuid", i);
+		}
+
+		Message message = _getSentMessage();
+
+		long[] fileVersionIds = (long[])message.get("fileVersionIds");
+
+		Assert.assertEquals(100, fileVersionIds.length);
+	}
+
+	@Test
+	public void testPeriodicFlushSendsPendingAccesses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_currentTime += Time.SECOND;
+
+		_accessRecorder.flush();
+
+		Message message = _getSentMessage();
+
+		Assert.assertArrayEquals(
+			new long[] {1}, (long[])message.get("fileVersionIds"));
+		Assert.assertEquals(
+			new Date(_currentTime), message.get("lastAccessDate"));
+	}
+
+	@Test
+	public void testPeriodicFlushWithoutPendingAccessesSendsNothing() {
+		_accessRecorder.flush();
+
+		Mockito.verifyZeroInteractions(_messageBus);
+	}
+
+	@Test
+	public void testRecordsAccessAgainAfterSamplingIntervalElapses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_accessRecorder.deactivate();
+
+		Mockito.reset(_messageBus);
+
+		_currentTime += Time.HOUR;
+
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_getSentMessage();
+	}
+
+	@Test
+	public void testSamplesRepeatedAccesses() {
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_accessRecorder.deactivate();
+
+		Mockito.reset(_messageBus);
+
+		_currentTime += Time.HOUR - 1;
+
+		_accessRecorder.recordAccess("uuid", 1);
+
+		_accessRecorder.deactivate();
+
+		Mockito.verifyZeroInteractions(_messageBus);
+	}
+
+	private Message _getSentMessage() {
+		ArgumentCaptor<Message> argumentCaptor = ArgumentCaptor.forClass(
+			Message.class);
+
+		Mockito.verify(
+			_messageBus
+		).sendMessage(
+			Mockito.eq(
+				AdaptiveMediaImageDestinationNames.ADAPTIVE_MEDIA_IMAGE_ACCESS),
+			argumentCaptor.capture()
+		);
+
+		return argumentCaptor.getValue();
+	}
+
+	private final AdaptiveMediaImageAccessRecorder _accessRecorder =
+		new AdaptiveMediaImageAccessRecorder() {
+
+			@Override
+			protected long getCurrentTime() {
+				return _currentTime;
+			}
+
+		};
+
+	private long _currentTime = Time.DAY;
+	private final MessageBus _messageBus = Mockito.mock(MessageBus.class);
+
+}
@@ -14,7 +14,10 @@
 
 package com.liferay.adaptive.media.image.internal.configuration;
 
+import com.liferay.adaptive.media.AdaptiveMediaAttribute;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.portal.kernel.util.MapUtil;
 import com.liferay.portal.kernel.util.StringUtil;
 
@@ -24,6 +27,8 @@ import java.util.Optional;
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.mockito.Mockito;
+
 /**
  * @author Adolfo Pérez
  */
@@ -46,6 +51,65 @@ public class AdaptiveMediaImageAttributeMappingTest {
 		Assert.assertFalse(widthOptional.isPresent());
 	}
 
+	@Test
+	public void testCreateFromImageEntry() {
+		AdaptiveMediaImageEntry imageEntry = Mockito.mock(
+			AdaptiveMediaImageEntry.class);
+
+		Mockito.when(
+			imageEntry.getHeight()
+		).thenReturn(
+			100
+		);
+
+		Mockito.when(
+			imageEntry.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		Mockito.when(
+			imageEntry.getSize()
+		).thenReturn(
+			1000L
+		);
+
+		Mockito.when(
+			imageEntry.getWidth()
+		).thenReturn(
+			200
+		);
+
+		AdaptiveMediaImageAttributeMapping attributeMapping =
+			AdaptiveMediaImageAttributeMapping.fromImageEntry(
+				imageEntry, "small", "image.jpg");
+
+		Assert.assertEquals(
+			Optional.of("small"),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaAttribute.configurationUuid()));
+		Assert.assertEquals(
+			Optional.of(1000),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaAttribute.contentLength()));
+		Assert.assertEquals(
+			Optional.of("image/jpeg"),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaAttribute.contentType()));
+		Assert.assertEquals(
+			Optional.of("image.jpg"),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaAttribute.fileName()));
+		Assert.assertEquals(
+			Optional.of(100),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaImageAttribute.IMAGE_HEIGHT));
+		Assert.assertEquals(
+			Optional.of(200),
+			attributeMapping.getAttributeValue(
+				AdaptiveMediaImageAttribute.IMAGE_WIDTH));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testFailWhenCreatingFromNullMap() {
 		AdaptiveMediaImageAttributeMapping.fromProperties(null);
@@ -62,6 +126,25 @@ public class AdaptiveMediaImageAttributeMappingTest {
 		attributeMapping.getAttributeValue(null);
 	}
 
+	@Test
+	public void testIgnoreUnregisteredAttributeWithKnownName() {
+		AdaptiveMediaImageAttributeMapping attributeMapping =
+			AdaptiveMediaImageAttributeMapping.fromProperties(
+				MapUtil.fromArray(
+					AdaptiveMediaImageAttribute.IMAGE_HEIGHT.getName(),
+					"100"));
+
+		AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, Integer>
+			attribute = new AdaptiveMediaAttribute<>(
+				AdaptiveMediaImageAttribute.IMAGE_HEIGHT.getName(),
+				Integer::valueOf, Integer::compare);
+
+		Optional<Integer> valueOptional = attributeMapping.getAttributeValue(
+			attribute);
+
+		Assert.assertFalse(valueOptional.isPresent());
+	}
+
 	@Test
 	public void testIgnoreUnknownAttributes() {
 		AdaptiveMediaImageAttributeMapping attributeMapping =
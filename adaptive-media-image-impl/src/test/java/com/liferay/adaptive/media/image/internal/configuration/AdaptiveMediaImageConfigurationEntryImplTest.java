@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.portal.kernel.util.MapUtil;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageConfigurationEntryImplTest {
+
+	@Test
+	public void testContentVersionChangesWithDimensions() {
+		Assert.assertNotEquals(
+			_getContentVersion("max-width", "100", "max-height", "200"),
+			_getContentVersion("max-width", "100", "max-height", "300"));
+		Assert.assertNotEquals(
+			_getContentVersion("max-width", "100", "max-height", "200"),
+			_getContentVersion("max-width", "200", "max-height", "100"));
+	}
+
+	@Test
+	public void testContentVersionChangesWithFillFocalPoint() {
+		Assert.assertNotEquals(
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "scaling-mode",
+				"fill", "focal-point-x", "20"),
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "scaling-mode",
+				"fill", "focal-point-x", "80"));
+	}
+
+	@Test
+	public void testContentVersionChangesWithScalingMode() {
+		Assert.assertNotEquals(
+			_getContentVersion("max-width", "100", "max-height", "200"),
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "scaling-mode",
+				"fill"));
+	}
+
+	@Test
+	public void testContentVersionIgnoresConditions() {
+		Assert.assertEquals(
+			_getContentVersion("max-width", "100", "max-height", "200"),
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "max-source-size",
+				"1048576", "mime-types", "image/png", "min-source-width",
+				"400"));
+	}
+
+	@Test
+	public void testContentVersionIgnoresFitFocalPoint() {
+		Assert.assertEquals(
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "scaling-mode",
+				"fit"),
+			_getContentVersion(
+				"max-width", "100", "max-height", "200", "focal-point-x",
+				"20", "focal-point-y", "80"));
+	}
+
+	private String _getContentVersion(String... keyValues) {
+		Map<String, String> properties = MapUtil.fromArray(keyValues);
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"test", "12345", properties);
+
+		return configurationEntry.getContentVersion();
+	}
+
+}
\ No newline at end of file
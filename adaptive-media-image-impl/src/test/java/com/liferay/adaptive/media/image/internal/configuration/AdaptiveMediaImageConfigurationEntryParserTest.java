@@ -16,8 +16,10 @@ package com.liferay.adaptive.media.image.internal.configuration;
 
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -28,6 +30,56 @@ import org.junit.Test;
  */
 public class AdaptiveMediaImageConfigurationEntryParserTest {
 
+	@Test
+	public void testCompactConfigurationString() {
+		Map<String, String> properties1 = new HashMap<>();
+
+		properties1.put("max-height", "100");
+		properties1.put("max-width", "200");
+		properties1.put("mime-types", "image/jpeg,image/png");
+
+		Map<String, String> properties2 = new HashMap<>();
+
+		properties2.put("custom", "value");
+		properties2.put("max-source-size", "1048576");
+		properties2.put("min-source-width", "0400");
+
+		String compactConfigurationString =
+			_configurationEntryParser.getCompactConfigurationString(
+				Arrays.asList(
+					new AdaptiveMediaImageConfigurationEntryImpl(
+						"test", "12345", properties1),
+					new AdaptiveMediaImageConfigurationEntryImpl(
+						"t\u00e9st", "67890", properties2, false)));
+
+		Assert.assertTrue(
+			_configurationEntryParser.isCompactConfigurationString(
+				compactConfigurationString));
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			_configurationEntryParser.parseCompactConfigurationString(
+				compactConfigurationString);
+
+		Assert.assertEquals(
+			configurationEntries.toString(), 2, configurationEntries.size());
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			configurationEntries.get(0);
+
+		Assert.assertEquals("test", configurationEntry1.getName());
+		Assert.assertEquals("12345", configurationEntry1.getUUID());
+		Assert.assertEquals(properties1, configurationEntry1.getProperties());
+		Assert.assertTrue(configurationEntry1.isEnabled());
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			configurationEntries.get(1);
+
+		Assert.assertEquals("t\u00e9st", configurationEntry2.getName());
+		Assert.assertEquals("67890", configurationEntry2.getUUID());
+		Assert.assertEquals(properties2, configurationEntry2.getProperties());
+		Assert.assertFalse(configurationEntry2.isEnabled());
+	}
+
 	@Test
 	public void testDisabledValidString() {
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
@@ -65,6 +117,36 @@ public class AdaptiveMediaImageConfigurationEntryParserTest {
 		_configurationEntryParser.parse("test::max-height=100;max-width=200");
 	}
 
+	@Test
+	public void testGetConfigurationStringWithConditions() {
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-source-size", "1048576");
+		properties.put("max-width", "200");
+		properties.put("mime-types", "image/jpeg,image/png");
+		properties.put("min-source-width", "400");
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"test", "12345", properties);
+
+		String configurationString =
+			_configurationEntryParser.getConfigurationString(
+				configurationEntry);
+
+		Assert.assertEquals(
+			"test:12345:max-width=200;min-source-width=400;" +
+				"max-source-size=1048576;mime-types=image/jpeg,image/png:" +
+					"enabled=true",
+			configurationString);
+
+		AdaptiveMediaImageConfigurationEntry parsedConfigurationEntry =
+			_configurationEntryParser.parse(configurationString);
+
+		Assert.assertEquals(
+			properties, parsedConfigurationEntry.getProperties());
+	}
+
 	@Test
 	public void testGetConfigurationStringWithMaxHeight() {
 		Map<String, String> properties = new HashMap<>();
@@ -134,6 +216,36 @@ public class AdaptiveMediaImageConfigurationEntryParserTest {
 		Assert.assertEquals("test:12345::enabled=true", configurationString);
 	}
 
+	@Test
+	public void testGetConfigurationStringWithScaling() {
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("focal-point-x", "30");
+		properties.put("focal-point-y", "60");
+		properties.put("max-height", "300");
+		properties.put("max-width", "400");
+		properties.put("scaling-mode", "fill");
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"test", "12345", properties);
+
+		String configurationString =
+			_configurationEntryParser.getConfigurationString(
+				configurationEntry);
+
+		Assert.assertEquals(
+			"test:12345:max-height=300;max-width=400;scaling-mode=fill;" +
+				"focal-point-x=30;focal-point-y=60:enabled=true",
+			configurationString);
+
+		AdaptiveMediaImageConfigurationEntry parsedConfigurationEntry =
+			_configurationEntryParser.parse(configurationString);
+
+		Assert.assertEquals(
+			properties, parsedConfigurationEntry.getProperties());
+	}
+
 	@Test
 	public void testGetDisabledConfigurationStringWithMaxHeight() {
 		Map<String, String> properties = new HashMap<>();
@@ -196,6 +308,18 @@ public class AdaptiveMediaImageConfigurationEntryParserTest {
 			"test:12345:max-height=100;max-width=200:disabled=true");
 	}
 
+	@Test
+	public void testIsCompactConfigurationString() {
+		Assert.assertFalse(
+			_configurationEntryParser.isCompactConfigurationString(
+				"am.test:12345:max-height=100"));
+		Assert.assertFalse(
+			_configurationEntryParser.isCompactConfigurationString(null));
+		Assert.assertFalse(
+			_configurationEntryParser.isCompactConfigurationString(
+				"test:12345:max-height=100"));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testMissingAttributesField() {
 		_configurationEntryParser.parse("test:12345");
@@ -233,6 +357,23 @@ public class AdaptiveMediaImageConfigurationEntryParserTest {
 		_configurationEntryParser.parse(null);
 	}
 
+	@Test
+	public void testParseConfigurationStringWithNoProperties() {
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_configurationEntryParser.parse("test:12345::enabled=false");
+
+		Assert.assertEquals("test", configurationEntry.getName());
+		Assert.assertEquals("12345", configurationEntry.getUUID());
+		Assert.assertEquals(
+			Collections.emptyMap(), configurationEntry.getProperties());
+		Assert.assertFalse(configurationEntry.isEnabled());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalidCompactConfigurationString() {
+		_configurationEntryParser.parseCompactConfigurationString("am.AQ==");
+	}
+
 	@Test
 	public void testValidString() {
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
@@ -250,6 +391,24 @@ public class AdaptiveMediaImageConfigurationEntryParserTest {
 		Assert.assertEquals(properties.toString(), 2, properties.size());
 	}
 
+	@Test
+	public void testWhitespaceAroundSeparators() {
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_configurationEntryParser.parse(
+				"test : 12345 : max-height = 100 ; max-width=200 ; : " +
+					"enabled=false");
+
+		Assert.assertEquals("test", configurationEntry.getName());
+		Assert.assertEquals("12345", configurationEntry.getUUID());
+		Assert.assertFalse(configurationEntry.isEnabled());
+
+		Map<String, String> properties = configurationEntry.getProperties();
+
+		Assert.assertEquals("100", properties.get("max-height"));
+		Assert.assertEquals("200", properties.get("max-width"));
+		Assert.assertEquals(properties.toString(), 2, properties.size());
+	}
+
 	private final AdaptiveMediaImageConfigurationEntryParser
 		_configurationEntryParser =
 			new AdaptiveMediaImageConfigurationEntryParser();
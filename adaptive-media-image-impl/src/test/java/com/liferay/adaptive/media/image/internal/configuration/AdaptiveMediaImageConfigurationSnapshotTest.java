@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageConfigurationSnapshotTest {
+
+	@Test
+	public void testConfigurationEntriesAreSortedByName() {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryC, _entryA, _entryB), false, 1);
+
+		Assert.assertEquals(
+			Arrays.asList(_entryA, _entryB, _entryC),
+			snapshot.getConfigurationEntries());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testConfigurationEntriesAreUnmodifiable() {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryA), false, 1);
+
+		List<AdaptiveMediaImageConfigurationEntry> configurationEntries =
+			snapshot.getConfigurationEntries();
+
+		configurationEntries.add(_entryB);
+	}
+
+	@Test
+	public void testEmptySnapshot() {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Collections.emptyList(), true, 3);
+
+		Assert.assertTrue(snapshot.getConfigurationEntries().isEmpty());
+		Assert.assertFalse(snapshot.getConfigurationEntry("a").isPresent());
+		Assert.assertTrue(snapshot.getEnabledConfigurationEntries().isEmpty());
+		Assert.assertEquals(3, snapshot.getVersion());
+		Assert.assertTrue(snapshot.isDefaultConfiguration());
+	}
+
+	@Test
+	public void testEnabledConfigurationEntriesAreSortedByName() {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryC, _entryB, _entryA), false, 1);
+
+		Assert.assertEquals(
+			Arrays.asList(_entryA, _entryC),
+			snapshot.getEnabledConfigurationEntries());
+	}
+
+	@Test
+	public void testGetConfigurationEntryByUuid() {
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryA, _entryB, _entryC), false, 1);
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional = snapshot.getConfigurationEntry("b");
+
+		Assert.assertEquals(_entryB, configurationEntryOptional.get());
+		Assert.assertFalse(snapshot.getConfigurationEntry("d").isPresent());
+	}
+
+	@Test
+	public void testGetConfigurationEntryReturnsFirstDuplicate() {
+		AdaptiveMediaImageConfigurationEntry duplicateEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"Z", "a", Collections.emptyMap());
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryA, duplicateEntry), false, 1);
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional = snapshot.getConfigurationEntry("a");
+
+		Assert.assertEquals(_entryA, configurationEntryOptional.get());
+	}
+
+	private final AdaptiveMediaImageConfigurationEntry _entryA =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"A", "a", Collections.emptyMap(), true);
+	private final AdaptiveMediaImageConfigurationEntry _entryB =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"B", "b", Collections.emptyMap(), false);
+	private final AdaptiveMediaImageConfigurationEntry _entryC =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"C", "c", Collections.emptyMap(), true);
+
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageGroupConfigurationSnapshotTest {
+
+	@Test
+	public void testEffectiveSnapshotAddsGroupConfigurationEntries() {
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			new AdaptiveMediaImageGroupConfigurationSnapshot(
+				Arrays.asList(_entryD), 1);
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			groupSnapshot.getEffectiveSnapshot(_companySnapshot);
+
+		Assert.assertEquals(
+			Arrays.asList(_entryA, _entryB, _entryC, _entryD),
+			snapshot.getConfigurationEntries());
+		Assert.assertEquals(
+			Arrays.asList(_entryA, _entryC, _entryD),
+			snapshot.getEnabledConfigurationEntries());
+	}
+
+	@Test
+	public void testEffectiveSnapshotIsReusedForTheSameCompanySnapshot() {
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			new AdaptiveMediaImageGroupConfigurationSnapshot(
+				Arrays.asList(_entryD), 1);
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			groupSnapshot.getEffectiveSnapshot(_companySnapshot);
+
+		Assert.assertSame(
+			snapshot, groupSnapshot.getEffectiveSnapshot(_companySnapshot));
+
+		AdaptiveMediaImageConfigurationSnapshot newCompanySnapshot =
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(_entryA), false, 6);
+
+		AdaptiveMediaImageConfigurationSnapshot newSnapshot =
+			groupSnapshot.getEffectiveSnapshot(newCompanySnapshot);
+
+		Assert.assertNotSame(snapshot, newSnapshot);
+		Assert.assertEquals(
+			Arrays.asList(_entryA, _entryD),
+			newSnapshot.getConfigurationEntries());
+	}
+
+	@Test
+	public void testEffectiveSnapshotOverridesCompanyConfigurationEntries() {
+		AdaptiveMediaImageConfigurationEntry overridingEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"B", "b", Collections.singletonMap("max-width", "3840"), true);
+
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			new AdaptiveMediaImageGroupConfigurationSnapshot(
+				Arrays.asList(overridingEntry), 1);
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			groupSnapshot.getEffectiveSnapshot(_companySnapshot);
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional = snapshot.getConfigurationEntry("b");
+
+		Assert.assertSame(overridingEntry, configurationEntryOptional.get());
+		Assert.assertEquals(
+			Arrays.asList(_entryA, overridingEntry, _entryC),
+			snapshot.getEnabledConfigurationEntries());
+	}
+
+	@Test
+	public void testEffectiveSnapshotVersion() {
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			new AdaptiveMediaImageGroupConfigurationSnapshot(
+				Arrays.asList(_entryD), 2);
+
+		AdaptiveMediaImageConfigurationSnapshot snapshot =
+			groupSnapshot.getEffectiveSnapshot(_companySnapshot);
+
+		Assert.assertEquals(7, snapshot.getVersion());
+	}
+
+	@Test
+	public void testEffectiveSnapshotWithoutGroupConfigurationEntries() {
+		AdaptiveMediaImageGroupConfigurationSnapshot groupSnapshot =
+			new AdaptiveMediaImageGroupConfigurationSnapshot(
+				Collections.emptyList(), 0);
+
+		Assert.assertSame(
+			_companySnapshot,
+			groupSnapshot.getEffectiveSnapshot(_companySnapshot));
+	}
+
+	private final AdaptiveMediaImageConfigurationEntry _entryA =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"A", "a", Collections.emptyMap(), true);
+	private final AdaptiveMediaImageConfigurationEntry _entryB =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"B", "b", Collections.emptyMap(), false);
+	private final AdaptiveMediaImageConfigurationEntry _entryC =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"C", "c", Collections.emptyMap(), true);
+	private final AdaptiveMediaImageConfigurationEntry _entryD =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"D", "d", Collections.emptyMap(), true);
+	private final AdaptiveMediaImageConfigurationSnapshot _companySnapshot =
+		new AdaptiveMediaImageConfigurationSnapshot(
+			Arrays.asList(_entryA, _entryB, _entryC), false, 5);
+
+}
\ No newline at end of file
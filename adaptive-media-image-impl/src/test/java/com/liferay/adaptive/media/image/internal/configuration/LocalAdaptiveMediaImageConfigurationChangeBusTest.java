@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.configuration;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class LocalAdaptiveMediaImageConfigurationChangeBusTest {
+
+	@Test
+	public void testEventDescribesTheChangedConfigurationEntries() {
+		Map<String, Map<String, String>> oldProperties = new HashMap<>();
+
+		oldProperties.put("a", Collections.singletonMap("max-width", "100"));
+		oldProperties.put("b", Collections.singletonMap("max-width", "200"));
+
+		Map<String, Map<String, String>> newProperties = new HashMap<>();
+
+		newProperties.put("a", Collections.singletonMap("max-width", "150"));
+		newProperties.put("c", Collections.singletonMap("max-width", "300"));
+
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent =
+			new AdaptiveMediaImageConfigurationChangeEvent(
+				_COMPANY_ID, 0, 1, 2, oldProperties, newProperties);
+
+		Assert.assertEquals(
+			new HashSet<>(Arrays.asList("a", "b", "c")),
+			configurationChangeEvent.getChangedUuids());
+		Assert.assertTrue(configurationChangeEvent.isChanged("b"));
+		Assert.assertFalse(configurationChangeEvent.isChanged("d"));
+		Assert.assertFalse(
+			configurationChangeEvent.getNewProperties("b").isPresent());
+		Assert.assertFalse(
+			configurationChangeEvent.getOldProperties("c").isPresent());
+		Assert.assertEquals(
+			Collections.singletonMap("max-width", "150"),
+			configurationChangeEvent.getNewProperties("a").get());
+	}
+
+	@Test
+	public void testPublishNotifiesTheListenersAfterAFailingOne() {
+		List<AdaptiveMediaImageConfigurationChangeEvent>
+			configurationChangeEvents = new ArrayList<>();
+
+		_configurationChangeBus.addConfigurationChangeListener(
+			configurationChangeEvent -> {
+				throw new IllegalStateException();
+			});
+		_configurationChangeBus.addConfigurationChangeListener(
+			configurationChangeEvents::add);
+
+		AdaptiveMediaImageConfigurationChangeEvent configurationChangeEvent =
+			_createConfigurationChangeEvent();
+
+		_configurationChangeBus.publish(configurationChangeEvent);
+
+		Assert.assertEquals(
+			Collections.singletonList(configurationChangeEvent),
+			configurationChangeEvents);
+	}
+
+	@Test
+	public void testPublishNotifiesTheListenersInOrder() {
+		List<String> notifications = new ArrayList<>();
+
+		_configurationChangeBus.addConfigurationChangeListener(
+			configurationChangeEvent -> notifications.add("first"));
+		_configurationChangeBus.addConfigurationChangeListener(
+			configurationChangeEvent -> notifications.add("second"));
+
+		_configurationChangeBus.publish(_createConfigurationChangeEvent());
+
+		Assert.assertEquals(Arrays.asList("first", "second"), notifications);
+	}
+
+	@Test
+	public void testPublishSkipsRemovedListeners() {
+		List<AdaptiveMediaImageConfigurationChangeEvent>
+			configurationChangeEvents = new ArrayList<>();
+
+		AdaptiveMediaImageConfigurationChangeListener
+			configurationChangeListener = configurationChangeEvents::add;
+
+		_configurationChangeBus.addConfigurationChangeListener(
+			configurationChangeListener);
+		_configurationChangeBus.removeConfigurationChangeListener(
+			configurationChangeListener);
+
+		_configurationChangeBus.publish(_createConfigurationChangeEvent());
+
+		Assert.assertTrue(configurationChangeEvents.isEmpty());
+	}
+
+	private AdaptiveMediaImageConfigurationChangeEvent
+		_createConfigurationChangeEvent() {
+
+		return new AdaptiveMediaImageConfigurationChangeEvent(
+			_COMPANY_ID, 0, 1, 2, Collections.emptyMap(),
+			Collections.singletonMap(
+				"a", Collections.singletonMap("max-width", "100")));
+	}
+
+	private static final long _COMPANY_ID = 1L;
+
+	private final LocalAdaptiveMediaImageConfigurationChangeBus
+		_configurationChangeBus =
+			new LocalAdaptiveMediaImageConfigurationChangeBus();
+
+}
\ No newline at end of file
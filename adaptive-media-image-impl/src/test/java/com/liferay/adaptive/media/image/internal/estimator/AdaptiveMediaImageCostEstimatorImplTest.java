@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.estimator;
+
+import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
+import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.estimator.AdaptiveMediaImageCostEstimate;
+import com.liferay.adaptive.media.image.internal.util.ImageProcessor;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.document.library.kernel.model.DLFileEntry;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.document.library.kernel.service.DLFileEntryLocalService;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactory;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactory;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.image.ImageTool;
+import com.liferay.portal.kernel.image.ImageToolUtil;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import java.awt.image.RenderedImage;
+
+import java.io.OutputStream;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+/**
+ * @author Sergio González
+ */
+public class AdaptiveMediaImageCostEstimatorImplTest {
+
+	@Before
+	public void setUp() throws Exception {
+		_estimator.setDLAppLocalService(_dlAppLocalService);
+		_estimator.setDLFileEntryLocalService(_dlFileEntryLocalService);
+		_estimator.setImageEntryLocalService(_imageEntryLocalService);
+		_estimator.setImageProcessor(_imageProcessor);
+
+		ImageToolUtil imageToolUtil = new ImageToolUtil();
+
+		imageToolUtil.setImageTool(_imageTool);
+
+		OrderFactoryUtil orderFactoryUtil = new OrderFactoryUtil();
+
+		orderFactoryUtil.setOrderFactory(Mockito.mock(OrderFactory.class));
+
+		PropertyFactory propertyFactory = Mockito.mock(PropertyFactory.class);
+
+		Mockito.when(
+			propertyFactory.forName(Mockito.anyString())
+		).thenReturn(
+			Mockito.mock(Property.class)
+		);
+
+		PropertyFactoryUtil propertyFactoryUtil = new PropertyFactoryUtil();
+
+		propertyFactoryUtil.setPropertyFactory(propertyFactory);
+
+		Mockito.when(
+			_dlFileEntryLocalService.dynamicQuery()
+		).thenReturn(
+			Mockito.mock(DynamicQuery.class)
+		);
+
+		Mockito.when(
+			_dlFileEntryLocalService.dynamicQueryCount(
+				Mockito.any(DynamicQuery.class))
+		).thenReturn(
+			2L
+		);
+
+		Mockito.doReturn(
+			Collections.singletonList(Mockito.mock(DLFileEntry.class))
+		).when(
+			_dlFileEntryLocalService
+		).dynamicQuery(
+			Mockito.any(DynamicQuery.class), Mockito.anyInt(), Mockito.anyInt()
+		);
+
+		FileEntry fileEntry = Mockito.mock(FileEntry.class);
+
+		Mockito.when(
+			fileEntry.getFileVersion()
+		).thenReturn(
+			_fileVersion
+		);
+
+		Mockito.when(
+			_dlAppLocalService.getFileEntry(Mockito.anyLong())
+		).thenReturn(
+			fileEntry
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.getExpectedAdaptiveMediaImageEntriesCount(
+				Mockito.anyLong(),
+				Mockito.any(AdaptiveMediaImageConfigurationEntry.class))
+		).thenReturn(
+			10
+		);
+
+		Mockito.when(
+			_imageProcessor.scaleImage(
+				Mockito.any(FileVersion.class),
+				Mockito.any(AdaptiveMediaImageConfigurationEntry.class))
+		).thenReturn(
+			Mockito.mock(RenderedImage.class)
+		);
+
+		Mockito.doAnswer(
+			invocation -> {
+				OutputStream outputStream =
+					(OutputStream)invocation.getArguments()[2];
+
+				outputStream.write(new byte[100]);
+
+				return null;
+			}
+		).when(
+			_imageTool
+		).write(
+			Mockito.any(RenderedImage.class), Mockito.anyString(),
+			Mockito.any(OutputStream.class)
+		);
+	}
+
+	@Test
+	public void testEstimate() throws Exception {
+		AdaptiveMediaImageCostEstimate costEstimate = _estimator.estimate(
+			_COMPANY_ID, _createProperties(), 5);
+
+		Assert.assertEquals(2, costEstimate.getProcessedCount());
+		Assert.assertEquals(0, costEstimate.getSkippedCount());
+		Assert.assertEquals(200, costEstimate.getSize());
+		Assert.assertEquals(100, costEstimate.getAverageSize());
+		Assert.assertEquals(10, costEstimate.getEstimatedCount());
+		Assert.assertEquals(1000, costEstimate.getEstimatedSize());
+
+		Mockito.verify(
+			_dlFileEntryLocalService, Mockito.times(2)
+		).dynamicQuery(
+			Mockito.any(DynamicQuery.class), Mockito.anyInt(), Mockito.anyInt()
+		);
+	}
+
+	@Test
+	public void testEstimateCountsFailedImages() throws Exception {
+		Mockito.when(
+			_imageProcessor.scaleImage(
+				Mockito.any(FileVersion.class),
+				Mockito.any(AdaptiveMediaImageConfigurationEntry.class))
+		).thenThrow(
+			AdaptiveMediaRuntimeException.IOException.class
+		);
+
+		AdaptiveMediaImageCostEstimate costEstimate = _estimator.estimate(
+			_COMPANY_ID, _createProperties(), 5);
+
+		Assert.assertEquals(2, costEstimate.getFailedCount());
+		Assert.assertEquals(0, costEstimate.getProcessedCount());
+		Assert.assertEquals(0, costEstimate.getEstimatedSize());
+	}
+
+	@Test
+	public void testEstimateDiscountsSkippedImages() throws Exception {
+		Mockito.when(
+			_imageProcessor.getWidth(Mockito.any(FileVersion.class))
+		).thenReturn(
+			100, 300
+		);
+
+		Map<String, String> properties = _createProperties();
+
+		properties.put("min-source-width", "200");
+
+		AdaptiveMediaImageCostEstimate costEstimate = _estimator.estimate(
+			_COMPANY_ID, properties, 5);
+
+		Assert.assertEquals(1, costEstimate.getProcessedCount());
+		Assert.assertEquals(1, costEstimate.getSkippedCount());
+		Assert.assertEquals(5, costEstimate.getEstimatedCount());
+		Assert.assertEquals(500, costEstimate.getEstimatedSize());
+	}
+
+	@Test
+	public void testEstimateSamplesAtMostSampleSizeImages() throws Exception {
+		AdaptiveMediaImageCostEstimate costEstimate = _estimator.estimate(
+			_COMPANY_ID, _createProperties(), 1);
+
+		Assert.assertEquals(1, costEstimate.getProcessedCount());
+
+		Mockito.verify(
+			_imageProcessor, Mockito.times(1)
+		).scaleImage(
+			Mockito.any(FileVersion.class),
+			Mockito.any(AdaptiveMediaImageConfigurationEntry.class)
+		);
+	}
+
+	@Test(
+		expected = AdaptiveMediaImageConfigurationException.RequiredWidthOrHeightException.class
+	)
+	public void testEstimateWithoutDimensions() throws Exception {
+		_estimator.estimate(_COMPANY_ID, new HashMap<>(), 5);
+	}
+
+	private Map<String, String> _createProperties() {
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-height", "100");
+		properties.put("max-width", "200");
+
+		return properties;
+	}
+
+	private static final long _COMPANY_ID = 1L;
+
+	private final DLAppLocalService _dlAppLocalService = Mockito.mock(
+		DLAppLocalService.class);
+	private final DLFileEntryLocalService _dlFileEntryLocalService =
+		Mockito.mock(DLFileEntryLocalService.class);
+	private final AdaptiveMediaImageCostEstimatorImpl _estimator =
+		new AdaptiveMediaImageCostEstimatorImpl();
+	private final FileVersion _fileVersion = Mockito.mock(FileVersion.class);
+	private final AdaptiveMediaImageEntryLocalService _imageEntryLocalService =
+		Mockito.mock(AdaptiveMediaImageEntryLocalService.class);
+	private final ImageProcessor _imageProcessor = Mockito.mock(
+		ImageProcessor.class);
+	private final ImageTool _imageTool = Mockito.mock(ImageTool.class);
+
+}
\ No newline at end of file
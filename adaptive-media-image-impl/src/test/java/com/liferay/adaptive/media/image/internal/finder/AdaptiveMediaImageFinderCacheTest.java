@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationChangeEvent;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationEntryImpl;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshot;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshotCache;
+import com.liferay.adaptive.media.image.internal.util.Tuple;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.repository.model.FileVersion;
+
+import java.io.Serializable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageFinderCacheTest {
+
+	@Before
+	public void setUp() {
+		Mockito.when(
+			_fileVersion.getCompanyId()
+		).thenReturn(
+			1L
+		);
+
+		Mockito.when(
+			_fileVersion.getFileVersionId()
+		).thenReturn(
+			2L
+		);
+
+		Mockito.when(
+			_imageEntry.getConfigurationUuid()
+		).thenReturn(
+			_configurationEntry.getUUID()
+		);
+
+		Mockito.when(
+			_snapshotCache.getSnapshot(1L, 0L)
+		).thenAnswer(
+			invocation -> new AdaptiveMediaImageConfigurationSnapshot(
+				Collections.singletonList(_configurationEntry), false,
+				_configurationVersion)
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.get(invocation.getArguments()[0])
+		).when(
+			_portalCache
+		).get(
+			Mockito.any()
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.put(
+				(Serializable)invocation.getArguments()[0],
+				invocation.getArguments()[1])
+		).when(
+			_portalCache
+		).put(
+			Mockito.any(), Mockito.any()
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.remove(invocation.getArguments()[0])
+		).when(
+			_portalCache
+		).remove(
+			Mockito.any()
+		);
+
+		Mockito.doAnswer(
+			invocation -> {
+				_portalCacheMap.clear();
+
+				return null;
+			}
+		).when(
+			_portalCache
+		).removeAll();
+
+		Mockito.doReturn(
+			_portalCache
+		).when(
+			_multiVMPool
+		).getPortalCache(
+			AdaptiveMediaImageFinderCache.CACHE_NAME
+		);
+
+		_finderCache.setAdaptiveMediaImageConfigurationSnapshotCache(
+			_snapshotCache);
+		_finderCache.setMultiVMPool(_multiVMPool);
+
+		_finderCache.activate(Collections.singletonMap("enabled", "true"));
+	}
+
+	@Test
+	public void testCachedResultsResolveTheirConfigurationEntries() {
+		_getResults("query");
+
+		List
+			<Tuple
+				<AdaptiveMediaImageConfigurationEntry,
+					AdaptiveMediaImageEntry>> results = _getResults("query");
+
+		Assert.assertEquals(1, _loadCount.get());
+		Assert.assertEquals(1, results.size());
+
+		Tuple<AdaptiveMediaImageConfigurationEntry, AdaptiveMediaImageEntry>
+			result = results.get(0);
+
+		Assert.assertSame(_configurationEntry, result.first);
+		Assert.assertSame(_imageEntry, result.second);
+	}
+
+	@Test
+	public void testConfigurationChangeDiscardsResults() {
+		_getResults("query");
+
+		_finderCache.onConfigurationChange(
+			new AdaptiveMediaImageConfigurationChangeEvent(
+				1L, 0, 1, 2, Collections.emptyMap(), Collections.emptyMap()));
+
+		_getResults("query");
+
+		Assert.assertEquals(2, _loadCount.get());
+	}
+
+	@Test
+	public void testConfigurationVersionIsPartOfTheKey() {
+		_getResults("query");
+
+		_configurationVersion++;
+
+		_getResults("query");
+
+		Assert.assertEquals(2, _loadCount.get());
+	}
+
+	@Test
+	public void testDifferentQueriesAreCachedSeparately() {
+		_getResults("query1");
+		_getResults("query2");
+		_getResults("query1");
+
+		Assert.assertEquals(2, _loadCount.get());
+	}
+
+	@Test
+	public void testDisabledCacheAlwaysLoadsResults() {
+		_finderCache.activate(Collections.emptyMap());
+
+		_getResults("query");
+		_getResults("query");
+
+		Assert.assertEquals(2, _loadCount.get());
+		Assert.assertTrue(_portalCacheMap.isEmpty());
+	}
+
+	@Test
+	public void testInvalidateDiscardsResultsOfTheFileVersion() {
+		_getResults("query");
+
+		_finderCache.invalidate(2L);
+
+		_getResults("query");
+
+		Assert.assertEquals(2, _loadCount.get());
+	}
+
+	@Test
+	public void testInvalidateKeepsResultsOfOtherFileVersions() {
+		_getResults("query");
+
+		_finderCache.invalidate(3L);
+
+		_getResults("query");
+
+		Assert.assertEquals(1, _loadCount.get());
+	}
+
+	@Test
+	public void testResultsAreLoadedAgainWhenEvicted() {
+		_getResults("query");
+
+		_portalCacheMap.clear();
+
+		_getResults("query");
+
+		Assert.assertEquals(2, _loadCount.get());
+	}
+
+	private List
+		<Tuple<AdaptiveMediaImageConfigurationEntry, AdaptiveMediaImageEntry>>
+			_getResults(String queryKey) {
+
+		return _finderCache.getResults(
+			_fileVersion, queryKey,
+			() -> {
+				_loadCount.incrementAndGet();
+
+				return Collections.singletonList(
+					Tuple.of(_configurationEntry, _imageEntry));
+			});
+	}
+
+	private final AdaptiveMediaImageConfigurationEntry _configurationEntry =
+		new AdaptiveMediaImageConfigurationEntryImpl(
+			"small", "1", Collections.emptyMap());
+	private long _configurationVersion = 1;
+	private final FileVersion _fileVersion = Mockito.mock(FileVersion.class);
+	private final AdaptiveMediaImageFinderCache _finderCache =
+		new AdaptiveMediaImageFinderCache();
+	private final AdaptiveMediaImageEntry _imageEntry = Mockito.mock(
+		AdaptiveMediaImageEntry.class);
+	private final AtomicInteger _loadCount = new AtomicInteger();
+	private final MultiVMPool _multiVMPool = Mockito.mock(MultiVMPool.class);
+	private final PortalCache<Long, Object> _portalCache = Mockito.mock(
+		PortalCache.class);
+	private final Map<Serializable, Object> _portalCacheMap = new HashMap<>();
+	private final AdaptiveMediaImageConfigurationSnapshotCache _snapshotCache =
+		Mockito.mock(AdaptiveMediaImageConfigurationSnapshotCache.class);
+
+}
\ No newline at end of file
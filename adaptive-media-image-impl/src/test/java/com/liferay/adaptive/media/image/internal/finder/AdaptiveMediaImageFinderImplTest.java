@@ -20,31 +20,46 @@ import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.finder.AdaptiveMediaQuery;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.finder.AdaptiveMediaImagePreparedQuery;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageQueryBuilder;
 import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationEntryImpl;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshot;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshotCache;
 import com.liferay.adaptive.media.image.internal.util.ImageProcessor;
 import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
 import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
 import com.liferay.adaptive.media.image.url.AdaptiveMediaImageURLFactory;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.repository.model.FileEntry;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.util.CentralizedThreadLocal;
 import com.liferay.portal.kernel.util.MapUtil;
 import com.liferay.portal.kernel.util.StringUtil;
 
 import java.io.InputStream;
+import java.io.Serializable;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -62,6 +77,15 @@ public class AdaptiveMediaImageFinderImplTest {
 		_finder.setAdaptiveMediaImageConfigurationHelper(_configurationHelper);
 		_finder.setImageProcessor(_imageProcessor);
 		_finder.setAdaptiveMediaImageEntryLocalService(_imageEntryLocalService);
+		_finder.setAdaptiveMediaImageFinderCache(_finderCache);
+		_finder.setDLAppLocalService(_dlAppLocalService);
+
+		_finder.activate(Collections.emptyMap());
+	}
+
+	@After
+	public void tearDown() {
+		_finder.deactivate();
 	}
 
 	@Test(expected = PortalException.class)
@@ -77,7 +101,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileEntry.getCompanyId(),
+				_fileEntry.getCompanyId(), _fileEntry.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -116,7 +140,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -163,6 +187,186 @@ public class AdaptiveMediaImageFinderImplTest {
 		Assert.assertEquals(1, stream.count());
 	}
 
+	@Test
+	public void testGetMediaAsync() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_mockConfigurationEntry();
+
+		AdaptiveMediaImageEntry imageEntry = _mockImage(99, 199, 1000L);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry.getUUID(), _fileVersion.getFileVersionId())
+		).thenReturn(
+			imageEntry
+		);
+
+		CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completionStage = _finder.getAdaptiveMediaAsync(
+				queryBuilder ->
+					queryBuilder.allForVersion(_fileVersion).done());
+
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completableFuture = completionStage.toCompletableFuture();
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			completableFuture.get();
+
+		Assert.assertEquals(1, adaptiveMedias.size());
+	}
+
+	@Test
+	public void testGetMediaAsyncResolvesInCallingThreadWhenPoolIsFull()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_mockConfigurationEntry();
+
+		CountDownLatch countDownLatch = new CountDownLatch(1);
+
+		AdaptiveMediaImageEntry imageEntry = _mockImage(99, 199, 1000L);
+
+		Thread callingThread = Thread.currentThread();
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry.getUUID(), _fileVersion.getFileVersionId())
+		).thenAnswer(
+			invocation -> {
+				if (Thread.currentThread() != callingThread) {
+					countDownLatch.await();
+				}
+
+				return imageEntry;
+			}
+		);
+
+		Map<String, Object> properties = new HashMap<>();
+
+		properties.put("queueSize", "1");
+		properties.put("threadPoolSize", "1");
+
+		_finder.activate(properties);
+
+		FileEntry fileEntry1 = _mockFileEntry(1);
+		FileEntry fileEntry2 = _mockFileEntry(2);
+
+		CentralizedThreadLocal<String> threadLocal =
+			new CentralizedThreadLocal<>(false);
+
+		threadLocal.set("value");
+
+		try {
+			CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completionStage1 = _finder.getAdaptiveMediaAsync(
+					queryBuilder ->
+						queryBuilder.allForVersion(_fileVersion).done());
+			CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completionStage2 = _finder.getAdaptiveMediaAsync(
+					queryBuilder ->
+						queryBuilder.allForFileEntry(fileEntry1).done());
+			CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completionStage3 = _finder.getAdaptiveMediaAsync(
+					queryBuilder ->
+						queryBuilder.allForFileEntry(fileEntry2).done());
+
+			CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completableFuture3 = completionStage3.toCompletableFuture();
+
+			Assert.assertTrue(completableFuture3.isDone());
+			Assert.assertEquals(1, completableFuture3.get().size());
+			Assert.assertEquals("value", threadLocal.get());
+
+			countDownLatch.countDown();
+
+			CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completableFuture1 = completionStage1.toCompletableFuture();
+			CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+				completableFuture2 = completionStage2.toCompletableFuture();
+
+			Assert.assertEquals(1, completableFuture1.get().size());
+			Assert.assertEquals(1, completableFuture2.get().size());
+		}
+		finally {
+			countDownLatch.countDown();
+
+			threadLocal.remove();
+		}
+	}
+
+	@Test
+	public void testGetMediaAsyncSharesResultsOfPendingQueries()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			_mockConfigurationEntry();
+
+		CountDownLatch countDownLatch = new CountDownLatch(1);
+
+		AdaptiveMediaImageEntry imageEntry = _mockImage(99, 199, 1000L);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry.getUUID(), _fileVersion.getFileVersionId())
+		).thenAnswer(
+			invocation -> {
+				countDownLatch.await();
+
+				return imageEntry;
+			}
+		);
+
+		CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completionStage1 = _finder.getAdaptiveMediaAsync(
+				queryBuilder ->
+					queryBuilder.allForVersion(_fileVersion).done());
+		CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completionStage2 = _finder.getAdaptiveMediaAsync(
+				queryBuilder ->
+					queryBuilder.allForVersion(_fileVersion).done());
+
+		countDownLatch.countDown();
+
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completableFuture1 = completionStage1.toCompletableFuture();
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completableFuture2 = completionStage2.toCompletableFuture();
+
+		Assert.assertSame(completableFuture1.get(), completableFuture2.get());
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.times(1)
+		).fetchAdaptiveMediaImageEntry(
+			configurationEntry.getUUID(), _fileVersion.getFileVersionId()
+		);
+	}
+
+	@Test
+	public void testGetMediaAsyncWithFailingQuery() throws Exception {
+		Mockito.when(
+			_fileEntry.getFileVersion()
+		).thenThrow(
+			PortalException.class
+		);
+
+		CompletionStage<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completionStage = _finder.getAdaptiveMediaAsync(
+				queryBuilder ->
+					queryBuilder.allForFileEntry(_fileEntry).done());
+
+		CompletableFuture<List<AdaptiveMedia<AdaptiveMediaImageProcessor>>>
+			completableFuture = completionStage.toCompletableFuture();
+
+		try {
+			completableFuture.get();
+
+			Assert.fail();
+		}
+		catch (ExecutionException ee) {
+			Assert.assertTrue(ee.getCause() instanceof PortalException);
+		}
+	}
+
 	@Test
 	public void testGetMediaAttributes() throws Exception {
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
@@ -176,7 +380,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -259,7 +463,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			configurationEntries
@@ -372,7 +576,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			configurationEntries
@@ -478,7 +682,8 @@ public class AdaptiveMediaImageFinderImplTest {
 	public void testGetMediaConfigurationError() throws Exception {
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong(), Mockito.any(Predicate.class))
+				Mockito.anyLong(), Mockito.anyLong(),
+				Mockito.any(Predicate.class))
 		).thenThrow(
 			AdaptiveMediaRuntimeException.InvalidConfiguration.class
 		);
@@ -506,7 +711,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -578,7 +783,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -654,7 +859,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1, configurationEntry2)
@@ -742,7 +947,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1, configurationEntry2)
@@ -830,7 +1035,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1, configurationEntry2)
@@ -912,16 +1117,11 @@ public class AdaptiveMediaImageFinderImplTest {
 				StringUtil.randomString(), "medium",
 				MapUtil.fromArray("max-height", "200", "max-width", "200"));
 
-		AdaptiveMediaImageQueryBuilder.ConfigurationStatus
-			allConfigurationStatus =
-				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ALL;
-
 		Mockito.when(
-			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
-				allConfigurationStatus.getPredicate())
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(), "small")
 		).thenReturn(
-			Arrays.asList(configurationEntry1, configurationEntry2)
+			Optional.of(configurationEntry1)
 		);
 
 		Mockito.when(
@@ -980,6 +1180,18 @@ public class AdaptiveMediaImageFinderImplTest {
 				AdaptiveMediaAttribute.configurationUuid());
 
 		Assert.assertEquals("small", adaptiveMedia0Optional.get());
+
+		Mockito.verify(
+			_configurationHelper, Mockito.never()
+		).getAdaptiveMediaImageConfigurationEntries(
+			Mockito.anyLong(), Mockito.anyLong(), Mockito.any()
+		);
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.times(1)
+		).fetchAdaptiveMediaImageEntry(
+			Mockito.anyString(), Mockito.anyLong()
+		);
 	}
 
 	@Test
@@ -998,30 +1210,18 @@ public class AdaptiveMediaImageFinderImplTest {
 				false);
 
 		Mockito.when(
-			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
-				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ALL.
-					getPredicate())
-		).thenReturn(
-			Arrays.asList(configurationEntry1, configurationEntry2)
-		);
-
-		Mockito.when(
-			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
-				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.DISABLED.
-					getPredicate())
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(), "small")
 		).thenReturn(
-			Arrays.asList(configurationEntry2)
+			Optional.of(configurationEntry1)
 		);
 
 		Mockito.when(
-			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
-				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ENABLED.
-					getPredicate())
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
+				"medium")
 		).thenReturn(
-			Arrays.asList(configurationEntry1)
+			Optional.of(configurationEntry2)
 		);
 
 		Mockito.when(
@@ -1136,7 +1336,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1)
@@ -1148,7 +1348,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				disabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry2)
@@ -1160,7 +1360,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				allConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1, configurationEntry2)
@@ -1282,7 +1482,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Arrays.asList(configurationEntry1, configurationEntry2)
@@ -1352,6 +1552,43 @@ public class AdaptiveMediaImageFinderImplTest {
 		Assert.assertEquals(199, (int)adaptiveMedia1HeightOptional.get());
 	}
 
+	@Test
+	public void testGetMediaQueryWithUnknownConfiguration() throws Exception {
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
+				"unknown")
+		).thenReturn(
+			Optional.empty()
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			_finder.getAdaptiveMedia(
+				queryBuilder ->
+					queryBuilder.forVersion(_fileVersion).forConfiguration(
+						"unknown").done());
+
+		Assert.assertEquals(0, stream.count());
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.never()
+		).fetchAdaptiveMediaImageEntry(
+			Mockito.anyString(), Mockito.anyLong()
+		);
+	}
+
 	@Test
 	public void testGetMediaWhenNotSupported() throws Exception {
 		Mockito.when(
@@ -1371,6 +1608,157 @@ public class AdaptiveMediaImageFinderImplTest {
 			Arrays.toString(adaptiveMediaArray), 0, adaptiveMediaArray.length);
 	}
 
+	@Test
+	public void testGetMediaWithFinderCacheFetchesImageEntriesOnce()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "200", "max-width", "400"));
+
+		AdaptiveMediaImageQueryBuilder.ConfigurationStatus
+			enabledConfigurationStatus =
+				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ENABLED;
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
+				enabledConfigurationStatus.getPredicate())
+		).thenReturn(
+			Arrays.asList(configurationEntry1, configurationEntry2)
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		AdaptiveMediaImageEntry imageEntry1 = _mockImage(99, 199, 1000L);
+
+		String configurationUuid1 = configurationEntry1.getUUID();
+
+		Mockito.when(
+			imageEntry1.getConfigurationUuid()
+		).thenReturn(
+			configurationUuid1
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry1.getUUID(), _fileVersion.getFileVersionId())
+		).thenReturn(
+			imageEntry1
+		);
+
+		AdaptiveMediaImageEntry imageEntry2 = _mockImage(199, 399, 2000L);
+
+		String configurationUuid2 = configurationEntry2.getUUID();
+
+		Mockito.when(
+			imageEntry2.getConfigurationUuid()
+		).thenReturn(
+			configurationUuid2
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry2.getUUID(), _fileVersion.getFileVersionId())
+		).thenReturn(
+			imageEntry2
+		);
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		Map<Serializable, Object> portalCacheMap = new HashMap<>();
+
+		PortalCache<Long, Object> portalCache = Mockito.mock(
+			PortalCache.class);
+
+		Mockito.doAnswer(
+			invocation -> portalCacheMap.get(invocation.getArguments()[0])
+		).when(
+			portalCache
+		).get(
+			Mockito.any()
+		);
+
+		Mockito.doAnswer(
+			invocation -> portalCacheMap.put(
+				(Serializable)invocation.getArguments()[0],
+				invocation.getArguments()[1])
+		).when(
+			portalCache
+		).put(
+			Mockito.any(), Mockito.any()
+		);
+
+		MultiVMPool multiVMPool = Mockito.mock(MultiVMPool.class);
+
+		Mockito.doReturn(
+			portalCache
+		).when(
+			multiVMPool
+		).getPortalCache(
+			AdaptiveMediaImageFinderCache.CACHE_NAME
+		);
+
+		_finderCache.setMultiVMPool(multiVMPool);
+
+		AdaptiveMediaImageConfigurationSnapshotCache snapshotCache =
+			Mockito.mock(AdaptiveMediaImageConfigurationSnapshotCache.class);
+
+		Mockito.when(
+			snapshotCache.getSnapshot(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId())
+		).thenReturn(
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(configurationEntry1, configurationEntry2), false,
+				1)
+		);
+
+		_finderCache.setAdaptiveMediaImageConfigurationSnapshotCache(
+			snapshotCache);
+
+		_finderCache.activate(Collections.singletonMap("enabled", "true"));
+
+		for (int i = 0; i < 2; i++) {
+			Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+				_finder.getAdaptiveMedia(
+					queryBuilder -> queryBuilder.forVersion(_fileVersion).with(
+						AdaptiveMediaImageAttribute.IMAGE_WIDTH, 400).done());
+
+			List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+				stream.collect(Collectors.toList());
+
+			Assert.assertEquals(2, adaptiveMedias.size());
+
+			AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+				adaptiveMedias.get(0);
+
+			Assert.assertEquals(
+				Optional.of(399),
+				adaptiveMedia.getAttributeValue(
+					AdaptiveMediaImageAttribute.IMAGE_WIDTH));
+		}
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.times(1)
+		).fetchAdaptiveMediaImageEntry(
+			configurationEntry1.getUUID(), _fileVersion.getFileVersionId()
+		);
+
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testGetMediaWithNullFunction() throws Exception {
 		_finder.getAdaptiveMedia(null);
@@ -1391,7 +1779,7 @@ public class AdaptiveMediaImageFinderImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				_fileVersion.getCompanyId(),
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
 				enabledConfigurationStatus.getPredicate())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
@@ -1444,6 +1832,312 @@ public class AdaptiveMediaImageFinderImplTest {
 		);
 	}
 
+	@Test
+	public void testPrepareQuery() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "200", "max-width", "200"));
+
+		AdaptiveMediaImageQueryBuilder.ConfigurationStatus
+			enabledConfigurationStatus =
+				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ENABLED;
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
+				enabledConfigurationStatus.getPredicate())
+		).thenReturn(
+			Arrays.asList(configurationEntry1, configurationEntry2)
+		);
+
+		Mockito.when(
+			_fileVersion.getFileName()
+		).thenReturn(
+			StringUtil.randomString()
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		AdaptiveMediaImageEntry imageEntry1 = _mockImage(99, 199, 1000L);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry1.getUUID(), _fileVersion.getFileVersionId())
+		).thenReturn(
+			imageEntry1
+		);
+
+		AdaptiveMediaImageEntry imageEntry2 = _mockImage(199, 199, 1000L);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				configurationEntry2.getUUID(), _fileVersion.getFileVersionId())
+		).thenReturn(
+			imageEntry2
+		);
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		AdaptiveMediaImagePreparedQuery preparedQuery = _finder.prepareQuery(
+			initialStep -> initialStep.with(
+				AdaptiveMediaImageAttribute.IMAGE_HEIGHT, 200).done());
+
+		for (int i = 0; i < 2; i++) {
+			Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+				preparedQuery.getAdaptiveMedia(_fileVersion);
+
+			List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+				stream.collect(Collectors.toList());
+
+			Assert.assertEquals(2, adaptiveMedias.size());
+
+			AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia0 =
+				adaptiveMedias.get(0);
+
+			Optional<Integer> adaptiveMedia0HeightOptional =
+				adaptiveMedia0.getAttributeValue(
+					AdaptiveMediaImageAttribute.IMAGE_HEIGHT);
+
+			Assert.assertEquals(199, (int)adaptiveMedia0HeightOptional.get());
+
+			AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia1 =
+				adaptiveMedias.get(1);
+
+			Optional<Integer> adaptiveMedia1HeightOptional =
+				adaptiveMedia1.getAttributeValue(
+					AdaptiveMediaImageAttribute.IMAGE_HEIGHT);
+
+			Assert.assertEquals(99, (int)adaptiveMedia1HeightOptional.get());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrepareQueryWithNullFileVersion() throws Exception {
+		AdaptiveMediaImagePreparedQuery preparedQuery = _finder.prepareQuery(
+			initialStep -> initialStep.done());
+
+		preparedQuery.getAdaptiveMedia((FileVersion)null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrepareQueryWithNullFunction() throws Exception {
+		_finder.prepareQuery(null);
+	}
+
+	@Test
+	public void testScanAdaptiveMedia() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry1 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry2 =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "200", "max-width", "200"));
+
+		AdaptiveMediaImageEntry imageEntry1 = _mockScannedImageEntry(
+			1, configurationEntry1);
+		AdaptiveMediaImageEntry imageEntry2 = _mockScannedImageEntry(
+			2, configurationEntry2);
+		AdaptiveMediaImageEntry imageEntry3 = _mockScannedImageEntry(
+			3, configurationEntry1);
+
+		Mockito.when(
+			_imageEntryLocalService.getAdaptiveMediaImageEntries(1, 0, 0, 2)
+		).thenReturn(
+			Arrays.asList(imageEntry1, imageEntry2)
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.getAdaptiveMediaImageEntries(1, 0, 2, 2)
+		).thenReturn(
+			Collections.singletonList(imageEntry3)
+		);
+
+		Mockito.when(
+			_dlAppLocalService.getFileVersion(
+				_fileVersion.getFileVersionId())
+		).thenReturn(
+			_fileVersion
+		);
+
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			_finder.scanAdaptiveMedia(1, 0, 2);
+
+		List<String> configurationUuids = stream.map(
+			adaptiveMedia -> adaptiveMedia.getAttributeValue(
+				AdaptiveMediaAttribute.<AdaptiveMediaImageProcessor>
+					configurationUuid()).get()).collect(Collectors.toList());
+
+		Assert.assertEquals(
+			Arrays.asList(
+				configurationEntry1.getUUID(), configurationEntry2.getUUID(),
+				configurationEntry1.getUUID()),
+			configurationUuids);
+
+		Mockito.verify(
+			_dlAppLocalService, Mockito.times(2)
+		).getFileVersion(
+			_fileVersion.getFileVersionId()
+		);
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.times(2)
+		).getAdaptiveMediaImageEntries(
+			Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(),
+			Mockito.anyInt()
+		);
+	}
+
+	@Test
+	public void testScanAdaptiveMediaDoesNotReadAfterClose() throws Exception {
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+
+		AdaptiveMediaImageEntry imageEntry = _mockScannedImageEntry(
+			1, configurationEntry);
+
+		Mockito.when(
+			_imageEntryLocalService.getAdaptiveMediaImageEntries(
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(),
+				Mockito.anyInt())
+		).thenReturn(
+			Collections.singletonList(imageEntry)
+		);
+
+		Mockito.when(
+			_dlAppLocalService.getFileVersion(
+				_fileVersion.getFileVersionId())
+		).thenReturn(
+			_fileVersion
+		);
+
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			_finder.scanAdaptiveMedia(1, 0, 1);
+
+		Iterator<AdaptiveMedia<AdaptiveMediaImageProcessor>> iterator =
+			stream.iterator();
+
+		Assert.assertTrue(iterator.hasNext());
+
+		iterator.next();
+
+		stream.close();
+
+		Assert.assertFalse(iterator.hasNext());
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.times(1)
+		).getAdaptiveMediaImageEntries(
+			Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(),
+			Mockito.anyInt()
+		);
+	}
+
+	@Test
+	public void testScanAdaptiveMediaSkipsMissingFileVersions()
+		throws Exception {
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+
+		AdaptiveMediaImageEntry imageEntry = _mockScannedImageEntry(
+			1, configurationEntry);
+
+		Mockito.when(
+			_imageEntryLocalService.getAdaptiveMediaImageEntries(1, 0, 0, 10)
+		).thenReturn(
+			Collections.singletonList(imageEntry)
+		);
+
+		Mockito.when(
+			_dlAppLocalService.getFileVersion(
+				_fileVersion.getFileVersionId())
+		).thenThrow(
+			new PortalException()
+		);
+
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			_finder.scanAdaptiveMedia(1, 0, 10);
+
+		Assert.assertEquals(0, stream.count());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testScanAdaptiveMediaWithInvalidPrefetchSize() {
+		_finder.scanAdaptiveMedia(1, 0, 0);
+	}
+
+	private AdaptiveMediaImageConfigurationEntry _mockConfigurationEntry() {
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				MapUtil.fromArray("max-height", "100", "max-width", "200"));
+
+		AdaptiveMediaImageQueryBuilder.ConfigurationStatus
+			enabledConfigurationStatus =
+				AdaptiveMediaImageQueryBuilder.ConfigurationStatus.ENABLED;
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
+				_fileVersion.getCompanyId(), _fileVersion.getGroupId(),
+				enabledConfigurationStatus.getPredicate())
+		).thenReturn(
+			Collections.singleton(configurationEntry)
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		return configurationEntry;
+	}
+
+	private FileEntry _mockFileEntry(long fileEntryId) throws Exception {
+		FileEntry fileEntry = Mockito.mock(FileEntry.class);
+
+		Mockito.when(
+			fileEntry.getFileEntryId()
+		).thenReturn(
+			fileEntryId
+		);
+
+		Mockito.when(
+			fileEntry.getFileVersion()
+		).thenReturn(
+			_fileVersion
+		);
+
+		return fileEntry;
+	}
+
 	private AdaptiveMediaImageEntry _mockImage(
 		int height, int width, long size) {
 
@@ -1471,14 +2165,63 @@ public class AdaptiveMediaImageFinderImplTest {
 		return imageEntry;
 	}
 
+	private AdaptiveMediaImageEntry _mockScannedImageEntry(
+		long imageEntryId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		AdaptiveMediaImageEntry imageEntry = _mockImage(99, 99, 1000L);
+
+		Mockito.when(
+			imageEntry.getAdaptiveMediaImageEntryId()
+		).thenReturn(
+			imageEntryId
+		);
+
+		Mockito.when(
+			imageEntry.getCompanyId()
+		).thenReturn(
+			1L
+		);
+
+		Mockito.when(
+			imageEntry.getConfigurationUuid()
+		).thenReturn(
+			configurationEntry.getUUID()
+		);
+
+		long fileVersionId = _fileVersion.getFileVersionId();
+
+		Mockito.when(
+			imageEntry.getFileVersionId()
+		).thenReturn(
+			fileVersionId
+		);
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional = Optional.of(configurationEntry);
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				1, 0, configurationEntry.getUUID())
+		).thenReturn(
+			configurationEntryOptional
+		);
+
+		return imageEntry;
+	}
+
 	private final AdaptiveMediaImageURLFactory _adaptiveMediaImageURLFactory =
 		Mockito.mock(AdaptiveMediaImageURLFactory.class);
 	private final AdaptiveMediaImageConfigurationHelper _configurationHelper =
 		Mockito.mock(AdaptiveMediaImageConfigurationHelper.class);
+	private final DLAppLocalService _dlAppLocalService = Mockito.mock(
+		DLAppLocalService.class);
 	private final FileEntry _fileEntry = Mockito.mock(FileEntry.class);
 	private final FileVersion _fileVersion = Mockito.mock(FileVersion.class);
 	private final AdaptiveMediaImageFinderImpl _finder =
 		new AdaptiveMediaImageFinderImpl();
+	private final AdaptiveMediaImageFinderCache _finderCache =
+		new AdaptiveMediaImageFinderCache();
 	private final AdaptiveMediaImageEntryLocalService _imageEntryLocalService =
 		Mockito.mock(AdaptiveMediaImageEntryLocalService.class);
 	private final ImageProcessor _imageProcessor = Mockito.mock(
@@ -60,6 +60,17 @@ public class AdaptiveMediaImageQueryBuilderImplTest {
 			fileEntry.getFileVersion(), _queryBuilder.getFileVersion());
 	}
 
+	@Test
+	public void testLimitQuery() {
+		FileVersion fileVersion = Mockito.mock(FileVersion.class);
+
+		_queryBuilder.forVersion(fileVersion).with(
+			AdaptiveMediaImageAttribute.IMAGE_HEIGHT, 100).limit(2);
+
+		Assert.assertEquals(2, _queryBuilder.getLimit());
+		Assert.assertTrue(_queryBuilder.isFuzzySort());
+	}
+
 	@Test
 	public void testMatchingConfigurationAttributeQuery() {
 		FileVersion fileVersion = Mockito.mock(FileVersion.class);
@@ -108,6 +119,13 @@ public class AdaptiveMediaImageQueryBuilderImplTest {
 			100, attributes.get(AdaptiveMediaImageAttribute.IMAGE_HEIGHT));
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveLimitFails() {
+		FileVersion fileVersion = Mockito.mock(FileVersion.class);
+
+		_queryBuilder.forVersion(fileVersion).limit(0);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testNullAttributeFailsWhenOrderingByIt() {
 		FileVersion fileVersion = Mockito.mock(FileVersion.class);
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaImageScanSpliteratorTest {
+
+	@Test
+	public void testContinuesAfterBatchWithoutAdaptiveMedia() {
+		AdaptiveMediaImageEntry imageEntry1 = _mockImageEntry(1);
+		AdaptiveMediaImageEntry imageEntry2 = _mockImageEntry(2);
+		AdaptiveMediaImageEntry imageEntry3 = _mockImageEntry(3);
+
+		List<Long> previousImageEntryIds = new ArrayList<>();
+
+		AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia =
+			Mockito.mock(AdaptiveMedia.class);
+
+		AdaptiveMediaImageScanSpliterator scanSpliterator =
+			new AdaptiveMediaImageScanSpliterator(
+				2,
+				previousImageEntryId -> {
+					previousImageEntryIds.add(previousImageEntryId);
+
+					if (previousImageEntryId == 0) {
+						return Arrays.asList(imageEntry1, imageEntry2);
+					}
+
+					return Collections.singletonList(imageEntry3);
+				},
+				imageEntries -> {
+					if (imageEntries.contains(imageEntry3)) {
+						return Collections.singletonList(adaptiveMedia);
+					}
+
+					return Collections.emptyList();
+				});
+
+		Stream<AdaptiveMedia<AdaptiveMediaImageProcessor>> stream =
+			StreamSupport.stream(scanSpliterator, false);
+
+		Assert.assertEquals(
+			Collections.singletonList(adaptiveMedia),
+			stream.collect(Collectors.toList()));
+
+		Assert.assertEquals(Arrays.asList(0L, 2L), previousImageEntryIds);
+	}
+
+	@Test
+	public void testDoesNotReadAfterCancel() {
+		AdaptiveMediaImageEntry imageEntry = _mockImageEntry(1);
+
+		List<Long> previousImageEntryIds = new ArrayList<>();
+
+		AdaptiveMediaImageScanSpliterator scanSpliterator =
+			new AdaptiveMediaImageScanSpliterator(
+				1,
+				previousImageEntryId -> {
+					previousImageEntryIds.add(previousImageEntryId);
+
+					return Collections.singletonList(imageEntry);
+				},
+				imageEntries -> Collections.singletonList(
+					Mockito.mock(AdaptiveMedia.class)));
+
+		Assert.assertTrue(scanSpliterator.tryAdvance(adaptiveMedia -> {}));
+
+		scanSpliterator.cancel();
+
+		Assert.assertTrue(scanSpliterator.isCancelled());
+		Assert.assertFalse(scanSpliterator.tryAdvance(adaptiveMedia -> {}));
+		Assert.assertEquals(
+			Collections.singletonList(0L), previousImageEntryIds);
+	}
+
+	@Test
+	public void testDoesNotReadBeforeAdvance() {
+		List<Long> previousImageEntryIds = new ArrayList<>();
+
+		new AdaptiveMediaImageScanSpliterator(
+			1,
+			previousImageEntryId -> {
+				previousImageEntryIds.add(previousImageEntryId);
+
+				return Collections.emptyList();
+			},
+			imageEntries -> Collections.emptyList());
+
+		Assert.assertTrue(previousImageEntryIds.isEmpty());
+	}
+
+	private AdaptiveMediaImageEntry _mockImageEntry(long imageEntryId) {
+		AdaptiveMediaImageEntry imageEntry = Mockito.mock(
+			AdaptiveMediaImageEntry.class);
+
+		Mockito.when(
+			imageEntry.getAdaptiveMediaImageEntryId()
+		).thenReturn(
+			imageEntryId
+		);
+
+		return imageEntry;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.finder;
+
+import com.liferay.adaptive.media.AdaptiveMedia;
+import com.liferay.adaptive.media.AdaptiveMediaAttribute;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageAttributeMapping;
+import com.liferay.adaptive.media.image.internal.processor.AdaptiveMediaImage;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageAttribute;
+import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adolfo Pérez
+ */
+public class AdaptiveMediaPropertyDistanceSelectorTest {
+
+	@Test
+	public void testSelectAll() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_selector.select(_createMedias(400, 90, 210, 100, 1000), 0);
+
+		Assert.assertEquals(
+			Arrays.asList(100, 90, 210, 400, 1000), _getWidths(adaptiveMedias));
+	}
+
+	@Test
+	public void testSelectClosest() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_selector.select(_createMedias(400, 90, 210, 100, 1000), 1);
+
+		Assert.assertEquals(
+			Collections.singletonList(100), _getWidths(adaptiveMedias));
+	}
+
+	@Test
+	public void testSelectFromEmptyList() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_selector.select(Collections.emptyList(), 1);
+
+		Assert.assertTrue(adaptiveMedias.isEmpty());
+	}
+
+	@Test
+	public void testSelectKeepsOrderOfEqualDistances() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_selector.select(_createMedias(400, 110, 90, 1000), 2);
+
+		Assert.assertEquals(Arrays.asList(110, 90), _getWidths(adaptiveMedias));
+
+		adaptiveMedias = _selector.select(_createMedias(400, 90, 110), 1);
+
+		Assert.assertEquals(
+			Collections.singletonList(90), _getWidths(adaptiveMedias));
+	}
+
+	@Test
+	public void testSelectLimit() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_selector.select(_createMedias(400, 90, 210, 100, 1000), 3);
+
+		Assert.assertEquals(
+			Arrays.asList(100, 90, 210), _getWidths(adaptiveMedias));
+	}
+
+	@Test
+	public void testSelectMatchesComparator() {
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			_createMedias(400, 90, 210, 100, 1000, 50, 150);
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> sortedAdaptiveMedias =
+			new ArrayList<>(adaptiveMedias);
+
+		sortedAdaptiveMedias.sort(
+			new AdaptiveMediaPropertyDistanceComparator(_attributes));
+
+		Assert.assertEquals(
+			sortedAdaptiveMedias, _selector.select(adaptiveMedias, 0));
+	}
+
+	private List<AdaptiveMedia<AdaptiveMediaImageProcessor>> _createMedias(
+		int... widths) {
+
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias =
+			new ArrayList<>(widths.length);
+
+		for (int width : widths) {
+			AdaptiveMediaImageAttributeMapping attributeMapping =
+				AdaptiveMediaImageAttributeMapping.fromProperties(
+					Collections.singletonMap(
+						AdaptiveMediaImageAttribute.IMAGE_WIDTH.getName(),
+						String.valueOf(width)));
+
+			adaptiveMedias.add(
+				new AdaptiveMediaImage(() -> null, attributeMapping, null));
+		}
+
+		return adaptiveMedias;
+	}
+
+	private List<Integer> _getWidths(
+		List<AdaptiveMedia<AdaptiveMediaImageProcessor>> adaptiveMedias) {
+
+		List<Integer> widths = new ArrayList<>(adaptiveMedias.size());
+
+		for (AdaptiveMedia<AdaptiveMediaImageProcessor> adaptiveMedia :
+				adaptiveMedias) {
+
+			widths.add(
+				adaptiveMedia.getAttributeValue(
+					AdaptiveMediaImageAttribute.IMAGE_WIDTH).get());
+		}
+
+		return widths;
+	}
+
+	private static final
+		Map<AdaptiveMediaAttribute<AdaptiveMediaImageProcessor, ?>, Object>
+			_attributes = Collections.singletonMap(
+				AdaptiveMediaImageAttribute.IMAGE_WIDTH, 100);
+
+	private final AdaptiveMediaPropertyDistanceSelector _selector =
+		new AdaptiveMediaPropertyDistanceSelector(_attributes);
+
+}
\ No newline at end of file
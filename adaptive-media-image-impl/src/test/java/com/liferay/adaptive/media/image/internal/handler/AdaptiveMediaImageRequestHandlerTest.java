@@ -18,10 +18,15 @@ import com.liferay.adaptive.media.AdaptiveMedia;
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryConditions;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.finder.AdaptiveMediaImageFinder;
+import com.liferay.adaptive.media.image.internal.access.AdaptiveMediaImageAccessRecorder;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationEntryImpl;
 import com.liferay.adaptive.media.image.internal.util.Tuple;
 import com.liferay.adaptive.media.image.processor.AdaptiveMediaImageProcessor;
+import com.liferay.adaptive.media.processor.AdaptiveMediaAsyncProcessor;
+import com.liferay.adaptive.media.processor.AdaptiveMediaAsyncProcessorLocator;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 
@@ -29,6 +34,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -45,6 +51,17 @@ public class AdaptiveMediaImageRequestHandlerTest {
 
 	@Before
 	public void setUp() {
+		Mockito.doReturn(
+			_asyncProcessor
+		).when(
+			_asyncProcessorLocator
+		).locateForClass(
+			FileVersion.class
+		);
+
+		_requestHandler.setAdaptiveMediaAsyncProcessorLocator(
+			_asyncProcessorLocator);
+		_requestHandler.setAdaptiveMediaImageAccessRecorder(_accessRecorder);
 		_requestHandler.setAdaptiveMediaImageFinder(_finder);
 		_requestHandler.setPathInterpreter(_pathInterpreter);
 		_requestHandler.setAdaptiveMediaImageConfigurationHelper(
@@ -85,7 +102,7 @@ public class AdaptiveMediaImageRequestHandlerTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -127,7 +144,7 @@ public class AdaptiveMediaImageRequestHandlerTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -135,6 +152,47 @@ public class AdaptiveMediaImageRequestHandlerTest {
 		_requestHandler.handleRequest(_request);
 	}
 
+	@Test
+	public void testGenerationIsNotRequestedForUnsupportedSource()
+		throws Exception {
+
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put(
+			AdaptiveMediaImageConfigurationEntryConditions.MIME_TYPES,
+			"image/png");
+
+		_mockMissingImage(
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"small", "testUuid", properties));
+
+		_requestHandler.handleRequest(_request);
+
+		Mockito.verify(
+			_asyncProcessor, Mockito.never()
+		).triggerProcess(
+			Mockito.any(FileVersion.class), Mockito.anyString()
+		);
+	}
+
+	@Test
+	public void testGenerationIsRequestedOnceForMissingImage()
+		throws Exception {
+
+		_mockMissingImage(
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				"small", "testUuid", new HashMap<>()));
+
+		_requestHandler.handleRequest(_request);
+		_requestHandler.handleRequest(_request);
+
+		Mockito.verify(
+			_asyncProcessor, Mockito.times(1)
+		).triggerProcess(
+			Mockito.eq(_fileVersion), Mockito.anyString()
+		);
+	}
+
 	@Test
 	public void testInvalidPath() throws Exception {
 		Mockito.when(
@@ -168,6 +226,46 @@ public class AdaptiveMediaImageRequestHandlerTest {
 		Assert.assertFalse(mediaOptional.isPresent());
 	}
 
+	private void _mockMissingImage(
+			AdaptiveMediaImageConfigurationEntry configurationEntry)
+		throws Exception {
+
+		Map<String, String> pathProperties = new HashMap<>();
+
+		pathProperties.put("configuration-uuid", configurationEntry.getUUID());
+
+		Mockito.when(
+			_pathInterpreter.interpretPath(Mockito.anyString())
+		).thenReturn(
+			Optional.of(Tuple.of(_fileVersion, pathProperties))
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/jpeg"
+		);
+
+		Mockito.when(
+			_finder.getAdaptiveMedia(Mockito.any(Function.class))
+		).thenAnswer(
+			invocation -> Stream.empty()
+		);
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
+		).thenReturn(
+			Optional.of(configurationEntry)
+		);
+	}
+
+	private final AdaptiveMediaImageAccessRecorder _accessRecorder =
+		Mockito.mock(AdaptiveMediaImageAccessRecorder.class);
+	private final AdaptiveMediaAsyncProcessor<FileVersion, ?> _asyncProcessor =
+		Mockito.mock(AdaptiveMediaAsyncProcessor.class);
+	private final AdaptiveMediaAsyncProcessorLocator _asyncProcessorLocator =
+		Mockito.mock(AdaptiveMediaAsyncProcessorLocator.class);
 	private final AdaptiveMediaImageConfigurationHelper _configurationHelper =
 		Mockito.mock(AdaptiveMediaImageConfigurationHelper.class);
 	private final FileVersion _fileVersion = Mockito.mock(FileVersion.class);
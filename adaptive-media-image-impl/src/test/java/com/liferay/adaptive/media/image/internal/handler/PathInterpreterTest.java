@@ -62,7 +62,7 @@ public class PathInterpreterTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.eq("x"))
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.eq("x"))
 		).thenReturn(
 			Optional.of(_configurationEntry)
 		);
@@ -113,7 +113,7 @@ public class PathInterpreterTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.eq("x"))
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.eq("x"))
 		).thenReturn(
 			Optional.of(_configurationEntry)
 		);
@@ -16,7 +16,9 @@ package com.liferay.adaptive.media.image.internal.mediaquery;
 
 import com.liferay.adaptive.media.AdaptiveMediaException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
-import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntryScaling;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshot;
+import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationSnapshotCache;
 import com.liferay.adaptive.media.image.mediaquery.Condition;
 import com.liferay.adaptive.media.image.mediaquery.MediaQuery;
 import com.liferay.adaptive.media.image.url.AdaptiveMediaImageURLFactory;
@@ -53,11 +55,17 @@ public class MediaQueryProviderImplTest {
 			_COMPANY_ID
 		);
 
+		Mockito.when(
+			_fileEntry.getGroupId()
+		).thenReturn(
+			_GROUP_ID
+		);
+
 		_mediaQueryProvider.setAdaptiveMediaImageURLFactory(
 			_adaptiveMediaURLFactory);
 
-		_mediaQueryProvider.setAdaptiveMediaImageConfigurationHelper(
-			_adaptiveMediaImageConfigurationHelper);
+		_mediaQueryProvider.setAdaptiveMediaImageConfigurationSnapshotCache(
+			_configurationSnapshotCache);
 	}
 
 	@Test
@@ -146,6 +154,42 @@ public class MediaQueryProviderImplTest {
 		_assertCondition(conditions2.get(1), "min-width", "1986px");
 	}
 
+	@Test
+	public void testExcludesFillConfigs() throws Exception {
+		_addConfigs(
+			_createConfig("small", "uuid1", 400, 800, "http://small.com"),
+			_createConfig(
+				"card", "uuid2", 300, 400, "http://card.com", true),
+			_createConfig("big", "uuid3", 800, 1600, "http://big.com"));
+
+		List<MediaQuery> mediaQueries = _mediaQueryProvider.getMediaQueries(
+			_fileEntry);
+
+		Assert.assertEquals(mediaQueries.toString(), 2, mediaQueries.size());
+
+		MediaQuery mediaQuery1 = mediaQueries.get(0);
+
+		Assert.assertEquals(
+			"http://small.com, http://big.com 2x", mediaQuery1.getSrc());
+
+		List<Condition> conditions1 = mediaQuery1.getConditions();
+
+		Assert.assertEquals(conditions1.toString(), 1, conditions1.size());
+
+		_assertCondition(conditions1.get(0), "max-width", "800px");
+
+		MediaQuery mediaQuery2 = mediaQueries.get(1);
+
+		Assert.assertEquals("http://big.com", mediaQuery2.getSrc());
+
+		List<Condition> conditions2 = mediaQuery2.getConditions();
+
+		Assert.assertEquals(conditions2.toString(), 2, conditions2.size());
+
+		_assertCondition(conditions2.get(0), "max-width", "1600px");
+		_assertCondition(conditions2.get(1), "min-width", "800px");
+	}
+
 	@Test
 	public void testHDMediaQueriesApplies() throws Exception {
 		_addConfigs(
@@ -531,10 +575,10 @@ public class MediaQueryProviderImplTest {
 		throws Exception {
 
 		Mockito.when(
-			_adaptiveMediaImageConfigurationHelper.
-				getAdaptiveMediaImageConfigurationEntries(_COMPANY_ID)
+			_configurationSnapshotCache.getSnapshot(_COMPANY_ID, _GROUP_ID)
 		).thenReturn(
-			Arrays.asList(adaptiveMediaImageConfigurationEntries)
+			new AdaptiveMediaImageConfigurationSnapshot(
+				Arrays.asList(adaptiveMediaImageConfigurationEntries), false, 1)
 		);
 	}
 
@@ -550,6 +594,14 @@ public class MediaQueryProviderImplTest {
 			final int width, String url)
 		throws Exception {
 
+		return _createConfig(name, uuid, height, width, url, false);
+	}
+
+	private AdaptiveMediaImageConfigurationEntry _createConfig(
+			final String name, final String uuid, final int height,
+			final int width, String url, final boolean fill)
+		throws Exception {
+
 		AdaptiveMediaImageConfigurationEntry configurationEntry =
 			new AdaptiveMediaImageConfigurationEntry() {
 
@@ -565,6 +617,14 @@ public class MediaQueryProviderImplTest {
 					properties.put("max-height", String.valueOf(height));
 					properties.put("max-width", String.valueOf(width));
 
+					if (fill) {
+						properties.put(
+							AdaptiveMediaImageConfigurationEntryScaling.
+								SCALING_MODE,
+							AdaptiveMediaImageConfigurationEntryScaling.
+								SCALING_MODE_FILL);
+					}
+
 					return properties;
 				}
 
@@ -592,13 +652,15 @@ public class MediaQueryProviderImplTest {
 
 	private static final long _COMPANY_ID = 1L;
 
-	@Mock
-	private AdaptiveMediaImageConfigurationHelper
-		_adaptiveMediaImageConfigurationHelper;
+	private static final long _GROUP_ID = 2L;
 
 	@Mock
 	private AdaptiveMediaImageURLFactory _adaptiveMediaURLFactory;
 
+	@Mock
+	private AdaptiveMediaImageConfigurationSnapshotCache
+		_configurationSnapshotCache;
+
 	@Mock
 	private FileEntry _fileEntry;
 
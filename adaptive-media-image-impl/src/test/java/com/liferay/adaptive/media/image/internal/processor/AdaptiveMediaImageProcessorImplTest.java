@@ -33,6 +33,8 @@ import java.awt.image.RenderedImage;
 import java.io.InputStream;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Before;
@@ -139,21 +141,32 @@ public class AdaptiveMediaImageProcessorImplTest {
 			true
 		);
 
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				Collections.emptyMap());
+
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
+		).thenReturn(
+			Optional.of(configurationEntry)
+		);
+
+		AdaptiveMediaImageEntry imageEntry = Mockito.mock(
+			AdaptiveMediaImageEntry.class);
+
+		Mockito.when(
+			imageEntry.getConfigurationVersion()
 		).thenReturn(
-			Optional.of(
-				new AdaptiveMediaImageConfigurationEntryImpl(
-					StringUtil.randomString(), StringUtil.randomString(),
-					Collections.emptyMap()))
+			configurationEntry.getContentVersion()
 		);
 
 		Mockito.when(
 			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
 				Mockito.anyString(), Mockito.anyLong())
 		).thenReturn(
-			Mockito.mock(AdaptiveMediaImageEntry.class)
+			imageEntry
 		);
 
 		_processor.process(_fileVersion, StringUtil.randomString());
@@ -166,6 +179,120 @@ public class AdaptiveMediaImageProcessorImplTest {
 		);
 	}
 
+	@Test
+	public void testProcessConfigurationWhenAdaptiveMediaImageEntryIsStale()
+		throws Exception {
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				Collections.singletonMap("max-width", "100"));
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
+		).thenReturn(
+			Optional.of(configurationEntry)
+		);
+
+		AdaptiveMediaImageEntry imageEntry = Mockito.mock(
+			AdaptiveMediaImageEntry.class);
+
+		Mockito.when(
+			imageEntry.getConfigurationVersion()
+		).thenReturn(
+			StringUtil.randomString()
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(
+				Mockito.anyString(), Mockito.anyLong())
+		).thenReturn(
+			imageEntry
+		);
+
+		RenderedImage renderedImage = Mockito.mock(RenderedImage.class);
+
+		Mockito.when(
+			_imageProcessor.scaleImage(_fileVersion, configurationEntry)
+		).thenReturn(
+			renderedImage
+		);
+
+		_processor.process(_fileVersion, configurationEntry.getUUID());
+
+		Mockito.verify(
+			_imageEntryLocalService
+		).updateAdaptiveMediaImageEntry(
+			Mockito.eq(configurationEntry), Mockito.eq(_fileVersion),
+			Mockito.anyInt(), Mockito.anyInt(), Mockito.any(InputStream.class),
+			Mockito.anyInt()
+		);
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.never()
+		).addAdaptiveMediaImageEntry(
+			Mockito.any(AdaptiveMediaImageConfigurationEntry.class),
+			Mockito.any(FileVersion.class), Mockito.anyInt(), Mockito.anyInt(),
+			Mockito.any(InputStream.class), Mockito.anyInt()
+		);
+	}
+
+	@Test
+	public void testProcessConfigurationWhenMimeTypeIsExcluded()
+		throws Exception {
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		Mockito.when(
+			_fileVersion.getMimeType()
+		).thenReturn(
+			"image/gif"
+		);
+
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-width", "100");
+		properties.put("mime-types", "image/jpeg,image/png");
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				properties);
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
+		).thenReturn(
+			Optional.of(configurationEntry)
+		);
+
+		_processor.process(_fileVersion, configurationEntry.getUUID());
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.never()
+		).fetchAdaptiveMediaImageEntry(
+			Mockito.anyString(), Mockito.anyLong()
+		);
+
+		Mockito.verify(
+			_imageProcessor, Mockito.never()
+		).scaleImage(
+			Mockito.any(FileVersion.class),
+			Mockito.any(AdaptiveMediaImageConfigurationEntry.class)
+		);
+	}
+
 	@Test
 	public void testProcessConfigurationWhenNoConfigurationEntry()
 		throws Exception {
@@ -178,7 +305,7 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.empty()
 		);
@@ -205,7 +332,50 @@ public class AdaptiveMediaImageProcessorImplTest {
 		Mockito.verify(
 			_configurationHelper, Mockito.never()
 		).getAdaptiveMediaImageConfigurationEntry(
-			Mockito.anyLong(), Mockito.anyString()
+			Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString()
+		);
+	}
+
+	@Test
+	public void testProcessConfigurationWhenSourceImageIsTooNarrow()
+		throws Exception {
+
+		Mockito.when(
+			_imageProcessor.isMimeTypeSupported(Mockito.anyString())
+		).thenReturn(
+			true
+		);
+
+		Mockito.when(
+			_imageProcessor.getWidth(_fileVersion)
+		).thenReturn(
+			100
+		);
+
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-width", "100");
+		properties.put("min-source-width", "200");
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			new AdaptiveMediaImageConfigurationEntryImpl(
+				StringUtil.randomString(), StringUtil.randomString(),
+				properties);
+
+		Mockito.when(
+			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
+		).thenReturn(
+			Optional.of(configurationEntry)
+		);
+
+		_processor.process(_fileVersion, configurationEntry.getUUID());
+
+		Mockito.verify(
+			_imageProcessor, Mockito.never()
+		).scaleImage(
+			Mockito.any(FileVersion.class),
+			Mockito.any(AdaptiveMediaImageConfigurationEntry.class)
 		);
 	}
 
@@ -226,14 +396,14 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong())
+				Mockito.anyLong(), Mockito.anyLong())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
 		);
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -274,14 +444,14 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong())
+				Mockito.anyLong(), Mockito.anyLong())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
 		);
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -324,7 +494,7 @@ public class AdaptiveMediaImageProcessorImplTest {
 		).when(
 			_configurationHelper
 		).getAdaptiveMediaImageConfigurationEntries(
-			Mockito.anyLong()
+			Mockito.anyLong(), Mockito.anyLong()
 		);
 
 		_processor.process(_fileVersion);
@@ -345,14 +515,14 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong())
+				Mockito.anyLong(), Mockito.anyLong())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
 		);
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -383,14 +553,14 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong())
+				Mockito.anyLong(), Mockito.anyLong())
 		).thenReturn(
 			Collections.singleton(configurationEntry)
 		);
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
-				Mockito.anyLong(), Mockito.anyString())
+				Mockito.anyLong(), Mockito.anyLong(), Mockito.anyString())
 		).thenReturn(
 			Optional.of(configurationEntry)
 		);
@@ -426,7 +596,7 @@ public class AdaptiveMediaImageProcessorImplTest {
 
 		Mockito.when(
 			_configurationHelper.getAdaptiveMediaImageConfigurationEntries(
-				Mockito.anyLong())
+				Mockito.anyLong(), Mockito.anyLong())
 		).thenReturn(
 			Collections.emptyList()
 		);
@@ -463,7 +633,7 @@ public class AdaptiveMediaImageProcessorImplTest {
 		Mockito.verify(
 			_configurationHelper, Mockito.never()
 		).getAdaptiveMediaImageConfigurationEntries(
-			Mockito.anyLong()
+			Mockito.anyLong(), Mockito.anyLong()
 		);
 	}
 
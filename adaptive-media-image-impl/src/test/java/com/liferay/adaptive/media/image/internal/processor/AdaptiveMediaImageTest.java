@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.net.URI;
 
 import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.junit.Assert;
@@ -68,4 +70,53 @@ public class AdaptiveMediaImageTest {
 		Assert.assertEquals(inputStream, adaptiveMedia.getInputStream());
 	}
 
+	@Test
+	public void testLazyAttributeMappingIsComputedOnce() {
+		AtomicInteger count = new AtomicInteger();
+
+		AdaptiveMediaImage adaptiveMedia = new AdaptiveMediaImage(
+			() -> null,
+			() -> {
+				count.incrementAndGet();
+
+				return AdaptiveMediaImageAttributeMapping.fromProperties(
+					Collections.singletonMap(
+						AdaptiveMediaImageAttribute.IMAGE_HEIGHT.getName(),
+						"100"));
+			},
+			() -> URI.create("/"));
+
+		Assert.assertEquals(0, count.get());
+
+		Optional<Integer> heightOptional = adaptiveMedia.getAttributeValue(
+			AdaptiveMediaImageAttribute.IMAGE_HEIGHT);
+
+		Assert.assertEquals(Integer.valueOf(100), heightOptional.get());
+
+		adaptiveMedia.getAttributeValue(
+			AdaptiveMediaImageAttribute.IMAGE_WIDTH);
+
+		Assert.assertEquals(1, count.get());
+	}
+
+	@Test
+	public void testLazyURIIsComputedOnce() {
+		AtomicInteger count = new AtomicInteger();
+
+		AdaptiveMediaImage adaptiveMedia = new AdaptiveMediaImage(
+			() -> null,
+			() -> AdaptiveMediaImageAttributeMapping.fromProperties(
+				Collections.emptyMap()),
+			() -> {
+				count.incrementAndGet();
+
+				return URI.create("/image");
+			});
+
+		Assert.assertEquals(0, count.get());
+		Assert.assertEquals(URI.create("/image"), adaptiveMedia.getURI());
+		Assert.assertEquals(URI.create("/image"), adaptiveMedia.getURI());
+		Assert.assertEquals(1, count.get());
+	}
+
 }
\ No newline at end of file
@@ -17,6 +17,8 @@ package com.liferay.adaptive.media.image.internal.url;
 import com.liferay.adaptive.media.AdaptiveMediaURIResolver;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
 import com.liferay.adaptive.media.image.internal.configuration.AdaptiveMediaImageConfigurationEntryImpl;
+import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
 import com.liferay.portal.kernel.repository.model.FileVersion;
 
 import java.net.URI;
@@ -64,6 +66,20 @@ public class AdaptiveMediaImageURLFactoryImplTest {
 			invocation -> URI.create("prefix/" + invocation.getArguments()[0])
 		);
 
+		Mockito.when(
+			_imageEntry.getConfigurationVersion()
+		).thenReturn(
+			"imageVersion"
+		);
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(_UUID, 2L)
+		).thenReturn(
+			_imageEntry
+		);
+
+		_adaptiveMediaImageURLFactory.setAdaptiveMediaImageEntryLocalService(
+			_imageEntryLocalService);
 		_adaptiveMediaImageURLFactory.setAdaptiveMediaURIResolver(_uriResolver);
 	}
 
@@ -72,11 +88,30 @@ public class AdaptiveMediaImageURLFactoryImplTest {
 		URI uri = _adaptiveMediaImageURLFactory.createFileEntryURL(
 			_fileVersion, _configurationEntry);
 
-		Assert.assertEquals("prefix/image/1/theUuid/fileName", uri.toString());
+		Assert.assertEquals(
+			"prefix/image/1/theUuid/fileName?t=imageVersion", uri.toString());
 	}
 
 	@Test
 	public void testCreatesURLForFileVersion() throws Exception {
+		URI uri = _adaptiveMediaImageURLFactory.createFileVersionURL(
+			_fileVersion, _configurationEntry);
+
+		Assert.assertEquals(
+			"prefix/image/1/2/theUuid/fileName?t=imageVersion",
+			uri.toString());
+	}
+
+	@Test
+	public void testCreatesURLWithoutVersionForMissingImage()
+		throws Exception {
+
+		Mockito.when(
+			_imageEntryLocalService.fetchAdaptiveMediaImageEntry(_UUID, 2L)
+		).thenReturn(
+			null
+		);
+
 		URI uri = _adaptiveMediaImageURLFactory.createFileVersionURL(
 			_fileVersion, _configurationEntry);
 
@@ -84,6 +119,46 @@ public class AdaptiveMediaImageURLFactoryImplTest {
 			"prefix/image/1/2/theUuid/fileName", uri.toString());
 	}
 
+	@Test
+	public void testURLChangesWithImageVersion() throws Exception {
+		URI uri = _adaptiveMediaImageURLFactory.createFileVersionURL(
+			_fileVersion, _configurationEntry, _imageEntry);
+
+		AdaptiveMediaImageEntry imageEntry = Mockito.mock(
+			AdaptiveMediaImageEntry.class);
+
+		Mockito.when(
+			imageEntry.getConfigurationVersion()
+		).thenReturn(
+			"newImageVersion"
+		);
+
+		Assert.assertNotEquals(
+			uri,
+			_adaptiveMediaImageURLFactory.createFileVersionURL(
+				_fileVersion, _configurationEntry, imageEntry));
+	}
+
+	@Test
+	public void testURLUsesImageVersionInsteadOfConfigurationVersion()
+		throws Exception {
+
+		Assert.assertNotEquals(
+			"imageVersion", _configurationEntry.getContentVersion());
+
+		URI uri = _adaptiveMediaImageURLFactory.createFileEntryURL(
+			_fileVersion, _configurationEntry, _imageEntry);
+
+		Assert.assertEquals(
+			"prefix/image/1/theUuid/fileName?t=imageVersion", uri.toString());
+
+		Mockito.verify(
+			_imageEntryLocalService, Mockito.never()
+		).fetchAdaptiveMediaImageEntry(
+			Mockito.anyString(), Mockito.anyLong()
+		);
+	}
+
 	private static final String _UUID = "theUuid";
 
 	private final AdaptiveMediaImageURLFactoryImpl
@@ -95,6 +170,12 @@ public class AdaptiveMediaImageURLFactoryImplTest {
 	@Mock
 	private FileVersion _fileVersion;
 
+	@Mock
+	private AdaptiveMediaImageEntry _imageEntry;
+
+	@Mock
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
 	@Mock
 	private AdaptiveMediaURIResolver _uriResolver;
 
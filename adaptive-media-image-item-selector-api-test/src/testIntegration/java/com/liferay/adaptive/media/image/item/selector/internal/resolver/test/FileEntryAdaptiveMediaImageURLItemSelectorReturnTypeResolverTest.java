@@ -51,6 +51,7 @@ import com.liferay.registry.RegistryUtil;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -663,7 +664,8 @@ public class FileEntryAdaptiveMediaImageURLItemSelectorReturnTypeResolverTest {
 	private void _assertHDSrcSource(
 		JSONObject sourceJSONObject, long fileEntryId,
 		String originalConfigurationEntryUuid, String hdConfigurationEntryUuid,
-		String title) {
+		String title)
+		throws Exception {
 
 		String srcSource = sourceJSONObject.getString("src");
 
@@ -675,6 +677,8 @@ public class FileEntryAdaptiveMediaImageURLItemSelectorReturnTypeResolverTest {
 		sb.append(originalConfigurationEntryUuid);
 		sb.append("/");
 		sb.append(title);
+		sb.append("?t=");
+		sb.append(_getContentVersion(originalConfigurationEntryUuid));
 		sb.append(", ");
 		sb.append("/o/adaptive-media/image/");
 		sb.append(fileEntryId);
@@ -682,6 +686,8 @@ public class FileEntryAdaptiveMediaImageURLItemSelectorReturnTypeResolverTest {
 		sb.append(hdConfigurationEntryUuid);
 		sb.append("/");
 		sb.append(title);
+		sb.append("?t=");
+		sb.append(_getContentVersion(hdConfigurationEntryUuid));
 		sb.append(" 2x");
 
 		Assert.assertEquals(sb.toString(), srcSource);
@@ -689,16 +695,32 @@ public class FileEntryAdaptiveMediaImageURLItemSelectorReturnTypeResolverTest {
 
 	private void _assertSrcSource(
 		JSONObject sourceJSONObject, long fileEntryId,
-		String configurationEntryUuid, String title) {
+		String configurationEntryUuid, String title)
+		throws Exception {
 
 		String srcSource = sourceJSONObject.getString("src");
 
 		Assert.assertEquals(
 			"/o/adaptive-media/image/" + fileEntryId + "/" +
-				configurationEntryUuid + "/" + title,
+				configurationEntryUuid + "/" + title + "?t=" +
+					_getContentVersion(configurationEntryUuid),
 			srcSource);
 	}
 
+	private String _getContentVersion(String configurationEntryUuid)
+		throws Exception {
+
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					TestPropsValues.getCompanyId(), configurationEntryUuid);
+
+		AdaptiveMediaImageConfigurationEntry configurationEntry =
+			configurationEntryOptional.get();
+
+		return configurationEntry.getContentVersion();
+	}
+
 	private byte[] _getImageBytes() throws Exception {
 		return FileUtil.getBytes(
 			FileEntryAdaptiveMediaImageURLItemSelectorReturnTypeResolverTest.
@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.counter;
+
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntSupplier;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps in memory the number of adaptive media images generated for every
+ * configuration and the number of adaptive media images expected in every
+ * company and configuration, so that progress can be polled without counting
+ * rows each time.
+ *
+ * <p>
+ * Counts are loaded lazily and kept up to date by the callers. Every count is
+ * loaded with the stamp stored for it in a multi VM portal cache, and a new
+ * stamp is stored whenever a count changes, so that the other cluster nodes
+ * discard their copy and reload it on the next read. To correct any remaining
+ * drift, a count is also reloaded once it is older than the reconciliation
+ * interval.
+ * </p>
+ *
+ * @author Sergio González
+ */
+@Component(immediate = true, service = ImageEntryCountCache.class)
+public class ImageEntryCountCache {
+
+	public static final String CACHE_NAME =
+		ImageEntryCountCache.class.getName();
+
+	public void addActualCount(
+		long companyId, String configurationUuid, int delta) {
+
+		String key = _getActualCountKey(companyId, configurationUuid);
+
+		String stampKey = _getActualCountStampKey(key);
+
+		String stamp = PortalUUIDUtil.generate();
+
+		_actualCounts.compute(
+			key,
+			(curKey, count) -> {
+				if ((count == null) ||
+					!count.hasStamp(_portalCache.get(stampKey))) {
+
+					return null;
+				}
+
+				return count.add(delta, stamp);
+			});
+
+		_portalCache.put(stampKey, stamp);
+	}
+
+	public int getActualCount(
+		long companyId, String configurationUuid, IntSupplier intSupplier) {
+
+		String key = _getActualCountKey(companyId, configurationUuid);
+
+		return _getCount(
+			_actualCounts, key, _getActualCountStampKey(key), intSupplier);
+	}
+
+	public int getExpectedCount(long companyId, IntSupplier intSupplier) {
+		return _getCount(
+			_expectedCounts, String.valueOf(companyId),
+			_getExpectedCountStampKey(companyId), intSupplier);
+	}
+
+	public int getExpectedCount(
+		long companyId, String configurationKey, IntSupplier intSupplier) {
+
+		return _getCount(
+			_expectedCounts, _getKey(companyId, configurationKey),
+			_getExpectedCountStampKey(companyId), intSupplier);
+	}
+
+	public void removeActualCount(long companyId, String configurationUuid) {
+		String key = _getActualCountKey(companyId, configurationUuid);
+
+		_actualCounts.remove(key);
+
+		_portalCache.remove(_getActualCountStampKey(key));
+	}
+
+	public void removeExpectedCount(long companyId) {
+		String companyKey = String.valueOf(companyId);
+
+		Set<String> keys = _expectedCounts.keySet();
+
+		keys.removeIf(
+			key -> key.equals(companyKey) || key.startsWith(companyKey + "#"));
+
+		_portalCache.remove(_getExpectedCountStampKey(companyId));
+	}
+
+	@Activate
+	protected void activate() {
+		_portalCache = (PortalCache<String, String>)_multiVMPool.getPortalCache(
+			CACHE_NAME);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_multiVMPool.removePortalCache(CACHE_NAME);
+	}
+
+	protected long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	@Reference(unbind = "-")
+	protected void setMultiVMPool(MultiVMPool multiVMPool) {
+		_multiVMPool = multiVMPool;
+	}
+
+	private String _getActualCountKey(
+		long companyId, String configurationUuid) {
+
+		return _getKey(companyId, configurationUuid);
+	}
+
+	private String _getActualCountStampKey(String key) {
+		return "actual#" + key;
+	}
+
+	private int _getCount(
+		ConcurrentMap<String, Count> counts, String key, String stampKey,
+		IntSupplier intSupplier) {
+
+		long currentTime = getCurrentTime();
+
+		String stamp = _getStamp(stampKey);
+
+		Count count = counts.compute(
+			key,
+			(curKey, curCount) -> {
+				if ((curCount != null) && curCount.hasStamp(stamp) &&
+					((currentTime - curCount.getLoadTime()) <=
+						_RECONCILIATION_INTERVAL)) {
+
+					return curCount;
+				}
+
+				return new Count(intSupplier.getAsInt(), currentTime, stamp);
+			});
+
+		return count.get();
+	}
+
+	private String _getExpectedCountStampKey(long companyId) {
+		return "expected#" + companyId;
+	}
+
+	private String _getKey(long companyId, String configurationKey) {
+		return companyId + "#" + configurationKey;
+	}
+
+	/**
+	 * Returns the stamp counts must have been loaded with to be used. The
+	 * stamp is stored without replicating it, as storing it only means that
+	 * this node has loaded the counts and must not discard the copies of the
+	 * other cluster nodes.
+	 */
+	private String _getStamp(String stampKey) {
+		String stamp = _portalCache.get(stampKey);
+
+		if (stamp == null) {
+			stamp = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_portalCache, stampKey, stamp);
+		}
+
+		return stamp;
+	}
+
+	private static final long _RECONCILIATION_INTERVAL = Time.MINUTE * 10;
+
+	private final ConcurrentMap<String, Count> _actualCounts =
+		new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Count> _expectedCounts =
+		new ConcurrentHashMap<>();
+	private MultiVMPool _multiVMPool;
+	private volatile PortalCache<String, String> _portalCache;
+
+	private static final class Count {
+
+		public Count(int value, long loadTime, String stamp) {
+			_value = value;
+			_loadTime = loadTime;
+			_stamp = stamp;
+		}
+
+		public Count add(int delta, String stamp) {
+			return new Count(Math.max(_value + delta, 0), _loadTime, stamp);
+		}
+
+		public int get() {
+			return _value;
+		}
+
+		public long getLoadTime() {
+			return _loadTime;
+		}
+
+		public boolean hasStamp(String stamp) {
+			return _stamp.equals(stamp);
+		}
+
+		private final long _loadTime;
+		private final String _stamp;
+		private final int _value;
+
+	}
+
+}
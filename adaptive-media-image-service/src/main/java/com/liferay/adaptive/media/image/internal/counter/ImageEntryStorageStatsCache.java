@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.counter;
+
+import com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats;
+import com.liferay.portal.kernel.util.StringPool;
+import com.liferay.portal.kernel.util.Time;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Keeps in memory the storage stats of the adaptive media images of every
+ * company, grouped by configuration, group and mime type, so that they can be
+ * displayed without aggregating the whole table each time.
+ *
+ * <p>
+ * Stats are loaded lazily and kept up to date by the callers. To correct any
+ * drift, for example from changes made by other cluster nodes, the stats of a
+ * company are reloaded on the next read once they are older than the
+ * reconciliation interval.
+ * </p>
+ *
+ * @author Sergio González
+ */
+@Component(immediate = true, service = ImageEntryStorageStatsCache.class)
+public class ImageEntryStorageStatsCache {
+
+	public void addStorageStats(
+		long companyId, String configurationUuid, long groupId,
+		String mimeType, int count, long size, long pixels) {
+
+		CompanyStorageStats companyStorageStats = _companyStorageStats.get(
+			companyId);
+
+		if (companyStorageStats != null) {
+			companyStorageStats.add(
+				new AdaptiveMediaImageStorageStats(
+					configurationUuid, groupId, mimeType, count, size, pixels));
+		}
+	}
+
+	public List<AdaptiveMediaImageStorageStats> getStorageStats(
+		long companyId,
+		Supplier<List<AdaptiveMediaImageStorageStats>> supplier) {
+
+		CompanyStorageStats companyStorageStats = _companyStorageStats.get(
+			companyId);
+
+		long currentTime = getCurrentTime();
+
+		if ((companyStorageStats == null) ||
+			((currentTime - companyStorageStats.getLoadTime()) >
+				_RECONCILIATION_INTERVAL)) {
+
+			companyStorageStats = new CompanyStorageStats(
+				supplier.get(), currentTime);
+
+			_companyStorageStats.put(companyId, companyStorageStats);
+		}
+
+		return companyStorageStats.get();
+	}
+
+	public void removeStorageStats(long companyId) {
+		_companyStorageStats.remove(companyId);
+	}
+
+	protected long getCurrentTime() {
+		return System.currentTimeMillis();
+	}
+
+	private static final long _RECONCILIATION_INTERVAL = Time.HOUR;
+
+	private final ConcurrentMap<Long, CompanyStorageStats>
+		_companyStorageStats = new ConcurrentHashMap<>();
+
+	private static final class CompanyStorageStats {
+
+		public CompanyStorageStats(
+			Collection<AdaptiveMediaImageStorageStats> storageStatsCollection,
+			long loadTime) {
+
+			for (AdaptiveMediaImageStorageStats storageStats :
+					storageStatsCollection) {
+
+				add(storageStats);
+			}
+
+			_loadTime = loadTime;
+		}
+
+		public void add(AdaptiveMediaImageStorageStats storageStats) {
+			String key = _getKey(storageStats);
+
+			_storageStats.merge(
+				key, storageStats, AdaptiveMediaImageStorageStats::add);
+		}
+
+		public List<AdaptiveMediaImageStorageStats> get() {
+			List<AdaptiveMediaImageStorageStats> storageStatsList =
+				new ArrayList<>();
+
+			for (AdaptiveMediaImageStorageStats storageStats :
+					_storageStats.values()) {
+
+				if (storageStats.getCount() > 0) {
+					storageStatsList.add(storageStats);
+				}
+			}
+
+			return storageStatsList;
+		}
+
+		public long getLoadTime() {
+			return _loadTime;
+		}
+
+		private String _getKey(AdaptiveMediaImageStorageStats storageStats) {
+			return storageStats.getConfigurationUuid() + StringPool.POUND +
+				storageStats.getGroupId() + StringPool.POUND +
+					storageStats.getMimeType();
+		}
+
+		private final long _loadTime;
+		private final ConcurrentMap<String, AdaptiveMediaImageStorageStats>
+			_storageStats = new ConcurrentHashMap<>();
+
+	}
+
+}
@@ -56,6 +56,15 @@ public class ImageStorage {
 		}
 	}
 
+	public void replace(
+		FileVersion fileVersion, String configurationUuid,
+		InputStream inputStream) {
+
+		delete(fileVersion, configurationUuid);
+
+		save(fileVersion, configurationUuid, inputStream);
+	}
+
 	public void save(
 		FileVersion fileVersion, String configurationUuid,
 		InputStream inputStream) {
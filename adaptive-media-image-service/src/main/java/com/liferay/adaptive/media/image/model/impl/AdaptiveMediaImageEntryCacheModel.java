@@ -66,7 +66,7 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 
 	@Override
 	public String toString() {
-		StringBundler sb = new StringBundler(23);
+		StringBundler sb = new StringBundler(27);
 
 		sb.append("{uuid=");
 		sb.append(uuid);
@@ -90,6 +90,10 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 		sb.append(width);
 		sb.append(", size=");
 		sb.append(size);
+		sb.append(", lastAccessDate=");
+		sb.append(lastAccessDate);
+		sb.append(", configurationVersion=");
+		sb.append(configurationVersion);
 		sb.append("}");
 
 		return sb.toString();
@@ -137,6 +141,21 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 		adaptiveMediaImageEntryImpl.setWidth(width);
 		adaptiveMediaImageEntryImpl.setSize(size);
 
+		if (lastAccessDate == Long.MIN_VALUE) {
+			adaptiveMediaImageEntryImpl.setLastAccessDate(null);
+		}
+		else {
+			adaptiveMediaImageEntryImpl.setLastAccessDate(new Date(
+					lastAccessDate));
+		}
+
+		if (configurationVersion == null) {
+			adaptiveMediaImageEntryImpl.setConfigurationVersion(StringPool.BLANK);
+		}
+		else {
+			adaptiveMediaImageEntryImpl.setConfigurationVersion(configurationVersion);
+		}
+
 		adaptiveMediaImageEntryImpl.resetOriginalValues();
 
 		return adaptiveMediaImageEntryImpl;
@@ -162,6 +181,8 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 		width = objectInput.readInt();
 
 		size = objectInput.readLong();
+		lastAccessDate = objectInput.readLong();
+		configurationVersion = objectInput.readUTF();
 	}
 
 	@Override
@@ -202,6 +223,14 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 		objectOutput.writeInt(width);
 
 		objectOutput.writeLong(size);
+		objectOutput.writeLong(lastAccessDate);
+
+		if (configurationVersion == null) {
+			objectOutput.writeUTF(StringPool.BLANK);
+		}
+		else {
+			objectOutput.writeUTF(configurationVersion);
+		}
 	}
 
 	public String uuid;
@@ -215,4 +244,6 @@ public class AdaptiveMediaImageEntryCacheModel implements CacheModel<AdaptiveMed
 	public int height;
 	public int width;
 	public long size;
+	public long lastAccessDate;
+	public String configurationVersion;
 }
\ No newline at end of file
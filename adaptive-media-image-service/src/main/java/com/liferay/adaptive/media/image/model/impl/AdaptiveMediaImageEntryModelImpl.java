@@ -72,7 +72,9 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 			{ "mimeType", Types.VARCHAR },
 			{ "height", Types.INTEGER },
 			{ "width", Types.INTEGER },
-			{ "size_", Types.BIGINT }
+			{ "size_", Types.BIGINT },
+			{ "lastAccessDate", Types.TIMESTAMP },
+			{ "configurationVersion", Types.VARCHAR }
 		};
 	public static final Map<String, Integer> TABLE_COLUMNS_MAP = new HashMap<String, Integer>();
 
@@ -88,9 +90,11 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		TABLE_COLUMNS_MAP.put("height", Types.INTEGER);
 		TABLE_COLUMNS_MAP.put("width", Types.INTEGER);
 		TABLE_COLUMNS_MAP.put("size_", Types.BIGINT);
+		TABLE_COLUMNS_MAP.put("lastAccessDate", Types.TIMESTAMP);
+		TABLE_COLUMNS_MAP.put("configurationVersion", Types.VARCHAR);
 	}
 
-	public static final String TABLE_SQL_CREATE = "create table AdaptiveMediaImageEntry (uuid_ VARCHAR(75) null,adaptiveMediaImageEntryId LONG not null primary key,groupId LONG,companyId LONG,createDate DATE null,configurationUuid VARCHAR(75) null,fileVersionId LONG,mimeType VARCHAR(75) null,height INTEGER,width INTEGER,size_ LONG)";
+	public static final String TABLE_SQL_CREATE = "create table AdaptiveMediaImageEntry (uuid_ VARCHAR(75) null,adaptiveMediaImageEntryId LONG not null primary key,groupId LONG,companyId LONG,createDate DATE null,configurationUuid VARCHAR(75) null,fileVersionId LONG,mimeType VARCHAR(75) null,height INTEGER,width INTEGER,size_ LONG,lastAccessDate DATE null,configurationVersion VARCHAR(75) null)";
 	public static final String TABLE_SQL_DROP = "drop table AdaptiveMediaImageEntry";
 	public static final String ORDER_BY_JPQL = " ORDER BY adaptiveMediaImageEntry.adaptiveMediaImageEntryId ASC";
 	public static final String ORDER_BY_SQL = " ORDER BY AdaptiveMediaImageEntry.adaptiveMediaImageEntryId ASC";
@@ -164,6 +168,8 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		attributes.put("height", getHeight());
 		attributes.put("width", getWidth());
 		attributes.put("size", getSize());
+		attributes.put("lastAccessDate", getLastAccessDate());
+		attributes.put("configurationVersion", getConfigurationVersion());
 
 		attributes.put("entityCacheEnabled", isEntityCacheEnabled());
 		attributes.put("finderCacheEnabled", isFinderCacheEnabled());
@@ -239,6 +245,19 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		if (size != null) {
 			setSize(size);
 		}
+
+		Date lastAccessDate = (Date)attributes.get("lastAccessDate");
+
+		if (lastAccessDate != null) {
+			setLastAccessDate(lastAccessDate);
+		}
+
+		String configurationVersion = (String)attributes.get(
+				"configurationVersion");
+
+		if (configurationVersion != null) {
+			setConfigurationVersion(configurationVersion);
+		}
 	}
 
 	@Override
@@ -420,6 +439,31 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		_size = size;
 	}
 
+	@Override
+	public Date getLastAccessDate() {
+		return _lastAccessDate;
+	}
+
+	@Override
+	public void setLastAccessDate(Date lastAccessDate) {
+		_lastAccessDate = lastAccessDate;
+	}
+
+	@Override
+	public String getConfigurationVersion() {
+		if (_configurationVersion == null) {
+			return StringPool.BLANK;
+		}
+		else {
+			return _configurationVersion;
+		}
+	}
+
+	@Override
+	public void setConfigurationVersion(String configurationVersion) {
+		_configurationVersion = configurationVersion;
+	}
+
 	public long getColumnBitmask() {
 		return _columnBitmask;
 	}
@@ -462,6 +506,8 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		adaptiveMediaImageEntryImpl.setHeight(getHeight());
 		adaptiveMediaImageEntryImpl.setWidth(getWidth());
 		adaptiveMediaImageEntryImpl.setSize(getSize());
+		adaptiveMediaImageEntryImpl.setLastAccessDate(getLastAccessDate());
+		adaptiveMediaImageEntryImpl.setConfigurationVersion(getConfigurationVersion());
 
 		adaptiveMediaImageEntryImpl.resetOriginalValues();
 
@@ -594,12 +640,30 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 
 		adaptiveMediaImageEntryCacheModel.size = getSize();
 
+		Date lastAccessDate = getLastAccessDate();
+
+		if (lastAccessDate != null) {
+			adaptiveMediaImageEntryCacheModel.lastAccessDate = lastAccessDate.getTime();
+		}
+		else {
+			adaptiveMediaImageEntryCacheModel.lastAccessDate = Long.MIN_VALUE;
+		}
+
+		adaptiveMediaImageEntryCacheModel.configurationVersion = getConfigurationVersion();
+
+		String configurationVersion = adaptiveMediaImageEntryCacheModel.configurationVersion;
+
+		if ((configurationVersion != null) &&
+				(configurationVersion.length() == 0)) {
+			adaptiveMediaImageEntryCacheModel.configurationVersion = null;
+		}
+
 		return adaptiveMediaImageEntryCacheModel;
 	}
 
 	@Override
 	public String toString() {
-		StringBundler sb = new StringBundler(23);
+		StringBundler sb = new StringBundler(27);
 
 		sb.append("{uuid=");
 		sb.append(getUuid());
@@ -623,6 +687,10 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 		sb.append(getWidth());
 		sb.append(", size=");
 		sb.append(getSize());
+		sb.append(", lastAccessDate=");
+		sb.append(getLastAccessDate());
+		sb.append(", configurationVersion=");
+		sb.append(getConfigurationVersion());
 		sb.append("}");
 
 		return sb.toString();
@@ -630,7 +698,7 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 
 	@Override
 	public String toXmlString() {
-		StringBundler sb = new StringBundler(37);
+		StringBundler sb = new StringBundler(43);
 
 		sb.append("<model><model-name>");
 		sb.append(
@@ -681,6 +749,14 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 			"<column><column-name>size</column-name><column-value><![CDATA[");
 		sb.append(getSize());
 		sb.append("]]></column-value></column>");
+		sb.append(
+			"<column><column-name>lastAccessDate</column-name><column-value><![CDATA[");
+		sb.append(getLastAccessDate());
+		sb.append("]]></column-value></column>");
+		sb.append(
+			"<column><column-name>configurationVersion</column-name><column-value><![CDATA[");
+		sb.append(getConfigurationVersion());
+		sb.append("]]></column-value></column>");
 
 		sb.append("</model>");
 
@@ -710,6 +786,8 @@ public class AdaptiveMediaImageEntryModelImpl extends BaseModelImpl<AdaptiveMedi
 	private int _height;
 	private int _width;
 	private long _size;
+	private Date _lastAccessDate;
+	private String _configurationVersion;
 	private long _columnBitmask;
 	private AdaptiveMediaImageEntry _escapedModel;
 }
\ No newline at end of file
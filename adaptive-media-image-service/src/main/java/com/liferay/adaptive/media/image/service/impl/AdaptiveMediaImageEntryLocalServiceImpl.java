@@ -18,25 +18,48 @@ import aQute.bnd.annotation.ProviderType;
 
 import com.liferay.adaptive.media.AdaptiveMediaRuntimeException;
 import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
 import com.liferay.adaptive.media.image.counter.AdaptiveMediaImageCounter;
 import com.liferay.adaptive.media.image.exception.DuplicateAdaptiveMediaImageEntryException;
+import com.liferay.adaptive.media.image.internal.counter.ImageEntryCountCache;
+import com.liferay.adaptive.media.image.internal.counter.ImageEntryStorageStatsCache;
 import com.liferay.adaptive.media.image.internal.storage.ImageStorage;
 import com.liferay.adaptive.media.image.model.AdaptiveMediaImageEntry;
 import com.liferay.adaptive.media.image.service.base.AdaptiveMediaImageEntryLocalServiceBaseImpl;
+import com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats;
 import com.liferay.document.library.kernel.service.DLAppLocalService;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerMap;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerMapFactory;
+import com.liferay.portal.kernel.dao.jdbc.ParamSetter;
+import com.liferay.portal.kernel.dao.jdbc.SqlUpdate;
+import com.liferay.portal.kernel.dao.jdbc.SqlUpdateFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionList;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Type;
 import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.repository.model.FileVersion;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.spring.extender.service.ServiceReference;
 
 import java.io.InputStream;
 
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -109,10 +132,14 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 		imageEntry.setWidth(width);
 		imageEntry.setSize(size);
 		imageEntry.setConfigurationUuid(configurationEntry.getUUID());
+		imageEntry.setConfigurationVersion(
+			configurationEntry.getContentVersion());
 
 		imageStorage.save(
 			fileVersion, configurationEntry.getUUID(), inputStream);
 
+		_updateCounters(imageEntry, 1);
+
 		return adaptiveMediaImageEntryPersistence.update(imageEntry);
 	}
 
@@ -154,6 +181,126 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 			companyId, configurationEntry.getUUID());
 
 		imageStorage.delete(companyId, configurationEntry.getUUID());
+
+		TransactionCommitCallbackUtil.registerCallback(() -> {
+			imageEntryCountCache.removeActualCount(
+				companyId, configurationEntry.getUUID());
+
+			imageEntryStorageStatsCache.removeStorageStats(companyId);
+
+			return null;
+		});
+	}
+
+	/**
+	 * Deletes up to a given number of adaptive media images generated for the
+	 * configuration in the company.
+	 *
+	 * <p>
+	 * Unlike {@link #deleteAdaptiveMediaImageEntries(long,
+	 * AdaptiveMediaImageConfigurationEntry)}, this method keeps the amount of
+	 * work done in a single transaction bounded, so it can be invoked
+	 * repeatedly until it returns <code>0</code>. The adaptive media images of
+	 * the excluded groups are kept. Once there are no adaptive media images
+	 * left and no group is excluded, the configuration is also removed from
+	 * the file store.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  configurationUuid the uuid of the configuration used to create
+	 *         the adaptive media images
+	 * @param  excludedGroupIds the primary keys of the groups whose adaptive
+	 *         media images must be kept
+	 * @param  count the maximum number of adaptive media images to delete
+	 * @return the number of adaptive media images that were deleted
+	 *
+	 * @review
+	 */
+	@Override
+	public int deleteAdaptiveMediaImageEntries(
+		long companyId, String configurationUuid, long[] excludedGroupIds,
+		int count) {
+
+		List<AdaptiveMediaImageEntry> imageEntries;
+
+		if (ArrayUtil.isEmpty(excludedGroupIds)) {
+			imageEntries = adaptiveMediaImageEntryPersistence.findByC_C(
+				companyId, configurationUuid, 0, count);
+		}
+		else {
+			DynamicQuery dynamicQuery = dynamicQuery();
+
+			Property groupIdProperty = PropertyFactoryUtil.forName("groupId");
+
+			dynamicQuery.add(
+				RestrictionsFactoryUtil.eq("companyId", companyId));
+			dynamicQuery.add(
+				RestrictionsFactoryUtil.eq(
+					"configurationUuid", configurationUuid));
+			dynamicQuery.add(
+				RestrictionsFactoryUtil.not(
+					groupIdProperty.in(excludedGroupIds)));
+
+			dynamicQuery.setLimit(0, count);
+
+			imageEntries = dynamicQuery(dynamicQuery);
+		}
+
+		if (imageEntries.isEmpty()) {
+			if (ArrayUtil.isEmpty(excludedGroupIds)) {
+				imageStorage.delete(companyId, configurationUuid);
+			}
+
+			return 0;
+		}
+
+		for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+			_deleteAdaptiveMediaImageEntry(imageEntry);
+		}
+
+		return imageEntries.size();
+	}
+
+	/**
+	 * Deletes up to a given number of adaptive media images generated for the
+	 * configuration in the group.
+	 *
+	 * <p>
+	 * This method is used to remove the adaptive media images of a
+	 * configuration that was only defined for the group. It can be invoked
+	 * repeatedly until it returns <code>0</code>. The adaptive media images
+	 * of other groups are kept.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group
+	 * @param  configurationUuid the uuid of the configuration used to create
+	 *         the adaptive media images
+	 * @param  count the maximum number of adaptive media images to delete
+	 * @return the number of adaptive media images that were deleted
+	 *
+	 * @review
+	 */
+	@Override
+	public int deleteAdaptiveMediaImageEntries(
+		long companyId, long groupId, String configurationUuid, int count) {
+
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("groupId", groupId));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.eq("configurationUuid", configurationUuid));
+
+		dynamicQuery.setLimit(0, count);
+
+		List<AdaptiveMediaImageEntry> imageEntries = dynamicQuery(dynamicQuery);
+
+		for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+			_deleteAdaptiveMediaImageEntry(imageEntry);
+		}
+
+		return imageEntries.size();
 	}
 
 	/**
@@ -186,6 +333,8 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 
 				imageStorage.delete(
 					fileVersion, imageEntry.getConfigurationUuid());
+
+				_updateCounters(imageEntry, -1);
 			}
 			catch (AdaptiveMediaRuntimeException.IOException amreioe) {
 				_log.error(amreioe);
@@ -193,6 +342,101 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 		}
 	}
 
+	/**
+	 * Deletes the adaptive media image generated for the configuration and
+	 * file version.
+	 *
+	 * <p>
+	 * This method deletes the adaptive media image entry from the database and
+	 * it also deletes the bytes from the file store.
+	 * </p>
+	 *
+	 * @param  configurationUuid the uuid of the configuration used to create
+	 *         the adaptive media image
+	 * @param  fileVersionId the primary key of the file version
+	 *
+	 * @review
+	 */
+	@Override
+	public void deleteAdaptiveMediaImageEntryFileVersion(
+		String configurationUuid, long fileVersionId) {
+
+		AdaptiveMediaImageEntry imageEntry =
+			adaptiveMediaImageEntryPersistence.fetchByC_F(
+				configurationUuid, fileVersionId);
+
+		if (imageEntry != null) {
+			_deleteAdaptiveMediaImageEntry(imageEntry);
+		}
+	}
+
+	/**
+	 * Deletes up to a given number of adaptive media images that have not been
+	 * accessed since the date.
+	 *
+	 * <p>
+	 * Adaptive media images that have never been accessed are deleted if they
+	 * were created before the date. This method deletes the adaptive media
+	 * image entry from the database and it also deletes the bytes from the
+	 * file store.
+	 * </p>
+	 *
+	 * <p>
+	 * The entries are deleted ordered by primary key, starting after the given
+	 * one, so that each batch resumes where the previous one stopped instead
+	 * of scanning the entries again.
+	 * </p>
+	 *
+	 * @param  date the date before which the adaptive media images must have
+	 *         been last accessed in order to be deleted
+	 * @param  previousImageEntryId the primary key of the last entry deleted
+	 *         by the previous batch, or <code>0</code> to start from the
+	 *         beginning
+	 * @param  count the maximum number of adaptive media images to delete
+	 * @return the primary key of the last adaptive media image deleted, or
+	 *         <code>0</code> if none were deleted
+	 *
+	 * @review
+	 */
+	@Override
+	public long deleteUnusedAdaptiveMediaImageEntries(
+		Date date, long previousImageEntryId, int count) {
+
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		Property createDateProperty = PropertyFactoryUtil.forName(
+			"createDate");
+		Property lastAccessDateProperty = PropertyFactoryUtil.forName(
+			"lastAccessDate");
+
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.or(
+				lastAccessDateProperty.lt(date),
+				RestrictionsFactoryUtil.and(
+					lastAccessDateProperty.isNull(),
+					createDateProperty.lt(date))));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.gt(
+				"adaptiveMediaImageEntryId", previousImageEntryId));
+
+		dynamicQuery.addOrder(
+			OrderFactoryUtil.asc("adaptiveMediaImageEntryId"));
+
+		dynamicQuery.setLimit(0, count);
+
+		List<AdaptiveMediaImageEntry> imageEntries = dynamicQuery(dynamicQuery);
+
+		long lastImageEntryId = 0;
+
+		for (AdaptiveMediaImageEntry imageEntry : imageEntries) {
+			_deleteAdaptiveMediaImageEntry(imageEntry);
+
+			lastImageEntryId = imageEntry.getAdaptiveMediaImageEntryId();
+		}
+
+		return lastImageEntryId;
+	}
+
 	@Override
 	public void destroy() {
 		super.destroy();
@@ -220,6 +464,50 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 			configurationUuid, fileVersionId);
 	}
 
+	/**
+	 * Returns up to a given number of adaptive media image entries of the
+	 * company, or of the group if a group is given.
+	 *
+	 * <p>
+	 * The entries are returned ordered by primary key, starting after the given
+	 * one, so that all the entries can be iterated in batches without counting
+	 * or skipping rows.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  groupId the primary key of the group, or <code>0</code> to
+	 *         return the entries of every group of the company
+	 * @param  previousImageEntryId the primary key of the last entry of the
+	 *         previous batch, or <code>0</code> to start from the beginning
+	 * @param  count the maximum number of entries to return
+	 * @return the adaptive media image entries
+	 *
+	 * @review
+	 */
+	@Override
+	public List<AdaptiveMediaImageEntry> getAdaptiveMediaImageEntries(
+		long companyId, long groupId, long previousImageEntryId, int count) {
+
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+
+		if (groupId > 0) {
+			dynamicQuery.add(RestrictionsFactoryUtil.eq("groupId", groupId));
+		}
+
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.gt(
+				"adaptiveMediaImageEntryId", previousImageEntryId));
+
+		dynamicQuery.addOrder(
+			OrderFactoryUtil.asc("adaptiveMediaImageEntryId"));
+
+		dynamicQuery.setLimit(0, count);
+
+		return dynamicQuery(dynamicQuery);
+	}
+
 	/**
 	 * Returns the number of adaptive media image entries generated for the
 	 * configuration in the company.
@@ -236,8 +524,10 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 	public int getAdaptiveMediaImageEntriesCount(
 		long companyId, String configurationUuid) {
 
-		return adaptiveMediaImageEntryPersistence.countByC_C(
-			companyId, configurationUuid);
+		return imageEntryCountCache.getActualCount(
+			companyId, configurationUuid,
+			() -> adaptiveMediaImageEntryPersistence.countByC_C(
+				companyId, configurationUuid));
 	}
 
 	/**
@@ -262,6 +552,82 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 			fileVersion, configurationEntry.getUUID());
 	}
 
+	/**
+	 * Returns up to a given number of adaptive media image entries generated
+	 * for the configuration in the company with a content version other than
+	 * the configuration's current one.
+	 *
+	 * <p>
+	 * The entries are returned ordered by primary key, starting after the given
+	 * one, so that the stale entries can be iterated in batches while they are
+	 * regenerated.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  configurationEntry the configuration used to create the adaptive
+	 *         media images
+	 * @param  previousImageEntryId the primary key of the last entry of the
+	 *         previous batch, or <code>0</code> to start from the beginning
+	 * @param  count the maximum number of entries to return
+	 * @return the stale adaptive media image entries
+	 *
+	 * @review
+	 */
+	@Override
+	public List<AdaptiveMediaImageEntry> getStaleAdaptiveMediaImageEntries(
+		long companyId, AdaptiveMediaImageConfigurationEntry configurationEntry,
+		long previousImageEntryId, int count) {
+
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		Property configurationVersionProperty = PropertyFactoryUtil.forName(
+			"configurationVersion");
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.eq(
+				"configurationUuid", configurationEntry.getUUID()));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.gt(
+				"adaptiveMediaImageEntryId", previousImageEntryId));
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.or(
+				configurationVersionProperty.isNull(),
+				configurationVersionProperty.ne(
+					configurationEntry.getContentVersion())));
+
+		dynamicQuery.addOrder(
+			OrderFactoryUtil.asc("adaptiveMediaImageEntryId"));
+
+		dynamicQuery.setLimit(0, count);
+
+		return dynamicQuery(dynamicQuery);
+	}
+
+	/**
+	 * Returns the storage stats of the adaptive media images in the company,
+	 * grouped by configuration, group and mime type.
+	 *
+	 * <p>
+	 * The stats are maintained incrementally as adaptive media images are added
+	 * and deleted, so calling this method does not aggregate the whole table.
+	 * Use {@link AdaptiveMediaImageStorageStats#add(
+	 * AdaptiveMediaImageStorageStats)} to obtain coarser groupings.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @return the storage stats of the adaptive media images in the company
+	 *
+	 * @review
+	 */
+	@Override
+	public List<AdaptiveMediaImageStorageStats>
+		getAdaptiveMediaImageStorageStats(long companyId) {
+
+		return imageEntryStorageStatsCache.getStorageStats(
+			companyId, () -> _getStorageStats(companyId));
+	}
+
 	/**
 	 * Returns the number of adaptive media images that are expected to be in a
 	 * company if all the images that support adaptive media already have an
@@ -279,13 +645,60 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 	 */
 	@Override
 	public int getExpectedAdaptiveMediaImageEntriesCount(long companyId) {
-		Collection<AdaptiveMediaImageCounter> imageCounters =
-			_serviceTrackerMap.values();
+		return imageEntryCountCache.getExpectedCount(
+			companyId,
+			() -> {
+				Collection<AdaptiveMediaImageCounter> imageCounters =
+					_serviceTrackerMap.values();
+
+				return imageCounters.stream().mapToInt(
+					adaptiveMediaImageCounter ->
+						adaptiveMediaImageCounter.
+							countExpectedAdaptiveMediaImageEntries(
+								companyId)).sum();
+			});
+	}
 
-		return imageCounters.stream().mapToInt(
-			adaptiveMediaImageCounter ->
-				adaptiveMediaImageCounter.
-					countExpectedAdaptiveMediaImageEntries(companyId)).sum();
+	/**
+	 * Returns the number of adaptive media images that are expected to be
+	 * generated for the configuration in a company, taking into account the
+	 * conditions of the configuration on the source images.
+	 *
+	 * <p>
+	 * Conditions that can only be checked by reading the images, such as the
+	 * minimum source width, are not taken into account, so the number of
+	 * actual adaptive media images could be less.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 * @param  configurationEntry the configuration used to create the adaptive
+	 *         media images
+	 * @return the number of expected adaptive media images for the
+	 *         configuration in a company
+	 *
+	 * @review
+	 */
+	@Override
+	public int getExpectedAdaptiveMediaImageEntriesCount(
+		long companyId,
+		AdaptiveMediaImageConfigurationEntry configurationEntry) {
+
+		String configurationKey =
+			configurationEntry.getUUID() + "#" +
+				configurationEntry.getContentVersion();
+
+		return imageEntryCountCache.getExpectedCount(
+			companyId, configurationKey,
+			() -> {
+				Collection<AdaptiveMediaImageCounter> imageCounters =
+					_serviceTrackerMap.values();
+
+				return imageCounters.stream().mapToInt(
+					adaptiveMediaImageCounter ->
+						adaptiveMediaImageCounter.
+							countExpectedAdaptiveMediaImageEntries(
+								companyId, configurationEntry)).sum();
+			});
 	}
 
 	/**
@@ -303,8 +716,15 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 	 */
 	@Override
 	public int getPercentage(long companyId, String configurationUuid) {
-		int expectedImageEntries = getExpectedAdaptiveMediaImageEntriesCount(
-			companyId);
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					companyId, configurationUuid);
+
+		int expectedImageEntries = configurationEntryOptional.map(
+			configurationEntry -> getExpectedAdaptiveMediaImageEntriesCount(
+				companyId, configurationEntry)).orElseGet(
+					() -> getExpectedAdaptiveMediaImageEntriesCount(companyId));
 
 		if (expectedImageEntries == 0) {
 			return 0;
@@ -316,9 +736,159 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 		return Math.min(actualImageEntries * 100 / expectedImageEntries, 100);
 	}
 
+	/**
+	 * Discards the number of adaptive media images that are expected to be in
+	 * a company, so that it is counted again the next time it is requested.
+	 *
+	 * <p>
+	 * This method should be called whenever an image that supports adaptive
+	 * media is added to or removed from the company.
+	 * </p>
+	 *
+	 * @param  companyId the primary key of the company
+	 *
+	 * @review
+	 */
+	@Override
+	public void invalidateExpectedAdaptiveMediaImageEntriesCount(
+		long companyId) {
+
+		TransactionCommitCallbackUtil.registerCallback(() -> {
+			imageEntryCountCache.removeExpectedCount(companyId);
+
+			return null;
+		});
+	}
+
+	/**
+	 * Updates the last access date of the adaptive media images generated for
+	 * the configuration and file versions.
+	 *
+	 * <p>
+	 * Adaptive media images that were already accessed after the date are left
+	 * untouched.
+	 * </p>
+	 *
+	 * <p>
+	 * The last access date is written without going through the model
+	 * listeners, so recording accesses does not invalidate the caches that
+	 * depend on the rest of the adaptive media image entry.
+	 * </p>
+	 *
+	 * @param  configurationUuid the uuid of the configuration used to create
+	 *         the adaptive media images
+	 * @param  fileVersionIds the primary keys of the file versions
+	 * @param  lastAccessDate the date the adaptive media images were accessed
+	 *
+	 * @review
+	 */
+	@Override
+	public void updateAdaptiveMediaImageEntriesLastAccessDate(
+		String configurationUuid, long[] fileVersionIds, Date lastAccessDate) {
+
+		SqlUpdate sqlUpdate = SqlUpdateFactoryUtil.getSqlUpdate(
+			adaptiveMediaImageEntryPersistence.getDataSource(),
+			"update AdaptiveMediaImageEntry set lastAccessDate = ? where " +
+				"adaptiveMediaImageEntryId = ?",
+			_TIMESTAMP_PARAM_SETTER, ParamSetter.BIGINT);
+
+		for (long fileVersionId : fileVersionIds) {
+			AdaptiveMediaImageEntry imageEntry =
+				adaptiveMediaImageEntryPersistence.fetchByC_F(
+					configurationUuid, fileVersionId);
+
+			if (imageEntry == null) {
+				continue;
+			}
+
+			Date imageEntryLastAccessDate = imageEntry.getLastAccessDate();
+
+			if ((imageEntryLastAccessDate != null) &&
+				!imageEntryLastAccessDate.before(lastAccessDate)) {
+
+				continue;
+			}
+
+			try {
+				sqlUpdate.update(
+					new Timestamp(lastAccessDate.getTime()),
+					imageEntry.getAdaptiveMediaImageEntryId());
+			}
+			catch (SQLException sqle) {
+				throw new SystemException(sqle);
+			}
+
+			imageEntry.setLastAccessDate(lastAccessDate);
+
+			adaptiveMediaImageEntryPersistence.cacheResult(imageEntry);
+		}
+	}
+
+	/**
+	 * Replaces the adaptive media image generated for the configuration and
+	 * file version with a new one generated with the current configuration.
+	 *
+	 * <p>
+	 * The new image bytes must be completely generated before calling this
+	 * method, so that the previous image keeps being served until it is
+	 * replaced.
+	 * </p>
+	 *
+	 * @param  configurationEntry the configuration used to create the adaptive
+	 *         media image
+	 * @param  fileVersion the file version used to create the adaptive media
+	 *         image
+	 * @param  width the width of the adaptive media image
+	 * @param  height the height of the adaptive media image
+	 * @param  inputStream the input stream of the adaptive media image that
+	 *         will be stored in the file store
+	 * @param  size the size of the adaptive media image
+	 * @return the adaptive media image
+	 * @throws PortalException if an adaptive media image does not exist for the
+	 *         file version and configuration
+	 *
+	 * @review
+	 */
+	@Override
+	public AdaptiveMediaImageEntry updateAdaptiveMediaImageEntry(
+			AdaptiveMediaImageConfigurationEntry configurationEntry,
+			FileVersion fileVersion, int width, int height,
+			InputStream inputStream, int size)
+		throws PortalException {
+
+		AdaptiveMediaImageEntry imageEntry =
+			adaptiveMediaImageEntryPersistence.findByC_F(
+				configurationEntry.getUUID(), fileVersion.getFileVersionId());
+
+		_updateCounters(imageEntry, -1);
+
+		imageEntry.setMimeType(fileVersion.getMimeType());
+		imageEntry.setHeight(height);
+		imageEntry.setWidth(width);
+		imageEntry.setSize(size);
+		imageEntry.setConfigurationVersion(
+			configurationEntry.getContentVersion());
+
+		imageStorage.replace(
+			fileVersion, configurationEntry.getUUID(), inputStream);
+
+		_updateCounters(imageEntry, 1);
+
+		return adaptiveMediaImageEntryPersistence.update(imageEntry);
+	}
+
+	@ServiceReference(type = AdaptiveMediaImageConfigurationHelper.class)
+	protected AdaptiveMediaImageConfigurationHelper configurationHelper;
+
 	@ServiceReference(type = DLAppLocalService.class)
 	protected DLAppLocalService dlAppLocalService;
 
+	@ServiceReference(type = ImageEntryCountCache.class)
+	protected ImageEntryCountCache imageEntryCountCache;
+
+	@ServiceReference(type = ImageEntryStorageStatsCache.class)
+	protected ImageEntryStorageStatsCache imageEntryStorageStatsCache;
+
 	@ServiceReference(type = ImageStorage.class)
 	protected ImageStorage imageStorage;
 
@@ -334,6 +904,111 @@ public class AdaptiveMediaImageEntryLocalServiceImpl
 		}
 	}
 
+	private void _deleteAdaptiveMediaImageEntry(
+		AdaptiveMediaImageEntry imageEntry) {
+
+		adaptiveMediaImageEntryPersistence.remove(imageEntry);
+
+		try {
+			FileVersion fileVersion = dlAppLocalService.getFileVersion(
+				imageEntry.getFileVersionId());
+
+			imageStorage.delete(fileVersion, imageEntry.getConfigurationUuid());
+		}
+		catch (PortalException pe) {
+
+			// The file version is gone, so the path of the bytes cannot be
+			// built and they are left in the file store. The bytes are
+			// normally deleted with the image entries when the file version
+			// is deleted, so only entries that were not cleaned up then get
+			// here
+
+			if (_log.isDebugEnabled()) {
+				_log.debug(pe, pe);
+			}
+		}
+
+		_updateCounters(imageEntry, -1);
+	}
+
+	private List<AdaptiveMediaImageStorageStats> _getStorageStats(
+		long companyId) {
+
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+
+		ProjectionList projectionList = ProjectionFactoryUtil.projectionList();
+
+		projectionList.add(
+			ProjectionFactoryUtil.groupProperty("configurationUuid"));
+		projectionList.add(ProjectionFactoryUtil.groupProperty("groupId"));
+		projectionList.add(ProjectionFactoryUtil.groupProperty("mimeType"));
+		projectionList.add(ProjectionFactoryUtil.rowCount());
+		projectionList.add(ProjectionFactoryUtil.sum("size"));
+
+		// Multiply by a decimal so that the sum does not overflow integer
+		// columns in any database
+
+		projectionList.add(
+			ProjectionFactoryUtil.sqlProjection(
+				"sum({alias}.width * {alias}.height * 1.0) AS pixels",
+				new String[] {"pixels"}, new Type[] {Type.DOUBLE}));
+
+		dynamicQuery.setProjection(projectionList);
+
+		List<Object[]> results = dynamicQuery(dynamicQuery);
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			new ArrayList<>(results.size());
+
+		for (Object[] result : results) {
+			storageStatsList.add(
+				new AdaptiveMediaImageStorageStats(
+					(String)result[0], _toLong(result[1]), (String)result[2],
+					_toLong(result[3]), _toLong(result[4]),
+					_toLong(result[5])));
+		}
+
+		return storageStatsList;
+	}
+
+	private long _toLong(Object value) {
+		if (value == null) {
+			return 0;
+		}
+
+		Number number = (Number)value;
+
+		return number.longValue();
+	}
+
+	private void _updateCounters(
+		AdaptiveMediaImageEntry imageEntry, int delta) {
+
+		long companyId = imageEntry.getCompanyId();
+		String configurationUuid = imageEntry.getConfigurationUuid();
+		long groupId = imageEntry.getGroupId();
+		String mimeType = imageEntry.getMimeType();
+		long size = imageEntry.getSize();
+		long pixels = (long)imageEntry.getWidth() * imageEntry.getHeight();
+
+		TransactionCommitCallbackUtil.registerCallback(() -> {
+			imageEntryCountCache.addActualCount(
+				companyId, configurationUuid, delta);
+
+			imageEntryStorageStatsCache.addStorageStats(
+				companyId, configurationUuid, groupId, mimeType, delta,
+				delta * size, delta * pixels);
+
+			return null;
+		});
+	}
+
+	private static final ParamSetter _TIMESTAMP_PARAM_SETTER =
+		(preparedStatement, index, param) -> preparedStatement.setTimestamp(
+			index, (Timestamp)param);
+
 	private static final Log _log = LogFactoryUtil.getLog(
 		AdaptiveMediaImageEntryLocalServiceImpl.class);
 
@@ -9,5 +9,7 @@ create table AdaptiveMediaImageEntry (
 	mimeType VARCHAR(75) null,
 	height INTEGER,
 	width INTEGER,
-	size_ LONG
+	size_ LONG,
+	lastAccessDate DATE null,
+	configurationVersion VARCHAR(75) null
 );
\ No newline at end of file
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.counter;
+
+import com.liferay.portal.kernel.cache.MultiVMPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.kernel.uuid.PortalUUID;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+/**
+ * @author Sergio González
+ */
+public class ImageEntryCountCacheTest {
+
+	@Before
+	public void setUp() {
+		AtomicInteger stampCount = new AtomicInteger();
+
+		PortalUUID portalUUID = Mockito.mock(PortalUUID.class);
+
+		Mockito.doAnswer(
+			invocation -> String.valueOf(stampCount.incrementAndGet())
+		).when(
+			portalUUID
+		).generate();
+
+		PortalUUIDUtil portalUUIDUtil = new PortalUUIDUtil();
+
+		portalUUIDUtil.setPortalUUID(portalUUID);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.get(invocation.getArguments()[0])
+		).when(
+			_portalCache
+		).get(
+			Mockito.anyString()
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.put(
+				(String)invocation.getArguments()[0],
+				(String)invocation.getArguments()[1])
+		).when(
+			_portalCache
+		).put(
+			Mockito.anyString(), Mockito.anyString()
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.put(
+				(String)invocation.getArguments()[0],
+				(String)invocation.getArguments()[1])
+		).when(
+			_portalCache
+		).put(
+			Mockito.anyString(), Mockito.anyString(), Mockito.anyInt()
+		);
+
+		Mockito.doAnswer(
+			invocation -> _portalCacheMap.remove(invocation.getArguments()[0])
+		).when(
+			_portalCache
+		).remove(
+			Mockito.anyString()
+		);
+
+		MultiVMPool multiVMPool = Mockito.mock(MultiVMPool.class);
+
+		Mockito.doReturn(
+			_portalCache
+		).when(
+			multiVMPool
+		).getPortalCache(
+			ImageEntryCountCache.CACHE_NAME
+		);
+
+		_imageEntryCountCache.setMultiVMPool(multiVMPool);
+
+		_imageEntryCountCache.activate();
+	}
+
+	@Test
+	public void testAddActualCountAfterLoad() {
+		_imageEntryCountCache.getActualCount(1, "small", () -> 5);
+
+		_imageEntryCountCache.addActualCount(1, "small", 2);
+
+		Assert.assertEquals(
+			7, _imageEntryCountCache.getActualCount(1, "small", () -> 0));
+	}
+
+	@Test
+	public void testAddActualCountBeforeLoad() {
+		_imageEntryCountCache.addActualCount(1, "small", 2);
+
+		Assert.assertEquals(
+			5, _imageEntryCountCache.getActualCount(1, "small", () -> 5));
+	}
+
+	@Test
+	public void testAddActualCountNeverGoesBelowZero() {
+		_imageEntryCountCache.getActualCount(1, "small", () -> 1);
+
+		_imageEntryCountCache.addActualCount(1, "small", -3);
+
+		Assert.assertEquals(
+			0, _imageEntryCountCache.getActualCount(1, "small", () -> 5));
+	}
+
+	@Test
+	public void testAddActualCountOnOtherNodeDiscardsCount() {
+		_imageEntryCountCache.getActualCount(1, "small", () -> 5);
+
+		// Stamps stored by other nodes are replicated by discarding the
+		// stamp of this node
+
+		_portalCacheMap.remove("actual#1#small");
+
+		Assert.assertEquals(
+			7, _imageEntryCountCache.getActualCount(1, "small", () -> 7));
+	}
+
+	@Test
+	public void testAddActualCountReplicatesStamp() {
+		_imageEntryCountCache.addActualCount(1, "small", 2);
+
+		Mockito.verify(
+			_portalCache
+		).put(
+			Mockito.eq("actual#1#small"), Mockito.anyString()
+		);
+	}
+
+	@Test
+	public void testGetActualCountDoesNotReplicateStamp() {
+		_imageEntryCountCache.getActualCount(1, "small", () -> 5);
+
+		Mockito.verify(
+			_portalCache, Mockito.never()
+		).put(
+			Mockito.anyString(), Mockito.anyString()
+		);
+	}
+
+	@Test
+	public void testGetActualCountIsCachedPerConfiguration() {
+		AtomicInteger loads = new AtomicInteger();
+
+		_imageEntryCountCache.getActualCount(
+			1, "small", loads::incrementAndGet);
+		_imageEntryCountCache.getActualCount(
+			1, "small", loads::incrementAndGet);
+		_imageEntryCountCache.getActualCount(
+			1, "big", loads::incrementAndGet);
+		_imageEntryCountCache.getActualCount(
+			2, "small", loads::incrementAndGet);
+
+		Assert.assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testGetExpectedCountIsReconciledAfterInterval() {
+		_imageEntryCountCache.getExpectedCount(1, () -> 5);
+
+		Assert.assertEquals(
+			5, _imageEntryCountCache.getExpectedCount(1, () -> 8));
+
+		_currentTime += Time.MINUTE * 11;
+
+		Assert.assertEquals(
+			8, _imageEntryCountCache.getExpectedCount(1, () -> 8));
+	}
+
+	@Test
+	public void testRemoveActualCount() {
+		_imageEntryCountCache.getActualCount(1, "small", () -> 5);
+
+		_imageEntryCountCache.removeActualCount(1, "small");
+
+		Assert.assertEquals(
+			0, _imageEntryCountCache.getActualCount(1, "small", () -> 0));
+	}
+
+	@Test
+	public void testRemoveExpectedCount() {
+		_imageEntryCountCache.getExpectedCount(1, () -> 5);
+
+		_imageEntryCountCache.removeExpectedCount(1);
+
+		Assert.assertEquals(
+			8, _imageEntryCountCache.getExpectedCount(1, () -> 8));
+	}
+
+	@Test
+	public void testRemoveExpectedCountRemovesConfigurationCounts() {
+		_imageEntryCountCache.getExpectedCount(1, "uuid", () -> 5);
+		_imageEntryCountCache.getExpectedCount(2, "uuid", () -> 5);
+
+		_imageEntryCountCache.removeExpectedCount(1);
+
+		Assert.assertEquals(
+			8, _imageEntryCountCache.getExpectedCount(1, "uuid", () -> 8));
+		Assert.assertEquals(
+			5, _imageEntryCountCache.getExpectedCount(2, "uuid", () -> 8));
+	}
+
+	private long _currentTime = System.currentTimeMillis();
+
+	private final ImageEntryCountCache _imageEntryCountCache =
+		new ImageEntryCountCache() {
+
+			@Override
+			protected long getCurrentTime() {
+				return _currentTime;
+			}
+
+		};
+
+	private final PortalCache<String, String> _portalCache = Mockito.mock(
+		PortalCache.class);
+	private final Map<String, String> _portalCacheMap = new HashMap<>();
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.image.internal.counter;
+
+import com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats;
+import com.liferay.portal.kernel.util.Time;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Sergio González
+ */
+public class ImageEntryStorageStatsCacheTest {
+
+	@Test
+	public void testAddStorageStatsAfterLoad() {
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 3, 300)));
+
+		_imageEntryStorageStatsCache.addStorageStats(
+			1, "small", 2, "image/jpeg", 1, 100, 50);
+
+		AdaptiveMediaImageStorageStats storageStats = _getOnlyStorageStats(1);
+
+		Assert.assertEquals(4, storageStats.getCount());
+		Assert.assertEquals(400, storageStats.getSize());
+		Assert.assertEquals(250, storageStats.getPixels());
+	}
+
+	@Test
+	public void testAddStorageStatsBeforeLoad() {
+		_imageEntryStorageStatsCache.addStorageStats(
+			1, "small", 2, "image/jpeg", 1, 100, 50);
+
+		AdaptiveMediaImageStorageStats storageStats = _getOnlyStorageStats(1);
+
+		Assert.assertEquals(2, storageStats.getCount());
+	}
+
+	@Test
+	public void testAddStorageStatsForNewKey() {
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 3, 300)));
+
+		_imageEntryStorageStatsCache.addStorageStats(
+			1, "big", 2, "image/jpeg", 1, 100, 50);
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			_imageEntryStorageStatsCache.getStorageStats(
+				1, Collections::emptyList);
+
+		Assert.assertEquals(2, storageStatsList.size());
+	}
+
+	@Test
+	public void testEmptyStorageStatsAreNotReturned() {
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 1, 100)));
+
+		_imageEntryStorageStatsCache.addStorageStats(
+			1, "small", 2, "image/jpeg", -1, -100, -300);
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			_imageEntryStorageStatsCache.getStorageStats(
+				1, Collections::emptyList);
+
+		Assert.assertTrue(storageStatsList.isEmpty());
+	}
+
+	@Test
+	public void testGetStorageStatsIsReconciledAfterInterval() {
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 3, 300)));
+
+		_currentTime += Time.HOUR + 1;
+
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 5, 500)));
+
+		AdaptiveMediaImageStorageStats storageStats = _getOnlyStorageStats(1);
+
+		Assert.assertEquals(5, storageStats.getCount());
+	}
+
+	@Test
+	public void testRemoveStorageStats() {
+		_imageEntryStorageStatsCache.getStorageStats(
+			1, () -> Arrays.asList(_createStorageStats("small", 3, 300)));
+
+		_imageEntryStorageStatsCache.removeStorageStats(1);
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			_imageEntryStorageStatsCache.getStorageStats(
+				1, Collections::emptyList);
+
+		Assert.assertTrue(storageStatsList.isEmpty());
+	}
+
+	private AdaptiveMediaImageStorageStats _createStorageStats(
+		String configurationUuid, long count, long size) {
+
+		return new AdaptiveMediaImageStorageStats(
+			configurationUuid, 2, "image/jpeg", count, size, size - 100);
+	}
+
+	private AdaptiveMediaImageStorageStats _getOnlyStorageStats(
+		long companyId) {
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			_imageEntryStorageStatsCache.getStorageStats(
+				companyId,
+				() -> Arrays.asList(_createStorageStats("small", 2, 200)));
+
+		Assert.assertEquals(1, storageStatsList.size());
+
+		return storageStatsList.get(0);
+	}
+
+	private long _currentTime = System.currentTimeMillis();
+
+	private final ImageEntryStorageStatsCache _imageEntryStorageStatsCache =
+		new ImageEntryStorageStatsCache() {
+
+			@Override
+			protected long getCurrentTime() {
+				return _currentTime;
+			}
+
+		};
+
+}
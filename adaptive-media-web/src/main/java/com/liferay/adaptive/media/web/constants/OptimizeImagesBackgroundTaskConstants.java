@@ -28,6 +28,8 @@ public class OptimizeImagesBackgroundTaskConstants {
 
 	public static final String COUNT = "count";
 
+	public static final String GROUP_ID = "groupId";
+
 	public static final String PHASE = "phase";
 
 	public static final String PORTAL_END = "portalEnd";
@@ -30,14 +30,20 @@ public class OptimizeImagesAllConfigurationsBackgroundTaskExecutor
 	}
 
 	@Override
-	protected void optimizeImages(String configurationEntryUuid, long companyId)
+	protected void optimizeImages(
+			String configurationEntryUuid, long companyId, long groupId)
 		throws Exception {
 
 		OptimizeImagesStatusMessageSenderUtil.sendStatusMessage(
 			OptimizeImagesBackgroundTaskConstants.PORTAL_START, companyId,
 			configurationEntryUuid);
 
-		AdaptiveMediaImageOptimizerUtil.optimize(companyId);
+		if (groupId > 0) {
+			AdaptiveMediaImageOptimizerUtil.optimize(companyId, groupId);
+		}
+		else {
+			AdaptiveMediaImageOptimizerUtil.optimize(companyId);
+		}
 
 		OptimizeImagesStatusMessageSenderUtil.sendStatusMessage(
 			OptimizeImagesBackgroundTaskConstants.PORTAL_END, companyId,
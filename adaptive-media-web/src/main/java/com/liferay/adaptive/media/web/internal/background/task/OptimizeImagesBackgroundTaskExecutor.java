@@ -51,8 +51,10 @@ public abstract class OptimizeImagesBackgroundTaskExecutor
 		long companyId = GetterUtil.getLong(
 			taskContextMap.get(
 				OptimizeImagesBackgroundTaskConstants.COMPANY_ID));
+		long groupId = GetterUtil.getLong(
+			taskContextMap.get(OptimizeImagesBackgroundTaskConstants.GROUP_ID));
 
-		optimizeImages(configurationEntryUuid, companyId);
+		optimizeImages(configurationEntryUuid, companyId, groupId);
 
 		return BackgroundTaskResult.SUCCESS;
 	}
@@ -65,7 +67,7 @@ public abstract class OptimizeImagesBackgroundTaskExecutor
 	}
 
 	protected abstract void optimizeImages(
-			String configurationEntryUuid, long companyId)
+			String configurationEntryUuid, long companyId, long groupId)
 		throws Exception;
 
 }
\ No newline at end of file
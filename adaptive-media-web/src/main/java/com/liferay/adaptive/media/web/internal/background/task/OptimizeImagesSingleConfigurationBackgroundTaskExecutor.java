@@ -30,7 +30,8 @@ public class OptimizeImagesSingleConfigurationBackgroundTaskExecutor
 	}
 
 	@Override
-	protected void optimizeImages(String configurationEntryUuid, long companyId)
+	protected void optimizeImages(
+			String configurationEntryUuid, long companyId, long groupId)
 		throws Exception {
 
 		OptimizeImagesStatusMessageSenderUtil.sendStatusMessage(
@@ -33,4 +33,7 @@ public class AdaptiveMediaWebKeys {
 	public static final String SELECTED_CONFIGURATION_ENTRIES =
 		"SELECTED_CONFIGURATION_ENTRIES";
 
+	public static final String STORAGE_STATS_DISPLAY_CONTEXT =
+		"STORAGE_STATS_DISPLAY_CONTEXT";
+
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.web.internal.display.context;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationEntry;
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.model.Group;
+import com.liferay.portal.kernel.service.GroupLocalService;
+import com.liferay.portal.kernel.theme.ThemeDisplay;
+import com.liferay.portal.kernel.util.ParamUtil;
+import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.util.WebKeys;
+
+import java.text.NumberFormat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.portlet.RenderRequest;
+
+/**
+ * @author Sergio González
+ */
+public class StorageStatsDisplayContext {
+
+	public StorageStatsDisplayContext(
+		RenderRequest renderRequest,
+		AdaptiveMediaImageConfigurationHelper configurationHelper,
+		AdaptiveMediaImageEntryLocalService imageEntryLocalService,
+		GroupLocalService groupLocalService) {
+
+		_renderRequest = renderRequest;
+		_configurationHelper = configurationHelper;
+		_groupLocalService = groupLocalService;
+
+		_themeDisplay = (ThemeDisplay)renderRequest.getAttribute(
+			WebKeys.THEME_DISPLAY);
+
+		_storageStatsList =
+			imageEntryLocalService.getAdaptiveMediaImageStorageStats(
+				_themeDisplay.getCompanyId());
+	}
+
+	public String getCompressionRatio(
+		AdaptiveMediaImageStorageStats storageStats) {
+
+		NumberFormat numberFormat = NumberFormat.getNumberInstance(
+			_themeDisplay.getLocale());
+
+		numberFormat.setMaximumFractionDigits(1);
+
+		return numberFormat.format(storageStats.getCompressionRatio()) + ":1";
+	}
+
+	public String getConfigurationName(String configurationUuid) {
+		Optional<AdaptiveMediaImageConfigurationEntry>
+			configurationEntryOptional =
+				_configurationHelper.getAdaptiveMediaImageConfigurationEntry(
+					_themeDisplay.getCompanyId(), configurationUuid);
+
+		return configurationEntryOptional.map(
+			AdaptiveMediaImageConfigurationEntry::getName).orElse(
+				configurationUuid);
+	}
+
+	public String getConfigurationUuid() {
+		return ParamUtil.getString(_renderRequest, "configurationUuid");
+	}
+
+	public String getGroupName(long groupId) {
+		Group group = _groupLocalService.fetchGroup(groupId);
+
+		if (group == null) {
+			return String.valueOf(groupId);
+		}
+
+		try {
+			return group.getDescriptiveName(_themeDisplay.getLocale());
+		}
+		catch (PortalException pe) {
+			return group.getName(_themeDisplay.getLocale());
+		}
+	}
+
+	public List<AdaptiveMediaImageStorageStats>
+		getStorageStatsByConfiguration() {
+
+		return _aggregate(
+			_storageStatsList.stream(),
+			AdaptiveMediaImageStorageStats::getConfigurationUuid);
+	}
+
+	public List<AdaptiveMediaImageStorageStats> getStorageStatsByGroup() {
+		return _aggregate(
+			_getFilteredStorageStats(),
+			AdaptiveMediaImageStorageStats::getGroupId);
+	}
+
+	public List<AdaptiveMediaImageStorageStats> getStorageStatsByMimeType() {
+		return _aggregate(
+			_getFilteredStorageStats(),
+			AdaptiveMediaImageStorageStats::getMimeType);
+	}
+
+	private <K> List<AdaptiveMediaImageStorageStats> _aggregate(
+		Stream<AdaptiveMediaImageStorageStats> storageStatsStream,
+		Function<AdaptiveMediaImageStorageStats, K> keyFunction) {
+
+		Map<K, AdaptiveMediaImageStorageStats> storageStatsMap =
+			storageStatsStream.collect(
+				Collectors.toMap(
+					keyFunction, Function.identity(),
+					AdaptiveMediaImageStorageStats::add, LinkedHashMap::new));
+
+		List<AdaptiveMediaImageStorageStats> storageStatsList =
+			new ArrayList<>(storageStatsMap.values());
+
+		storageStatsList.sort(
+			Comparator.comparingLong(
+				AdaptiveMediaImageStorageStats::getSize).reversed());
+
+		return storageStatsList;
+	}
+
+	private Stream<AdaptiveMediaImageStorageStats> _getFilteredStorageStats() {
+		String configurationUuid = getConfigurationUuid();
+
+		Stream<AdaptiveMediaImageStorageStats> storageStatsStream =
+			_storageStatsList.stream();
+
+		if (Validator.isNull(configurationUuid)) {
+			return storageStatsStream;
+		}
+
+		return storageStatsStream.filter(
+			storageStats -> configurationUuid.equals(
+				storageStats.getConfigurationUuid()));
+	}
+
+	private final AdaptiveMediaImageConfigurationHelper _configurationHelper;
+	private final GroupLocalService _groupLocalService;
+	private final RenderRequest _renderRequest;
+	private final List<AdaptiveMediaImageStorageStats> _storageStatsList;
+	private final ThemeDisplay _themeDisplay;
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.web.internal.portlet.action;
+
+import com.liferay.adaptive.media.AdaptiveMediaImageConfigurationException;
+import com.liferay.adaptive.media.image.estimator.AdaptiveMediaImageCostEstimate;
+import com.liferay.adaptive.media.image.estimator.AdaptiveMediaImageCostEstimator;
+import com.liferay.adaptive.media.web.constants.AdaptiveMediaPortletKeys;
+import com.liferay.portal.kernel.json.JSONFactoryUtil;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.language.LanguageUtil;
+import com.liferay.portal.kernel.portlet.JSONPortletResponseUtil;
+import com.liferay.portal.kernel.portlet.bridges.mvc.BaseMVCResourceCommand;
+import com.liferay.portal.kernel.portlet.bridges.mvc.MVCResourceCommand;
+import com.liferay.portal.kernel.security.auth.PrincipalException;
+import com.liferay.portal.kernel.security.permission.PermissionChecker;
+import com.liferay.portal.kernel.theme.ThemeDisplay;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.ParamUtil;
+import com.liferay.portal.kernel.util.ResourceBundleUtil;
+import com.liferay.portal.kernel.util.TextFormatter;
+import com.liferay.portal.kernel.util.Time;
+import com.liferay.portal.kernel.util.WebKeys;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+import javax.portlet.ResourceRequest;
+import javax.portlet.ResourceResponse;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Returns the estimated cost of the dimensions entered in the image resolution
+ * form, so that it can be reviewed before the configuration is saved. If a
+ * resolution for high density displays is also requested, the cost of that
+ * resolution, with twice the dimensions, is included.
+ *
+ * @author Sergio González
+ */
+@Component(
+	immediate = true,
+	property = {
+		"javax.portlet.name=" + AdaptiveMediaPortletKeys.ADAPTIVE_MEDIA,
+		"mvc.command.name=/adaptive_media/estimate_image_configuration_entry"
+	},
+	service = MVCResourceCommand.class
+)
+public class EstimateImageConfigurationEntryMVCResourceCommand
+	extends BaseMVCResourceCommand {
+
+	@Override
+	protected void doServeResource(
+			ResourceRequest resourceRequest, ResourceResponse resourceResponse)
+		throws Exception {
+
+		ThemeDisplay themeDisplay = (ThemeDisplay)resourceRequest.getAttribute(
+			WebKeys.THEME_DISPLAY);
+
+		PermissionChecker permissionChecker =
+			themeDisplay.getPermissionChecker();
+
+		if (!permissionChecker.isCompanyAdmin()) {
+			throw new PrincipalException();
+		}
+
+		String maxHeight = ParamUtil.getString(resourceRequest, "maxHeight");
+		String maxWidth = ParamUtil.getString(resourceRequest, "maxWidth");
+
+		Map<String, String> properties = new HashMap<>();
+
+		properties.put("max-height", maxHeight);
+		properties.put("max-width", maxWidth);
+
+		List<Map<String, String>> propertiesList = new ArrayList<>();
+
+		propertiesList.add(properties);
+
+		boolean addHighResolution = ParamUtil.getBoolean(
+			resourceRequest, "addHighResolution");
+
+		if (addHighResolution) {
+			Map<String, String> highResolutionProperties = new HashMap<>();
+
+			highResolutionProperties.put(
+				"max-height",
+				String.valueOf(GetterUtil.getInteger(maxHeight) * 2));
+			highResolutionProperties.put(
+				"max-width",
+				String.valueOf(GetterUtil.getInteger(maxWidth) * 2));
+
+			propertiesList.add(highResolutionProperties);
+		}
+
+		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
+			"content.Language", themeDisplay.getLocale(), getClass());
+
+		JSONObject jsonObject = JSONFactoryUtil.createJSONObject();
+
+		try {
+			long estimatedCount = 0;
+			long estimatedCPUTime = 0;
+			long estimatedSize = 0;
+			int processedCount = 0;
+
+			for (Map<String, String> curProperties : propertiesList) {
+				AdaptiveMediaImageCostEstimate costEstimate =
+					_costEstimator.estimate(
+						themeDisplay.getCompanyId(), curProperties,
+						_SAMPLE_SIZE);
+
+				estimatedCount += costEstimate.getEstimatedCount();
+				estimatedCPUTime += TimeUnit.NANOSECONDS.toMillis(
+					costEstimate.getEstimatedCPUTime());
+				estimatedSize += costEstimate.getEstimatedSize();
+				processedCount = Math.max(
+					processedCount, costEstimate.getProcessedCount());
+			}
+
+			jsonObject.put("estimatedCount", estimatedCount);
+			jsonObject.put("estimatedCPUTime", estimatedCPUTime);
+			jsonObject.put("estimatedSize", estimatedSize);
+
+			Object[] arguments = {
+				estimatedCount,
+				TextFormatter.formatStorageSize(
+					(double)estimatedSize, themeDisplay.getLocale()),
+				Time.getDescription(estimatedCPUTime, true), processedCount
+			};
+
+			jsonObject.put(
+				"message",
+				LanguageUtil.format(
+					resourceBundle,
+					"estimated-x-images-x-and-x-of-cpu-time-from-x-samples",
+					arguments));
+		}
+		catch (AdaptiveMediaImageConfigurationException amice) {
+			String message = LanguageUtil.get(
+				resourceBundle,
+				"please-enter-a-max-width-or-max-height-value-larger-than-0");
+
+			jsonObject.put("error", message);
+		}
+
+		JSONPortletResponseUtil.writeJSON(
+			resourceRequest, resourceResponse, jsonObject);
+	}
+
+	@Reference(unbind = "-")
+	protected void setAdaptiveMediaImageCostEstimator(
+		AdaptiveMediaImageCostEstimator costEstimator) {
+
+		_costEstimator = costEstimator;
+	}
+
+	private static final int _SAMPLE_SIZE = 10;
+
+	private AdaptiveMediaImageCostEstimator _costEstimator;
+
+}
\ No newline at end of file
@@ -64,6 +64,7 @@ public class OptimizeImagesMVCActionCommand extends BaseMVCActionCommand {
 			WebKeys.THEME_DISPLAY);
 
 		String entryUuid = ParamUtil.getString(actionRequest, "entryUuid");
+		long groupId = ParamUtil.getLong(actionRequest, "groupId");
 
 		final String jobName = "optimizeImages-".concat(_portalUUID.generate());
 
@@ -74,18 +75,24 @@ public class OptimizeImagesMVCActionCommand extends BaseMVCActionCommand {
 		}
 		else {
 			_optimizeImages(
-				themeDisplay.getUserId(), themeDisplay.getCompanyId(), jobName);
+				themeDisplay.getUserId(), themeDisplay.getCompanyId(), groupId,
+				jobName);
 		}
 	}
 
 	private BackgroundTask _optimizeImages(
-			long userId, long companyId, String jobName)
+			long userId, long companyId, long groupId, String jobName)
 		throws PortalException {
 
 		Map<String, Serializable> taskContextMap = new HashMap<>();
 
 		taskContextMap.put(
 			OptimizeImagesBackgroundTaskConstants.COMPANY_ID, companyId);
+
+		if (groupId > 0) {
+			taskContextMap.put(
+				OptimizeImagesBackgroundTaskConstants.GROUP_ID, groupId);
+		}
 		taskContextMap.put(
 			BackgroundTaskContextMapConstants.DELETE_ON_SUCCESS, true);
 
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.adaptive.media.web.internal.portlet.action;
+
+import com.liferay.adaptive.media.image.configuration.AdaptiveMediaImageConfigurationHelper;
+import com.liferay.adaptive.media.image.service.AdaptiveMediaImageEntryLocalService;
+import com.liferay.adaptive.media.web.constants.AdaptiveMediaPortletKeys;
+import com.liferay.adaptive.media.web.internal.constants.AdaptiveMediaWebKeys;
+import com.liferay.adaptive.media.web.internal.display.context.StorageStatsDisplayContext;
+import com.liferay.portal.kernel.portlet.bridges.mvc.MVCRenderCommand;
+import com.liferay.portal.kernel.service.GroupLocalService;
+
+import javax.portlet.RenderRequest;
+import javax.portlet.RenderResponse;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Sergio González
+ */
+@Component(
+	immediate = true,
+	property = {
+		"javax.portlet.name=" + AdaptiveMediaPortletKeys.ADAPTIVE_MEDIA,
+		"mvc.command.name=/adaptive_media/view_storage_stats"
+	},
+	service = MVCRenderCommand.class
+)
+public class ViewStorageStatsMVCRenderCommand implements MVCRenderCommand {
+
+	@Override
+	public String render(
+		RenderRequest renderRequest, RenderResponse renderResponse) {
+
+		StorageStatsDisplayContext storageStatsDisplayContext =
+			new StorageStatsDisplayContext(
+				renderRequest, _configurationHelper, _imageEntryLocalService,
+				_groupLocalService);
+
+		renderRequest.setAttribute(
+			AdaptiveMediaWebKeys.STORAGE_STATS_DISPLAY_CONTEXT,
+			storageStatsDisplayContext);
+
+		return "/adaptive_media/view_storage_stats.jsp";
+	}
+
+	@Reference
+	private AdaptiveMediaImageConfigurationHelper _configurationHelper;
+
+	@Reference
+	private GroupLocalService _groupLocalService;
+
+	@Reference
+	private AdaptiveMediaImageEntryLocalService _imageEntryLocalService;
+
+}
@@ -86,6 +86,10 @@ if (configurationEntry != null) {
 					</div>
 				</div>
 
+				<c:if test="<%= configurationEntryEditable %>">
+					<div class="alert alert-info hide" id="<portlet:namespace />estimate"></div>
+				</c:if>
+
 				<div class="row">
 					<div class="col-md-12">
 						<c:if test="<%= configurationEntry == null %>">
@@ -127,15 +131,22 @@ if (configurationEntry != null) {
 		<aui:button-row>
 			<aui:button cssClass="btn-lg" type="submit" />
 
+			<c:if test="<%= configurationEntryEditable %>">
+				<aui:button cssClass="btn-lg" name="estimateButton" value="estimate-cost" />
+			</c:if>
+
 			<aui:button cssClass="btn-lg" href="<%= redirect %>" type="cancel" />
 		</aui:button-row>
 	</aui:form>
 </div>
 
 <c:if test="<%= configurationEntryEditable %>">
+	<portlet:resourceURL id="/adaptive_media/estimate_image_configuration_entry" var="estimateImageConfigurationEntryURL" />
+
 	<aui:script require="adaptive-media-web/adaptive_media/js/EditAdaptiveMediaConfig.es">
 		new adaptiveMediaWebAdaptive_mediaJsEditAdaptiveMediaConfigEs.default(
 			{
+				estimateUrl: '<%= estimateImageConfigurationEntryURL %>',
 				namespace: '<portlet:namespace />'
 			}
 		);
@@ -1,3 +1,4 @@
+import Ajax from 'metal-ajax';
 import core from 'metal';
 import dom from 'metal-dom';
 import { EventHandler } from 'metal-events';
@@ -80,6 +81,14 @@ class EditAdaptiveMediaConfig extends PortletBase {
 		});
 
 		this.newUuidInput = this.one('#newUuid');
+
+		let estimateButton = this.one('#estimateButton');
+
+		if (estimateButton) {
+			this.eventHandler_.add(estimateButton.addEventListener('click', (event) => {
+				this.estimateCost_();
+			}));
+		}
 	}
 
 	/**
@@ -106,6 +115,40 @@ class EditAdaptiveMediaConfig extends PortletBase {
 		this._originalUuidChanged = true;
 	}
 
+	/**
+	 * Sends an ajax request to estimate the cost of the
+	 * entered dimensions and shows it without saving
+	 * the configuration. If a resolution for high density
+	 * displays is also going to be added, its cost is
+	 * included.
+	 *
+	 * @protected
+	 */
+	estimateCost_() {
+		let estimate = this.one('#estimate');
+
+		let addHighResolutionInput = this.one('#addHighResolution');
+
+		let addHighResolution = !!(addHighResolutionInput && addHighResolutionInput.checked);
+
+		let url = this.estimateUrl +
+			'&' + this.ns('addHighResolution') + '=' + addHighResolution +
+			'&' + this.ns('maxHeight') + '=' + encodeURIComponent(this.maxHeightInput.value) +
+			'&' + this.ns('maxWidth') + '=' + encodeURIComponent(this.maxWidthInput.value);
+
+		Ajax.request(url).then((xhr) => {
+			try {
+				let json = JSON.parse(xhr.response);
+
+				estimate.textContent = json.error || json.message;
+
+				dom.removeClasses(estimate, 'hide');
+			} catch(e) {
+				dom.addClasses(estimate, 'hide');
+			}
+		});
+	}
+
 	/**
 	 * Returns if the "Automatic" check is selected
 	 * @return {Boolean} whether the "Automatic" radiobutton is checked or not.
@@ -167,4 +210,24 @@ class EditAdaptiveMediaConfig extends PortletBase {
 	}
 }
 
+/**
+ * EditAdaptiveMediaConfig State definition.
+ * @ignore
+ * @static
+ * @type {!Object}
+ */
+EditAdaptiveMediaConfig.STATE = {
+	/**
+	 * Url to the resource that estimates the cost
+	 * of the entered dimensions.
+	 *
+	 * @instance
+	 * @memberof EditAdaptiveMediaConfig
+	 * @type {String}
+	 */
+	estimateUrl: {
+		validator: core.isString
+	}
+};
+
 export default EditAdaptiveMediaConfig;
\ No newline at end of file
@@ -25,6 +25,15 @@
 			label="image-resolutions"
 			selected="<%= true %>"
 		/>
+
+		<portlet:renderURL var="viewStorageStatsURL">
+			<portlet:param name="mvcRenderCommandName" value="/adaptive_media/view_storage_stats" />
+		</portlet:renderURL>
+
+		<aui:nav-item
+			href="<%= viewStorageStatsURL %>"
+			label="storage"
+		/>
 	</aui:nav>
 </aui:nav-bar>
 
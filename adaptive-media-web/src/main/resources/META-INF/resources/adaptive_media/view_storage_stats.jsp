@@ -0,0 +1,154 @@
+<%--
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+--%>
+
+
+<%@ include file="/adaptive_media/init.jsp" %>
+
+<%
+StorageStatsDisplayContext storageStatsDisplayContext = (StorageStatsDisplayContext)request.getAttribute(AdaptiveMediaWebKeys.STORAGE_STATS_DISPLAY_CONTEXT);
+
+String configurationUuid = storageStatsDisplayContext.getConfigurationUuid();
+%>
+
+<aui:nav-bar cssClass="collapse-basic-search" markupView="lexicon">
+	<aui:nav cssClass="navbar-nav">
+		<portlet:renderURL var="viewImageConfigurationEntriesURL" />
+
+		<aui:nav-item
+			href="<%= viewImageConfigurationEntriesURL %>"
+			label="image-resolutions"
+		/>
+
+		<portlet:renderURL var="viewStorageStatsURL">
+			<portlet:param name="mvcRenderCommandName" value="/adaptive_media/view_storage_stats" />
+		</portlet:renderURL>
+
+		<aui:nav-item
+			href="<%= viewStorageStatsURL %>"
+			label="storage"
+			selected="<%= true %>"
+		/>
+	</aui:nav>
+</aui:nav-bar>
+
+<div class="container-fluid-1280">
+	<h4>
+		<liferay-ui:message key="image-resolutions" />
+	</h4>
+
+	<liferay-ui:search-container
+		emptyResultsMessage="there-are-no-optimized-images"
+		id="configurationStorageStats"
+		total="<%= storageStatsDisplayContext.getStorageStatsByConfiguration().size() %>"
+	>
+		<liferay-ui:search-container-results
+			results="<%= storageStatsDisplayContext.getStorageStatsByConfiguration() %>"
+		/>
+
+		<liferay-ui:search-container-row
+			className="com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats"
+			modelVar="storageStats"
+		>
+			<liferay-portlet:renderURL varImpl="rowURL">
+				<portlet:param name="mvcRenderCommandName" value="/adaptive_media/view_storage_stats" />
+				<portlet:param name="configurationUuid" value="<%= storageStats.getConfigurationUuid() %>" />
+			</liferay-portlet:renderURL>
+
+			<liferay-ui:search-container-column-text
+				cssClass="table-cell-content"
+				href="<%= rowURL %>"
+				name="name"
+				value="<%= HtmlUtil.escape(storageStatsDisplayContext.getConfigurationName(storageStats.getConfigurationUuid())) %>"
+			/>
+
+			<%@ include file="/adaptive_media/storage_stats_columns.jspf" %>
+		</liferay-ui:search-container-row>
+
+		<liferay-ui:search-iterator displayStyle="list" markupView="lexicon" paginate="<%= false %>" />
+	</liferay-ui:search-container>
+
+	<h4>
+		<c:choose>
+			<c:when test="<%= Validator.isNull(configurationUuid) %>">
+				<liferay-ui:message key="sites" />
+			</c:when>
+			<c:otherwise>
+				<liferay-ui:message arguments="<%= HtmlUtil.escape(storageStatsDisplayContext.getConfigurationName(configurationUuid)) %>" key="sites-for-x" />
+			</c:otherwise>
+		</c:choose>
+	</h4>
+
+	<liferay-ui:search-container
+		emptyResultsMessage="there-are-no-optimized-images"
+		id="groupStorageStats"
+		total="<%= storageStatsDisplayContext.getStorageStatsByGroup().size() %>"
+	>
+		<liferay-ui:search-container-results
+			results="<%= storageStatsDisplayContext.getStorageStatsByGroup() %>"
+		/>
+
+		<liferay-ui:search-container-row
+			className="com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats"
+			modelVar="storageStats"
+		>
+			<liferay-ui:search-container-column-text
+				cssClass="table-cell-content"
+				name="site"
+				value="<%= HtmlUtil.escape(storageStatsDisplayContext.getGroupName(storageStats.getGroupId())) %>"
+			/>
+
+			<%@ include file="/adaptive_media/storage_stats_columns.jspf" %>
+		</liferay-ui:search-container-row>
+
+		<liferay-ui:search-iterator displayStyle="list" markupView="lexicon" paginate="<%= false %>" />
+	</liferay-ui:search-container>
+
+	<h4>
+		<c:choose>
+			<c:when test="<%= Validator.isNull(configurationUuid) %>">
+				<liferay-ui:message key="mime-types" />
+			</c:when>
+			<c:otherwise>
+				<liferay-ui:message arguments="<%= HtmlUtil.escape(storageStatsDisplayContext.getConfigurationName(configurationUuid)) %>" key="mime-types-for-x" />
+			</c:otherwise>
+		</c:choose>
+	</h4>
+
+	<liferay-ui:search-container
+		emptyResultsMessage="there-are-no-optimized-images"
+		id="mimeTypeStorageStats"
+		total="<%= storageStatsDisplayContext.getStorageStatsByMimeType().size() %>"
+	>
+		<liferay-ui:search-container-results
+			results="<%= storageStatsDisplayContext.getStorageStatsByMimeType() %>"
+		/>
+
+		<liferay-ui:search-container-row
+			className="com.liferay.adaptive.media.image.stats.AdaptiveMediaImageStorageStats"
+			modelVar="storageStats"
+		>
+			<liferay-ui:search-container-column-text
+				cssClass="table-cell-content"
+				name="mime-type"
+				value="<%= HtmlUtil.escape(storageStats.getMimeType()) %>"
+			/>
+
+			<%@ include file="/adaptive_media/storage_stats_columns.jspf" %>
+		</liferay-ui:search-container-row>
+
+		<liferay-ui:search-iterator displayStyle="list" markupView="lexicon" paginate="<%= false %>" />
+	</liferay-ui:search-container>
+</div>